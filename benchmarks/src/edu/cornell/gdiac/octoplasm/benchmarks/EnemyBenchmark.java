@@ -0,0 +1,74 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import edu.cornell.gdiac.octoplasm.EnemyController;
+import edu.cornell.gdiac.octoplasm.Simulation;
+import edu.cornell.gdiac.octoplasm.TargetDetector;
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessGame;
+import edu.cornell.gdiac.octoplasm.entity.EnemyEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the enemy AI on the shipped levels.
+ *
+ * The detection benchmark is what EnemyController.detectTarget does for every enemy in
+ * a frame (the method itself is private, and only passes the enemy on to a
+ * {@link TargetDetector}). The update benchmark is the whole of
+ * {@link EnemyController#update}, detection included.
+ *
+ * Each level is played for a second first, so that the octopi have left their starting
+ * spots and some enemies are chasing them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyBenchmark {
+	/** How many ticks to play before measuring */
+	private static final int SETTLE_TICKS = 60;
+
+	/** The level to measure */
+	@Param({"world1_1", "world1_9", "world2_3", "world2_10"})
+	public String level;
+
+	/** The level being measured */
+	private HeadlessGame game;
+	/** The enemies of the level */
+	private ArrayList<EnemyEntity> enemies;
+	/** The detector used for the detection benchmark */
+	private TargetDetector detector;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		game = new HeadlessGame(level);
+		for (int tick = 0; tick < SETTLE_TICKS; tick++) {
+			game.step(Simulation.WORLD_STEP);
+		}
+		enemies = game.getEnemyController().getEnemies();
+		detector = new TargetDetector();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		game.dispose();
+	}
+
+	@Benchmark
+	public void detectTarget(Blackhole blackhole) {
+		for (int i = 0; i < enemies.size(); i++) {
+			blackhole.consume(detector.findTarget(enemies.get(i), game.getWorld()));
+		}
+	}
+
+	@Benchmark
+	public void update() {
+		game.getEnemyController().update(Simulation.WORLD_STEP, game.getOctopusController().getOctopusList(),
+				false, game.getWorld());
+	}
+}
@@ -0,0 +1,127 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.AnimationStateData;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import edu.cornell.gdiac.assets.SkeletonDataLoader;
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessLevels;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Builds the fixtures of the benchmarks from the shipped levels and Spine skeletons.
+ *
+ * The levels are loaded with {@link HeadlessLevels}, so the benchmarks must be run with
+ * the assets folder as the working directory (see the jmh task).
+ */
+public class Fixtures {
+	/** How far into its first animation each skeleton is posed, in seconds */
+	private static final float POSE_TIME = 0.5f;
+
+	/** Whether the graphics stubs have been set up */
+	private static boolean graphics;
+
+	/**
+	 * Loads the Box2D natives, the file system and the entity texture sizes.
+	 *
+	 * This is safe to call more than once.
+	 */
+	public static void init() throws IOException {
+		HeadlessLevels.init();
+	}
+
+	/**
+	 * Loads every shipped skeleton from its binary export and poses it for drawing.
+	 *
+	 * The atlases are loaded as the game loads them, against the GL stubs (see
+	 * {@link #stubGraphics()}), so the attachments have real regions. Each skeleton is
+	 * posed partway into its first animation, so that drawing it does the same work as
+	 * drawing a character in the game.
+	 *
+	 * @return a posed skeleton of every shipped Spine export
+	 */
+	public static Array<Skeleton> loadSkeletons() throws IOException {
+		init();
+		stubGraphics();
+		Array<Skeleton> skeletons = new Array<>();
+		for (FileHandle folder : Gdx.files.local("spines").list()) {
+			FileHandle binary = folder.child("skeleton" + SkeletonDataLoader.BINARY_EXTENSION);
+			if (!binary.exists()) {
+				continue;
+			}
+			TextureAtlas atlas = new TextureAtlas(folder.child("skeleton.atlas"));
+			SkeletonData data = new SkeletonBinary(atlas).readSkeletonData(binary);
+			Skeleton skeleton = new Skeleton(data);
+			skeleton.setPosition(640, 360);
+			if (data.getAnimations().size > 0) {
+				AnimationState state = new AnimationState(new AnimationStateData(data));
+				state.setAnimation(0, data.getAnimations().first(), true);
+				state.update(POSE_TIME);
+				state.apply(skeleton);
+			}
+			skeleton.updateWorldTransform();
+			skeletons.add(skeleton);
+		}
+		return skeletons;
+	}
+
+	/**
+	 * Loads the libGDX natives and stands in for the application, graphics and GL, so that
+	 * a batch can be constructed.
+	 *
+	 * Every GL call does nothing, so nothing can be drawn; this is only for constructing
+	 * textures and a {@link NullBatch}.
+	 * This is safe to call more than once.
+	 */
+	public static void stubGraphics() {
+		if (graphics) return;
+		GdxNativesLoader.load();
+		Gdx.app = stub(Application.class);
+		Gdx.graphics = stub(Graphics.class);
+		Gdx.gl = Gdx.gl20 = stub(GL20.class);
+		graphics = true;
+	}
+
+	/**
+	 * Returns an implementation of the interface that does nothing.
+	 *
+	 * Every method returns false, zero or null, except for the methods of Object, which
+	 * behave as they would for any other object.
+	 *
+	 * @param type the interface to implement
+	 *
+	 * @return an implementation of the interface that does nothing
+	 */
+	private static <T> T stub(final Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getDeclaringClass() == Object.class) {
+					if (method.getName().equals("equals")) return proxy == args[0];
+					if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+					return type.getSimpleName();
+				}
+				Class<?> result = method.getReturnType();
+				if (result == boolean.class) return false;
+				if (result == int.class) return 0;
+				if (result == long.class) return 0L;
+				if (result == float.class) return 0f;
+				if (result == double.class) return 0.0;
+				return null;
+			}
+		}));
+	}
+}
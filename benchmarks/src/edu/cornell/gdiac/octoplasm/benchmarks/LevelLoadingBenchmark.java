@@ -0,0 +1,81 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.EnemyController;
+import edu.cornell.gdiac.octoplasm.ObstacleController;
+import edu.cornell.gdiac.octoplasm.OctopusController;
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessLevels;
+import edu.cornell.gdiac.octoplasm.entity.Entity;
+import edu.cornell.gdiac.octoplasm.util.LevelLoader;
+import edu.cornell.gdiac.octoplasm.util.LevelModel;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the shipped levels, from parsing the JSON to building the Box2D world.
+ *
+ * Populating a level needs an empty world and controllers every time, so they are made
+ * before each invocation and freed after it, outside of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelLoadingBenchmark {
+	/** The level to measure */
+	@Param({"world1_1", "world1_9", "world2_3", "world2_10"})
+	public String level;
+
+	/** The world to populate */
+	private World world;
+	/** The list to populate */
+	private PooledList<Entity> objects;
+	/** The octopus controller to populate */
+	private OctopusController OC;
+	/** The enemy controller to populate */
+	private EnemyController EC;
+	/** The obstacle controller to populate */
+	private ObstacleController BC;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		// Populating reads the cached model, so parse it before the first invocation
+		LevelLoader.loadLevel(level);
+	}
+
+	@Setup(Level.Invocation)
+	public void createWorld() {
+		world = new World(new Vector2(0, 0), false);
+		objects = new PooledList<>();
+		Array<String> assets = new Array<>();
+		OC = new OctopusController(HeadlessLevels.SCALE, null, assets);
+		EC = new EnemyController(HeadlessLevels.SCALE, null, assets);
+		BC = new ObstacleController(null, HeadlessLevels.SCALE, assets);
+	}
+
+	@TearDown(Level.Invocation)
+	public void disposeWorld() {
+		world.dispose();
+		for (Entity entity : objects) {
+			entity.dispose();
+		}
+	}
+
+	@Benchmark
+	public LevelModel parseJson() throws Exception {
+		return LevelLoader.parseJson(level);
+	}
+
+	@Benchmark
+	public PooledList<Entity> populateLevel() throws Exception {
+		HeadlessLevels.populate(level, world, objects, OC, EC, BC);
+		return objects;
+	}
+}
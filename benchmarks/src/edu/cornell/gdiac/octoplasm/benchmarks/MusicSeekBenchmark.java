@@ -0,0 +1,71 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.audio.AudioStream;
+import edu.cornell.gdiac.backend.audio.Mp3Source;
+import edu.cornell.gdiac.backend.audio.OggSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures seeking in the shipped music, as AudioController does on every music change.
+ *
+ * Each invocation seeks a stream to the next of a fixed set of random positions, into a
+ * buffer the size of a music buffer page, so both forward and backward seeks are measured.
+ * The seek index of the file is built (or loaded from the cache) outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MusicSeekBenchmark {
+	/** The number of positions to cycle through */
+	private static final int POSITIONS = 64;
+	/** The size of a page of a music buffer in bytes */
+	private static final int PAGE_SIZE = 16384;
+
+	/** The file to seek in */
+	@Param({"music/main_menu.ogg", "music/Cave-v0.3FullExports/cave_all.ogg",
+			"music/Ship-v0.1FullExports/ship_all.ogg", "music/foley/underwater_ambiance.ogg",
+			"sounds/gameplay/boomer-explosion.mp3"})
+	public String file;
+
+	/** The stream being sought in */
+	private AudioStream stream;
+	/** The byte positions to seek to, each at the start of an audio frame */
+	private long[] positions;
+	/** The buffer the audio at each position is read into */
+	private byte[] page;
+	/** The next position to seek to */
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		FileHandle handle = Gdx.files.internal(file);
+		AudioSource source = file.endsWith(".mp3") ? new Mp3Source(handle) : new OggSource(handle);
+		stream = source.getStream();
+
+		long frame = 2 * source.getChannels();
+		long limit = Math.max(stream.getByteSize() - PAGE_SIZE, frame);
+		Random random = new Random(0);
+		positions = new long[POSITIONS];
+		for (int i = 0; i < POSITIONS; i++) {
+			positions[i] = (long) (random.nextDouble() * limit) / frame * frame;
+		}
+		page = new byte[PAGE_SIZE];
+	}
+
+	@Benchmark
+	public int seek() {
+		int length = stream.seek(positions[next], page);
+		next = (next + 1) % POSITIONS;
+		return length;
+	}
+}
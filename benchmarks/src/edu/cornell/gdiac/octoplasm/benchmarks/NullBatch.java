@@ -0,0 +1,77 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * A polygon batch that counts what it is given instead of drawing it.
+ *
+ * This is a {@link PolygonSpriteBatch} rather than any {@link com.badlogic.gdx.graphics.g2d.Batch}
+ * because the skeleton renderer takes a different path for polygon batches, and that is
+ * the path the game takes. The counts are kept so that the work of the caller cannot be
+ * optimized away.
+ *
+ * {@link Fixtures#stubGraphics()} must be called first.
+ */
+public class NullBatch extends PolygonSpriteBatch {
+	/** The number of vertex floats given to the batch */
+	private long vertexCount;
+	/** The number of triangles given to the batch */
+	private long triangleCount;
+
+	/**
+	 * Creates a batch that draws nothing.
+	 */
+	public NullBatch() {
+		// A shader must be given, as the default shader fails to compile without a GL context
+		super(2000, 4000, new ShaderProgram("", ""));
+	}
+
+	/**
+	 * Returns the number of vertex floats given to the batch.
+	 *
+	 * @return the number of vertex floats given to the batch
+	 */
+	public long getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * Returns the number of triangles given to the batch.
+	 *
+	 * @return the number of triangles given to the batch
+	 */
+	public long getTriangleCount() {
+		return triangleCount;
+	}
+
+	@Override
+	public void begin() {
+	}
+
+	@Override
+	public void end() {
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void setBlendFunction(int srcFunc, int dstFunc) {
+	}
+
+	@Override
+	public void draw(Texture texture, float[] polygonVertices, int verticesOffset, int verticesCount,
+					 short[] polygonTriangles, int trianglesOffset, int trianglesCount) {
+		vertexCount += verticesCount;
+		triangleCount += trianglesCount / 3;
+	}
+
+	@Override
+	public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+		vertexCount += count;
+		triangleCount += count / 10;
+	}
+}
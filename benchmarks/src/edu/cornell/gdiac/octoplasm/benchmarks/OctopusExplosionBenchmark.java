@@ -0,0 +1,83 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import edu.cornell.gdiac.octoplasm.OctopusController;
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessGame;
+import edu.cornell.gdiac.octoplasm.entity.EnemyEntity;
+import edu.cornell.gdiac.octoplasm.entity.Entity;
+import edu.cornell.gdiac.octoplasm.entity.ObstacleEntity;
+import edu.cornell.gdiac.octoplasm.entity.OctopusEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OctopusController#explosion} on the shipped levels.
+ *
+ * Each explosion goes off at the next octopus of the level in turn. An explosion kills
+ * enemies and breaks walls, so everything it took out is put back before the next one,
+ * outside of the measurement; otherwise every explosion after the first would find an
+ * empty level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OctopusExplosionBenchmark {
+	/** The level to measure */
+	@Param({"world1_1", "world1_9", "world2_3", "world2_10"})
+	public String level;
+
+	/** The level being measured */
+	private HeadlessGame game;
+	/** The octopi of the level, which take turns exploding */
+	private ArrayList<OctopusEntity> octopi;
+	/** The enemies and breakable walls an explosion can take out */
+	private ArrayList<Entity> breakable;
+	/** The index of the next octopus to explode */
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		game = new HeadlessGame(level);
+		octopi = game.getOctopusController().getOctopusList();
+		breakable = new ArrayList<>();
+		for (Entity entity : game.getObjects()) {
+			if (!entity.isActive()) {
+				continue;
+			}
+			if (entity.getEntityType() == Entity.EntityType.ENEMY || (entity.getEntityType() == Entity.EntityType.OBSTACLE
+					&& ((ObstacleEntity) entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FIGHT_WALL)) {
+				breakable.add(entity);
+			}
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void restore() {
+		for (int i = 0; i < breakable.size(); i++) {
+			Entity entity = breakable.get(i);
+			if (!entity.isActive()) {
+				entity.setActive(true);
+			}
+			if (entity.getEntityType() == Entity.EntityType.ENEMY) {
+				((EnemyEntity) entity).setAlive(true);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		game.dispose();
+	}
+
+	@Benchmark
+	public void explosion() {
+		OctopusEntity exploder = octopi.get(next);
+		next = (next + 1) % octopi.size();
+		game.getOctopusController().explosion(exploder, game.getWorld());
+	}
+}
@@ -0,0 +1,90 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessGame;
+import edu.cornell.gdiac.octoplasm.entity.Entity;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures walking and pruning the entity list of the shipped levels.
+ *
+ * The list holds the entities of the level in the order the game adds them. The removal
+ * benchmark takes out every REMOVE_PERIOD-th entity through the entry iterator, the way
+ * postUpdate garbage collects removed entities, then adds them back to the end so that
+ * every invocation starts with a list of the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledListBenchmark {
+	/** How often an entity is removed in the removal benchmark */
+	private static final int REMOVE_PERIOD = 4;
+
+	/** The level to take the entities from */
+	@Param({"world1_1", "world1_9", "world2_3", "world2_10"})
+	public String level;
+
+	/** The level the entities come from */
+	private HeadlessGame game;
+	/** The list being measured */
+	private PooledList<Entity> objects;
+	/** The entities taken out by the removal benchmark */
+	private ArrayList<Entity> removed;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		game = new HeadlessGame(level);
+		objects = new PooledList<>();
+		for (Entity entity : game.getObjects()) {
+			objects.add(entity);
+		}
+		removed = new ArrayList<>();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		game.dispose();
+	}
+
+	@Benchmark
+	public void iterate(Blackhole blackhole) {
+		for (Entity entity : objects) {
+			blackhole.consume(entity);
+		}
+	}
+
+	@Benchmark
+	public void iterateEntries(Blackhole blackhole) {
+		Iterator<PooledList<Entity>.Entry> iterator = objects.entryIterator();
+		while (iterator.hasNext()) {
+			blackhole.consume(iterator.next().getValue());
+		}
+	}
+
+	@Benchmark
+	public int removeAndAdd() {
+		Iterator<PooledList<Entity>.Entry> iterator = objects.entryIterator();
+		int index = 0;
+		while (iterator.hasNext()) {
+			PooledList<Entity>.Entry entry = iterator.next();
+			if (index++ % REMOVE_PERIOD == 0) {
+				removed.add(entry.getValue());
+				entry.remove();
+			}
+		}
+		for (int i = 0; i < removed.size(); i++) {
+			objects.add(removed.get(i));
+		}
+		removed.clear();
+		return objects.size();
+	}
+}
@@ -0,0 +1,46 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning the shipped Spine skeletons into batch vertices.
+ *
+ * Every skeleton is drawn once per invocation with the same renderer settings as
+ * GameCanvas, into a {@link NullBatch} so that only the work of the renderer is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkeletonDrawBenchmark {
+	/** A posed skeleton of every shipped Spine export */
+	private Array<Skeleton> skeletons;
+	/** The renderer, set up as in GameCanvas */
+	private SkeletonRenderer renderer;
+	/** The batch that counts the vertices */
+	private NullBatch batch;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		skeletons = Fixtures.loadSkeletons();
+		Fixtures.stubGraphics();
+		renderer = new SkeletonRenderer();
+		renderer.setPremultipliedAlpha(true);
+		batch = new NullBatch();
+	}
+
+	@Benchmark
+	public long draw() {
+		for (int i = 0; i < skeletons.size; i++) {
+			renderer.draw(batch, skeletons.get(i));
+		}
+		return batch.getVertexCount();
+	}
+}
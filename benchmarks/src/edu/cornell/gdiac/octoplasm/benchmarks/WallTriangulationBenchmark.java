@@ -0,0 +1,55 @@
+package edu.cornell.gdiac.octoplasm.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.desktop.HeadlessLevels;
+import edu.cornell.gdiac.octoplasm.entity.WallEntity;
+import edu.cornell.gdiac.octoplasm.util.LevelLoader;
+import edu.cornell.gdiac.octoplasm.util.LevelModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the walls of the shipped levels, which triangulates their polygons.
+ *
+ * The wall vertices are scaled the same way LevelLoader.populateWalls scales them, and
+ * each invocation builds every wall of the level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WallTriangulationBenchmark {
+	/** The level to take the walls from */
+	@Param({"world1_1", "world1_9", "world2_3", "world2_10"})
+	public String level;
+
+	/** The scaled vertices of every wall in the level */
+	private Array<float[]> walls;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Fixtures.init();
+		LevelModel model = LevelLoader.loadLevel(level);
+		walls = new Array<>();
+		for (int i = 0; i < model.getWallCount(); i++) {
+			float[] points = model.getWallVertices(i, new float[model.getWallLength(i)]);
+			for (int j = 0; j < points.length; j++) {
+				points[j] *= j % 2 == 0 ? HeadlessLevels.SCALE.x : HeadlessLevels.SCALE.y;
+			}
+			walls.add(points);
+		}
+	}
+
+	@Benchmark
+	public void triangulate(Blackhole blackhole) {
+		for (int i = 0; i < walls.size; i++) {
+			WallEntity wall = new WallEntity(walls.get(i), 0, 0);
+			blackhole.consume(wall.getVertices());
+			wall.dispose();
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * SkeletonDataLoader.java
+ *
+ * This is a loader for Spine skeletons, so that they are parsed by the asset manager
+ * off the main thread like any other asset, instead of when the game starts.
+ *
+ * This code is based on the template for SoundBufferLoader.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.*;
+import com.badlogic.gdx.assets.loaders.*;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.DataInput;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.attachments.AtlasAttachmentLoader;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * This class is an {@link AssetLoader} to load Spine {@link SkeletonData} assets.
+ *
+ * A skeleton asset should be specified by the filename of its JSON export. If there is a
+ * binary export with the same name and the extension {@link #BINARY_EXTENSION} next to it,
+ * that is read instead, since it is smaller and faster to parse, unless the JSON has been
+ * exported again since (@see isCurrent). The texture atlas of the
+ * skeleton is loaded first as a dependency; by default it is the file with the same name
+ * and the extension .atlas.
+ */
+public class SkeletonDataLoader extends AsynchronousAssetLoader<SkeletonData, SkeletonDataLoader.SkeletonDataParameters> {
+    /** The extension of a binary skeleton, which is read instead of the JSON when it is current */
+    public static final String BINARY_EXTENSION = ".skel";
+    /** The parser factory for reading the hash of a JSON skeleton */
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** The asynchronously read SkeletonData */
+    private SkeletonData cachedData;
+
+    /**
+     * The definable parameters for a {@link SkeletonData}.
+     */
+    static public class SkeletonDataParameters extends AssetLoaderParameters<SkeletonData> {
+        /** The texture atlas of the skeleton, or null for the atlas next to the skeleton */
+        public String atlas;
+        /** The scale of bone positions, image sizes and translations */
+        public float scale = 1;
+    }
+
+    /**
+     * Creates a new SkeletonDataLoader with an internal file resolver
+     */
+    public SkeletonDataLoader() {
+        this(new InternalFileHandleResolver());
+    }
+
+    /**
+     * Creates a new SkeletonDataLoader with the given file resolver
+     *
+     * @param resolver    The file resolver
+     */
+    public SkeletonDataLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Reads a skeleton, preferring its binary export over the JSON if it is current.
+     *
+     * @param file      The JSON export of the skeleton
+     * @param loader    The loader that creates the attachments
+     * @param scale     The scale of bone positions, image sizes and translations
+     *
+     * @return the skeleton data
+     */
+    public static SkeletonData readSkeletonData(FileHandle file, AttachmentLoader loader, float scale) {
+        FileHandle binary = file.sibling(file.nameWithoutExtension() + BINARY_EXTENSION);
+        if (binary.exists() && (!file.exists() || isCurrent(file, binary))) {
+            SkeletonBinary reader = new SkeletonBinary(loader);
+            reader.setScale(scale);
+            return reader.readSkeletonData(binary);
+        }
+        SkeletonJson reader = new SkeletonJson(loader);
+        reader.setScale(scale);
+        return reader.readSkeletonData(file);
+    }
+
+    /**
+     * Returns whether a binary skeleton was converted from the JSON export as it is now.
+     *
+     * Spine gives each export a hash of the skeleton, which is the first thing in both the
+     * JSON and the binary. If the JSON was exported again without converting it, the
+     * hashes differ. A JSON without a hash is never assumed to match.
+     *
+     * @param file      The JSON export of the skeleton
+     * @param binary    The binary export of the skeleton
+     *
+     * @return whether the binary export matches the JSON export
+     */
+    public static boolean isCurrent(FileHandle file, FileHandle binary) {
+        String hash = readJsonHash(file);
+        if (hash == null || hash.isEmpty()) {
+            return false;
+        }
+        DataInput input = new DataInput(binary.read(64));
+        try {
+            return hash.equals(input.readString());
+        } catch (IOException e) {
+            return false;
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * Returns the hash in the "skeleton" object at the top of a JSON export.
+     *
+     * Only the start of the file is read, so this is much cheaper than parsing it.
+     *
+     * @param file      The JSON export of the skeleton
+     *
+     * @return the hash of the skeleton, or null if it has none
+     */
+    private static String readJsonHash(FileHandle file) {
+        JsonParser parser = null;
+        try {
+            parser = JSON.createParser(file.read());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean skeleton = "skeleton".equals(parser.getCurrentName());
+                if (parser.nextToken() != JsonToken.START_OBJECT || !skeleton) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    if (name.equals("hash")) {
+                        return parser.getValueAsString();
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (IOException e) {
+                    // Nothing left to read
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads thread-safe part of the asset and injects any dependencies into the AssetManager.
+     *
+     * The skeleton is parsed here, as attaching the regions of an atlas that is already
+     * loaded does not need OpenGL.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, SkeletonDataParameters params) {
+        TextureAtlas atlas = manager.get(atlasName(fileName, params), TextureAtlas.class);
+        float scale = params == null ? 1 : params.scale;
+        cachedData = readSkeletonData(file, new AtlasAttachmentLoader(atlas), scale);
+    }
+
+    /**
+     * Loads the main thread part of the asset.
+     *
+     * There is nothing left to do for a skeleton, so this returns what was parsed.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public SkeletonData loadSync(AssetManager manager, String fileName, FileHandle file, SkeletonDataParameters params) {
+        SkeletonData data = cachedData;
+        cachedData = null;
+        return data;
+    }
+
+    /**
+     * Returns the other assets this asset requires to be loaded first.
+     *
+     * This is the texture atlas of the skeleton.
+     *
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params parameters for loading the asset
+     *
+     * @return the other assets this asset requires to be loaded first.
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, SkeletonDataParameters params) {
+        Array<AssetDescriptor> deps = new Array<AssetDescriptor>(1);
+        deps.add(new AssetDescriptor<TextureAtlas>(atlasName(fileName, params), TextureAtlas.class));
+        return deps;
+    }
+
+    /**
+     * Returns the name of the texture atlas of a skeleton.
+     *
+     * @param fileName  The name of the skeleton asset
+     * @param params    The parameters of the skeleton asset, or null
+     *
+     * @return the name of the texture atlas asset
+     */
+    private static String atlasName(String fileName, SkeletonDataParameters params) {
+        if (params != null && params.atlas != null) {
+            return params.atlas;
+        }
+        int suffix = fileName.lastIndexOf('.');
+        return (suffix == -1 ? fileName : fileName.substring(0, suffix)) + ".atlas";
+    }
+}
@@ -164,4 +164,70 @@ public interface AudioEngine extends Audio {
      */
     public void resume();
 
+    /**
+     * Returns whether music buffers are refilled on a dedicated streaming thread.
+     *
+     * Otherwise they are refilled from the application thread on every frame.
+     *
+     * @return whether music buffers are refilled on a dedicated streaming thread.
+     */
+    public boolean isStreaming();
+
+    /**
+     * Returns the number of times a music buffer ran dry since the engine started.
+     *
+     * A music buffer runs dry when it is not refilled before OpenAL plays all of its
+     * queued audio, which is heard as a gap in the music.
+     *
+     * @return the number of times a music buffer ran dry since the engine started.
+     */
+    public long getUnderrunCount();
+
+    /**
+     * Returns the number of OpenAL buffers refilled with decoded music.
+     *
+     * @return the number of OpenAL buffers refilled with decoded music.
+     */
+    public long getRefillCount();
+
+    /**
+     * Returns the total time spent decoding music into OpenAL buffers, in nanoseconds.
+     *
+     * Divide this by {@link #getRefillCount()} for the average time per buffer.
+     *
+     * @return the total time spent decoding music into OpenAL buffers, in nanoseconds.
+     */
+    public long getDecodeTime();
+
+    /**
+     * Returns the longest time spent decoding a single music buffer, in nanoseconds.
+     *
+     * @return the longest time spent decoding a single music buffer, in nanoseconds.
+     */
+    public long getPeakDecodeTime();
+
+    /**
+     * Returns the number of sound buffers made without decoding their audio.
+     *
+     * Decoded audio is cached by file, so only the first sound buffer for a file decodes
+     * it, as long as it has not been evicted from the cache since.
+     *
+     * @return the number of sound buffers made without decoding their audio.
+     */
+    public long getSoundCacheHits();
+
+    /**
+     * Returns the number of sound buffers that had to decode their audio.
+     *
+     * @return the number of sound buffers that had to decode their audio.
+     */
+    public long getSoundCacheMisses();
+
+    /**
+     * Returns the number of bytes of decoded audio cached for sound buffers.
+     *
+     * @return the number of bytes of decoded audio cached for sound buffers.
+     */
+    public long getSoundCacheSize();
+
 }
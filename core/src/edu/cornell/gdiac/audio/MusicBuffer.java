@@ -165,8 +165,31 @@ public interface MusicBuffer extends Music {
      * @return the pan value of the music stream
      */
     public float getPan();
-    
-    /** 
+
+    /**
+     * Fades the volume of the music stream linearly to the given value.
+     *
+     * The fade is timed by the audio engine in seconds, and is stepped as the stream
+     * is refilled, so it takes the same time regardless of the frame rate.  The value
+     * of {@link #getVolume()} follows the fade.  Calling {@link #setVolume} (or this
+     * method again) replaces the fade in progress.
+     *
+     * A fade keeps time while the stream is stopped, but its volume is only stepped
+     * while the stream is playing.
+     *
+     * @param volume    The volume at the end of the fade, in range [0,1]
+     * @param duration  The length of the fade in seconds
+     */
+    public void fadeVolume(float volume, float duration);
+
+    /**
+     * Returns true if the volume of the music stream is fading.
+     *
+     * @return true if the volume of the music stream is fading.
+     */
+    public boolean isFading();
+
+    /**
      * Sets the loop behavior of this music buffer.
      *
      * Loop behavior may be local or global. If the stream has only one source,
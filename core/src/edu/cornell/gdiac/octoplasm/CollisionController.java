@@ -296,7 +296,7 @@ public class CollisionController implements ContactListener {
                 // grabbed collides with fold
 //                System.out.println("fold colliding with grabbed");
                 grabbed.setOctopusTeleportEntity(null);
-                grabbed.setLinearVelocity(new Vector2(0,0));
+                grabbed.setLinearVelocity(Vector2.Zero);
                 if (grabbed.getEntityType() == Entity.EntityType.OBSTACLE) {
                     // invariant: only obstacle that can be grabbed is fold wall
                     grabbed.setIsDead(true);
@@ -407,6 +407,14 @@ public class CollisionController implements ContactListener {
             ((BoxEntity)entity2).removeCollidingWith(entity1);
             refImage = "ui/gameplay/blank_ref.png";
         }
+
+        //wall sensor collisons for level editor
+        if(entity1.getEntityType() == Entity.EntityType.WALL && entity2.getEntityType() != Entity.EntityType.SELECTOR){
+            entity1.removeCollidingWith(entity2);
+        }
+        if(entity2.getEntityType() == Entity.EntityType.WALL && entity1.getEntityType() != Entity.EntityType.SELECTOR){
+            entity2.removeCollidingWith(entity1);
+        }
         // octopus and enemy collisions
         if (entity1.getEntityType() == Entity.EntityType.OCTOPUS
                 && entity2.getEntityType() == Entity.EntityType.ENEMY) {
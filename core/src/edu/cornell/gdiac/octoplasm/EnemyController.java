@@ -7,18 +7,17 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Fixture;
-import com.badlogic.gdx.physics.box2d.RayCastCallback;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.octoplasm.entity.*;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.util.FilmStrip;
+import edu.cornell.gdiac.octoplasm.util.TextureRegistry;
 //import jdk.internal.util.xml.impl.Pair;
 
 import java.util.*;
 /**
- * Controller for enemies. Handles enemy AI with ray-casting as well as enemy effects.
+ * Controller for enemies. Handles enemy AI with a {@link TargetDetector} as well as enemy effects.
  *
  * @author Tianlin Zhao
  */
@@ -84,8 +83,6 @@ public class EnemyController {
 
     /** The number of frames for the attack */
     public static final int COUNTER_FRAMES = 25;
-    /** The number of rays the ray-casting is going to take. */
-    public static final int RAY_COUNT = 360;
 
     /** Color of the detector indicator, for drawing */
     private static final Color DETECTED_INDICATOR_COLOR = new Color(Color.RED);
@@ -108,10 +105,8 @@ public class EnemyController {
     /** List that maintains the enemies */
     private ArrayList<EnemyEntity> enemyList;
 
-    /** Cache that stores the detected octopus by ray-casting */
-    private OctopusEntity rayDetectedEntityCache;
-    /** Callback that handles a ray-casting intersection event. */
-    private RayCastCallback callback;
+    /** Finds the closest visible octopus for each enemy */
+    private TargetDetector detector;
     /**  */
     private GameCanvas canvas;
     /**  */
@@ -120,14 +115,7 @@ public class EnemyController {
     /**  */
     private Vector2 cache1;
     /**  */
-    private Vector2 cache2;
-    /**  */
     private Color colorCache;
-
-    /**  */
-    private float closestFraction;
-    private float wall_fraction = 1.0f;
-    private float current_fraction = 1.0f;
     //#endregion
     //=================================
 
@@ -140,45 +128,14 @@ public class EnemyController {
      * @param assets the art assets that will be passed in for handling textures
      * */
     public EnemyController(Vector2 scale, GameCanvas canvas, Array<String> assets) {
-        rayDetectedEntityCache = null;
-        closestFraction = 0f;
         this.canvas = canvas;
         this.scale = scale;
         this.assets = assets;
-        this.wall_fraction = 1.0f;
-        this.current_fraction = 1.0f;
 
         colorCache = new Color();
         cache1 = new Vector2();
-        cache2 = new Vector2();
         enemyList = new ArrayList<>();
-        callback = new RayCastCallback() {
-            @Override
-            public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
-                if ( fraction < current_fraction ) {
-                    current_fraction = fraction;
-                    Entity entity = (Entity) fixture.getBody().getUserData();
-                    if (!entity.isActive()) return 1;
-                    switch (entity.getEntityType()) {
-                        case OCTOPUS:
-                            rayDetectedEntityCache = (OctopusEntity) entity;
-                            return 1;
-                        case WALL:
-                            wall_fraction = Math.min(fraction,wall_fraction);
-                            return 1;
-                        case OBSTACLE:
-                            if (((ObstacleEntity)entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FIGHT_WALL
-                            ||  ((ObstacleEntity)entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FLIGHT_WALL
-                            ||  ((ObstacleEntity)entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FOLD_WALL)
-                            wall_fraction = Math.min(fraction,wall_fraction);
-                            return 1;
-                        default:
-                            return 1;
-                    }
-                }
-                return 1;
-            }
-        };
+        detector = new TargetDetector();
     }
     //#endregion
     //=================================
@@ -267,7 +224,8 @@ public class EnemyController {
      * Returns a newly loaded texture region for the given file.
      *
      * This helper methods is used to set texture settings (such as scaling, and
-     * whether or not the texture should repeat) after loading.
+     * whether or not the texture should repeat) after loading.  If the file is packed
+     * in an atlas, the region is cut from the atlas instead (see {@link TextureRegistry}).
      *
      * @param manager 	Reference to global asset manager.
      * @param file		The texture (region) file
@@ -276,15 +234,7 @@ public class EnemyController {
      * @return a newly loaded texture region for the given file.
      */
     protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
-        if (manager.isLoaded(file)) {
-            TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
-            region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            if (repeat) {
-                region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
-            }
-            return region;
-        }
-        return null;
+        return TextureRegistry.getInstance().getRegion(manager, file, repeat);
     }
 
     /**
@@ -298,30 +248,21 @@ public class EnemyController {
      * @param manager Reference to global asset manager.
      */
     public void preLoadContent(AssetManager manager) {
+        TextureRegistry registry = TextureRegistry.getInstance();
         // Explosion textures
-        manager.load(ATTACK_TEXTURE, Texture.class);
-        assets.add(ATTACK_TEXTURE);
+        assets.add(registry.load(manager, ATTACK_TEXTURE));
         // Enemy textures
-        manager.load(ENEMY_TEXTURE_1, Texture.class);
-        assets.add(ENEMY_TEXTURE_1);
-        manager.load(ENEMY_TEXTURE_2, Texture.class);
-        assets.add(ENEMY_TEXTURE_2);
-        manager.load(ENEMY_TEXTURE_3, Texture.class);
-        assets.add(ENEMY_TEXTURE_3);
-        manager.load(ENEMY_TEXTURE_4, Texture.class);
-        assets.add(ENEMY_TEXTURE_4);
-        manager.load(ENEMY_TEXTURE_5, Texture.class);
-        assets.add(ENEMY_TEXTURE_5);
+        assets.add(registry.load(manager, ENEMY_TEXTURE_1));
+        assets.add(registry.load(manager, ENEMY_TEXTURE_2));
+        assets.add(registry.load(manager, ENEMY_TEXTURE_3));
+        assets.add(registry.load(manager, ENEMY_TEXTURE_4));
+        assets.add(registry.load(manager, ENEMY_TEXTURE_5));
         // Counter textures
-        manager.load(COUNTER_TEXTURE, Texture.class);
-        assets.add(COUNTER_TEXTURE);
+        assets.add(registry.load(manager, COUNTER_TEXTURE));
         // UI Textures
-        manager.load(DIRECTION_ARROW, Texture.class);
-        assets.add(DIRECTION_ARROW);
-        manager.load(DETECTION_INDICATOR, Texture.class);
-        assets.add(DETECTION_INDICATOR);
-        manager.load(RANGE_CIRCLE, Texture.class);
-        assets.add(RANGE_CIRCLE);
+        assets.add(registry.load(manager, DIRECTION_ARROW));
+        assets.add(registry.load(manager, DETECTION_INDICATOR));
+        assets.add(registry.load(manager, RANGE_CIRCLE));
         //Sounds
         manager.load(ENEMY_DEATH_SOUND, Sound.class);
         assets.add(ENEMY_DEATH_SOUND);
@@ -331,6 +272,23 @@ public class EnemyController {
         assets.add(FIGHT_DEATH_SOUND);
     }
 
+    /**
+     * Gives the entities the textures that their bodies are sized from.
+     *
+     * This is split out of loadContent so that the headless tools, which only need the
+     * sizes, build their levels from the same textures as the game.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void loadEntityTextures(AssetManager manager) {
+        EnemyEntity.normalTexture = createTexture(manager,ENEMY_TEXTURE_1,false);
+        EnemyEntity.armoredTexture = createTexture(manager,ENEMY_TEXTURE_2,false);
+        EnemyEntity.spikedTexture = createTexture(manager,ENEMY_TEXTURE_3,false);
+        //TODO:: add hole texture
+        EnemyEntity.holeTexture = createTexture(manager,ENEMY_TEXTURE_4,false);
+        EnemyEntity.invincibleTexture = createTexture(manager,ENEMY_TEXTURE_5,false);
+    }
+
     /**
      * Loads the assets for this controller.
      *
@@ -348,12 +306,7 @@ public class EnemyController {
         rangeIndicator = manager.get(RANGE_CIRCLE, Texture.class);
         detectionIndicator = createTexture(manager, DETECTION_INDICATOR, false);
         directionArrow = createTexture(manager,DIRECTION_ARROW,false);
-        EnemyEntity.normalTexture = createTexture(manager,ENEMY_TEXTURE_1,false);
-        EnemyEntity.armoredTexture = createTexture(manager,ENEMY_TEXTURE_2,false);
-        EnemyEntity.spikedTexture = createTexture(manager,ENEMY_TEXTURE_3,false);
-        //TODO:: add hole texture
-        EnemyEntity.holeTexture = createTexture(manager,ENEMY_TEXTURE_4,false);
-        EnemyEntity.invincibleTexture = createTexture(manager,ENEMY_TEXTURE_5,false);
+        loadEntityTextures(manager);
 
         audio.allocateSound(manager, ENEMY_DEATH_SOUND);
         audio.allocateSound(manager, FLIGHT_DEATH_SOUND);
@@ -372,8 +325,6 @@ public class EnemyController {
         attackAnimation = new ArrayList();
         countingAnimation = new ArrayList<>();
         emptyEnemyList();
-        closestFraction = 0f;
-        rayDetectedEntityCache = null;
     }
 
     /**
@@ -401,6 +352,30 @@ public class EnemyController {
         }
     }
 
+    /**
+     * Advances the attack and detection counters of the enemies by one physics step.
+     *
+     * The counters are counted in physics steps rather than in frames, so that an enemy
+     * takes as long to spot an octopus whatever the frame rate.
+     *
+     * @param frozen Whether the game is frozen or not
+     */
+    public void step(boolean frozen) {
+        if (frozen) return;
+        for (int i = 0; i < enemyList.size(); i++) {
+            EnemyEntity enemyEntity = enemyList.get(i);
+            OctopusEntity target = enemyEntity.getTarget();
+            if (enemyEntity.isAlive() && enemyEntity.isActive() && target != null && target.isAlive()) {
+                // Dec counters for attacking and detecting
+                if (enemyEntity.isChasing()) {
+                    enemyEntity.decrementClock();
+                } else {
+                    enemyEntity.decrementDetectionCounter();
+                }
+            }
+        }
+    }
+
     /**
      * Updates the octopus' target as well as their goal position
      *
@@ -409,9 +384,9 @@ public class EnemyController {
      */
     private void updateEnemies(float dt, ArrayList<OctopusEntity> octopusList, World world) {
         AudioController audio = AudioController.getInstance();
-        for (EnemyEntity enemyEntity : enemyList) {
+        for (int i = 0; i < enemyList.size(); i++) {
+            EnemyEntity enemyEntity = enemyList.get(i);
             //Get ready to check on values
-            rayDetectedEntityCache = null;
             enemyEntity.stateChanged = false;
 
             //If this enemy is not alive or active, we don't need to update anything anymore
@@ -420,7 +395,8 @@ public class EnemyController {
             }
 
             //Check for octopus on enemy collisions
-            for (OctopusEntity oct : octopusList) {
+            for (int j = 0; j < octopusList.size(); j++) {
+                OctopusEntity oct = octopusList.get(j);
                 if (!oct.getFlying() && enemyEntity.isColliding(oct)) {
                     //In normal collision, kill octopus
                     oct.setState(BoxEntity.State.death);
@@ -461,13 +437,6 @@ public class EnemyController {
                 if (enemyEntity.getPreviousTarget() != target)
                     enemyEntity.resetCountDownClock();
 
-                // Dec counters for attacking and detecting
-                if (enemyEntity.isChasing()) {
-                    enemyEntity.decrementClock();
-                } else {
-                    enemyEntity.decrementDetectionCounter();
-                }
-
 
                 // Either attack or set the goal to be the current target
                 cache1.set(enemyEntity.getPosition());
@@ -492,48 +461,26 @@ public class EnemyController {
                 } else if (enemyEntity.isColliding(target)) {
                     // If the enemy kills the target
                     enemyEntity.setState(BoxEntity.State.idle);
-                    enemyEntity.setGoal(new Vector2(-1, -1));
+                    enemyEntity.setGoal(-1, -1);
                 }
             } else {
                 // If the enemy no longer has a target
                 enemyEntity.setState(BoxEntity.State.idle);
-                enemyEntity.setGoal(new Vector2(-1,-1));
+                enemyEntity.setGoal(-1,-1);
                 enemyEntity.abortTarget();
             }
         }
     }
 
-    /** Apply ray-casting for a particular enemy and assign its closest while
-     * reachable octopus as target.
+    /** Find the closest octopus that a particular enemy can see and assign it as target.
      *
      * @param enemy the enemy that is going to be handled by the controller
-     * @param world the world that the ray-casting will be performed on
+     * @param world the world that the detection will be performed on
      * */
     private void detectTarget(EnemyEntity enemy, World world) {
-        //Cache 1 Used to hold enemy position
-        cache1.set(enemy.getPosition());
-        //Prep values & store previous target
-        float dist = enemy.getRange();
-        float min_dist = Float.MAX_VALUE;
+        //Store previous target
         enemy.setPreviousTarget(enemy.getTarget());
-        enemy.setTarget(null);
-        closestFraction = 1f;
-        for (int i = 0; i < RAY_COUNT; i++) {
-            current_fraction = 1.0f;
-            wall_fraction = 1.0f;
-            float angle = (float) (2*Math.PI/RAY_COUNT)*i;
-            cache2.set(cache1).add((float)(dist*Math.cos(angle)), (float)(dist*Math.sin(angle)));
-            world.rayCast(callback,cache1,cache2);
-
-            if (current_fraction < closestFraction && wall_fraction > current_fraction) {
-                if (rayDetectedEntityCache != null && rayDetectedEntityCache.isAlive()
-                        && cache2.set(cache1).sub(rayDetectedEntityCache.getPosition()).len() < min_dist
-                        && cache2.set(cache1).sub(rayDetectedEntityCache.getPosition()).len() < enemy.getRange()) {
-                    enemy.setTarget(rayDetectedEntityCache);
-                }
-            }
-            rayDetectedEntityCache = null;
-        }
+        enemy.setTarget(detector.findTarget(enemy, world));
     }
 
     /**
@@ -545,7 +492,11 @@ public class EnemyController {
     public void draw(float delta, boolean frozen, boolean complete) {
         // Draw non-active models
         canvas.begin();
-        for (EnemyEntity enemy : enemyList) {
+        for (int i = 0; i < enemyList.size(); i++) {
+            EnemyEntity enemy = enemyList.get(i);
+            if (!enemy.isInView()) {
+                continue;
+            }
             //todo fix this hack, also make flyer death animation
             //if (enemy.isGrabbed()) enemy.drawSilhouette(canvas, scale);
             if (enemy.getTexture() != null && enemy.isAlive()) {
@@ -555,17 +506,18 @@ public class EnemyController {
             enemy.drawSkeleton(canvas);
         }
 
-        for (EnemyEntity e : enemyList) {
+        for (int i = 0; i < enemyList.size(); i++) {
+            EnemyEntity e = enemyList.get(i);
             if (e != null && e.isAlive()) {
                 //e.draw(canvas);
 
                 //Draw detection icon if enemy just found an octopus
                 if (e.hasTarget() && !e.isChasing()) {
                     colorCache.set(DETECTED_INDICATOR_COLOR).sub(0,0,0,0.9f * (e.getDetectionCounter()/e.getMaxDetection()));
-                    float xPos = (e.getPosition().x * scale.x);
-                    float yPos = (e.getPosition().y * scale.y);
+                    float xPos = (e.getDrawX() * scale.x);
+                    float yPos = (e.getDrawY() * scale.y);
                     canvas.draw(detectionIndicator, colorCache, -e.getTexture().getRegionWidth()/8f, -e.getTexture().getRegionHeight()/8f,
-                            xPos, yPos, e.getAngle(), e.getResizeScale()*2, e.getResizeScale()*2);
+                            xPos, yPos, e.getDrawAngle(), e.getResizeScale()*2, e.getResizeScale()*2);
                 }
 
                 //Draw Range Indicators on frozen
@@ -585,9 +537,8 @@ public class EnemyController {
             }
         }
         // Attack Animations for all attaching enemies
-        Iterator<animationObject> it = attackAnimation.iterator();
-        while (it.hasNext()) {
-            animationObject a = it.next();
+        for (int i = 0; i < attackAnimation.size(); i++) {
+            animationObject a = attackAnimation.get(i);
             Vector2 pos = a.getPosition();
             int attackFrame = a.getFrame();
             float range = a.getRange();
@@ -598,14 +549,16 @@ public class EnemyController {
                         attack.getRegionHeight()/2f,pos.x*scale.x,pos.y*scale.y,0f,scale.x/range,scale.y/range);
                 //attack.getRegionWidth()/range,attack.getRegionHeight()/range);
             } else if (attackFrame > ATTACK_FRAMES) {
-                it.remove();
+                attackAnimation.remove(i--);
             }
         }
         // Countdown Animations for all tracing enemies
-        Iterator<animationObject> itCount = countingAnimation.iterator();
-        while (itCount.hasNext()) {
-            animationObject a = itCount.next();
-            if (!a.getAlive()) itCount.remove(); // If the target is no longer alive, remove it.
+        for (int i = 0; i < countingAnimation.size(); i++) {
+            animationObject a = countingAnimation.get(i);
+            if (!a.getAlive()) { // If the target is no longer alive, remove it.
+                countingAnimation.remove(i--);
+                continue;
+            }
             Vector2 pos = a.getPosition();
             int countFrame = a.getFrame();
             float range = a.getRange();
@@ -617,7 +570,7 @@ public class EnemyController {
                         countdown.getRegionHeight()/2f,pos.x*scale.x,pos.y*scale.y,0f,
                         range,range);
             } else if (countFrame > COUNTER_FRAMES) {
-                itCount.remove();
+                countingAnimation.remove(i--);
             }
         }
         canvas.end();
@@ -0,0 +1,291 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.entity.*;
+
+/**
+ * Finds everything caught in a Fight octopus explosion. Replaces the old 360 ray fan with a
+ * broadphase query followed by a small sweep of rays over each candidate.
+ *
+ * The broadphase pass asks Box2D for every fixture whose bounding box overlaps the square
+ * around the blast circle, and keeps the enemies, octopi and FIGHT_WALL obstacles whose box
+ * reaches into the circle. Each candidate gets a ray aimed at the closest point of its box,
+ * then a few rays spread across the angle it covers as seen from the exploder. The
+ * candidate is hit if one of those rays reaches it before a wall, using the same rules as
+ * the old ray fan: walls and every obstacle other than a FIGHT_WALL stop the blast,
+ * everything else lets it through. Unlike the ray fan, a candidate that the exploder is
+ * inside of is always hit.
+ *
+ * Nothing is allocated per explosion; the hit list is reused and only valid until the next
+ * call to {@link #resolve(OctopusEntity, World)}.
+ */
+public class ExplosionResolver {
+    //=========================================================================
+    //#region Fields
+    /** The number of rays swept across each candidate (odd, so the middle ray aims at the center) */
+    private static final int SWEEP_RAYS = 5;
+    /** How much of the candidate's angular size the sweep covers, so the edge rays hit it and not past it */
+    private static final float SWEEP_INSET = 0.9f;
+
+    /** The radius of the blast in Box2D units */
+    private float radius;
+    /** The entities found by the last broadphase pass */
+    private Array<Entity> candidates;
+    /** The entities caught in the last explosion */
+    private Array<Entity> hits;
+    /** Callback that collects candidates from the broadphase */
+    private QueryCallback queryCallback;
+    /** Callback that handles a blast ray-casting intersection event */
+    private RayCastCallback blastCallback;
+
+    /** The exploding octopus */
+    private OctopusEntity exploder;
+    /** The candidate the current ray is aimed at */
+    private Entity target;
+    /** The position of the exploder */
+    private Vector2 origin;
+    /** Cache object for the end point of a ray */
+    private Vector2 rayEnd;
+    /** The fraction along the current ray of the closest wall */
+    private float wallFraction;
+    /** The fraction along the current ray where it hit the target */
+    private float targetFraction;
+
+    /** The number of rays cast since the counters were last reset */
+    private int rayCount;
+    /** The number of broadphase queries since the counters were last reset */
+    private int queryCount;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates a new explosion resolver.
+     *
+     * @param radius the radius of the blast in Box2D units
+     */
+    public ExplosionResolver(float radius) {
+        this.radius = radius;
+        candidates = new Array<>();
+        hits = new Array<>();
+        origin = new Vector2();
+        rayEnd = new Vector2();
+        queryCallback = new QueryCallback() {
+            @Override
+            public boolean reportFixture(Fixture fixture) {
+                Entity entity = (Entity) fixture.getBody().getUserData();
+                if (entity != null && entity != exploder && entity.isActive() && canBeHit(entity)
+                        && !candidates.contains(entity, true)) {
+                    candidates.add(entity);
+                }
+                return true;
+            }
+        };
+        blastCallback = new RayCastCallback() {
+            @Override
+            public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+                Entity entity = (Entity) fixture.getBody().getUserData();
+                if (entity == null || !entity.isActive()) {
+                    return 1;
+                }
+                if (entity == target) {
+                    targetFraction = Math.min(fraction, targetFraction);
+                } else if (stopsBlast(entity)) {
+                    wallFraction = Math.min(fraction, wallFraction);
+                }
+                return 1;
+            }
+        };
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Getters and Setters
+    /**
+     * Returns the entities caught in the last explosion.
+     *
+     * This is the same array every call, and is cleared by the next explosion.
+     *
+     * @return the entities caught in the last explosion
+     */
+    public Array<Entity> getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of rays cast since the last call to {@link #resetCounters()}.
+     *
+     * @return the number of rays cast
+     */
+    public int getRayCount() {
+        return rayCount;
+    }
+
+    /**
+     * Returns the number of broadphase queries since the last call to {@link #resetCounters()}.
+     *
+     * @return the number of broadphase queries
+     */
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Resets the ray and query counters.
+     */
+    public void resetCounters() {
+        rayCount = 0;
+        queryCount = 0;
+    }
+    //#endregion
+    //=================================
+
+    /**
+     * Finds every entity caught in the explosion of the given octopus.
+     *
+     * @param exploder the exploding octopus
+     * @param world the world that the queries will be performed on
+     *
+     * @return the entities caught in the explosion (see {@link #getHits()})
+     */
+    public Array<Entity> resolve(OctopusEntity exploder, World world) {
+        this.exploder = exploder;
+        origin.set(exploder.getPosition());
+        hits.clear();
+
+        candidates.clear();
+        queryCount++;
+        world.QueryAABB(queryCallback, origin.x - radius, origin.y - radius, origin.x + radius, origin.y + radius);
+
+        for (int i = 0; i < candidates.size; i++) {
+            Entity candidate = candidates.get(i);
+            if (isCaught(candidate, world)) {
+                hits.add(candidate);
+            }
+        }
+        candidates.clear();
+        this.exploder = null;
+        target = null;
+        return hits;
+    }
+
+    /**
+     * Returns whether the blast reaches the candidate.
+     *
+     * @param candidate the entity to check
+     * @param world the world that the rays will be cast on
+     *
+     * @return whether the blast reaches the candidate
+     */
+    private boolean isCaught(Entity candidate, World world) {
+        Vector2 dimension = ((BoxEntity) candidate).getDimension();
+        float halfWidth = dimension.x / 2f;
+        float halfHeight = dimension.y / 2f;
+        Vector2 position = candidate.getPosition();
+        float dx = position.x - origin.x;
+        float dy = position.y - origin.y;
+
+        // The point of the candidate's box closest to the exploder, found in the box's frame
+        float cos = MathUtils.cos(candidate.getAngle());
+        float sin = MathUtils.sin(candidate.getAngle());
+        float localX = -(dx * cos + dy * sin);
+        float localY = -(-dx * sin + dy * cos);
+        float clampedX = MathUtils.clamp(localX, -halfWidth, halfWidth);
+        float clampedY = MathUtils.clamp(localY, -halfHeight, halfHeight);
+        if (clampedX == localX && clampedY == localY) {
+            // The exploder is inside the candidate
+            return true;
+        }
+        float nearX = dx + clampedX * cos - clampedY * sin;
+        float nearY = dy + clampedX * sin + clampedY * cos;
+        if (nearX * nearX + nearY * nearY >= radius * radius) {
+            return false;
+        }
+        // Aim a little inside of the closest point so the ray does not graze past a corner
+        clampedX = MathUtils.clamp(localX, -halfWidth * SWEEP_INSET, halfWidth * SWEEP_INSET);
+        clampedY = MathUtils.clamp(localY, -halfHeight * SWEEP_INSET, halfHeight * SWEEP_INSET);
+        nearX = dx + clampedX * cos - clampedY * sin;
+        nearY = dy + clampedX * sin + clampedY * cos;
+
+        target = candidate;
+        // The closest point is the most likely to be in range, then sweep across the candidate
+        if (castBlastRay(MathUtils.atan2(nearY, nearX), world)) {
+            return true;
+        }
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        float extent = (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+        float center = MathUtils.atan2(dy, dx);
+        float spread = (float) Math.asin(Math.min(1, extent / distance)) * SWEEP_INSET;
+        float step = 2 * spread / (SWEEP_RAYS - 1);
+        for (int i = 0; i < SWEEP_RAYS; i++) {
+            int offset = (i + 1) / 2;
+            float angle = center + ((i % 2 == 0) ? offset : -offset) * step;
+            if (castBlastRay(angle, world)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Casts a ray the length of the blast and returns whether it hit the target before a wall.
+     *
+     * @param angle the direction of the ray in radians
+     * @param world the world that the ray will be cast on
+     *
+     * @return whether the ray hit the target before a wall
+     */
+    private boolean castBlastRay(float angle, World world) {
+        rayEnd.set(origin.x + radius * MathUtils.cos(angle), origin.y + radius * MathUtils.sin(angle));
+        wallFraction = 1;
+        targetFraction = 1;
+        rayCount++;
+        world.rayCast(blastCallback, origin, rayEnd);
+        return targetFraction < wallFraction;
+    }
+
+    /**
+     * Returns whether the entity can be affected by an explosion.
+     *
+     * @param entity the entity to check
+     *
+     * @return whether the entity can be affected by an explosion
+     */
+    private static boolean canBeHit(Entity entity) {
+        switch (entity.getEntityType()) {
+            case ENEMY:
+            case OCTOPUS:
+                return true;
+            case OBSTACLE:
+                return ((ObstacleEntity) entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FIGHT_WALL;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns whether the entity stops an explosion from going through it.
+     *
+     * @param entity the entity to check
+     *
+     * @return whether the entity stops an explosion
+     */
+    private static boolean stopsBlast(Entity entity) {
+        switch (entity.getEntityType()) {
+            case WALL:
+                return true;
+            case OBSTACLE:
+                return ((ObstacleEntity) entity).getObstacleSubType() != ObstacleEntity.ObstacleSubType.FIGHT_WALL;
+            default:
+                return false;
+        }
+    }
+}
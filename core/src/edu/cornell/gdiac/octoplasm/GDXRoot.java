@@ -28,10 +28,12 @@ import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonWriter;
 import com.badlogic.gdx.utils.Scaling;
 import com.badlogic.gdx.utils.SerializationException;
+import com.esotericsoftware.spine.SkeletonData;
 import edu.cornell.gdiac.assets.*;
 import edu.cornell.gdiac.audio.AudioSource;
 import edu.cornell.gdiac.audio.MusicBuffer;
 import edu.cornell.gdiac.audio.SoundBuffer;
+import edu.cornell.gdiac.octoplasm.util.AssetBundles;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.util.LevelList;
 import edu.cornell.gdiac.octoplasm.util.SaveGame;
@@ -68,6 +70,8 @@ public class GDXRoot extends Game implements ScreenListener {
 
 	/** AssetManager to load game assets (textures, sounds, etc.) */
 	private AssetManager manager;
+	/** The bundles the assets of each screen and world are loaded in */
+	private AssetBundles bundles;
 	/** Drawing context to display graphics (VIEW CLASS) */
 	private GameCanvas canvas;
 	/** Player mode for the asset loading screen (CONTROLLER CLASS) */
@@ -108,6 +112,7 @@ public class GDXRoot extends Game implements ScreenListener {
 	public GDXRoot() {
 		// Start loading with the asset manager
 		manager = new AssetManager();
+		bundles = new AssetBundles(manager);
 		json = new Json();
 
 		// Add font support to the asset manager
@@ -117,6 +122,7 @@ public class GDXRoot extends Game implements ScreenListener {
 		manager.setLoader(SoundBuffer.class, new SoundBufferLoader());
 		manager.setLoader(MusicBuffer.class, new MusicBufferLoader());
 		manager.setLoader(AudioSource.class, new AudioSourceLoader());
+		manager.setLoader(SkeletonData.class, new SkeletonDataLoader());
 	}
 	//#endregion
 	//=================================
@@ -127,7 +133,9 @@ public class GDXRoot extends Game implements ScreenListener {
 	 * Called when the Application is first created.
 	 *
 	 * This is method immediately loads assets for the loading screen, and prepares
-	 * the asynchronous loader for all other assets.
+	 * the asynchronous loader for all other assets. Only the menu has to load before the
+	 * player can go on; the assets of the other screens are queued after it, and keep
+	 * loading in the background.
 	 */
 	public void create() {
 		canvas = new GameCanvas();
@@ -149,7 +157,7 @@ public class GDXRoot extends Game implements ScreenListener {
 		wallCursorPixmap.dispose();
 
 		//Initialize the controllers and modes
-		loading = new LoadingMode(canvas,manager,1);
+		loading = new LoadingMode(canvas,manager);
 		menu = new MenuMode(canvas, manager);
 		levelSelect = new LevelSelectMode(canvas,manager);
 		gameController = new GameplayController();
@@ -157,16 +165,20 @@ public class GDXRoot extends Game implements ScreenListener {
 		gameController.setManager(manager);
 		gameController.setCanvas(canvas);
 		InputController.getInstance().setCanvas(canvas);
+		menu.setBundles(bundles);
+		levelSelect.setBundles(bundles);
+		gameController.setBundles(bundles);
+		transitionController.setBundles(bundles);
+		loading.setRequired(bundles, menu, transitionController);
 
-		//Start asynchronous preloading
-		menu.preLoadContent(manager);
+		//Start asynchronous preloading, in the order the screens are needed
 		loading.preLoadContent(manager);
+		transitionController.preLoadContent(manager);
+		menu.preLoadContent(manager);
 		levelSelect.preLoadContent(manager);
 		gameController.preLoadContent(manager);
-		transitionController.preLoadContent(manager);
 		AudioController.getInstance().setManager(manager);
-		gameController.loadOctopusAssets();
-		gameController.loadEnemyAssets();
+		gameController.loadSkeletons();
 		gameController.loadFont();
 		gameController.loadFilmStrip();
 
@@ -179,6 +191,25 @@ public class GDXRoot extends Game implements ScreenListener {
 		setScreen(loading);
 	}
 
+	/**
+	 * Called when the Application should render itself.
+	 *
+	 * The queued assets are loaded for up to the budget of the bundles before the current
+	 * screen renders. Only the loading and transition screens get the full budget of the
+	 * loading screen; any other screen keeps its frame time and loads in the background.
+	 */
+	@Override
+	public void render() {
+		Screen current = getScreen();
+		if (current == loading || current == transitionController) {
+			bundles.setBudget(loading.getBudget());
+		} else {
+			bundles.setBudget(AssetBundles.BACKGROUND_BUDGET);
+		}
+		bundles.update();
+		super.render();
+	}
+
 	/**
 	 * Checks the current save game file and applies quality of life preferences.
 	 * If no Save Game exists, creates one in the specified folder.
@@ -314,11 +345,10 @@ public class GDXRoot extends Game implements ScreenListener {
 			menu.setScreenListener(this);
 			menu.setCanvas(canvas);
 
-			levelSelect.loadContent(manager);
+			// Level select and gameplay load their content when first transitioned to
 			levelSelect.setScreenListener(this);
 			levelSelect.setCanvas(canvas);
 
-			gameController.loadContent(manager);
 			gameController.setScreenListener(this);
 			gameController.setCanvas(canvas);
 
@@ -342,7 +372,7 @@ public class GDXRoot extends Game implements ScreenListener {
 			case (MenuMode.EXIT_EDITOR):
 				Gdx.input.setCursorCatched(true);
 				gameController.setLevelEdit(true);
-				gameController.reset();
+				gameController.prepareReset();
 				transitionController.screen1 = menu;
 				transitionController.screen2 = gameController;
 				setScreen(transitionController);
@@ -355,17 +385,13 @@ public class GDXRoot extends Game implements ScreenListener {
 				transitionController.screen2 = menu;
 				setScreen(transitionController);
 			} else {
-				if (gameController.setCurrentLevel(exitCode)) {
-					gameController.setLevelEdit(false);
-					if (gameController.reset()) {
-						transitionController.screen1 = levelSelect;
-						transitionController.screen2 = gameController;
-						canvas.resetCameraToWorldPos();
-						setScreen(transitionController);
-					}
-				} else {
-					levelSelect.setLoadFailedText();
-				}
+				// The level loads while the transition fades out the level select screen
+				gameController.setLevelEdit(false);
+				gameController.prepareLevel(exitCode);
+				transitionController.screen1 = levelSelect;
+				transitionController.screen2 = gameController;
+				canvas.resetCameraToWorldPos();
+				setScreen(transitionController);
 			}
 		} else if (screen == gameController) {
 			switch (exitCode) {
@@ -412,6 +438,15 @@ public class GDXRoot extends Game implements ScreenListener {
 					break;
 			}
 		} else if (screen == transitionController) {
+			// The level could not be prepared, so the transition went back to level select
+			if (transitionController.didPreparationFail() && transitionController.screen2 == levelSelect) {
+				if (gameController.didPopulateFail()) {
+					levelSelect.setPopulateFailedText();
+				} else {
+					levelSelect.setLoadFailedText();
+				}
+			}
+
 			//Dispose of loading screen
 			if (transitionController.screen2 == loading) {
 				loading.dispose();
@@ -471,7 +506,8 @@ public class GDXRoot extends Game implements ScreenListener {
 			menu.setSaveGame(saveGame);
 
 			//Enable or disable levels based on new save file
-			levelSelect.updateDisabledLevels();
+			if (levelSelect.isContentLoaded())
+				levelSelect.updateDisabledLevels();
 
 			//Update the save file json
 			json.setTypeName(null);
@@ -490,7 +526,8 @@ public class GDXRoot extends Game implements ScreenListener {
 		menu.setSaveGame(saveGame);
 
 		//Enable or disable levels based on new save file
-		levelSelect.updateDisabledLevels();
+		if (levelSelect.isContentLoaded())
+			levelSelect.updateDisabledLevels();
 
 		//Update the save file json
 		json.setTypeName(null);
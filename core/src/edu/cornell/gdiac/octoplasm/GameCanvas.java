@@ -16,6 +16,8 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 import com.esotericsoftware.spine.Skeleton;
 import com.esotericsoftware.spine.SkeletonRenderer;
 
+import java.util.Arrays;
+
 //This was taken from WorldController from PhysicsLab (Lab 4)
 public class GameCanvas implements InputProcessor {
     //=========================================================================
@@ -79,6 +81,8 @@ public class GameCanvas implements InputProcessor {
     private Vector2 vertex;
     /** Cache object to handle raw textures */
     private TextureRegion holder;
+    /** Cache object for laying out text */
+    private GlyphLayout layout;
     /** TODO: @Stephen Documentation */
     private Vector2 cache;
     /** TODO: @Stephen Documentation */
@@ -87,6 +91,22 @@ public class GameCanvas implements InputProcessor {
     private float cameraMovedY;
     /**  */
     private boolean disableUI;
+
+    // BATCHED FRAMES
+    /** Whether begin() and end() share one sprite batch pass until endFrame() */
+    private boolean batching;
+    /** Sprite draws waiting to be sorted and submitted by drawQueue() */
+    private RenderQueue queue;
+    /** The total render calls of the sprite batch when the current frame began */
+    private int frameStartCalls;
+    /** The number of times the sprite batch was flushed by the canvas this frame */
+    private int frameFlushes;
+    /** The number of meshes drawn outside of the sprite batch this frame */
+    private int frameMeshes;
+    /** The number of draw calls made by the sprite batch last frame */
+    private int drawCalls;
+    /** The number of times the sprite batch was flushed by the canvas last frame */
+    private int flushCount;
     //#endregion
     //=================================
 
@@ -116,10 +136,12 @@ public class GameCanvas implements InputProcessor {
 
         // Initialize the cache objects
         holder = new TextureRegion();
+        layout = new GlyphLayout();
         local  = new Affine2();
         global = new Matrix4();
         vertex = new Vector2();
         cache = new Vector2();
+        queue = new RenderQueue();
 
         cameraMovedX = 0;
         cameraMovedY = 0;
@@ -313,6 +335,29 @@ public class GameCanvas implements InputProcessor {
         blend = state;
     }
 
+    /**
+     * Returns the number of draw calls made in the last batched frame.
+     *
+     * This counts the draw calls of the sprite batch and every mesh drawn with the canvas.
+     *
+     * @return the number of draw calls in the last batched frame
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Returns the number of times the canvas flushed the sprite batch in the last batched frame.
+     *
+     * This counts ending the batch and changing its projection matrix, but not the flushes
+     * the batch does on its own when it is full or the texture changes.
+     *
+     * @return the number of flushes in the last batched frame
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+
     /**
      * Sets the stage to be the input processor of the game.
      */
@@ -370,6 +415,18 @@ public class GameCanvas implements InputProcessor {
                 camera.viewportWidth,camera.viewportHeight);
     }
 
+    /**
+     * Stores the part of the screen the camera can see in the given rectangle.
+     *
+     * @param out the rectangle to store the camera bounds in
+     *
+     * @return the rectangle holding the camera bounds
+     */
+    public Rectangle cameraBounds(Rectangle out){
+        return out.set(camera.position.x-camera.viewportWidth/2,camera.position.y-camera.viewportHeight/2,
+                camera.viewportWidth,camera.viewportHeight);
+    }
+
     /**
      * TODO: Documentation
      */
@@ -507,10 +564,10 @@ public class GameCanvas implements InputProcessor {
     public void begin(Affine2 affine) {
         global.setAsAffine(affine);
         global.mulLeft(camera.combined);
-        spriteBatch.setProjectionMatrix(global);
+        setProjection(global);
 
         setBlendState(BlendState.NO_PREMULT);
-        spriteBatch.begin();
+        beginBatch();
         active = DrawPass.STANDARD;
     }
 
@@ -526,9 +583,9 @@ public class GameCanvas implements InputProcessor {
         global.idt();
         global.scl(sx,sy,1.0f);
         global.mulLeft(camera.combined);
-        spriteBatch.setProjectionMatrix(global);
+        setProjection(global);
 
-        spriteBatch.begin();
+        beginBatch();
         active = DrawPass.STANDARD;
     }
 
@@ -538,19 +595,187 @@ public class GameCanvas implements InputProcessor {
      * Nothing is flushed to the graphics card until the method end() is called.
      */
     public void begin() {
-        spriteBatch.setProjectionMatrix(camera.combined);
-        spriteBatch.begin();
+        setProjection(camera.combined);
+        beginBatch();
         active = DrawPass.STANDARD;
     }
 
     /**
      * Ends a drawing sequence, flushing textures to the graphics card.
+     *
+     * Inside of a batched frame (@see beginFrame()), nothing is flushed until the
+     * frame ends or the batch has to be given up.
      */
     public void end() {
-        spriteBatch.end();
+        if (!batching) {
+            endBatch();
+        }
         active = DrawPass.INACTIVE;
     }
 
+    /**
+     * Starts a batched frame.
+     *
+     * Until endFrame() is called, every begin()-end() pair shares one sprite batch pass.
+     * The batch is only flushed when the projection actually changes, when it is needed
+     * for debug or stage drawing, or when the frame ends. This also starts counting the
+     * draw calls and flushes for the frame.
+     */
+    public void beginFrame() {
+        batching = true;
+        frameStartCalls = spriteBatch.totalRenderCalls;
+        frameFlushes = 0;
+        frameMeshes = 0;
+    }
+
+    /**
+     * Ends a batched frame, flushing anything still in the sprite batch.
+     *
+     * Anything still in the render queue is thrown away (@see drawQueue()).
+     */
+    public void endFrame() {
+        endBatch();
+        batching = false;
+        queue.clear();
+        drawCalls = spriteBatch.totalRenderCalls - frameStartCalls + frameMeshes;
+        flushCount = frameFlushes;
+    }
+
+    /**
+     * Queues the tinted texture region to be drawn with the given transformations.
+     *
+     * Queued regions are drawn by drawQueue(), sorted by layer and then by blend state and
+     * texture, so a higher layer is always on top. Within a layer, regions that share a
+     * blend state and texture keep the order they were queued in. The current blend state
+     * is used. The transformations are the same as draw(TextureRegion, Color, float, float,
+     * float, float, float, float, float).
+     *
+     * @param layer The layer to draw in
+     * @param region The texture to draw
+     * @param tint  The color tint
+     * @param ox 	The x-coordinate of texture origin (in pixels)
+     * @param oy 	The y-coordinate of texture origin (in pixels)
+     * @param x 	The x-coordinate of the texture origin (on screen)
+     * @param y 	The y-coordinate of the texture origin (on screen)
+     * @param angle The rotation angle (in radians) about the origin.
+     * @param sx 	The x-axis scaling factor
+     * @param sy 	The y-axis scaling factor
+     */
+    public void queue(int layer, TextureRegion region, Color tint, float ox, float oy,
+                      float x, float y, float angle, float sx, float sy) {
+        Affine2 transform = queue.add(layer, getQueueBlend(), region, tint.toFloatBits(),
+                region.getRegionWidth(), region.getRegionHeight());
+        transform.setToTranslation(x,y);
+        transform.rotate(180.0f*angle/(float)Math.PI);
+        transform.scale(sx,sy);
+        transform.translate(-ox,-oy);
+    }
+
+    /**
+     * Queues the tinted texture region to be drawn at the given position and size.
+     *
+     * See queue(int, TextureRegion, Color, float, float, float, float, float, float, float)
+     * for how queued regions are drawn.
+     *
+     * @param layer The layer to draw in
+     * @param region The texture to draw
+     * @param tint  The color tint
+     * @param ox 	The x-coordinate of texture origin (in pixels)
+     * @param oy 	The y-coordinate of texture origin (in pixels)
+     * @param x 	The x-coordinate of the texture origin (on screen)
+     * @param y 	The y-coordinate of the texture origin (on screen)
+     * @param width	The texture width
+     * @param height The texture height
+     */
+    public void queue(int layer, TextureRegion region, Color tint, float ox, float oy,
+                      float x, float y, float width, float height) {
+        queue.add(layer, getQueueBlend(), region, tint.toFloatBits(), width, height).setToTranslation(x-ox, y-oy);
+    }
+
+    /**
+     * Queues the tinted texture region to be drawn at the given position and size.
+     *
+     * @param layer The layer to draw in
+     * @param region The texture to draw
+     * @param tint  The color tint
+     * @param x 	The x-coordinate of the bottom left corner
+     * @param y 	The y-coordinate of the bottom left corner
+     * @param width	The texture width
+     * @param height The texture height
+     */
+    public void queue(int layer, TextureRegion region, Color tint, float x, float y, float width, float height) {
+        queue(layer, region, tint, 0, 0, x, y, width, height);
+    }
+
+    /**
+     * Draws everything in the render queue and empties it.
+     *
+     * The queue is drawn with the current projection, so this must be called inside a
+     * begin()-end() pair that matches the one the regions were positioned for.
+     */
+    public void drawQueue() {
+        if (active != DrawPass.STANDARD) {
+            Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+            return;
+        }
+        if (!queue.isEmpty()) {
+            BlendState previous = blend;
+            queue.submit(this, spriteBatch);
+            if (previous != null) {
+                setBlendState(previous);
+            }
+            spriteBatch.setColor(Color.WHITE);
+        }
+    }
+
+    /**
+     * Returns the blend state to queue a region with.
+     *
+     * The sprite batch starts out blending as NO_PREMULT, before any blend state is set.
+     *
+     * @return the blend state to queue a region with
+     */
+    private BlendState getQueueBlend() {
+        return blend == null ? BlendState.NO_PREMULT : blend;
+    }
+
+    /**
+     * Sets the projection matrix of the sprite batch if it has changed.
+     *
+     * Setting the projection always flushes a drawing batch, even to the same matrix,
+     * so we only do it when the matrix is different.
+     *
+     * @param projection the new projection matrix
+     */
+    private void setProjection(Matrix4 projection) {
+        if (Arrays.equals(spriteBatch.getProjectionMatrix().val, projection.val)) {
+            return;
+        }
+        if (spriteBatch.isDrawing()) {
+            frameFlushes++;
+        }
+        spriteBatch.setProjectionMatrix(projection);
+    }
+
+    /**
+     * Begins the sprite batch if it is not already drawing.
+     */
+    private void beginBatch() {
+        if (!spriteBatch.isDrawing()) {
+            spriteBatch.begin();
+        }
+    }
+
+    /**
+     * Ends the sprite batch if it is drawing, flushing it to the graphics card.
+     */
+    private void endBatch() {
+        if (spriteBatch.isDrawing()) {
+            spriteBatch.end();
+            frameFlushes++;
+        }
+    }
+
     /**
      * Draws the tinted texture at the given position.
      *
@@ -1050,6 +1275,39 @@ public class GameCanvas implements InputProcessor {
         computeVertices(local,region.getVertices());
     }
 
+    /**
+     * Draws a mesh of textured triangles with the shader and projection of the sprite batch.
+     *
+     * The mesh must have the vertex layout of the sprite batch (a position, packed color
+     * and texture coordinates), with positions in the same coordinates as any other draw.
+     * The sprite batch is flushed first, so that the mesh is drawn over everything before
+     * it, and the current blend state is used.
+     *
+     * @param mesh      The mesh to draw
+     * @param texture   The texture of the mesh
+     */
+    public void draw(Mesh mesh, Texture texture) {
+        if (active != DrawPass.STANDARD) {
+            Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+            return;
+        }
+
+        spriteBatch.flush();
+        frameFlushes++;
+        if (spriteBatch.isBlendingEnabled()) {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            if (spriteBatch.getBlendSrcFunc() != -1) {
+                Gdx.gl.glBlendFuncSeparate(spriteBatch.getBlendSrcFunc(), spriteBatch.getBlendDstFunc(),
+                        spriteBatch.getBlendSrcFuncAlpha(), spriteBatch.getBlendDstFuncAlpha());
+            }
+        } else {
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+        }
+        texture.bind();
+        mesh.render(spriteBatch.getShader(), GL20.GL_TRIANGLES);
+        frameMeshes++;
+    }
+
     /**
      * Transform the given vertices by the affine transform
      */
@@ -1075,7 +1333,7 @@ public class GameCanvas implements InputProcessor {
             Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
             return;
         }
-        GlyphLayout layout = new GlyphLayout(font,text);
+        layout.setText(font,text);
         font.draw(spriteBatch, layout, x, y);
     }
 
@@ -1093,7 +1351,7 @@ public class GameCanvas implements InputProcessor {
             return;
         }
 
-        GlyphLayout layout = new GlyphLayout(font,text);
+        layout.setText(font,text);
         font.draw(spriteBatch, layout, x-layout.width/2, y-layout.height/2);
     }
     /**
@@ -1109,7 +1367,7 @@ public class GameCanvas implements InputProcessor {
             return;
         }
 
-        GlyphLayout layout = new GlyphLayout(font,text);
+        layout.setText(font,text);
         float x = (getWidth()  - layout.width) / 2.0f;
         float y = (getHeight() + layout.height) / 2.0f;
         font.draw(spriteBatch, layout, x, y+offset);
@@ -1123,6 +1381,7 @@ public class GameCanvas implements InputProcessor {
      * @param affine the global transform apply to the camera
      */
     public void beginDebug(Affine2 affine) {
+        endBatch();
         global.setAsAffine(affine);
         global.mulLeft(camera.combined);
         debugRender.setProjectionMatrix(global);
@@ -1140,6 +1399,7 @@ public class GameCanvas implements InputProcessor {
      * @param sy the amount to scale the y-axis
      */
     public void beginDebug(float sx, float sy) {
+        endBatch();
         global.idt();
         global.scl(sx,sy,1.0f);
         global.mulLeft(camera.combined);
@@ -1155,6 +1415,7 @@ public class GameCanvas implements InputProcessor {
      * Nothing is flushed to the graphics card until the method end() is called.
      */
     public void beginDebug() {
+        endBatch();
         debugRender.setProjectionMatrix(camera.combined);
         debugRender.begin(ShapeRenderer.ShapeType.Filled);
         debugRender.setColor(Color.RED);
@@ -1362,6 +1623,7 @@ public class GameCanvas implements InputProcessor {
      * @param delta The number of seconds since the last animation frame.
      */
     public void drawStage(float delta) {
+        endBatch();
         stage.act(delta);
 //        stage.getViewport().apply(true);
 //        for (Actor actor : stage.getActors()) {
@@ -1429,6 +1691,7 @@ public class GameCanvas implements InputProcessor {
 
     @Override
     public boolean keyDown(int keycode) {
+        InputController.getInstance().keyDown(keycode);
         if (!disableUI)
             return stage.keyDown(keycode);
         else
@@ -1437,6 +1700,7 @@ public class GameCanvas implements InputProcessor {
 
     @Override
     public boolean keyUp(int keycode) {
+        InputController.getInstance().keyUp(keycode);
         if (!disableUI)
             return stage.keyUp(keycode);
         else
@@ -1453,6 +1717,7 @@ public class GameCanvas implements InputProcessor {
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        InputController.getInstance().buttonDown(button);
         if (!disableUI) {
             if (Gdx.input.isCursorCatched()) {
                 Vector2 tmp = getCameraStageProjectionOffset();
@@ -1465,6 +1730,7 @@ public class GameCanvas implements InputProcessor {
 
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        InputController.getInstance().buttonUp(button);
         if (!disableUI) {
             if (Gdx.input.isCursorCatched()) {
                 Vector2 tmp = getCameraStageProjectionOffset();
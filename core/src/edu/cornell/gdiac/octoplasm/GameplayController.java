@@ -4,10 +4,10 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
@@ -20,13 +20,16 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.*;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 import com.esotericsoftware.spine.Animation;
 import com.esotericsoftware.spine.AnimationStateData;
 import com.esotericsoftware.spine.SkeletonData;
-import com.esotericsoftware.spine.SkeletonJson;
 import edu.cornell.gdiac.audio.AudioSource;
 import edu.cornell.gdiac.octoplasm.animationView.EnemyView;
 import edu.cornell.gdiac.octoplasm.animationView.OctopusView;
+import edu.cornell.gdiac.octoplasm.animationView.PoseCache;
 import edu.cornell.gdiac.octoplasm.entity.*;
 import edu.cornell.gdiac.octoplasm.util.*;
 
@@ -155,7 +158,7 @@ public class GameplayController extends SuperController implements Screen {
          * @param canvas Reference to the game canvas.
          */
         public void draw(GameCanvas canvas, float xOffset, float yOffset) {
-            canvas.draw(bubbleGroup, color, bubbleGroup.getRegionWidth()/4f, bubbleGroup.getRegionHeight()/4f,
+            canvas.queue(LAYER_SCREEN, bubbleGroup, color, bubbleGroup.getRegionWidth()/4f, bubbleGroup.getRegionHeight()/4f,
                     position[0] + xOffset, position[1] + yOffset, dimension[0], dimension[1]);
         }
     }
@@ -186,11 +189,20 @@ public class GameplayController extends SuperController implements Screen {
     private TextureRegion[] bubbleGroupTextures = new TextureRegion[NUMBER_OF_BUBBLE_TEXTURES];
     /** All bubble groups currently being animated */
     private Array<BubbleGroup> screenBubbles = new Array<>();
+
+    /** Render queue layer of the grabbing tentacles, drawn over the level */
+    private static final int LAYER_EFFECTS = 0;
+    /** Render queue layer of the octopus indicators and mouse reticles */
+    private static final int LAYER_UI = 1;
+    /** Render queue layer of the complete and failed screen backgrounds */
+    private static final int LAYER_SCREEN_BACKGROUND = 2;
+    /** Render queue layer of the bubbles and octopi on the complete screen */
+    private static final int LAYER_SCREEN = 3;
+
     /** Texture filmstrip for the grabbing */
     private FilmStrip grabbingTentacle;
     /** Reference to the grabbing texture */
     private static final String GRABBING_TEXTURE = "filmstrips/arm.png";
-    private int grabbing_frame = 0;
     private static final String INDICATOR_TEXTURE_FIGHT_1 = "images/indicator1_fight.png";
     private static final String INDICATOR_TEXTURE_FIGHT_2 = "images/indicator2_fight.png";
     private static final String INDICATOR_TEXTURE_FIGHT_3 = "images/indicator3_fight.png";
@@ -206,6 +218,8 @@ public class GameplayController extends SuperController implements Screen {
     private static final float TIME_BEFORE_POP_UP = 1;
     /** Counter that count down the number of milliseconds before popping up the win/fail table */
     private float finish_countdown;
+    /** The fixed step physics simulation of the level */
+    private Simulation simulation;
 
     //#endregion
         //======================================================
@@ -218,6 +232,8 @@ public class GameplayController extends SuperController implements Screen {
     private HashMap<OctopusEntity.OctopusSubType,SkeletonData> octopusSkeletonData = new HashMap<>();
     private HashMap<OctopusEntity.OctopusSubType,AnimationStateData> octopusAnimationStateData = new HashMap<>();
     private HashMap<OctopusEntity.OctopusSubType,ObjectMap<BoxEntity.State, InputController.StateView>> octopusStates = new HashMap<>();
+    /** The poses shared by enemies of the same type in the same frame of the same animation */
+    private PoseCache enemyPoses = new PoseCache();
 
         //===========================================================
     //#region File paths
@@ -226,6 +242,15 @@ public class GameplayController extends SuperController implements Screen {
     private static final String BACKG_FILE2 = "backgrounds/Pirate_SolidBG.png";
     /** Reference to the mouse crosshair texture */
     private static final String MOUSE_FILE = "ui/cursors/crosshair.png";
+    /** References to the Spine skeletons; each is read from its binary export if there is one */
+    private static final String TELEPORTER_SKELETON = "spines/fold/skeleton.json";
+    private static final String EXPLODER_SKELETON = "spines/fight/skeleton.json";
+    private static final String FLYER_SKELETON = "spines/flight/skeleton.json";
+    private static final String NORMAL_ENEMY_SKELETON = "spines/normal/skeleton.json";
+    private static final String ARMORED_ENEMY_SKELETON = "spines/armored/skeleton.json";
+    private static final String SPIKED_ENEMY_SKELETON = "spines/spiked/skeleton.json";
+    private static final String HOLE_ENEMY_SKELETON = "spines/donut/skeleton.json";
+    private static final String INVINCIBLE_ENEMY_SKELETON = "spines/invinsible/skeleton.json";
     /** Reference to the mouse crosshair texture when the teleport ability is active */
     private static final String TELEPORT_MOUSE_FILE = "ui/cursors/teleport_selector.png";
     /** Reference to the world pausing texture */
@@ -354,20 +379,16 @@ public class GameplayController extends SuperController implements Screen {
     /** How many frames after winning/losing do we continue? */
     public static final int EXIT_COUNT = 120;
 
-    /** The amount of time for a physics engine step. */
-    public static final float WORLD_STEP = 1/60.0f;
-    /** Number of velocity iterations for the constrain solvers */
-    public static final int WORLD_VELOC = 6;
-    /** Number of position iterations for the constrain solvers */
-    public static final int WORLD_POSIT = 2;
     /** Width of the game world in Box2d units */
     protected static final float DEFAULT_WIDTH  = 32.0f;
     /** Height of the game world in Box2d units */
     protected static final float DEFAULT_HEIGHT = 18.0f;
     /** The default value of gravity (going down) */
     protected static final float DEFAULT_GRAVITY = 0f;
-    /** radius of boxobject for detecting selection of objects (follows cursor) */
-    protected static final float SELECTOR_RADIUS = 0.01f;
+    /** How far past the camera (in Box2D units) entities are still drawn, for skeletons larger than their box */
+    private static final float CULL_MARGIN = 2.0f;
+    /** How far from the right edge of the screen (in pixels) the frame profiler is drawn */
+    private static final float PROFILE_WIDTH = 520f;
 
     /** The intended pixel width of the game screen, stored as a variable for resizing. */
     private static final float INTENDED_WIDTH = 1920;
@@ -397,7 +418,6 @@ public class GameplayController extends SuperController implements Screen {
     /** These are the spine part of the animations
      *
      */
-    TextureAtlas teleporterAtlas,exploderAtlas,flyerAtlas,normalEnemyAtlas,armorEnemyAtlas,spikedEnemyAtlas,holeEnemyAtlas,invincibleEnemyAtlas;
     SkeletonData teleporterSkeletonData,exploderSkeletonData,flyerSkeletonData,normalEnemySkeletonData,armorEnemySkeletonData,spikedEnemySkeletonData,holeEnemySkeletonData,invincibleEnemySkeletonData;
     AnimationStateData teleporterAnimationData, exploderAnimationData,flyerAnimationData,normalAnimationData,armorAnimationData,spikedAnimationData,holeAnimationData,invincibleAnimationData;
     ObjectMap<BoxEntity.State, InputController.StateView> teleporterStates = new ObjectMap<>(),
@@ -473,6 +493,10 @@ public class GameplayController extends SuperController implements Screen {
 
     /** the levelmodel of the current level*/
     private LevelModel model;
+    /** The level model whose walls are in the world, or null if they must be rebuilt on reset */
+    private LevelModel populatedModel;
+    /** The area the walls in the world were built for */
+    private GameWorld populatedArea;
 
     /** All the objects in the world. */
     protected PooledList<Entity> objects;
@@ -480,6 +504,18 @@ public class GameplayController extends SuperController implements Screen {
     protected PooledList<Entity> addQueue = new PooledList<>();
     /** Box object for detecting selection of objects (follows cursor) */
     protected BoxEntity selector;
+    /** Spatial index of the entities in the world, kept up to date as they move */
+    protected SpatialGrid entityGrid;
+    /** The walls of the level, baked into static meshes */
+    protected WallMesh wallMesh;
+    /** Cache object for the camera bounds when culling */
+    private Rectangle cullBounds = new Rectangle();
+    /** Cache array for the entities near the camera */
+    private Array<BoxEntity> cullCache = new Array<>();
+    /** The number of entities drawn last frame */
+    private int drawnCount;
+    /** The number of entities skipped last frame for being off-screen */
+    private int culledCount;
 
     /** Reference to the game canvas */
     protected GameCanvas canvas;
@@ -495,6 +531,10 @@ public class GameplayController extends SuperController implements Screen {
     protected Vector2 scale;
     /** Cache object for setting vector positions */
     private Vector2 cache;
+    /** Cache object for the camera bounds in Box2D coordinates when reading input */
+    private Rectangle inputBounds = new Rectangle();
+    /** Cache object for the offset of an octopus from the camera */
+    private Vector2 indicatorCache = new Vector2();
 
     /** The Scene2D table for the reset screen. */
     private Table resetTable;
@@ -516,11 +556,31 @@ public class GameplayController extends SuperController implements Screen {
     private BitmapFont resetFont;
 
     private AssetManager manager;
+    /** The asset bundles of the screens and worlds */
+    private AssetBundles bundles;
+    /** The world whose asset bundle this controller holds, or null if it holds none */
+    private GameWorld heldArea;
+    /** Whether a reset waits for the content of this controller to load */
+    private boolean resetPending;
 
     /** Countdown active for winning or losing */
     private int countdown;
     /** Current level to be loaded */
     private int currentLevel;
+    /** The title drawn over the current level, built once rather than every frame */
+    private String levelTitle = "";
+    /** The worker thread that loads levels while the transition to this screen plays */
+    private AsyncExecutor levelPreparer = new AsyncExecutor(1, "LevelPreparer");
+    /** The level being loaded by the worker thread, or null if there is none */
+    private AsyncResult<LevelModel> preparation;
+    /** The exit code of the level being loaded by the worker thread */
+    private int preparingLevel;
+    /** When the level being loaded was submitted to the worker thread, in nanoseconds */
+    private long preparationStart;
+    /** When the worker thread finished loading the level, in nanoseconds */
+    private volatile long preparationLoaded;
+    /** Whether the last prepared level was loaded but could not be populated */
+    private boolean populateFailed;
 
     /** The x variable for sin function used in the octopus animation. */
     private float animationVar = 0;
@@ -533,6 +593,8 @@ public class GameplayController extends SuperController implements Screen {
     private boolean failed;
     /** Whether or not debug mode is active */
     private boolean debug;
+    /** Times each phase of the gameplay loop, when toggled on */
+    private FrameProfiler profiler;
     /** Tracks if this controller was started in level editing mode or gameplay mode. */
     private boolean playing;
     /** keep track of if time is frozen */
@@ -610,6 +672,7 @@ public class GameplayController extends SuperController implements Screen {
         complete = false;
         failed = false;
         debug  = false;
+        profiler = new FrameProfiler();
         active = false;
         promptForReset = false;
         paused = false;
@@ -618,18 +681,19 @@ public class GameplayController extends SuperController implements Screen {
         setDebug(false);
         setFailure(false);
         objects = new PooledList<>();
-        selector = new BoxEntity(12,12,SELECTOR_RADIUS*scale.x,SELECTOR_RADIUS*scale.y, Entity.EntityType.SELECTOR);
-        selector.setActive(true);
-        selector.setSensor(true);
+        entityGrid = new SpatialGrid(Simulation.GRID_CELL_SIZE);
+        wallMesh = new WallMesh();
+        selector = Simulation.createSelector(scale);
         objects.add(selector);
 
         BC = new ObstacleController(canvas, scale, assets);
         OC = new OctopusController(scale, canvas, assets);
         EC = new EnemyController(scale, canvas, assets);
+        simulation = new Simulation(OC, EC);
         model = new LevelModel();
         model.bounds = new Rectangle(0,0,DEFAULT_WIDTH,DEFAULT_HEIGHT);
         model.initCamPos = new Vector2(DEFAULT_WIDTH/2,DEFAULT_HEIGHT/2);
-        LC = new LevelEditorController(canvas,bounds,objects,scale,OC,EC,CC,BC);
+        LC = new LevelEditorController(canvas,bounds,objects,wallMesh,scale,OC,EC,CC,BC);
         world.setContactListener(CC);
 
         CC = new CollisionController(BC, OC);
@@ -764,6 +828,8 @@ public class GameplayController extends SuperController implements Screen {
         this.levelEdit = levelEdit;
         if (levelEdit) {
             //model = new LevelModel();
+            // The editor writes into the model, so it must not touch the cached one
+            model = new LevelModel(model);
         }
     }
 
@@ -774,15 +840,121 @@ public class GameplayController extends SuperController implements Screen {
      * @return Whether the the load was successful.
      */
     public boolean setCurrentLevel(int currentLevel) {
+        LevelModel loaded;
         try {
-            model = LevelLoader.parseJson(exitCodeToLevelName(currentLevel));
+            loaded = LevelLoader.loadLevel(exitCodeToLevelName(currentLevel));
         } catch (Exception e) {
             e.printStackTrace();
             return false;
         }
+        applyLevel(currentLevel, loaded);
+        return true;
+    }
+
+    /**
+     * Makes the given level model the current level, without populating it.
+     *
+     * @param currentLevel The exit code related to the level.
+     * @param loaded The model of the level.
+     */
+    private void applyLevel(int currentLevel, LevelModel loaded) {
+        model = loaded;
         this.currentLevel = currentLevel;
-        setArea(currentLevel / 100 == 1 ? GameWorld.CAVE : currentLevel / 100 == 2 ? GameWorld.SHIP : GameWorld.OCEAN);
+        levelTitle = "Level "+currentLevel/100+"-"+currentLevel%100;
+        setArea(exitCodeToArea(currentLevel));
         canvas.setCameraPosInScreen(model.initCamPos);
+    }
+
+    /**
+     * Starts loading a level on a worker thread, to be finished by {@link #finishPreparation()}.
+     *
+     * Parsing the level (unless it is cached) and validating it happen in the background,
+     * since neither touches OpenGL or Box2D. Nothing about the current level changes until
+     * the preparation is finished, so the previous screen can keep drawing meanwhile.
+     *
+     * @param level The exit code related to the level to load.
+     */
+    public void prepareLevel(int level) {
+        final String name = exitCodeToLevelName(level);
+        preparingLevel = level;
+        // The music of the world streams in while the level loads
+        holdArea(exitCodeToArea(level));
+        populateFailed = false;
+        preparationStart = TimeUtils.nanoTime();
+        preparation = levelPreparer.submit(new AsyncTask<LevelModel>() {
+            @Override
+            public LevelModel call() throws Exception {
+                LevelModel loaded = LevelLoader.loadLevel(name);
+                LevelLoader.validate(loaded, name);
+                preparationLoaded = TimeUtils.nanoTime();
+                return loaded;
+            }
+        });
+    }
+
+    /**
+     * Returns whether the last prepared level was loaded but could not be populated.
+     *
+     * @return whether the last prepared level could not be populated
+     */
+    public boolean didPopulateFail() {
+        return populateFailed;
+    }
+
+    /**
+     * Resets the level once the content of this controller has loaded, as the transition
+     * to this screen finishes.
+     */
+    public void prepareReset() {
+        resetPending = true;
+    }
+
+    @Override
+    public boolean isPrepared() {
+        boolean loaded = worldAssetState == AssetState.COMPLETE || bundles == null || bundles.isLoaded(this);
+        return loaded && (preparation == null || preparation.isDone());
+    }
+
+    /**
+     * Populates the level loaded by {@link #prepareLevel(int)}, on the main thread.
+     *
+     * This builds the world, the entities and their views, which need OpenGL and Box2D. The
+     * time spent loading, waiting for the transition, and populating is logged.
+     *
+     * @return whether the level was loaded and populated
+     */
+    @Override
+    public boolean finishPreparation() {
+        if (worldAssetState != AssetState.COMPLETE) {
+            loadContent(manager);
+        }
+        if (preparation == null) {
+            if (resetPending) {
+                resetPending = false;
+                reset();
+            }
+            return true;
+        }
+        LevelModel loaded;
+        try {
+            loaded = preparation.get();
+        } catch (GdxRuntimeException e) {
+            e.printStackTrace();
+            preparation = null;
+            return false;
+        }
+        preparation = null;
+        long start = TimeUtils.nanoTime();
+        applyLevel(preparingLevel, loaded);
+        populateFailed = !populate();
+        if (populateFailed) {
+            return false;
+        }
+        canvas.resetCameraToWorldPos();
+        long end = TimeUtils.nanoTime();
+        Gdx.app.log("GameplayController", String.format("Prepared %s: loaded in %.1f ms, waited %.1f ms, populated in %.1f ms",
+                exitCodeToLevelName(preparingLevel), (preparationLoaded - preparationStart) / 1e6f,
+                (start - preparationLoaded) / 1e6f, (end - start) / 1e6f));
         return true;
     }
 
@@ -805,6 +977,16 @@ public class GameplayController extends SuperController implements Screen {
         return "world" + exitCode/100 + "_" + exitCode%100;
     }
 
+    /**
+     * Converts an exit code instance to the area of the game world the level is in.
+     *
+     * @param exitCode The exit code to be converted.
+     * @return The area of the level related to that exit code.
+     */
+    private GameWorld exitCodeToArea(int exitCode) {
+        return exitCode / 100 == 1 ? GameWorld.CAVE : exitCode / 100 == 2 ? GameWorld.SHIP : GameWorld.OCEAN;
+    }
+
     /**
      * Sets the ScreenListener for this mode
      *
@@ -820,6 +1002,24 @@ public class GameplayController extends SuperController implements Screen {
         this.manager = manager;
     }
 
+    /**
+     * Sets the asset bundles, making the assets queued by this controller its screen bundle.
+     *
+     * The music of each area is put in the bundle of its world, so that only the music of
+     * the areas in use is loaded.
+     *
+     * @param bundles The asset bundles of the screens and worlds
+     */
+    public void setBundles(AssetBundles bundles) {
+        this.bundles = bundles;
+        bundles.setScreen(this, assets);
+        for (OctopusController.MusicState state : OctopusController.MusicState.values()) {
+            String name = musicStateToString(state);
+            bundles.add(GameWorld.CAVE, CAVE_MUSIC_BASE_PATH + name + ".ogg", AudioSource.class);
+            bundles.add(GameWorld.SHIP, SHIP_MUSIC_BASE_PATH + name + ".ogg", AudioSource.class);
+        }
+    }
+
     /**  */
     public void setLevelList(LevelList levelList) {
         this.levelList = levelList;
@@ -850,13 +1050,24 @@ public class GameplayController extends SuperController implements Screen {
         assets.add(GRABBING_TEXTURE);
     }
 
+    /**
+     * Queues the Spine skeletons of the octopi and the enemies, with their atlases.
+     *
+     * The skeletons are parsed by the asset manager while the loading screen is up, and
+     * set up by {@link #loadOctopusAssets()} and {@link #loadEnemyAssets()} afterwards.
+     */
+    void loadSkeletons() {
+        String[] skeletons = {TELEPORTER_SKELETON, EXPLODER_SKELETON, FLYER_SKELETON, NORMAL_ENEMY_SKELETON,
+                ARMORED_ENEMY_SKELETON, SPIKED_ENEMY_SKELETON, HOLE_ENEMY_SKELETON, INVINCIBLE_ENEMY_SKELETON};
+        for (String skeleton : skeletons) {
+            manager.load(skeleton, SkeletonData.class);
+            assets.add(skeleton);
+        }
+    }
+
     void loadOctopusAssets () {
         // For teleporter
-        teleporterAtlas = new TextureAtlas(Gdx.files.internal("spines/fold/skeleton.atlas"));
-
-        SkeletonJson json = new SkeletonJson(teleporterAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        teleporterSkeletonData = json.readSkeletonData(Gdx.files.internal("spines/fold/skeleton.json"));
+        teleporterSkeletonData = manager.get(TELEPORTER_SKELETON, SkeletonData.class);
 
         teleporterAnimationData = new AnimationStateData(teleporterSkeletonData);
         teleporterAnimationData.setDefaultMix(0.2f);
@@ -873,11 +1084,7 @@ public class GameplayController extends SuperController implements Screen {
         octopusAnimationStateData.put(OctopusEntity.OctopusSubType.TELEPORTER,teleporterAnimationData);
         octopusStates.put(OctopusEntity.OctopusSubType.TELEPORTER,teleporterStates);
         // For exploder
-        exploderAtlas = new TextureAtlas(Gdx.files.internal("spines/fight/skeleton.atlas"));
-
-        json = new SkeletonJson(exploderAtlas);
-        json.setScale(1);
-        exploderSkeletonData = json.readSkeletonData(Gdx.files.internal("spines/fight/skeleton.json"));
+        exploderSkeletonData = manager.get(EXPLODER_SKELETON, SkeletonData.class);
 
         exploderAnimationData = new AnimationStateData(exploderSkeletonData);
         exploderAnimationData.setDefaultMix(0.2f);
@@ -894,11 +1101,7 @@ public class GameplayController extends SuperController implements Screen {
         octopusAnimationStateData.put(OctopusEntity.OctopusSubType.EXPLODER,exploderAnimationData);
         octopusStates.put(OctopusEntity.OctopusSubType.EXPLODER,exploderStates);
         // For flyer
-        flyerAtlas = new TextureAtlas(Gdx.files.internal("spines/flight/skeleton.atlas"));
-
-        json = new SkeletonJson(flyerAtlas);
-        json.setScale(1);
-        flyerSkeletonData = json.readSkeletonData(Gdx.files.internal("spines/flight/skeleton.json"));
+        flyerSkeletonData = manager.get(FLYER_SKELETON, SkeletonData.class);
 
         flyerAnimationData = new AnimationStateData(flyerSkeletonData);
         flyerAnimationData.setDefaultMix(0.2f);
@@ -920,11 +1123,7 @@ public class GameplayController extends SuperController implements Screen {
 
     void loadEnemyAssets () {
         // For Normal Enemy
-        normalEnemyAtlas = new TextureAtlas(Gdx.files.internal("spines/normal/skeleton.atlas"));
-
-        SkeletonJson json = new SkeletonJson(normalEnemyAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        normalEnemySkeletonData = json.readSkeletonData(Gdx.files.internal("spines/normal/skeleton.json"));
+        normalEnemySkeletonData = manager.get(NORMAL_ENEMY_SKELETON, SkeletonData.class);
 
         normalAnimationData = new AnimationStateData(normalEnemySkeletonData);
         normalAnimationData.setDefaultMix(0.2f);
@@ -936,11 +1135,7 @@ public class GameplayController extends SuperController implements Screen {
         enemyAnimationStateData.put(EnemyEntity.EnemySubType.NORMAL_ENEMY,normalAnimationData);
         enemyStates.put(EnemyEntity.EnemySubType.NORMAL_ENEMY,normalEnemyStates);
         // For Armor Enemy
-        armorEnemyAtlas = new TextureAtlas(Gdx.files.internal("spines/armored/skeleton.atlas"));
-
-        json = new SkeletonJson(armorEnemyAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        armorEnemySkeletonData = json.readSkeletonData(Gdx.files.internal("spines/armored/skeleton.json"));
+        armorEnemySkeletonData = manager.get(ARMORED_ENEMY_SKELETON, SkeletonData.class);
 
         armorAnimationData = new AnimationStateData(armorEnemySkeletonData);
         armorAnimationData.setDefaultMix(0.2f);
@@ -952,11 +1147,7 @@ public class GameplayController extends SuperController implements Screen {
         enemyAnimationStateData.put(EnemyEntity.EnemySubType.ARMORED_ENEMY,armorAnimationData);
         enemyStates.put(EnemyEntity.EnemySubType.ARMORED_ENEMY,armorEnemyStates);
         // For Spiked Enemy
-        spikedEnemyAtlas = new TextureAtlas(Gdx.files.internal("spines/spiked/skeleton.atlas"));
-
-        json = new SkeletonJson(spikedEnemyAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        spikedEnemySkeletonData = json.readSkeletonData(Gdx.files.internal("spines/spiked/skeleton.json"));
+        spikedEnemySkeletonData = manager.get(SPIKED_ENEMY_SKELETON, SkeletonData.class);
 
         spikedAnimationData = new AnimationStateData(spikedEnemySkeletonData);
         spikedAnimationData.setDefaultMix(0.2f);
@@ -968,11 +1159,7 @@ public class GameplayController extends SuperController implements Screen {
         enemyAnimationStateData.put(EnemyEntity.EnemySubType.SPIKED_ENEMY,spikedAnimationData);
         enemyStates.put(EnemyEntity.EnemySubType.SPIKED_ENEMY,spikedEnemyStates);
         // For Hole Enemy
-        holeEnemyAtlas = new TextureAtlas(Gdx.files.internal("spines/donut/skeleton.atlas"));
-
-        json = new SkeletonJson(holeEnemyAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        holeEnemySkeletonData = json.readSkeletonData(Gdx.files.internal("spines/donut/skeleton.json"));
+        holeEnemySkeletonData = manager.get(HOLE_ENEMY_SKELETON, SkeletonData.class);
 
         holeAnimationData = new AnimationStateData(holeEnemySkeletonData);
         holeAnimationData.setDefaultMix(0.2f);
@@ -984,11 +1171,7 @@ public class GameplayController extends SuperController implements Screen {
         enemyAnimationStateData.put(EnemyEntity.EnemySubType.HOLE_ENEMY,holeAnimationData);
         enemyStates.put(EnemyEntity.EnemySubType.HOLE_ENEMY,holeEnemyStates);
         // For Invincible Enemy
-        invincibleEnemyAtlas = new TextureAtlas(Gdx.files.internal("spines/invinsible/skeleton.atlas"));
-
-        json = new SkeletonJson(invincibleEnemyAtlas);
-        json.setScale(1); // Scale of 1? not sure yet //TODO: ask group member
-        invincibleEnemySkeletonData = json.readSkeletonData(Gdx.files.internal("spines/invinsible/skeleton.json"));
+        invincibleEnemySkeletonData = manager.get(INVINCIBLE_ENEMY_SKELETON, SkeletonData.class);
 
         invincibleAnimationData = new AnimationStateData(invincibleEnemySkeletonData);
         invincibleAnimationData.setDefaultMix(0.2f);
@@ -1026,55 +1209,37 @@ public class GameplayController extends SuperController implements Screen {
      * @param manager Reference to global asset manager.
      */
     public void preLoadContent(AssetManager manager) {
+        TextureRegistry registry = TextureRegistry.getInstance();
         // Background texture
-        manager.load(BACKG_FILE, Texture.class);
-        assets.add(BACKG_FILE);
-        manager.load(BACKG_FILE2, Texture.class);
-        assets.add(BACKG_FILE2);
+        assets.add(registry.load(manager, BACKG_FILE));
+        assets.add(registry.load(manager, BACKG_FILE2));
 
-        manager.load(CLOUDY_BACKGROUND, Texture.class);
-        assets.add(CLOUDY_BACKGROUND);
+        assets.add(registry.load(manager, CLOUDY_BACKGROUND));
 
-        manager.load(PAUSE_CONTROLS, Texture.class);
-        assets.add(PAUSE_CONTROLS);
+        assets.add(registry.load(manager, PAUSE_CONTROLS));
 
         // Mouse Selection Crosshair & Teleport Crosshair textures
-        manager.load(MOUSE_FILE, Texture.class);
-        assets.add(MOUSE_FILE);
-        manager.load(TELEPORT_MOUSE_FILE, Texture.class);
-        assets.add(TELEPORT_MOUSE_FILE);
+        assets.add(registry.load(manager, MOUSE_FILE));
+        assets.add(registry.load(manager, TELEPORT_MOUSE_FILE));
 
         // Indicators of position and index
-        manager.load(INDICATOR_TEXTURE_FIGHT_1, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FIGHT_1);
-        manager.load(INDICATOR_TEXTURE_FIGHT_2, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FIGHT_2);
-        manager.load(INDICATOR_TEXTURE_FIGHT_3, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FIGHT_3);
-
-        manager.load(INDICATOR_TEXTURE_FLIGHT_1, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FLIGHT_1);
-        manager.load(INDICATOR_TEXTURE_FLIGHT_2, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FLIGHT_2);
-        manager.load(INDICATOR_TEXTURE_FLIGHT_3, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FLIGHT_3);
-
-        manager.load(INDICATOR_TEXTURE_FOLD_1, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FOLD_1);
-        manager.load(INDICATOR_TEXTURE_FOLD_2, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FOLD_2);
-        manager.load(INDICATOR_TEXTURE_FOLD_3, Texture.class);
-        assets.add(INDICATOR_TEXTURE_FOLD_3);
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FIGHT_1));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FIGHT_2));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FIGHT_3));
+
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FLIGHT_1));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FLIGHT_2));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FLIGHT_3));
+
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FOLD_1));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FOLD_2));
+        assets.add(registry.load(manager, INDICATOR_TEXTURE_FOLD_3));
 
         // Freeze Image Texture
-        manager.load(PAUSE_TEXTURE, Texture.class);
-        assets.add(PAUSE_TEXTURE);
-        manager.load(PAUSE_BORDER, Texture.class);
-        assets.add(PAUSE_BORDER);
-        manager.load(FREEZE_REF_OFF, Texture.class);
-        assets.add(FREEZE_REF_OFF);
-        manager.load(FREEZE_REF_ON, Texture.class);
-        assets.add(FREEZE_REF_ON);
+        assets.add(registry.load(manager, PAUSE_TEXTURE));
+        assets.add(registry.load(manager, PAUSE_BORDER));
+        assets.add(registry.load(manager, FREEZE_REF_OFF));
+        assets.add(registry.load(manager, FREEZE_REF_ON));
 //        manager.load(FIGHT_REF, Texture.class);
 //        assets.add(FIGHT_REF);
 //        manager.load(FLIGHT_REF, Texture.class);
@@ -1083,39 +1248,24 @@ public class GameplayController extends SuperController implements Screen {
 //        assets.add(FOLD_REF);
 
         // Level compelte textures
-        manager.load(COMPLETE_BG, Texture.class);
-        assets.add(COMPLETE_BG);
-        manager.load(COMPLETE_TEXT, Texture.class);
-        assets.add(COMPLETE_TEXT);
-        manager.load(COMPLETE_CONTINUE, Texture.class);
-        assets.add(COMPLETE_CONTINUE);
-        manager.load(COMPLETE_LEVEL_SELECT, Texture.class);
-        assets.add(COMPLETE_LEVEL_SELECT);
-        manager.load(COMPLETE_OCTOPI, Texture.class);
-        assets.add(COMPLETE_OCTOPI);
-        manager.load(COMPLETE_RETRY, Texture.class);
-        assets.add(COMPLETE_RETRY);
+        assets.add(registry.load(manager, COMPLETE_BG));
+        assets.add(registry.load(manager, COMPLETE_TEXT));
+        assets.add(registry.load(manager, COMPLETE_CONTINUE));
+        assets.add(registry.load(manager, COMPLETE_LEVEL_SELECT));
+        assets.add(registry.load(manager, COMPLETE_OCTOPI));
+        assets.add(registry.load(manager, COMPLETE_RETRY));
 
         //Level failed textures
-        manager.load(FAILED_BG, Texture.class);
-        assets.add(FAILED_BG);
-        manager.load(FAILED_TEXT, Texture.class);
-        assets.add(FAILED_BG);
-        manager.load(FAILED_ENEMIES, Texture.class);
-        assets.add(FAILED_ENEMIES);
-        manager.load(FAILED_LEVEL_SELECT, Texture.class);
-        assets.add(FAILED_LEVEL_SELECT);
-        manager.load(FAILED_RETRY, Texture.class);
-        assets.add(FAILED_RETRY);
-
-        manager.load(FIGHT_GLOW, Texture.class);
-        assets.add(FIGHT_GLOW);
-        manager.load(FLIGHT_GLOW, Texture.class);
-        assets.add(FLIGHT_GLOW);
-        manager.load(FOLD_GLOW, Texture.class);
-        assets.add(FOLD_GLOW);
-        manager.load(NO_GLOW, Texture.class);
-        assets.add(NO_GLOW);
+        assets.add(registry.load(manager, FAILED_BG));
+        assets.add(registry.load(manager, FAILED_TEXT));
+        assets.add(registry.load(manager, FAILED_ENEMIES));
+        assets.add(registry.load(manager, FAILED_LEVEL_SELECT));
+        assets.add(registry.load(manager, FAILED_RETRY));
+
+        assets.add(registry.load(manager, FIGHT_GLOW));
+        assets.add(registry.load(manager, FLIGHT_GLOW));
+        assets.add(registry.load(manager, FOLD_GLOW));
+        assets.add(registry.load(manager, NO_GLOW));
 
         BC.preLoadContent(manager);
         OC.preLoadContent(manager);
@@ -1127,20 +1277,13 @@ public class GameplayController extends SuperController implements Screen {
         worldAssetState = AssetState.LOADING;
         // Load the shared tiles.
         //TODO: for each additional wall texture type we need to do more of these
-        manager.load(WallEntity.getTextureFile(WallEntity.WallTexture.EARTH),Texture.class);
-        assets.add(WallEntity.getTextureFile(WallEntity.WallTexture.EARTH));
-        manager.load(WallEntity.getTextureFile(WallEntity.WallTexture.PIRATE),Texture.class);
-        assets.add(WallEntity.getTextureFile(WallEntity.WallTexture.PIRATE));
-        manager.load(WallEntity.getTextureFile(WallEntity.WallTexture.WOODEN),Texture.class);
-        assets.add(WallEntity.getTextureFile(WallEntity.WallTexture.WOODEN));
-        manager.load(WallEntity.getWallCornerFile(),Texture.class);
-        assets.add(WallEntity.getWallCornerFile());
-        manager.load(WallEntity.getWallEdgeFile(WallEntity.WallTexture.EARTH),Texture.class);
-        assets.add(WallEntity.getWallEdgeFile(WallEntity.WallTexture.EARTH));
-        manager.load(WallEntity.getWallEdgeFile(WallEntity.WallTexture.PIRATE),Texture.class);
-        assets.add(WallEntity.getWallEdgeFile(WallEntity.WallTexture.PIRATE));
-        manager.load(WallEntity.getWallEdgeFile(WallEntity.WallTexture.WOODEN),Texture.class);
-        assets.add(WallEntity.getWallEdgeFile(WallEntity.WallTexture.WOODEN));
+        assets.add(registry.load(manager, WallEntity.getTextureFile(WallEntity.WallTexture.EARTH)));
+        assets.add(registry.load(manager, WallEntity.getTextureFile(WallEntity.WallTexture.PIRATE)));
+        assets.add(registry.load(manager, WallEntity.getTextureFile(WallEntity.WallTexture.WOODEN)));
+        assets.add(registry.load(manager, WallEntity.getWallCornerFile()));
+        assets.add(registry.load(manager, WallEntity.getWallEdgeFile(WallEntity.WallTexture.EARTH)));
+        assets.add(registry.load(manager, WallEntity.getWallEdgeFile(WallEntity.WallTexture.PIRATE)));
+        assets.add(registry.load(manager, WallEntity.getWallEdgeFile(WallEntity.WallTexture.WOODEN)));
 
         // Load the font
         FreetypeFontLoader.FreeTypeFontLoaderParameter size2Params = new FreetypeFontLoader.FreeTypeFontLoaderParameter();
@@ -1150,65 +1293,22 @@ public class GameplayController extends SuperController implements Screen {
         manager.load(RESET_TABLE_FONT, BitmapFont.class, size2Params);
         assets.add(RESET_TABLE_FONT);
 
-        //Load ALL THE MUSIC
-        manager.load(CAVE_MUSIC_BASE_PATH + "noflight" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "noflight" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "nofold" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "nofold" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "nofight" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "nofight" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "all" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "all" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "fold" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "fold" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "fight" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "fight" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "flight" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "flight" + ".ogg");
-        manager.load(CAVE_MUSIC_BASE_PATH + "none" + ".ogg", AudioSource.class);
-        assets.add(CAVE_MUSIC_BASE_PATH + "none" + ".ogg");
-
-        manager.load(SHIP_MUSIC_BASE_PATH + "noflight" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "noflight" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "nofold" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "nofold" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "nofight" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "nofight" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "all" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "all" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "fold" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "fold" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "fight" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "fight" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "flight" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "flight" + ".ogg");
-        manager.load(SHIP_MUSIC_BASE_PATH + "none" + ".ogg", AudioSource.class);
-        assets.add(SHIP_MUSIC_BASE_PATH + "none" + ".ogg");
-
         //Pause menu assets
-        manager.load(PAUSE_BACKGROUND, Texture.class);
-        assets.add(PAUSE_BACKGROUND);
+        assets.add(registry.load(manager, PAUSE_BACKGROUND));
 
-        manager.load(PAUSE_PLAY, Texture.class);
-        assets.add(PAUSE_PLAY);
+        assets.add(registry.load(manager, PAUSE_PLAY));
 
-        manager.load(PAUSE_RESET, Texture.class);
-        assets.add(PAUSE_RESET);
+        assets.add(registry.load(manager, PAUSE_RESET));
 
-        manager.load(PAUSE_LEVEL_SELECT, Texture.class);
-        assets.add(PAUSE_LEVEL_SELECT);
+        assets.add(registry.load(manager, PAUSE_LEVEL_SELECT));
 
-        manager.load(PAUSE_MAIN_MENU, Texture.class);
-        assets.add(PAUSE_MAIN_MENU);
+        assets.add(registry.load(manager, PAUSE_MAIN_MENU));
 
-        manager.load(PAUSE_LEVEL_PAUSED, Texture.class);
-        assets.add(PAUSE_LEVEL_PAUSED);
+        assets.add(registry.load(manager, PAUSE_LEVEL_PAUSED));
 
-        manager.load(PAUSE_LOGO, Texture.class);
-        assets.add(PAUSE_LOGO);
+        assets.add(registry.load(manager, PAUSE_LOGO));
 
-        manager.load(PAUSE_X_ICON, Texture.class);
-        assets.add(PAUSE_X_ICON);
+        assets.add(registry.load(manager, PAUSE_X_ICON));
 
         //Sounds
         manager.load(MENU_CLICK_BACKWARD, Sound.class);
@@ -1246,6 +1346,10 @@ public class GameplayController extends SuperController implements Screen {
     public void loadContent(AssetManager manager) {
         AudioController audio = AudioController.getInstance();
 
+        // Spine animations
+        loadOctopusAssets();
+        loadEnemyAssets();
+
         // load background texture
         backgroundTexture1 = createTexture(manager,BACKG_FILE,false);
         backgroundTexture2 = createTexture(manager,BACKG_FILE2,false);
@@ -1779,7 +1883,8 @@ public class GameplayController extends SuperController implements Screen {
      * Returns a newly loaded texture region for the given file.
      *
      * This helper methods is used to set texture settings (such as scaling, and
-     * whether or not the texture should repeat) after loading.
+     * whether or not the texture should repeat) after loading.  If the file is packed
+     * in an atlas, the region is cut from the atlas instead (see {@link TextureRegistry}).
      *
      * @param manager Reference to global asset manager.
      * @param file The texture (region) file
@@ -1788,15 +1893,7 @@ public class GameplayController extends SuperController implements Screen {
      * @return a newly loaded texture region for the given file.
      */
     protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
-        if (manager.isLoaded(file)) {
-            TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
-            region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            if (repeat) {
-                region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
-            }
-            return region;
-        }
-        return null;
+        return TextureRegistry.getInstance().getRegion(manager, file, repeat);
     }
 
     /**
@@ -1846,16 +1943,15 @@ public class GameplayController extends SuperController implements Screen {
      * Dispose of all (non-static) resources allocated to this mode.
      */
     public void dispose() {
-        teleporterAtlas.dispose();
-        exploderAtlas.dispose();
-        flyerAtlas.dispose();
-        normalEnemyAtlas.dispose();
-        armorEnemyAtlas.dispose();
-        spikedEnemyAtlas.dispose();
-        holeEnemyAtlas.dispose();
-        invincibleEnemyAtlas.dispose();
+        if (profiler.isEnabled()) {
+            writeProfile();
+        }
+        levelPreparer.dispose();
+        wallMesh.dispose();
+        enemyPoses.clear();
         for(Entity obj : objects) {
             obj.deactivatePhysics(world);
+            obj.dispose();
         }
         objects.clear();
         addQueue.clear();
@@ -1871,31 +1967,59 @@ public class GameplayController extends SuperController implements Screen {
     /**
      * Resets the status of the game so that we can play again.
      *
-     * This method disposes of the world and creates a new one.
+     * When the level is being replayed, the world, the selector and the walls are kept and
+     * only the rest of the level is rebuilt. Otherwise this method disposes of the world and
+     * creates a new one.
+     *
+     * @return whether the level could be populated; if not, this screen has asked to exit
      */
     public boolean reset() {
+        if (!populate()) {
+            listener.exitScreen(this, EXIT_POPULATE_FAILED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the world and populates it with the current level model, as described in
+     * {@link #reset()}.
+     *
+     * @return whether the level could be populated
+     */
+    private boolean populate() {
         OC.reset();
         EC.reset();
         BC.reset();
+        // The skeletons of the last level may not be loaded any more
+        enemyPoses.clear();
         time_counter = 0;
-        Vector2 gravity = new Vector2(world.getGravity() );
-        for(Entity obj : objects) {
-            obj.deactivatePhysics(world);
+        boolean replay = canReplay();
+        if (replay) {
+            clearEntities();
+        } else {
+            Vector2 gravity = new Vector2(world.getGravity() );
+            for(Entity obj : objects) {
+                obj.deactivatePhysics(world);
+                obj.dispose();
+            }
+            objects.clear();
+            addQueue.clear();
+            world.dispose();
+            world = new World(gravity,false);
+            world.setContactListener(CC);
         }
-        objects.clear();
-        addQueue.clear();
-        world.dispose();
+        entityGrid.clear();
         finish_countdown = TIME_BEFORE_POP_UP;
+        simulation.reset();
 
-        world = new World(gravity,false);
-        world.setContactListener(CC);
         CC.setComplete(false);
         complete = false;
         setFailure(false);
-        selector = new BoxEntity(12,12,SELECTOR_RADIUS*scale.x,SELECTOR_RADIUS*scale.y, Entity.EntityType.SELECTOR);
-        selector.setActive(true);
-        selector.setSensor(true);
-        selector.activatePhysics(world);
+        if (!replay) {
+            selector = Simulation.createSelector(scale);
+            selector.activatePhysics(world);
+        }
         backgroundTexture = currentArea == GameWorld.CAVE ? backgroundTexture1 : backgroundTexture2;
         setFrozen(false);
         canvas.clearStage();
@@ -1904,17 +2028,35 @@ public class GameplayController extends SuperController implements Screen {
         promptForReset = false;
         complete = false;
 
-        objects.add(selector);
+        if (!replay) {
+            objects.add(selector);
+        }
         //to scale everything
         setCanvas(canvas);
         //levelloader now sets the bounds of the level as well
         try {
+            populatedModel = null;
             if(levelEdit){
                 LC.bounds = LevelLoader.populateLevel(world, objects, model, scale, OC, EC, BC, currentArea);
             }
+            else if (replay) {
+                bounds = LevelLoader.populateEntities(world, objects, model, scale, OC, EC, BC, currentArea);
+            }
             else{
                 bounds = LevelLoader.populateLevel(world, objects, model, scale, OC, EC, BC, currentArea);
             }
+            if (!replay) {
+                wallMesh.markDirty();
+            }
+            if (!levelEdit) {
+                // The editor changes the walls, so only a played level can be replayed
+                populatedModel = model;
+                populatedArea = currentArea;
+                entityGrid.setBounds(bounds);
+                for (Entity obj : objects) {
+                    entityGrid.update(obj);
+                }
+            }
             setCanvas(canvas);
             frozen = false;
             canvas.resetCameraToWorldPos();
@@ -1924,11 +2066,40 @@ public class GameplayController extends SuperController implements Screen {
             return true;
         } catch (Exception e) {
             e.printStackTrace();
-            listener.exitScreen(this, EXIT_POPULATE_FAILED);
             return false;
         }
     }
 
+    /**
+     * Returns whether the next reset only needs to rebuild the level, and not the walls.
+     *
+     * @return whether the world and the walls in it can be kept
+     */
+    private boolean canReplay() {
+        return !levelEdit && model == populatedModel && currentArea == populatedArea;
+    }
+
+    /**
+     * Removes everything but the selector and the walls from the world.
+     */
+    private void clearEntities() {
+        Iterator<PooledList<Entity>.Entry> iterator = objects.entryIterator();
+        while (iterator.hasNext()) {
+            PooledList<Entity>.Entry entry = iterator.next();
+            Entity obj = entry.getValue();
+            if (obj.getEntityType() == Entity.EntityType.WALL) {
+                // The contacts of the old world are gone with it
+                obj.clearCollidingWith();
+            } else if (obj != selector) {
+                obj.deactivatePhysics(world);
+                obj.dispose();
+                selector.removeCollidingWith(obj);
+                entry.remove();
+            }
+        }
+        addQueue.clear();
+    }
+
     /**
      * Returns whether to process the update loop
      *
@@ -1943,18 +2114,19 @@ public class GameplayController extends SuperController implements Screen {
     public boolean preUpdate(float dt) {
         InputController input = InputController.getInstance();
 
-        for (OctopusEntity oct : OC.getOctopusList()) {
+        for (int i = 0; i < OC.getOctopusList().size(); i++) {
+            OctopusEntity oct = OC.getOctopusList().get(i);
             oct.setTexture(no_glow);
         }
-        for (EnemyEntity enemy : EC.getEnemies()) {
+        for (int i = 0; i < EC.getEnemies().size(); i++) {
+            EnemyEntity enemy = EC.getEnemies().get(i);
             enemy.setTexture(no_glow);
         }
 
         //we want the bounds of the camera in box2d space
-        Rectangle cb = canvas.cameraBounds();
-        Rectangle scaledCameraBounds = new Rectangle(cb.x/scale.x,cb.y/scale.y,
-                cb.width/scale.x,cb.height/scale.y);
-        input.readInput(scaledCameraBounds, scale);
+        Rectangle cb = canvas.cameraBounds(inputBounds);
+        cb.set(cb.x/scale.x,cb.y/scale.y,cb.width/scale.x,cb.height/scale.y);
+        input.readInput(cb, scale);
         if (listener == null) {
             return true;
         }
@@ -1972,6 +2144,14 @@ public class GameplayController extends SuperController implements Screen {
             debug = !debug;
         }
 
+        // Toggle the frame profiler, saving what it recorded when turned off
+        if (input.didProfile()) {
+            if (profiler.isEnabled()) {
+                writeProfile();
+            }
+            profiler.setEnabled(!profiler.isEnabled());
+        }
+
         // Handle resets
         if (input.didReset() && !paused && !levelEdit && !complete) {
             if (!promptForReset) {
@@ -2086,14 +2266,22 @@ public class GameplayController extends SuperController implements Screen {
 //        System.out.println(selector.getCollidingWith());
 //        System.out.println(selector.getPosition());
         //Updates in sub controllers
+        profiler.start(FrameProfiler.Phase.OBSTACLES);
         BC.update(dt,frozen, world, OC.getDeadOctopi());
-        OC.update(dt,frozen, objects, world,selector);
+        profiler.stop(FrameProfiler.Phase.OBSTACLES);
+        profiler.start(FrameProfiler.Phase.OCTOPI);
+        OC.update(dt,frozen, entityGrid, world,selector);
+        profiler.stop(FrameProfiler.Phase.OCTOPI);
+        profiler.start(FrameProfiler.Phase.ENEMIES);
         EC.update(dt,OC.getOctopusList(),frozen, world);
+        profiler.stop(FrameProfiler.Phase.ENEMIES);
 
         //Handle camera movement
         canvas.testBounds();
 
-        updateAudio();
+        profiler.start(FrameProfiler.Phase.AUDIO);
+        updateAudio(dt);
+        profiler.stop(FrameProfiler.Phase.AUDIO);
         justSwitched = false;
 
         // add glows if necessary
@@ -2101,7 +2289,8 @@ public class GameplayController extends SuperController implements Screen {
         if (ao != null && referenceMode) {
             switch (ao.getOctopusSubType()) {
                 case EXPLODER:
-                    for (EnemyEntity e : EC.getEnemies()) {
+                    for (int i = 0; i < EC.getEnemies().size(); i++) {
+                        EnemyEntity e = EC.getEnemies().get(i);
                         switch (e.getEnemySubType()) {
                             case INVINCIBLE_ENEMY:
                             case ARMORED_ENEMY:
@@ -2112,7 +2301,8 @@ public class GameplayController extends SuperController implements Screen {
                     }
                     break;
                 case FLYER:
-                    for (EnemyEntity e : EC.getEnemies()) {
+                    for (int i = 0; i < EC.getEnemies().size(); i++) {
+                        EnemyEntity e = EC.getEnemies().get(i);
                         switch (e.getEnemySubType()) {
                             case INVINCIBLE_ENEMY:
                             case HOLE_ENEMY:
@@ -2123,12 +2313,14 @@ public class GameplayController extends SuperController implements Screen {
                     }
                     break;
                 case TELEPORTER:
-                    for (OctopusEntity o : OC.getOctopusList()) {
+                    for (int i = 0; i < OC.getOctopusList().size(); i++) {
+                        OctopusEntity o = OC.getOctopusList().get(i);
                         if (o != ao) {
                             o.setTexture(fold_glow);
                         }
                     }
-                    for (EnemyEntity e : EC.getEnemies()) {
+                    for (int i = 0; i < EC.getEnemies().size(); i++) {
+                        EnemyEntity e = EC.getEnemies().get(i);
                         switch (e.getEnemySubType()) {
                             case SPIKED_ENEMY:
                                 break;
@@ -2151,67 +2343,26 @@ public class GameplayController extends SuperController implements Screen {
      * @param dt Number of seconds since last animation frame
      */
     public void postUpdate(float dt) {
+        profiler.start(FrameProfiler.Phase.POST_UPDATE);
         AudioController audio = AudioController.getInstance();
-        if(frozen) {
-            for (Entity entity : objects) {
-                if (entity.isActive() && entity != selector) {
-                    entity.getBody().setAwake(false);
-                }
-            }
-        } else {
+        simulation.prepare(frozen, objects, bounds);
+        if (!frozen) {
             canvas.removeTable(freezeTable);
-            for (Entity entity : objects) {
-                if (entity.isActive()) {
-                    entity.getBody().setAwake(true);
-                    if (entity.isRemoved()) {
-                        entity.setActive(false);
-                    }
-                    //Clamp all box entities to world
-                    if (entity.getEntityType() == Entity.EntityType.ENEMY || entity.getEntityType() == Entity.EntityType.OCTOPUS) {
-                        cache.set(entity.getPosition());
-                        cache.set(Math.min(Math.max(cache.x, 0), bounds.width), Math.min(Math.max(cache.y, 0), bounds.height));
-                        entity.setPosition(cache);
-                    }
-                }
-                if (entity.getOctopusTeleportEntity() != null) {
-                    OC.setFoldVelocity(entity.getOctopusTeleportEntity(), entity);
-                }
-            }
         }
         // Add any objects created by actions
         while (!addQueue.isEmpty()) {
             LevelLoader.addObject(addQueue.poll(), objects,world, bounds);
         }
 
-        // Turn the physics engine crank.
-        world.step(WORLD_STEP,WORLD_VELOC,WORLD_POSIT);
+        // Turn the physics engine crank at a fixed rate, however long the frame was.
+        profiler.stop(FrameProfiler.Phase.POST_UPDATE);
+        profiler.start(FrameProfiler.Phase.PHYSICS);
+        float alpha = simulation.advance(dt, frozen, world, objects);
+        profiler.stop(FrameProfiler.Phase.PHYSICS);
+        profiler.start(FrameProfiler.Phase.POST_UPDATE);
 
         // Garbage collect the deleted objects.
-        // Note how we use the linked list nodes to delete O(1) in place.
-        // This is O(n) without copying.
-        Iterator<PooledList<Entity>.Entry> iterator = objects.entryIterator();
-        while (iterator.hasNext()) {
-            PooledList<Entity>.Entry entry = iterator.next();
-            Entity obj = entry.getValue();
-            if (obj.isRemoved()) {
-                obj.deactivatePhysics(world);
-//                switch(obj.getEntityType()) {
-//                    case OCTOPUS:
-//                        OC.getOctopusList().remove(obj);
-//                        break;
-//                    case ENEMY:
-//                        EC.getEnemies().remove(obj);
-//                        break;
-//                    case OBSTACLE:
-//                        BC.getObstacleList().remove(obj);
-//                        break;
-//                }
-                entry.remove();
-            } else {
-                // Note that update is called last!
-                obj.update(dt);
-            }
-        }
+        simulation.collect(dt, alpha, world, objects, entityGrid);
 
         //Update on game completion or octopus deaths
         //TODO: Play the last death animation before failure
@@ -2273,6 +2424,7 @@ public class GameplayController extends SuperController implements Screen {
             setFailure(true);
             Gdx.input.setCursorCatched(false);
         }
+        profiler.stop(FrameProfiler.Phase.POST_UPDATE);
     }
 
     /**
@@ -2282,21 +2434,22 @@ public class GameplayController extends SuperController implements Screen {
      * For simple worlds, this method is enough by itself.  It will need
      * to be overriden if the world needs fancy backgrounds or the like.
      *
-     * The method draws all objects in the order that they were added.
+     * The method draws the walls from their baked meshes (@see WallMesh), and then all
+     * other objects in the order that they were added.
      *
      * @param delta The drawing context
      */
     public void predraw(float delta) {
         canvas.clear();
+        cullToCamera();
 
         canvas.begin();
         canvas.draw(backgroundTexture, Color.WHITE, 0, 0,bounds.getWidth()*scale.x,bounds.getHeight()*scale.y);
-        canvas.end();
-
-        canvas.begin();
+        wallMesh.draw(canvas, objects);
         for(Entity obj : objects) {
             // TODO this is very very bad, need to fix
-            if (obj.isActive() && obj.getEntityType() != Entity.EntityType.OCTOPUS
+            if (obj.isActive() && obj.isInView() && obj.getEntityType() != Entity.EntityType.OCTOPUS
+                    && obj.getEntityType() != Entity.EntityType.WALL
                     && obj.getEntityType() != Entity.EntityType.ENEMY
                     && obj.getEntityType() != Entity.EntityType.OBSTACLE)
                 obj.draw(canvas);
@@ -2304,6 +2457,45 @@ public class GameplayController extends SuperController implements Screen {
         canvas.end();
     }
 
+    /**
+     * Marks which entities are close enough to the camera to be drawn this frame.
+     *
+     * Walls are checked against their bounding box, and everything else is looked up in
+     * the entity grid. Entities out of view are not drawn, and their skeletons are not
+     * posed (@see setCharacterView).
+     */
+    private void cullToCamera() {
+        canvas.cameraBounds(cullBounds);
+        float x0 = cullBounds.x/scale.x - CULL_MARGIN;
+        float y0 = cullBounds.y/scale.y - CULL_MARGIN;
+        float x1 = (cullBounds.x + cullBounds.width)/scale.x + CULL_MARGIN;
+        float y1 = (cullBounds.y + cullBounds.height)/scale.y + CULL_MARGIN;
+        for (Entity obj : objects) {
+            if (obj.getEntityType() == Entity.EntityType.WALL) {
+                obj.setInView(((WallEntity) obj).overlaps(x0, y0, x1, y1));
+            } else {
+                obj.setInView(obj == selector);
+            }
+        }
+        entityGrid.queryRange(x0, y0, x1, y1, cullCache);
+        for (int i = 0; i < cullCache.size; i++) {
+            cullCache.get(i).setInView(true);
+        }
+        cullCache.clear();
+
+        drawnCount = 0;
+        culledCount = 0;
+        for (Entity obj : objects) {
+            if (obj.isActive() && obj != selector) {
+                if (obj.isInView()) {
+                    drawnCount++;
+                } else {
+                    culledCount++;
+                }
+            }
+        }
+    }
+
     /**
      * Draw the physics objects to the canvas with the part after the
      * octopus and enemies are drawn.
@@ -2333,7 +2525,6 @@ public class GameplayController extends SuperController implements Screen {
         // UI Drawing
         if (!promptForReset && !paused && !complete) {
             // Drawing for reference mode
-            canvas.begin();
             if (frozen && OC.getActiveOctopus() != null && referenceMode) {
                 cache.set(canvas.getCameraPosInScreen())
                         .sub(canvas.getViewport().getWorldWidth()/2, canvas.getViewport().getWorldHeight()/2)
@@ -2359,85 +2550,80 @@ public class GameplayController extends SuperController implements Screen {
 //                        break;
 //                }
             }
-            canvas.end();
 
             // Octopi Index-Position Indicator
             if (frozen && (!CC.isComplete() && !complete)) {
                 cache.set(canvas.getCameraPosInScreen())
                         .sub(canvas.getCameraMoveX(), canvas.getCameraMoveY());
-                canvas.begin();
                 for (int i = 0; i < OC.getOctopusList().size(); i++) {
                     OctopusEntity ent = OC.getOctopusList().get(i);
                     if (ent.isActive()) {
-                        Vector2 v = ent.getPosition().cpy().scl(scale).sub(cache);
+                        Vector2 v = indicatorCache.set(ent.getPosition()).scl(scale).sub(cache);
                         float angle = v.angleRad();
                         float dx = Math.min((canvas.getViewport().getWorldWidth()/2),Math.max(-canvas.getViewport().getWorldWidth()/2,v.x))-((float)Math.sin(angle+Math.PI/2))*ent.getHeight()/2;
                         float dy = Math.min((canvas.getViewport().getWorldHeight()/2),Math.max(-canvas.getViewport().getWorldHeight()/2,v.y))+((float)Math.cos(angle+Math.PI/2))*ent.getHeight()/2;
                         // If in screen, then show all of them upwards, otherwise should which direction to trace the octopus
                         if (dx != v.x-((float)Math.sin(angle+Math.PI/2))*ent.getHeight()/2 || dy != v.y+((float)Math.cos(angle+Math.PI/2))*ent.getHeight()/2) {
                             if (i == 0) {
-                                canvas.draw(indicator_texture_1.get(ent.getOctopusSubType()),indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
+                                canvas.queue(LAYER_UI, indicator_texture_1.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
                             } else if (i == 1) {
-                                canvas.draw(indicator_texture_2.get(ent.getOctopusSubType()),indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
+                                canvas.queue(LAYER_UI, indicator_texture_2.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
                             } else {
-                                canvas.draw(indicator_texture_3.get(ent.getOctopusSubType()),indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
+                                canvas.queue(LAYER_UI, indicator_texture_3.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+dx,cache.y+dy, (float) (angle+Math.PI/2),0.7f,0.6f);
                             }
                         } else {
                             if (ent.getY()*scale.y+ent.getHeight()/2 < cache.y+canvas.getViewport().getWorldHeight()/2) {
                                 if (i == 0) {
-                                    canvas.draw(indicator_texture_1.get(ent.getOctopusSubType()),indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_1.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
                                 } else if (i == 1) {
-                                    canvas.draw(indicator_texture_2.get(ent.getOctopusSubType()),indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_2.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
                                 } else {
-                                    canvas.draw(indicator_texture_3.get(ent.getOctopusSubType()),indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_3.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y+ent.getHeight()/2, 0,0.7f,0.6f);
                                 }
                             } else {
                                 if (i == 0) {
-                                    canvas.draw(indicator_texture_1.get(ent.getOctopusSubType()),indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_1.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_1.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_1.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
                                 } else if (i == 1) {
-                                    canvas.draw(indicator_texture_2.get(ent.getOctopusSubType()),indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_2.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_2.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_2.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
                                 } else {
-                                    canvas.draw(indicator_texture_3.get(ent.getOctopusSubType()),indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
+                                    canvas.queue(LAYER_UI, indicator_texture_3.get(ent.getOctopusSubType()), Color.WHITE,indicator_texture_3.get(ent.getOctopusSubType()).getRegionWidth()/2f,indicator_texture_3.get(ent.getOctopusSubType()).getRegionHeight()/2f,cache.x+v.x,cache.y+v.y-ent.getHeight()/2, (float) Math.PI,0.7f,0.6f);
                                 }
                             }
                         }
                     }
                 }
-                canvas.end();
             }
 
             // Mouse Reticles
-            canvas.begin();
             if (OC.getTeleportSelectionActive()) {
-                canvas.draw(teleportSelectorTexture, Color.WHITE, teleportSelectorTexture.getRegionWidth() / 2f,
+                canvas.queue(LAYER_UI, teleportSelectorTexture, Color.WHITE, teleportSelectorTexture.getRegionWidth() / 2f,
                         teleportSelectorTexture.getRegionHeight() / 2f, input.getMouse().x,
                         input.getMouse().y, scale.x, scale.y);
             } else if (OC.getTeleportQueued()) {
-                for (OctopusEntity o : OC.getOctopusList()) {
+                for (int i = 0; i < OC.getOctopusList().size(); i++) {
+                    OctopusEntity o = OC.getOctopusList().get(i);
                     if (o.isAlive() && o.getOctopusSubType() == OctopusEntity.OctopusSubType.TELEPORTER && o.getTeleportEntity() != null) {
-                        canvas.draw(teleportSelectorTexture, Color.WHITE, teleportSelectorTexture.getRegionWidth() / 2f,
+                        canvas.queue(LAYER_UI, teleportSelectorTexture, Color.WHITE, teleportSelectorTexture.getRegionWidth() / 2f,
                                 teleportSelectorTexture.getRegionHeight() / 2f, o.getTeleportEntity().getX() * scale.x,
                                 o.getTeleportEntity().getY() * scale.y, scale.x, scale.y);
                     }
                 }
                 if (!BC.isRespawnActive()) {
-                    canvas.draw(crosshairTexture, Color.WHITE, crosshairTexture.getRegionWidth() / 2f, crosshairTexture.getRegionHeight() / 2f, input.getMouse().x,
+                    canvas.queue(LAYER_UI, crosshairTexture, Color.WHITE, crosshairTexture.getRegionWidth() / 2f, crosshairTexture.getRegionHeight() / 2f, input.getMouse().x,
                             input.getMouse().y, scale.x, scale.y);
                 }
             } else {
                 if (!BC.isRespawnActive()) {
-                    canvas.draw(crosshairTexture, Color.WHITE, crosshairTexture.getRegionWidth() / 2f, crosshairTexture.getRegionHeight() / 2f, input.getMouse().x,
+                    canvas.queue(LAYER_UI, crosshairTexture, Color.WHITE, crosshairTexture.getRegionWidth() / 2f, crosshairTexture.getRegionHeight() / 2f, input.getMouse().x,
                             input.getMouse().y, scale.x, scale.y);
                 }
             }
-            canvas.end();
         }
 
         //Draw other parts of the completed / failed screens
         if (complete && !failed) {
             Vector2 offset = canvas.getCameraPosInScreen().sub(canvas.getViewport().getWorldWidth()/2f, canvas.getViewport().getWorldHeight()/2f);
-            canvas.begin();
-            canvas.draw(completeBgTexture, Color.WHITE, offset.x, offset.y, canvas.getWidth(), canvas.getHeight());
+            canvas.queue(LAYER_SCREEN_BACKGROUND, completeBgTexture, Color.WHITE, offset.x, offset.y, canvas.getWidth(), canvas.getHeight());
             for (BubbleGroup bubbleGroup : screenBubbles) {
                 bubbleGroup.updatePosition(delta);
                 bubbleGroup.draw(canvas, offset.x, offset.y);
@@ -2450,21 +2636,58 @@ public class GameplayController extends SuperController implements Screen {
             float width = completeOctopi.getRegionWidth()/INTENDED_WIDTH * canvas.getWidth();
             float height = completeOctopi.getRegionHeight()/INTENDED_HEIGHT * canvas.getHeight();
             //not sure why these are voer 4 instead of 2, but it works
-            canvas.draw(completeOctopi, Color.WHITE, width/2f, height/2f,
+            canvas.queue(LAYER_SCREEN, completeOctopi, Color.WHITE, width/2f, height/2f,
                     canvas.getWidth()/2f + offset.x,
                     (INTENDED_COMPLETE_OCTOPI_POS/INTENDED_HEIGHT * canvas.getHeight()) + offset.y + heightOff, width, height);
-            canvas.end();
         } else if (complete) {
             Vector2 offset = canvas.getCameraPosInScreen().sub(canvas.getViewport().getWorldWidth()/2f, canvas.getViewport().getWorldHeight()/2f);
-            canvas.begin();
-            canvas.draw(failedBgTexture, Color.WHITE, offset.x, offset.y, canvas.getWidth(), canvas.getHeight());
+            canvas.queue(LAYER_SCREEN_BACKGROUND, failedBgTexture, Color.WHITE, offset.x, offset.y, canvas.getWidth(), canvas.getHeight());
             //TODO: Draw moving enemies
-            canvas.end();
         }
 
 //        canvas.drawStage(delta);
     }
 
+    /**
+     * Draws the draw call, flush and culling counts of the last frame in the top left corner.
+     */
+    private void drawRenderStats() {
+        cache.set(canvas.getCameraPosInScreen())
+                .sub(canvas.getViewport().getWorldWidth()/2, canvas.getViewport().getWorldHeight()/2)
+                .sub(canvas.getCameraMoveX(), canvas.getCameraMoveY());
+        BitmapFont font = manager.get(FONT_FILE,BitmapFont.class);
+        font.setColor(Color.WHITE);
+        canvas.begin();
+        canvas.drawText("Draw calls: "+canvas.getDrawCalls()+"  Flushes: "+canvas.getFlushCount()
+                +"  Drawn: "+drawnCount+"  Culled: "+culledCount,font,
+                20+cache.x,canvas.getHeight()-20+cache.y);
+        canvas.end();
+    }
+
+    /**
+     * Draws the frame profiler percentiles in the top right corner.
+     */
+    private void drawProfile() {
+        cache.set(canvas.getCameraPosInScreen())
+                .sub(canvas.getViewport().getWorldWidth()/2, canvas.getViewport().getWorldHeight()/2)
+                .sub(canvas.getCameraMoveX(), canvas.getCameraMoveY());
+        BitmapFont font = manager.get(FONT_FILE,BitmapFont.class);
+        font.setColor(Color.WHITE);
+        canvas.begin();
+        canvas.drawText(profiler.getSummary(),font,canvas.getWidth()-PROFILE_WIDTH+cache.x,canvas.getHeight()-20+cache.y);
+        canvas.end();
+    }
+
+    /**
+     * Writes what the frame profiler recorded to a CSV file, and logs where it went.
+     */
+    private void writeProfile() {
+        FileHandle file = profiler.writeCsv();
+        if (file != null) {
+            Gdx.app.log("FrameProfiler", "Wrote "+file.path());
+        }
+    }
+
     @Override
     public void transitionDraw(float delta) {
         if (!levelEdit) {
@@ -2586,29 +2809,46 @@ public class GameplayController extends SuperController implements Screen {
             if (!levelEdit) {
                 // Get the center position of camera
                 time_counter += delta;
-                if (preUpdate(delta)) {
+                profiler.beginFrame();
+                canvas.beginFrame();
+                profiler.start(FrameProfiler.Phase.INPUT);
+                boolean proceed = preUpdate(delta);
+                profiler.stop(FrameProfiler.Phase.INPUT);
+                if (proceed) {
                     update(delta); // This is the one that must be defined.
                     postUpdate(delta);
+                    profiler.start(FrameProfiler.Phase.DRAW_WORLD);
                     predraw(delta);
+                    profiler.stop(FrameProfiler.Phase.DRAW_WORLD);
+                    profiler.start(FrameProfiler.Phase.ANIMATION);
                     setCharacterView(delta,frozen);
+                    profiler.stop(FrameProfiler.Phase.ANIMATION);
+                    profiler.start(FrameProfiler.Phase.DRAW_OBSTACLES);
                     BC.draw(delta, frozen,OC);
+                    profiler.stop(FrameProfiler.Phase.DRAW_OBSTACLES);
+                    profiler.start(FrameProfiler.Phase.DRAW_OCTOPI);
                     OC.draw(delta, frozen);
+                    profiler.stop(FrameProfiler.Phase.DRAW_OCTOPI);
+                    profiler.start(FrameProfiler.Phase.DRAW_ENEMIES);
                     EC.draw(delta, frozen, complete || CC.isComplete());
+                    profiler.stop(FrameProfiler.Phase.DRAW_ENEMIES);
+                    profiler.start(FrameProfiler.Phase.DRAW_WORLD);
                     postdraw(delta);
+                    profiler.stop(FrameProfiler.Phase.DRAW_WORLD);
+                    profiler.start(FrameProfiler.Phase.DRAW_QUEUE);
                     // Draw grabbing effect
                     for (Entity ent : objects) {
                         if (ent.getEntityType() == Entity.EntityType.OCTOPUS && (((OctopusEntity)ent).getTeleportEntity() != null && ((OctopusEntity)ent).getTeleportEntity().isActive())) {
-                            if (grabbing_frame >= 0 && grabbing_frame < 35) {
-                                Entity teleportedEntity = ((OctopusEntity) ent).getTeleportEntity();
-                                grabbingTentacle.setFrame(grabbing_frame/5);
-                                if (!frozen) grabbing_frame = (grabbing_frame + 1) % 35;
-                                canvas.begin();
-                                canvas.draw(grabbingTentacle, com.badlogic.gdx.graphics.Color.WHITE,grabbingTentacle.getRegionWidth()/2f,
-                                        grabbingTentacle.getRegionHeight()/2f,teleportedEntity.getX()*scale.x,teleportedEntity.getY()*scale.y,ent.getPosition().sub(teleportedEntity.getPosition()).angleRad(),0.8f,0.8f);
-                                canvas.end();
-                            }
+                            Entity teleportedEntity = ((OctopusEntity) ent).getTeleportEntity();
+                            grabbingTentacle.setFrame(simulation.getGrabbingStep()/5);
+                            canvas.queue(LAYER_EFFECTS, grabbingTentacle, Color.WHITE,grabbingTentacle.getRegionWidth()/2f,
+                                    grabbingTentacle.getRegionHeight()/2f,teleportedEntity.getDrawX()*scale.x,teleportedEntity.getDrawY()*scale.y,cache.set(ent.getDrawPosition()).sub(teleportedEntity.getDrawPosition()).angleRad(),0.8f,0.8f);
                         }
                     }
+                    canvas.begin();
+                    canvas.drawQueue();
+                    canvas.end();
+                    profiler.stop(FrameProfiler.Phase.DRAW_QUEUE);
                     if (frozen && !complete && !CC.isComplete()) {
                         cache.set(canvas.getCameraPosInScreen())
                                 .sub(canvas.getViewport().getWorldWidth()/2, canvas.getViewport().getWorldHeight()/2)
@@ -2616,10 +2856,11 @@ public class GameplayController extends SuperController implements Screen {
                         levelFont = manager.get(FONT_FILE,BitmapFont.class);
                         levelFont.setColor(Color.WHITE);
                         canvas.begin();
-                        canvas.drawText("Level "+currentLevel/100+"-"+currentLevel%100,levelFont,100+cache.x,100+cache.y);
+                        canvas.drawText(levelTitle,levelFont,100+cache.x,100+cache.y);
                         canvas.end();
                     }
                 }
+                profiler.start(FrameProfiler.Phase.UI);
                 if (time_counter < 3) {
                     cache.set(canvas.getCameraPosInScreen())
                             .sub(canvas.getViewport().getWorldWidth()/2, canvas.getViewport().getWorldHeight()/2)
@@ -2629,10 +2870,19 @@ public class GameplayController extends SuperController implements Screen {
                     else if (time_counter > 2) beginFont.setColor(Color.WHITE.r,Color.WHITE.g,Color.WHITE.b,1-(time_counter-2));
                     else beginFont.setColor(Color.WHITE.r,Color.WHITE.g,Color.WHITE.b,1);
                     canvas.begin();
-                    canvas.drawTextWithWidth("Level "+currentLevel/100+"-"+currentLevel%100,beginFont,(float)(canvas.getWidth())/2+cache.x,(float)(canvas.getHeight())/2+cache.y);
+                    canvas.drawTextWithWidth(levelTitle,beginFont,(float)(canvas.getWidth())/2+cache.x,(float)(canvas.getHeight())/2+cache.y);
                     canvas.end();
                 }
+                if (debug) {
+                    drawRenderStats();
+                }
+                if (profiler.isEnabled()) {
+                    drawProfile();
+                }
+                canvas.endFrame();
                 canvas.drawStage(delta);
+                profiler.stop(FrameProfiler.Phase.UI);
+                profiler.endFrame();
             } else {
                 if(LC.getLoadLevelFlagged() != null){
                     try {
@@ -2659,7 +2909,7 @@ public class GameplayController extends SuperController implements Screen {
                         entity.characterView = new OctopusView(octopusSkeletonData,octopusAnimationStateData,octopusStates,(OctopusEntity)entity,scale);
                         break;
                     case ENEMY:
-                        entity.characterView = new EnemyView(enemySkeletonData,enemyAnimationStateData,enemyStates,(EnemyEntity)entity,scale);
+                        entity.characterView = new EnemyView(enemySkeletonData,enemyAnimationStateData,enemyStates,(EnemyEntity)entity,scale,enemyPoses);
                         break;
                     default:
                         break;
@@ -2669,7 +2919,11 @@ public class GameplayController extends SuperController implements Screen {
 //                if (((BoxEntity)entity).state== BoxEntity.State.death) {
 //                    System.out.println("dead");
 //                }
-                entity.characterView.update(delta,frozen);
+                if (entity.isInView()) {
+                    entity.characterView.update(delta,frozen);
+                } else {
+                    entity.characterView.updateCulled(delta,frozen);
+                }
             }
         }
     }
@@ -2699,6 +2953,7 @@ public class GameplayController extends SuperController implements Screen {
             // Useless if called in outside animation loop
             AudioController audio = AudioController.getInstance();
             active = true;
+            holdArea(currentArea);
             justSwitched = true;
             canvas.clearStage();
             if (frozen && playing)
@@ -2718,6 +2973,7 @@ public class GameplayController extends SuperController implements Screen {
         // Useless if called in outside animation loop
         active = false;
         canvas.resetCameraToWindowSize();
+        holdArea(null);
     }
     //#endregion
     //=================================
@@ -2734,10 +2990,33 @@ public class GameplayController extends SuperController implements Screen {
         currentArea = area;
     }
 
+    /**
+     * Holds the asset bundle of the given area, letting go of the one held before.
+     *
+     * The new bundle is requested before the old one is released, so assets they share
+     * stay loaded.
+     *
+     * @param area The area to hold the bundle of, or null to hold none.
+     */
+    private void holdArea(GameWorld area) {
+        if (bundles == null || area == heldArea) {
+            return;
+        }
+        if (area != null) {
+            bundles.request(area);
+        }
+        if (heldArea != null) {
+            bundles.release(heldArea);
+        }
+        heldArea = area;
+    }
+
     /**
      * Updates the music and sound effects in the world.
+     *
+     * @param dt Number of seconds since last animation frame
      */
-    private void updateAudio() {
+    private void updateAudio(float dt) {
         AudioController audio = AudioController.getInstance();
         if ((OC.changedMusicState() || justSwitched) && playing ) {
             String filepath = currentArea == GameWorld.CAVE ? CAVE_MUSIC_BASE_PATH :
@@ -2748,7 +3027,7 @@ public class GameplayController extends SuperController implements Screen {
                 audio.playMusicFromSpot(filepath + musicStateToString(OC.getMusicState()) + ".ogg");
             }
         }
-        audio.update();
+        audio.update(dt);
     }
 
     /**
@@ -5,7 +5,11 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.esotericsoftware.spine.Animation;
+import edu.cornell.gdiac.octoplasm.util.InputBuffer;
+
+import java.util.Arrays;
 
 public class InputController {
 
@@ -28,106 +32,38 @@ public class InputController {
     /**  */
     private GameCanvas canvas;
 
+    /** The number of key codes tracked */
+    private static final int KEY_COUNT = 256;
+    /** The number of mouse buttons tracked */
+    private static final int BUTTON_COUNT = 5;
+    /** The keys the game reads, which are polled when events cannot be trusted */
+    private static final int[] KEYS = {
+            Input.Keys.R, Input.Keys.MINUS, Input.Keys.EQUALS, Input.Keys.P, Input.Keys.N,
+            Input.Keys.NUM_1, Input.Keys.NUM_2, Input.Keys.NUM_3, Input.Keys.E, Input.Keys.L,
+            Input.Keys.K, Input.Keys.J, Input.Keys.SPACE, Input.Keys.T, Input.Keys.W,
+            Input.Keys.A, Input.Keys.S, Input.Keys.D, Input.Keys.O, Input.Keys.B,
+            Input.Keys.C, Input.Keys.H, Input.Keys.ESCAPE, Input.Keys.BACKSPACE, Input.Keys.LEFT,
+            Input.Keys.RIGHT, Input.Keys.UP, Input.Keys.DOWN, Input.Keys.Q, Input.Keys.Y,
+            Input.Keys.U, Input.Keys.CONTROL_LEFT, Input.Keys.CONTROL_RIGHT
+    };
+
     // Fields to manage buttons
-    /** Whether the reset button was pressed. */
-    private boolean resetPressed;
-    private boolean resetPrevious;
-    /** Whether the button to advanced worlds was pressed. */
-    private boolean nextPressed;
-    private boolean nextPrevious;
-    /** Whether the button to step back worlds was pressed. */
-    private boolean prevPressed;
-    private boolean prevPrevious;
-    /** Whether a mouse button was pressed. */
-    private boolean clickPressed;
-    private boolean clickPrevious;
-    /** Whether the left click of the mouse is pressed */
-    private boolean leftMousePressed;
-    private boolean leftMousePrevious;
-    /** Whether the right click of the mouse is pressed */
-    private boolean rightMousePressed;
-    private boolean rightMousePrevious;
-    /** Whether the control key is pressed */
-    private boolean controlPressed;
-    private boolean controlPrevious;
-    /** Whether the debug toggle was pressed. */
-    private boolean debugPressed;
-    private boolean debugPrevious;
-    /** Whether the select octopus one button was pressed. */
-    private boolean onePressed;
-    private boolean onePrevious;
-    /** Whether the select octopus two button was pressed. */
-    private boolean twoPressed;
-    private boolean twoPrevious;
-    /** Whether the select octopus three button was pressed. */
-    private boolean threePressed;
-    private boolean threePrevious;
-    /** Whether the wall button was pressed. */
-    private boolean wallPressed;
-    private boolean wallPrevious;
-    /** Whether the w button was pressed. */
-    private boolean wPressed;
-    private boolean wPrevious;
-    /** Whether the a button was pressed. */
-    private boolean aPressed;
-    private boolean aPrevious;
-    /** Whether the s button was pressed. */
-    private boolean sPressed;
-    private boolean sPrevious;
-    /** Whether the d button was pressed. */
-    private boolean dPressed;
-    private boolean dPrevious;
-    /** Whether the o button was pressed. */
-    private boolean oPressed;
-    private boolean oPrevious;
-    /** Whether the b button was pressed. */
-    private boolean bPressed;
-    private boolean bPrevious;
-    /** Whether the b button was pressed. */
-    private boolean qPressed;
-    private boolean qPrevious;
-    /** Whether the e button was pressed. */
-    private boolean enemySelectPressed;
-    private boolean enemySelectPrevious;
-    /** Whether the set camera button was pressed. */
-    private boolean setCameraPressed;
-    private boolean setCameraPrevious;
-    /** Whether the set bounds button was pressed. */
-    private boolean setBoundsPressed;
-    private boolean setBoundsPrevious;
-    /** Whether the escape button was pressed. */
-    private boolean escPressed;
-    private boolean escPrevious;
-    /** Whether the backspace button was pressed. */
-    private boolean backspacePressed;
-    private boolean backspacePrevious;
-    /** Whether the ability key is pressed. */
-    private boolean abilityPressed;
-    private boolean abilityPrevious;
-    /** Whether the level edit toggle was pressed*/
-    private boolean levelEditPressed;
-    private boolean levelEditPrevious;
-    /** Whether the save level button was pressed*/
-    private boolean saveLevelPressed;
-    private boolean saveLevelPrevious;
-    /** Whether the load level button was pressed*/
-    private boolean loadLevelPressed;
-    private boolean loadLevelPrevious;
-    /** Whether the space button was pressed. */
-    private boolean spacePressed;
-    private boolean spacePrevious;
-    /** Whether the left arrow key was pressed. */
-    private boolean leftPressed;
-    private boolean leftPrevious;
-    /** Whether the right arrow key was pressed. */
-    private boolean rightPressed;
-    private boolean rightPrevious;
-    /** Whether the tutorial icon key was pressed. */
-    private boolean tutorialPressed;
-    private boolean tutorialPrevious;
-    /** Whether the tutorial icon key was pressed. */
-    private boolean tutorialPressedText;
-    private boolean tutorialPreviousText;
+    /** The key and mouse button events not yet read */
+    private InputBuffer events;
+    /** Whether events have been recorded; until then all input is polled */
+    private boolean eventDriven;
+    /** Whether each key is down, as of the last read */
+    private boolean[] keysDown;
+    /** Whether each key went down since the previous read */
+    private boolean[] keysPressed;
+    /** Whether each mouse button is down, as of the last read */
+    private boolean[] buttonsDown;
+    /** Whether each mouse button went down since the previous read */
+    private boolean[] buttonsPressed;
+    /** Whether each mouse button went up since the previous read */
+    private boolean[] buttonsReleased;
+    /** The age of the oldest event in the last read, in nanoseconds */
+    private long latency;
     /** Whether the mouse is left */
     private boolean mouseIsLeft;
     /** Whether the mouse is right */
@@ -165,6 +101,12 @@ public class InputController {
         crosshair = new Vector2();
         crosscache = new Vector2();
         mouse = new Vector2();
+        events = new InputBuffer();
+        keysDown = new boolean[KEY_COUNT];
+        keysPressed = new boolean[KEY_COUNT];
+        buttonsDown = new boolean[BUTTON_COUNT];
+        buttonsPressed = new boolean[BUTTON_COUNT];
+        buttonsReleased = new boolean[BUTTON_COUNT];
     }
     //#endregion
     //=================================
@@ -242,7 +184,7 @@ public class InputController {
      * @return true if the secondary action button was pressed.
      */
     public boolean didClick() {
-        return clickPressed && !clickPrevious;
+        return buttonsPressed[Input.Buttons.LEFT] || buttonsPressed[Input.Buttons.RIGHT];
     }
 
     /**
@@ -251,7 +193,7 @@ public class InputController {
      * @return If the left mouse button was just pressed down.
      */
     public boolean didClickLeft() {
-        return leftMousePressed && !leftMousePrevious && !controlPressed;
+        return buttonsPressed[Input.Buttons.LEFT] && !isControlPressed();
     }
 
     /**
@@ -263,7 +205,7 @@ public class InputController {
      * @return If the left mouse button is currently down.
      */
     public boolean didPressLeft() {
-        return leftMousePressed;
+        return isButtonDown(Input.Buttons.LEFT);
     }
 
     /**
@@ -272,7 +214,7 @@ public class InputController {
      * @return If the left mouse button was just released.
      */
     public boolean didReleaseLeft() {
-        return !leftMousePressed && leftMousePrevious;
+        return buttonsReleased[Input.Buttons.LEFT];
     }
 
     /**
@@ -281,7 +223,7 @@ public class InputController {
      * @return If the right mouse button was just released.
      */
     public boolean didReleaseRight() {
-        return !rightMousePressed && rightMousePrevious;
+        return buttonsReleased[Input.Buttons.RIGHT];
     }
 
     /**
@@ -290,7 +232,7 @@ public class InputController {
      * @return If the right mouse button was just pressed down.
      */
     public boolean didClickRight() {
-        return (rightMousePressed && !rightMousePrevious) || (leftMousePressed && controlPressed);
+        return buttonsPressed[Input.Buttons.RIGHT] || (isButtonDown(Input.Buttons.LEFT) && isControlPressed());
     }
 
     /**
@@ -327,7 +269,9 @@ public class InputController {
     //#region Keyboard
 
     /** Returns true if control button was pressed. */
-    public boolean isControlPressed() {return controlPressed;}
+    public boolean isControlPressed() {
+        return isKeyDown(Input.Keys.CONTROL_LEFT) || isKeyDown(Input.Keys.CONTROL_RIGHT);
+    }
 
     /**
      * Returns true if the reset button was pressed.
@@ -335,7 +279,7 @@ public class InputController {
      * @return true if the reset button was pressed.
      */
     public boolean didReset() {
-        return resetPressed && !resetPrevious;
+        return keysPressed[Input.Keys.R];
     }
 
     /**
@@ -344,7 +288,7 @@ public class InputController {
      * @return true if the player wants to go to the next level.
      */
     public boolean didAdvance() {
-        return nextPressed && !nextPrevious;
+        return keysPressed[Input.Keys.N];
     }
 
     /**
@@ -353,7 +297,7 @@ public class InputController {
      * @return true if the player wants to go to the previous level.
      */
     public boolean didRetreat() {
-        return prevPressed && !prevPrevious;
+        return keysPressed[Input.Keys.P];
     }
 
     /**
@@ -362,105 +306,198 @@ public class InputController {
      * @return true if the player wants to go toggle the debug mode.
      */
     public boolean didDebug() {
-//        return debugPressed && !debugPrevious;
+//        return keysPressed[Input.Keys.MINUS];
         return false;
     }
 
+    /**
+     * Returns true if the player wants to toggle the frame profiler.
+     *
+     * @return true if the player wants to toggle the frame profiler.
+     */
+    public boolean didProfile() {
+        return keysPressed[Input.Keys.EQUALS];
+    }
+
     /**
      * Returns true if the select octopus one button was pressed
      *
      * @return true if the select octopus one button was pressed
      */
-    public boolean didSelectOne() {return onePressed && !onePrevious;}
+    public boolean didSelectOne() {return keysPressed[Input.Keys.NUM_1];}
 
     /**
      * Returns true if the select octopus two button was pressed
      *
      * @return true if the select octopus two button was pressed
      */
-    public boolean didSelectTwo() {return twoPressed && !twoPrevious;}
+    public boolean didSelectTwo() {return keysPressed[Input.Keys.NUM_2];}
 
     /**
      * Returns true if the select octopus three button was pressed
      *
      * @return true if the select octopus three button was pressed
      */
-    public boolean didSelectThree() {return threePressed && !threePrevious;}
+    public boolean didSelectThree() {return keysPressed[Input.Keys.NUM_3];}
 
     /** Returns true if the w button was pressed. */
-    public boolean didSelectWall() {return wallPressed && !wallPrevious;}
+    public boolean didSelectWall() {return keysPressed[Input.Keys.T];}
 
     /** Returns true if the w button was pressed. */
-    public boolean wIsHeld() {return wPressed;}
+    public boolean wIsHeld() {return isKeyDown(Input.Keys.W);}
 
     /** Returns true if the w button was pressed. */
-    public boolean aIsHeld() {return aPressed;}
+    public boolean aIsHeld() {return isKeyDown(Input.Keys.A);}
 
     /** Returns true if the w button was pressed. */
-    public boolean sIsHeld() {return sPressed;}
+    public boolean sIsHeld() {return isKeyDown(Input.Keys.S);}
 
     /** Returns true if the w button was pressed. */
-    public boolean dIsHeld() {return dPressed;}
+    public boolean dIsHeld() {return isKeyDown(Input.Keys.D);}
 
     /** Returns true if the b button was pressed. */
-    public boolean didSelectObstacle() {return bPressed && !bPrevious;}
+    public boolean didSelectObstacle() {return keysPressed[Input.Keys.B];}
 
     /** Returns true if the o button was pressed. */
-    public boolean didSelectOctopus() {return oPressed && !oPrevious;}
+    public boolean didSelectOctopus() {return keysPressed[Input.Keys.O];}
 
     /** Returns true if the e button was pressed. */
-    public boolean didSelectEnemy() {return enemySelectPressed && !enemySelectPrevious;}
+    public boolean didSelectEnemy() {return keysPressed[Input.Keys.E];}
 
     /** Returns true if the escape was pressed. */
-    public boolean didSelectEscape() {return escPressed && !escPrevious;}
+    public boolean didSelectEscape() {return keysPressed[Input.Keys.ESCAPE];}
 
     /** Returns true if the select octopus three button was pressed. */
-    public boolean didSelectBackspace() {return backspacePressed && !backspacePrevious;}
+    public boolean didSelectBackspace() {return keysPressed[Input.Keys.BACKSPACE];}
 
     /** Returns true if the activate octopus ability button was pressed. */
-    public boolean didAbility() {return abilityPressed && !abilityPrevious;}
+    public boolean didAbility() {return keysPressed[Input.Keys.E];}
 
     /** Returns true if the toggle level edit mode button was pressed. */
-    public boolean didLevelEdit(){return levelEditPressed && !levelEditPrevious;}
+    public boolean didLevelEdit(){return keysPressed[Input.Keys.L];}
 
     /** Returns true if the save level button was pressed. */
-    public boolean didSaveLevel(){return saveLevelPressed && !saveLevelPrevious;}
+    public boolean didSaveLevel(){return keysPressed[Input.Keys.K];}
 
     /** Returns true if the save level button was pressed. */
-    public boolean didLoadLevel(){return loadLevelPressed && !loadLevelPrevious;}
+    public boolean didLoadLevel(){return keysPressed[Input.Keys.J];}
 
     /** Returns true if the freeze screen button was pressed. */
-    public boolean didFreeze() {return spacePressed && !spacePrevious;}
+    public boolean didFreeze() {return keysPressed[Input.Keys.SPACE];}
 
     /** Returns true if the left arrow key was pressed. */
-    public boolean didRotateLeft() {return leftPressed && !leftPrevious;}
+    public boolean didRotateLeft() {return keysPressed[Input.Keys.LEFT];}
 
     /** Returns true if the right arrow key was pressed. */
-    public boolean didRotateRight() {return rightPressed && !rightPrevious;}
+    public boolean didRotateRight() {return keysPressed[Input.Keys.RIGHT];}
 
     /** Returns true if the tutorial icon button was pressed */
     public boolean didTutorialIcon() {
-        return tutorialPressed && !tutorialPrevious;
+        return keysPressed[Input.Keys.Y];
     }
 
     public boolean didTutorialText() {
-        return tutorialPressedText && !tutorialPreviousText;
+        return keysPressed[Input.Keys.U];
     }
 
     /** Returns true if the set camera key was pressed. */
-    public boolean didSetCamera() {return setCameraPressed && !setCameraPrevious;}
+    public boolean didSetCamera() {return keysPressed[Input.Keys.C];}
 
     /** Returns true if the set bounds key was pressed. */
-    public boolean didSetBounds() {return setBoundsPressed && !setBoundsPrevious;}
+    public boolean didSetBounds() {return keysPressed[Input.Keys.H];}
 
     /** Returns true if the right arrow key was pressed. */
-    public boolean didSelectQ() {return qPressed && !qPrevious;}
+    public boolean didSelectQ() {return keysPressed[Input.Keys.Q];}
     //#endregion
     //=================================
 
     //#endregion
     //=================================
 
+    //=========================================================================
+    //#region Events
+    /**
+     * Returns the age of the oldest event in the last read, in nanoseconds.
+     *
+     * This is the longest any key or button press waited before the game saw it.
+     *
+     * @return the age of the oldest event in the last read, in nanoseconds.
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * Records that a key was pressed.
+     *
+     * This should be called from the keyDown callback of the active input processor.
+     *
+     * @param keycode The key code of the key
+     */
+    public void keyDown(int keycode) {
+        events.record(InputBuffer.KEY_DOWN, keycode);
+    }
+
+    /**
+     * Records that a key was released.
+     *
+     * This should be called from the keyUp callback of the active input processor.
+     *
+     * @param keycode The key code of the key
+     */
+    public void keyUp(int keycode) {
+        events.record(InputBuffer.KEY_UP, keycode);
+    }
+
+    /**
+     * Records that a mouse button was pressed.
+     *
+     * This should be called from the touchDown callback of the active input processor.
+     *
+     * @param button The button code of the button
+     */
+    public void buttonDown(int button) {
+        events.record(InputBuffer.BUTTON_DOWN, button);
+    }
+
+    /**
+     * Records that a mouse button was released.
+     *
+     * This should be called from the touchUp callback of the active input processor.
+     *
+     * @param button The button code of the button
+     */
+    public void buttonUp(int button) {
+        events.record(InputBuffer.BUTTON_UP, button);
+    }
+
+    /**
+     * Returns true if the key is down, or was pressed since the previous read.
+     *
+     * A key that was pressed and released between two reads counts as down for the
+     * read that sees it, so that a quick tap is never lost.
+     *
+     * @param keycode The key code of the key
+     *
+     * @return true if the key is down, or was pressed since the previous read.
+     */
+    private boolean isKeyDown(int keycode) {
+        return keysDown[keycode] || keysPressed[keycode];
+    }
+
+    /**
+     * Returns true if the mouse button is down, or was pressed since the previous read.
+     *
+     * @param button The button code of the button
+     *
+     * @return true if the mouse button is down, or was pressed since the previous read.
+     */
+    private boolean isButtonDown(int button) {
+        return buttonsDown[button] || buttonsPressed[button];
+    }
+    //#endregion
+    //=================================
+
     /**
      * Reads the input for the player and converts the result into game logic.
      *
@@ -471,111 +508,110 @@ public class InputController {
      * If both bounds and scale are passed in as null, the position will not be clamped and the
      * crosshair position will not be updated.
      *
+     * Keys and mouse buttons are read from the events recorded since the previous read,
+     * so every press is seen exactly once no matter how long the frame took.
+     *
      * @param bounds The input bounds for the crosshair.
      * @param scale The drawing scale
      */
     public void readInput(Rectangle bounds, Vector2 scale) {
-        // Copy state from last animation frame, helps us ignore buttons that are held down
-        clickPrevious = clickPressed;
-        leftMousePrevious = leftMousePressed;
-        rightMousePrevious = rightMousePressed;
-        resetPrevious  = resetPressed;
-        debugPrevious  = debugPressed;
-        nextPrevious = nextPressed;
-        prevPrevious = prevPressed;
-        controlPrevious = controlPressed;
-
-        setBoundsPrevious = setBoundsPressed;
-        setCameraPrevious = setCameraPressed;
-        onePrevious = onePressed;
-        twoPrevious = twoPressed;
-        threePrevious = threePressed;
-        spacePrevious = spacePressed;
-        abilityPrevious = abilityPressed;
-        levelEditPrevious = levelEditPressed;
-        saveLevelPrevious = saveLevelPressed;
-        loadLevelPrevious = loadLevelPressed;
-        wallPrevious = wallPressed;
-        wPrevious = wPressed;
-        aPrevious = aPressed;
-        sPrevious = sPressed;
-        dPrevious = dPressed;
-        oPrevious = oPressed;
-        bPrevious = bPressed;
-        enemySelectPrevious = enemySelectPressed;
-        escPrevious = escPressed;
-        backspacePrevious = backspacePressed;
-        leftPrevious = leftPressed;
-        rightPrevious = rightPressed;
-        qPrevious = qPressed;
-        tutorialPrevious = tutorialPressed;
-        tutorialPreviousText = tutorialPressedText;
+        // Presses and releases are only reported by the read that sees them
+        Arrays.fill(keysPressed, false);
+        Arrays.fill(buttonsPressed, false);
+        Arrays.fill(buttonsReleased, false);
 
+        readEvents();
         readKeyboard(bounds, scale);
     }
 
     /**
-     * Reads input from the keyboard.
-     *
-     * This controller reads from the keyboard regardless of whether or not an X-Box
-     * controller is connected.  However, if a controller is connected, this method
-     * gives priority to the X-Box controller.
+     * Applies the key and mouse button events recorded since the previous read.
      *
+     * Until the first event arrives (the active input processor may not record them),
+     * or if events were dropped, the keys and buttons are polled instead.  Otherwise
+     * polling is only used to let go of keys whose release was never delivered, such
+     * as a key released while the window was in the background.
      */
-    private void readKeyboard(Rectangle bounds, Vector2 scale) {
-        // Give priority to gamepad results
-        resetPressed = Gdx.input.isKeyPressed(Input.Keys.R);
-        debugPressed = Gdx.input.isKeyPressed(Input.Keys.MINUS);
-        prevPressed = Gdx.input.isKeyPressed(Input.Keys.P);
-        nextPressed = Gdx.input.isKeyPressed(Input.Keys.N);
-        onePressed  = Gdx.input.isKeyPressed(Input.Keys.NUM_1);
-        twoPressed  = Gdx.input.isKeyPressed(Input.Keys.NUM_2);
-        threePressed  = Gdx.input.isKeyPressed(Input.Keys.NUM_3);
-        abilityPressed = Gdx.input.isKeyPressed(Input.Keys.E);
-        levelEditPressed = Gdx.input.isKeyPressed(Input.Keys.L);
-        saveLevelPressed = Gdx.input.isKeyPressed(Input.Keys.K);
-        loadLevelPressed = Gdx.input.isKeyPressed(Input.Keys.J);
-        spacePressed  = Gdx.input.isKeyPressed(Input.Keys.SPACE);
-        wallPressed = Gdx.input.isKeyPressed(Input.Keys.T);
-        wPressed = Gdx.input.isKeyPressed(Input.Keys.W);
-        aPressed = Gdx.input.isKeyPressed(Input.Keys.A);
-        sPressed = Gdx.input.isKeyPressed(Input.Keys.S);
-        dPressed = Gdx.input.isKeyPressed(Input.Keys.D);
-        oPressed = Gdx.input.isKeyPressed(Input.Keys.O);
-        bPressed = Gdx.input.isKeyPressed(Input.Keys.B);
-        setCameraPressed = Gdx.input.isKeyPressed(Input.Keys.C);
-        setBoundsPressed = Gdx.input.isKeyPressed(Input.Keys.H);
-        enemySelectPressed = Gdx.input.isKeyPressed(Input.Keys.E);
-        escPressed = Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE);
-        backspacePressed = Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE);
-        leftPressed = Gdx.input.isKeyJustPressed(Input.Keys.LEFT);
-        rightPressed = Gdx.input.isKeyJustPressed(Input.Keys.RIGHT);
-        qPressed = Gdx.input.isKeyJustPressed(Input.Keys.Q);
-        tutorialPressed = Gdx.input.isKeyPressed(Input.Keys.Y);
-        tutorialPressedText = Gdx.input.isKeyPressed(Input.Keys.U);
-        controlPressed = Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT) || Gdx.input.isKeyPressed(Input.Keys.CONTROL_RIGHT);
+    private void readEvents() {
+        long now = TimeUtils.nanoTime();
+        latency = 0;
+        while (events.next()) {
+            eventDriven = true;
+            latency = Math.max(latency, now - events.getTime());
+            int code = events.getCode();
+            switch (events.getType()) {
+                case InputBuffer.KEY_DOWN:
+                    if (code >= 0 && code < KEY_COUNT) {
+                        // Ignore key repeats
+                        keysPressed[code] |= !keysDown[code];
+                        keysDown[code] = true;
+                    }
+                    break;
+                case InputBuffer.KEY_UP:
+                    if (code >= 0 && code < KEY_COUNT) {
+                        keysDown[code] = false;
+                    }
+                    break;
+                case InputBuffer.BUTTON_DOWN:
+                    if (code >= 0 && code < BUTTON_COUNT) {
+                        buttonsPressed[code] |= !buttonsDown[code];
+                        buttonsDown[code] = true;
+                    }
+                    break;
+                case InputBuffer.BUTTON_UP:
+                    if (code >= 0 && code < BUTTON_COUNT) {
+                        buttonsReleased[code] |= buttonsDown[code];
+                        buttonsDown[code] = false;
+                    }
+                    break;
+            }
+        }
 
+        boolean poll = !eventDriven || events.checkOverflow();
+        for (int key : KEYS) {
+            boolean down = Gdx.input.isKeyPressed(key);
+            if (poll) {
+                keysPressed[key] |= down && !keysDown[key];
+                keysDown[key] = down;
+            } else if (keysDown[key] && !down) {
+                keysDown[key] = false;
+            }
+        }
+        for (int button = 0; button < BUTTON_COUNT; button++) {
+            boolean down = Gdx.input.isButtonPressed(button);
+            if (poll) {
+                buttonsPressed[button] |= down && !buttonsDown[button];
+                buttonsReleased[button] |= !down && buttonsDown[button];
+                buttonsDown[button] = down;
+            } else if (buttonsDown[button] && !down) {
+                buttonsReleased[button] = true;
+                buttonsDown[button] = false;
+            }
+        }
+    }
+
+    /**
+     * Reads the directional keys and the mouse position.
+     */
+    private void readKeyboard(Rectangle bounds, Vector2 scale) {
         // Directional controls
         horizontal = 0.0f;
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+        if (isKeyDown(Input.Keys.RIGHT)) {
             horizontal += 1.0f;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+        if (isKeyDown(Input.Keys.LEFT)) {
             horizontal -= 1.0f;
         }
 
         vertical = 0.0f;
-        if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
+        if (isKeyDown(Input.Keys.UP)) {
             vertical += 1.0f;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
+        if (isKeyDown(Input.Keys.DOWN)) {
             vertical -= 1.0f;
         }
 
         // Mouse results
-        leftMousePressed = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
-        rightMousePressed = Gdx.input.isButtonPressed(Input.Buttons.RIGHT);
-        clickPressed = leftMousePressed || rightMousePressed;
         readMousePosition(bounds, scale);
     }
 
@@ -1,5 +1,6 @@
 package edu.cornell.gdiac.octoplasm;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
@@ -10,10 +11,10 @@ import edu.cornell.gdiac.octoplasm.entity.*;
 import edu.cornell.gdiac.octoplasm.util.*;
 
 import javax.swing.*;
-import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedList;
 import static edu.cornell.gdiac.octoplasm.GameplayController.*;
+import static edu.cornell.gdiac.octoplasm.Simulation.*;
 
 /**
  * TODO documentation
@@ -31,6 +32,8 @@ public class LevelEditorController {
     Rectangle bounds;
     /** TODO documentation */
     PooledList<Entity> objects;
+    /** The walls of the level, baked into static meshes */
+    WallMesh wallMesh;
     /** TODO documentation */
     Vector2 scale;
     /** TODO documentation */
@@ -66,6 +69,7 @@ public class LevelEditorController {
      * @param canvas
      * @param bounds
      * @param objects
+     * @param wallMesh the baked walls, rebuilt whenever a wall is added or removed
      * @param scale
      * @param OC
      * @param EC
@@ -73,11 +77,12 @@ public class LevelEditorController {
      * @param BC
      */
     public LevelEditorController(GameCanvas canvas, Rectangle bounds, PooledList<Entity> objects,
-                                 Vector2 scale, OctopusController OC, EnemyController EC, CollisionController CC,
+                                 WallMesh wallMesh, Vector2 scale, OctopusController OC, EnemyController EC, CollisionController CC,
                                  ObstacleController BC){
         this.canvas = canvas;
         this.bounds = bounds;
         this.objects = objects;
+        this.wallMesh = wallMesh;
         this.scale = scale;
         this.OC = OC;
         this.EC = EC;
@@ -250,6 +255,7 @@ public class LevelEditorController {
                     wall1.setActive(true);
                     wall1.setSensor(true);
                     objects.add(wall1);
+                    wallMesh.markDirty();
                     world.step(WORLD_STEP,WORLD_VELOC,WORLD_POSIT);
                     if (wall1.getCollidingWithSize() > 0) {
                         //Check if issue is a false alarm
@@ -320,6 +326,7 @@ public class LevelEditorController {
                     objects.remove(colliding);
                     //todo garbage collection??
                     colliding.setActive(false);
+                    wallMesh.markDirty();
                     typeToPut = Entity.EntityType.WALL;
                     walls.clear();
                     float[] verts = ((WallEntity)colliding).getOrigVertices();
@@ -927,7 +934,10 @@ public class LevelEditorController {
             try {
                 String name = JOptionPane.showInputDialog("Enter a name");
                 LevelLoader.generateJson(model,name);
-            } catch (IOException e) {
+                LevelLoader.generateBinary(model,Gdx.files.local("levels/" + name + ".json"),
+                        Gdx.files.local("levels/" + name + LevelLoader.BINARY_EXTENSION));
+                LevelLoader.evictLevel(name);
+            } catch (Exception e) {
                 e.printStackTrace();
             }
         }else if(input.didLoadLevel()){
@@ -939,7 +949,7 @@ public class LevelEditorController {
             bounds.setHeight(Integer.parseInt(y));
             bounds.setWidth(Integer.parseInt(x));
         }
-        AudioController.getInstance().update();
+        AudioController.getInstance().update(dt);
     }
 
 
@@ -974,8 +984,9 @@ public class LevelEditorController {
         canvas.end();
 
         canvas.begin();
+        wallMesh.draw(canvas, objects);
         for(Entity obj : objects) {
-            if (obj.isActive() && obj.getEntityType() != Entity.EntityType.OCTOPUS &&
+            if (obj.isActive() && obj.getEntityType() != Entity.EntityType.OCTOPUS && obj.getEntityType() != Entity.EntityType.WALL &&
                     obj.getEntityType() != Entity.EntityType.ENEMY && obj.getEntityType() != Entity.EntityType.OBSTACLE) {
                 obj.draw(canvas);
             }
@@ -1013,60 +1024,36 @@ public class LevelEditorController {
             entityToPut = null;
             typeToPut = Entity.EntityType.NULL;
         }
-        model.walls.clear();
-        model.wallTexture.clear();
-        model.enemyPos.clear();
-        model.octopusPos.clear();
-        model.objectPos.clear();
-        model.objectAngle.clear();
-        model.OT.clear();
-        model.ET.clear();
-        model.octT.clear();
-        model.TT.clear();
-        model.tutorialPos.clear();
-        model.tutorialAngle.clear();
+        model.clear();
         model.bounds = bounds;
         model.initCamPos = canvas.getCameraPosInScreen();
         for(Entity ent : objects){
-            Vector2 posDescaled;
             switch(ent.getEntityType()){
                 case WALL:
-                    float[] wallsDescaled = new float[((WallEntity)ent).getOrigVertices().length];
+                    float[] wallsDescaled = ((WallEntity)ent).getOrigVertices().clone();
                     //descale walls so that they can be rescaled for various screen sizes
-                    int i = 0;
-                    for(float f : ((WallEntity)ent).getOrigVertices()){
-                        wallsDescaled[i] = i/2 == 0 ? f/scale.x : f/scale.y;
-                        i++;
+                    for(int i = 0; i < wallsDescaled.length; i++){
+                        wallsDescaled[i] /= i % 2 == 0 ? scale.x : scale.y;
                     }
-                    model.walls.add(wallsDescaled);
-                    model.wallTexture.add(((WallEntity)ent).getWallTexture());
+                    model.addWall(wallsDescaled, ((WallEntity)ent).getWallTexture());
                     //TODO: fix wallTexture
                     break;
+                //descale positions so they can be rescaled for various screen sizes
                 case OBSTACLE:
-                    model.OT.add(((ObstacleEntity)ent).getObstacleSubType());
-                    //descale positions so they can be rescaled for various screen sizes
-                    posDescaled = new Vector2(ent.getPosition().x/scale.x,ent.getPosition().y/scale.y);
-                    model.objectPos.add(posDescaled);
-                    model.objectAngle.add(ent.getAngle());
+                    model.addObstacle(((ObstacleEntity)ent).getObstacleSubType(),
+                            ent.getPosition().x/scale.x, ent.getPosition().y/scale.y, ent.getAngle());
                     break;
                 case OCTOPUS:
-                    model.octT.add(((OctopusEntity)ent).getOctopusSubType());
-                    //descale positions so they can be rescaled for various screen sizes
-                    posDescaled = new Vector2(ent.getPosition().x/scale.x,ent.getPosition().y/scale.y);
-                    model.octopusPos.add(posDescaled);
+                    model.addOctopus(((OctopusEntity)ent).getOctopusSubType(),
+                            ent.getPosition().x/scale.x, ent.getPosition().y/scale.y);
                     break;
                 case ENEMY:
-                    model.ET.add(((EnemyEntity)ent).getEnemySubType());
-                    //descale positions so they can be rescaled for various screen sizes
-                    posDescaled = new Vector2(ent.getPosition().x/scale.x,ent.getPosition().y/scale.y);
-                    model.enemyPos.add(posDescaled);
+                    model.addEnemy(((EnemyEntity)ent).getEnemySubType(),
+                            ent.getPosition().x/scale.x, ent.getPosition().y/scale.y);
                     break;
                 case TUTORIAL:
-                    model.TT.add(((TutorialEntity)ent).getTutorialSubType());
-                    //descale positions so they can be rescaled for various screen sizes
-                    posDescaled = new Vector2(ent.getPosition().x/scale.x,ent.getPosition().y/scale.y);
-                    model.tutorialPos.add(posDescaled);
-                    model.tutorialAngle.add(ent.getAngle());
+                    model.addTutorial(((TutorialEntity)ent).getTutorialSubType(),
+                            ent.getPosition().x/scale.x, ent.getPosition().y/scale.y, ent.getAngle());
                     break;
                 default:
             }
@@ -20,6 +20,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.*;
 import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.octoplasm.util.AssetBundles;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.util.LevelList;
 import edu.cornell.gdiac.octoplasm.util.SaveGame;
@@ -170,6 +171,12 @@ public class LevelSelectMode extends SuperController implements Screen {
 
     /** AssetManager to be loading in the background */
     private AssetManager manager;
+    /** The asset bundles of the screens and worlds */
+    private AssetBundles bundles;
+    /** The world whose asset bundle this screen holds, or null if it holds none */
+    private GameplayController.GameWorld heldWorld;
+    /** Whether the content of this screen has been loaded */
+    private boolean contentLoaded;
     /** Reference to GameCanvas created by the root */
     private GameCanvas canvas;
     /** Listener that will update the player mode when we are done */
@@ -377,6 +384,25 @@ public class LevelSelectMode extends SuperController implements Screen {
         this.levelList = levelList;
     }
 
+    /**
+     * Sets the asset bundles, making the assets queued by this screen its screen bundle.
+     *
+     * @param bundles The asset bundles of the screens and worlds
+     */
+    public void setBundles(AssetBundles bundles) {
+        this.bundles = bundles;
+        bundles.setScreen(this, assets);
+    }
+
+    /**
+     * Returns true once the content of this screen has been loaded.
+     *
+     * @return true once the content of this screen has been loaded.
+     */
+    public boolean isContentLoaded() {
+        return contentLoaded;
+    }
+
     /**  */
     public void setSaveGame(SaveGame saveGame) {
         this.saveGame = saveGame;
@@ -508,6 +534,7 @@ public class LevelSelectMode extends SuperController implements Screen {
         //TODO: Load current Level and set
         createMasterTable();
         updateFlavorText();
+        contentLoaded = true;
     }
 
         //===========================================================
@@ -1160,6 +1187,9 @@ public class LevelSelectMode extends SuperController implements Screen {
             listener.setCursor(ScreenListener.CursorState.DEFAULT);
         }
 
+        //Stream in the world being looked at
+        holdWorld(toGameWorld(currentWorldSelection));
+
         //Update Flavor Text
         updateFlavorText();
 
@@ -1192,7 +1222,7 @@ public class LevelSelectMode extends SuperController implements Screen {
 //        oceanLevelIcons.setVisible(currentWorldSelection == WorldSelection.OCEAN);
 
         //Update audio
-        AudioController.getInstance().update();
+        AudioController.getInstance().update(delta);
     }
 
     /**
@@ -1328,6 +1358,7 @@ public class LevelSelectMode extends SuperController implements Screen {
     public void show() {
         if (!active) {
             active = true;
+            holdWorld(toGameWorld(currentWorldSelection));
             canvas.clearStage();
             canvas.addTable(masterTable);
 
@@ -1447,6 +1478,58 @@ public class LevelSelectMode extends SuperController implements Screen {
     @Override
     public void hide() {
         active = false;
+        holdWorld(null);
+    }
+
+    @Override
+    public boolean isPrepared() {
+        return contentLoaded || bundles == null || bundles.isLoaded(this);
+    }
+
+    @Override
+    public boolean finishPreparation() {
+        if (!contentLoaded) {
+            loadContent(manager);
+        }
+        return true;
+    }
+
+    /**
+     * Holds the asset bundle of the given world, letting go of the one held before.
+     *
+     * The new bundle is requested before the old one is released, so assets they share
+     * stay loaded.
+     *
+     * @param world The world to hold the bundle of, or null to hold none.
+     */
+    private void holdWorld(GameplayController.GameWorld world) {
+        if (bundles == null || world == heldWorld) {
+            return;
+        }
+        if (world != null) {
+            bundles.request(world);
+        }
+        if (heldWorld != null) {
+            bundles.release(heldWorld);
+        }
+        heldWorld = world;
+    }
+
+    /**
+     * Returns the game world shown by a world selection screen.
+     *
+     * @param selection The world selection screen
+     * @return The game world shown by the world selection screen.
+     */
+    private GameplayController.GameWorld toGameWorld(WorldSelection selection) {
+        switch (selection) {
+            case SHIP:
+                return GameplayController.GameWorld.SHIP;
+            case OCEAN:
+                return GameplayController.GameWorld.OCEAN;
+            default:
+                return GameplayController.GameWorld.CAVE;
+        }
     }
 
     /**
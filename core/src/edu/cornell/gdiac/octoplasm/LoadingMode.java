@@ -36,6 +36,7 @@ import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.util.AssetBundles;
 import edu.cornell.gdiac.octoplasm.util.FilmStrip;
 import edu.cornell.gdiac.octoplasm.util.ScreenListener;
 
@@ -133,6 +134,10 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
     private Array<String> assets;
     /** AssetManager to be loading in the background */
     private AssetManager manager;
+    /** The asset bundles of the screens, or null to wait for every queued asset */
+    private AssetBundles bundles;
+    /** The screens whose bundles must load before the player can go on */
+    private Screen[] required;
     /** Reference to GameCanvas created by the root */
     private GameCanvas canvas;
     /** Listener that will update the player mode when we are done */
@@ -272,6 +277,19 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
         budget = millis;
     }
 
+    /**
+     * Sets the screens whose bundles must load before the player can go on.
+     *
+     * The assets of the other screens keep loading in the background afterwards.
+     *
+     * @param bundles   The asset bundles of the screens
+     * @param required  The screens to wait for
+     */
+    public void setRequired(AssetBundles bundles, Screen... required) {
+        this.bundles = bundles;
+        this.required = required;
+    }
+
     /**
      * Returns true if all assets are loaded and the player is ready to go.
      *
@@ -372,8 +390,7 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
             listener.setCursor(ScreenListener.CursorState.DEFAULT);
         }
         if (playButton == null) {
-            manager.update(budget);
-            this.progress = manager.getProgress();
+            this.progress = bundles == null ? manager.getProgress() : bundles.getProgress(required);
             if (progress >= 1.0f) {
                 this.progress = 1.0f;
                 playButton = new Texture(PLAY_BTN_FILE);
@@ -579,6 +596,7 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
      * @return whether to hand the event to other listeners.
      */
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        InputController.getInstance().buttonDown(button);
         if (playButton == null || pressState == 2) {
             return true;
         }
@@ -611,6 +629,7 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
      * @return whether to hand the event to other listeners.
      */
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        InputController.getInstance().buttonUp(button);
         if (pressState == 1) {
             pressState = 2;
             return false;
@@ -665,6 +684,7 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
      * @return whether to hand the event to other listeners.
      */
     public boolean keyDown(int keycode) {
+        InputController.getInstance().keyDown(keycode);
         return true;
     }
 
@@ -687,6 +707,7 @@ public class LoadingMode extends SuperController implements Screen, InputProcess
      * @return whether to hand the event to other listeners.
      */
     public boolean keyUp(int keycode) {
+        InputController.getInstance().keyUp(keycode);
         if (keycode == Input.Keys.N || keycode == Input.Keys.P) {
             pressState = 2;
             return false;
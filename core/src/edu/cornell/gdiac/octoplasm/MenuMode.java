@@ -16,6 +16,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Scaling;
 import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.octoplasm.util.AssetBundles;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.util.SaveGame;
 import edu.cornell.gdiac.octoplasm.util.ScreenListener;
@@ -393,6 +394,15 @@ public class MenuMode extends SuperController implements Screen {
     public void setSaveGame(SaveGame saveGame) {
         this.saveGame = saveGame;
     }
+
+    /**
+     * Sets the asset bundles, making the assets queued by this screen its screen bundle.
+     *
+     * @param bundles The asset bundles of the screens and worlds
+     */
+    public void setBundles(AssetBundles bundles) {
+        bundles.setScreen(this, assets);
+    }
     //#endregion
     //=================================
 
@@ -1126,7 +1136,7 @@ public class MenuMode extends SuperController implements Screen {
             listener.setCursor(ScreenListener.CursorState.DEFAULT);
         }
 
-        AudioController.getInstance().update();
+        AudioController.getInstance().update(delta);
     }
 
     /**
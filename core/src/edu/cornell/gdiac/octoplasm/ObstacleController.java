@@ -19,6 +19,7 @@ import edu.cornell.gdiac.octoplasm.entity.ObstacleEntity;
 import edu.cornell.gdiac.octoplasm.entity.OctopusEntity;
 import edu.cornell.gdiac.octoplasm.entity.TutorialEntity;
 import edu.cornell.gdiac.octoplasm.util.FilmStrip;
+import edu.cornell.gdiac.octoplasm.util.TextureRegistry;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -308,7 +309,8 @@ public class ObstacleController {
     public void update(float dt, boolean frozen, World world, ArrayList<OctopusEntity> deadOctopi) {
         if (frozen) return;
         this.deadOctopi = deadOctopi;
-        for (ObstacleEntity o : obstacleList) {
+        for (int i = 0; i < obstacleList.size(); i++) {
+            ObstacleEntity o = obstacleList.get(i);
             if (o.getObstacleSubType() == ObstacleEntity.ObstacleSubType.FLIGHT_WALL && o.getIsSensor()) {
                 o.setActive(false);
             }
@@ -331,111 +333,66 @@ public class ObstacleController {
      * @param manager Reference to global asset manager.
      */
     public void preLoadContent(AssetManager manager) {
+        TextureRegistry registry = TextureRegistry.getInstance();
         this.manager = manager;
-        manager.load(FLIGHT_GOAL_TEXTURE, Texture.class);
-        assets.add(FLIGHT_GOAL_TEXTURE);
-        manager.load(FIGHT_GOAL_TEXTURE, Texture.class);
-        assets.add(FIGHT_GOAL_TEXTURE);
-        manager.load(FOLD_GOAL_TEXTURE, Texture.class);
-        assets.add(FOLD_GOAL_TEXTURE);
-        manager.load(RESPAWN_TEXTURE, Texture.class);
-        assets.add(RESPAWN_TEXTURE);
-        manager.load(FIGHT_WALL_TEXTURE, Texture.class);
-        assets.add(FIGHT_WALL_TEXTURE);
-        manager.load(FLIGHT_WALL_TEXTURE, Texture.class);
-        assets.add(FLIGHT_WALL_TEXTURE);
-        manager.load(FLIGHT_WALL_TEXTURE_FILMSTRIP, Texture.class);
-        assets.add(FLIGHT_WALL_TEXTURE_FILMSTRIP);
-        manager.load(FOLD_WALL_TEXTURE, Texture.class);
-        assets.add(FOLD_WALL_TEXTURE);
-        manager.load(FIGHT_WALL_TEXTURE2, Texture.class);
-        assets.add(FIGHT_WALL_TEXTURE2);
-        manager.load(FLIGHT_WALL_TEXTURE2, Texture.class);
-        assets.add(FLIGHT_WALL_TEXTURE2);
-        manager.load(FLIGHT_WALL_TEXTURE_FILMSTRIP2, Texture.class);
-        assets.add(FLIGHT_WALL_TEXTURE_FILMSTRIP2);
-        manager.load(FOLD_WALL_TEXTURE2, Texture.class);
-        assets.add(FOLD_WALL_TEXTURE2);
-
-        manager.load(RESPAWN_FIGHT, Texture.class);
-        assets.add(RESPAWN_FIGHT);
-        manager.load(RESPAWN_FIGHT_HOVER, Texture.class);
-        assets.add(RESPAWN_FIGHT_HOVER);
-        manager.load(RESPAWN_FLIGHT, Texture.class);
-        assets.add(RESPAWN_FLIGHT);
-        manager.load(RESPAWN_FLIGHT_HOVER, Texture.class);
-        assets.add(RESPAWN_FLIGHT_HOVER);
-        manager.load(RESPAWN_FOLD, Texture.class);
-        assets.add(RESPAWN_FOLD);
-        manager.load(RESPAWN_FOLD_HOVER, Texture.class);
-        assets.add(RESPAWN_FOLD_HOVER);
-
-        manager.load(MOUSE_LEFT, Texture.class);
-        assets.add(MOUSE_LEFT);
-        manager.load(MOUSE_RIGHT, Texture.class);
-        assets.add(MOUSE_RIGHT);
-        manager.load(CURSOR, Texture.class);
-        assets.add(CURSOR);
-        manager.load(E_KEY, Texture.class);
-        assets.add(E_KEY);
-        manager.load(W_KEY, Texture.class);
-        assets.add(W_KEY);
-        manager.load(A_KEY, Texture.class);
-        assets.add(A_KEY);
-        manager.load(S_KEY, Texture.class);
-        assets.add(S_KEY);
-        manager.load(D_KEY, Texture.class);
-        assets.add(D_KEY);
-        manager.load(SPACE_KEY, Texture.class);
-        assets.add(SPACE_KEY);
-        manager.load(ESC_KEY, Texture.class);
-        assets.add(ESC_KEY);
-
-        manager.load(LEVEL1, Texture.class);
-        assets.add(LEVEL1);
-        manager.load(LEVEL2, Texture.class);
-        assets.add(LEVEL2);
-        manager.load(LEVEL3, Texture.class);
-        assets.add(LEVEL3);
-        manager.load(LEVEL4, Texture.class);
-        assets.add(LEVEL4);
-        manager.load(LEVEL5, Texture.class);
-        assets.add(LEVEL5);
-        manager.load(LEVEL6, Texture.class);
-        assets.add(LEVEL6);
-        manager.load(LEVEL7, Texture.class);
-        assets.add(LEVEL7);
-        manager.load(LEVEL8, Texture.class);
-        assets.add(LEVEL8);
-        manager.load(LEVEL9, Texture.class);
-        assets.add(LEVEL9);
-        manager.load(LEVEL10, Texture.class);
-        assets.add(LEVEL10);
-        manager.load(LEVEL11, Texture.class);
-        assets.add(LEVEL11);
-        manager.load(LEVEL12, Texture.class);
-        assets.add(LEVEL12);
-        manager.load(LEVEL13, Texture.class);
-        assets.add(LEVEL13);
-        manager.load(LEVEL14, Texture.class);
-        assets.add(LEVEL14);
-        manager.load(LEVEL15, Texture.class);
-        assets.add(LEVEL15);
-        manager.load(LEVEL16, Texture.class);
-        assets.add(LEVEL16);
+        assets.add(registry.load(manager, FLIGHT_GOAL_TEXTURE));
+        assets.add(registry.load(manager, FIGHT_GOAL_TEXTURE));
+        assets.add(registry.load(manager, FOLD_GOAL_TEXTURE));
+        assets.add(registry.load(manager, RESPAWN_TEXTURE));
+        assets.add(registry.load(manager, FIGHT_WALL_TEXTURE));
+        assets.add(registry.load(manager, FLIGHT_WALL_TEXTURE));
+        assets.add(registry.load(manager, FLIGHT_WALL_TEXTURE_FILMSTRIP));
+        assets.add(registry.load(manager, FOLD_WALL_TEXTURE));
+        assets.add(registry.load(manager, FIGHT_WALL_TEXTURE2));
+        assets.add(registry.load(manager, FLIGHT_WALL_TEXTURE2));
+        assets.add(registry.load(manager, FLIGHT_WALL_TEXTURE_FILMSTRIP2));
+        assets.add(registry.load(manager, FOLD_WALL_TEXTURE2));
+
+        assets.add(registry.load(manager, RESPAWN_FIGHT));
+        assets.add(registry.load(manager, RESPAWN_FIGHT_HOVER));
+        assets.add(registry.load(manager, RESPAWN_FLIGHT));
+        assets.add(registry.load(manager, RESPAWN_FLIGHT_HOVER));
+        assets.add(registry.load(manager, RESPAWN_FOLD));
+        assets.add(registry.load(manager, RESPAWN_FOLD_HOVER));
+
+        assets.add(registry.load(manager, MOUSE_LEFT));
+        assets.add(registry.load(manager, MOUSE_RIGHT));
+        assets.add(registry.load(manager, CURSOR));
+        assets.add(registry.load(manager, E_KEY));
+        assets.add(registry.load(manager, W_KEY));
+        assets.add(registry.load(manager, A_KEY));
+        assets.add(registry.load(manager, S_KEY));
+        assets.add(registry.load(manager, D_KEY));
+        assets.add(registry.load(manager, SPACE_KEY));
+        assets.add(registry.load(manager, ESC_KEY));
+
+        assets.add(registry.load(manager, LEVEL1));
+        assets.add(registry.load(manager, LEVEL2));
+        assets.add(registry.load(manager, LEVEL3));
+        assets.add(registry.load(manager, LEVEL4));
+        assets.add(registry.load(manager, LEVEL5));
+        assets.add(registry.load(manager, LEVEL6));
+        assets.add(registry.load(manager, LEVEL7));
+        assets.add(registry.load(manager, LEVEL8));
+        assets.add(registry.load(manager, LEVEL9));
+        assets.add(registry.load(manager, LEVEL10));
+        assets.add(registry.load(manager, LEVEL11));
+        assets.add(registry.load(manager, LEVEL12));
+        assets.add(registry.load(manager, LEVEL13));
+        assets.add(registry.load(manager, LEVEL14));
+        assets.add(registry.load(manager, LEVEL15));
+        assets.add(registry.load(manager, LEVEL16));
     }
 
     /**
-     * Loads the assets for this controller.
+     * Gives the entities the textures that their bodies are sized from.
      *
-     * To make the game modes more for-loop friendly, we opted for nonstatic loaders
-     * this time.  However, we still want the assets themselves to be static.  So
-     * we have an AssetState that determines the current loading state.  If the
-     * assets are already loaded, this method will do nothing.
+     * This is split out of loadContent so that the headless tools, which only need the
+     * sizes, build their levels from the same textures as the game.
      *
      * @param manager Reference to global asset manager.
      */
-    public void loadContent(AssetManager manager) {
+    public void loadEntityTextures(AssetManager manager) {
         ObstacleEntity.goalFlightTexture = createTexture(manager, FLIGHT_GOAL_TEXTURE, false);
         ObstacleEntity.goalFightTexture = createTexture(manager, FIGHT_GOAL_TEXTURE, false);
         ObstacleEntity.goalFoldTexture = createTexture(manager, FOLD_GOAL_TEXTURE, false);
@@ -445,6 +402,20 @@ public class ObstacleController {
         ObstacleEntity.foldWallTexture = createTexture(manager, FOLD_WALL_TEXTURE, false);
         ObstacleEntity.fightWallTexture2 = createTexture(manager, FIGHT_WALL_TEXTURE2, false);
         ObstacleEntity.foldWallTexture2 = createTexture(manager, FOLD_WALL_TEXTURE2, false);
+    }
+
+    /**
+     * Loads the assets for this controller.
+     *
+     * To make the game modes more for-loop friendly, we opted for nonstatic loaders
+     * this time.  However, we still want the assets themselves to be static.  So
+     * we have an AssetState that determines the current loading state.  If the
+     * assets are already loaded, this method will do nothing.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void loadContent(AssetManager manager) {
+        loadEntityTextures(manager);
 
         TutorialEntity.mouseCursorTexture = createTexture(manager, CURSOR, false);
         TutorialEntity.mouseLeftTexture = createTexture(manager, MOUSE_LEFT, false);
@@ -489,7 +460,8 @@ public class ObstacleController {
      * Returns a newly loaded texture region for the given file.
      *
      * This helper methods is used to set texture settings (such as scaling, and
-     * whether or not the texture should repeat) after loading.
+     * whether or not the texture should repeat) after loading.  If the file is packed
+     * in an atlas, the region is cut from the atlas instead (see {@link TextureRegistry}).
      *
      * @param manager 	Reference to global asset manager.
      * @param file		The texture (region) file
@@ -498,15 +470,7 @@ public class ObstacleController {
      * @return a newly loaded texture region for the given file.
      */
     protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
-        if (manager.isLoaded(file)) {
-            TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
-            region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            if (repeat) {
-                region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
-            }
-            return region;
-        }
-        return null;
+        return TextureRegistry.getInstance().getRegion(manager, file, repeat);
     }
 
     /**
@@ -541,15 +505,19 @@ public class ObstacleController {
     public void draw(float delta,boolean frozen,OctopusController OC) {
         // Draw non-active models
         canvas.begin();
-        for (ObstacleEntity o : obstacleList) {
+        for (int i = 0; i < obstacleList.size(); i++) {
+            ObstacleEntity o = obstacleList.get(i);
             if (o != null) {
                 if (o.getActive() && o.isActive()) {
                     if (o.getObstacleSubType() == ObstacleEntity.ObstacleSubType.FLIGHT_WALL) {
                         int frame = o.getFlightFrame();
                         if (!frozen) o.setFlightFrame(frame + 1);
+                        if (!o.isInView()) continue;
                         ObstacleEntity.flightWallFilmstrip.setFrame(frame / ObstacleEntity.FLIGHT_WALL_FPS);
                         canvas.draw(ObstacleEntity.flightWallFilmstrip, com.badlogic.gdx.graphics.Color.WHITE, ObstacleEntity.flightWallFilmstrip.getRegionWidth() / 2f,
                                 ObstacleEntity.flightWallFilmstrip.getRegionHeight() / 2f, o.getPosition().x * scale.x, o.getPosition().y * scale.y, o.getAngle(), 1, 1);
+                    } else if (!o.isInView()) {
+                        continue;
                     } else if (o.getObstacleSubType() == ObstacleEntity.ObstacleSubType.GOAL){
                         boolean fold = false;
                         boolean fight = false;
@@ -607,8 +575,9 @@ public class ObstacleController {
             }
         }
 
-        for (TutorialEntity t : tutorialEntityList) {
-            if (t != null) {
+        for (int i = 0; i < tutorialEntityList.size(); i++) {
+            TutorialEntity t = tutorialEntityList.get(i);
+            if (t != null && t.isInView()) {
                 t.draw(canvas);
             }
         }
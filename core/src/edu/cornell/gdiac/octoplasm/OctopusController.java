@@ -8,19 +8,16 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.Fixture;
-import com.badlogic.gdx.physics.box2d.RayCastCallback;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.audio.SoundBuffer;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.entity.*;
 import edu.cornell.gdiac.octoplasm.util.FilmStrip;
-import edu.cornell.gdiac.octoplasm.util.PooledList;
+import edu.cornell.gdiac.octoplasm.util.TextureRegistry;
 //import jdk.internal.net.http.common.Pair;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
@@ -56,8 +53,6 @@ public class OctopusController {
         NONE
     }
 
-    /** Ray count used for Fight ability ray casting */
-    private static final int RAY_COUNT = 360;
     /** The radius of the explosion for Fight */
     private static final float EXPLOSION_RADIUS = 5.0f;
     /** The radius of the grab for Fold */
@@ -144,18 +139,20 @@ public class OctopusController {
     private TextureRegion octogoalTexture;
     /** Track all loaded assets (for unloading purposes) */
     protected Array<String> assets;
-    /** TODO documentation */
-    private RayCastCallback callback;
-    /** TODO documentation */
-    private ArrayList<Entity> explosionConfirmedCache = new ArrayList<Entity>();
-    private HashMap<Entity,Float> explosionDetectedCache = new HashMap<Entity,Float>();
+    /** Finds the entities caught in a Fight explosion */
+    private ExplosionResolver explosionResolver;
+    /** Cache object for the velocity of entities launched by an explosion */
+    private Vector2 launchCache;
+    /** Cache object for the difference between two positions */
+    private Vector2 differenceCache;
+    /** Cache array for the entities under the crosshair */
+    private Array<BoxEntity> pickCache;
     /** List of dead Octopi */
     private ArrayList<OctopusEntity> deadOctopi;
     /** TODO documentation */
     private MusicState currentMusicState;
     /** TODO documentation */
     private boolean changedMusicState;
-    private float wall_fraction = 1f;
     int teleCount = 0;
     public ObstacleEntity fightCollide = null;
     //#endregion
@@ -177,33 +174,10 @@ public class OctopusController {
         this.octopusList = new ArrayList<OctopusEntity>();
         this.cache = new Vector2();
         deadOctopi = new ArrayList<>();
-        callback = new RayCastCallback() {
-            @Override
-            public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
-                Entity entity = (Entity) fixture.getBody().getUserData();
-                if (!entity.isActive()) return 1;
-                switch (entity.getEntityType()) {
-                    case WALL:
-                        wall_fraction = Math.min(fraction,wall_fraction);
-                        return 1;
-                    case OBSTACLE:
-                        if (((ObstacleEntity)entity).getObstacleSubType() != ObstacleEntity.ObstacleSubType.FIGHT_WALL) {
-                            wall_fraction = Math.min(fraction,wall_fraction);
-                        } else if (wall_fraction > fraction) {
-                            if(!explosionDetectedCache.containsKey(entity)) {
-//                                System.out.println("destructive wall deteccted");
-                                explosionDetectedCache.put(entity, fraction);
-                            }
-                        }
-                        return 1;
-                    default:
-//                        System.out.println("octopus deteccted");
-                        if(!explosionDetectedCache.containsKey(entity) && wall_fraction > fraction)
-                            explosionDetectedCache.put(entity,fraction);
-                        return 1;
-                }
-            }
-        };
+        explosionResolver = new ExplosionResolver(EXPLOSION_RADIUS);
+        pickCache = new Array<>();
+        launchCache = new Vector2();
+        differenceCache = new Vector2();
         this.currentMusicState = MusicState.NONE;
     }
     //#endregion
@@ -316,41 +290,30 @@ public class OctopusController {
      * @param manager Reference to global asset manager.
      */
     public void preLoadContent(AssetManager manager) {
+        TextureRegistry registry = TextureRegistry.getInstance();
         // Octopus goal destination texture
-        manager.load(OCTOGOAL_TEXTURE, Texture.class);
-        assets.add(OCTOGOAL_TEXTURE);
+        assets.add(registry.load(manager, OCTOGOAL_TEXTURE));
 
         // Octopus Goal Path texture
-        manager.load(GOALLINE_TEXTURE, Texture.class);
-        assets.add(GOALLINE_TEXTURE);
+        assets.add(registry.load(manager, GOALLINE_TEXTURE));
 
         // Octopus textures
-        manager.load(BLUE_TEXTURE, Texture.class);
-        assets.add(BLUE_TEXTURE);
-        manager.load(ORANGE_TEXTURE, Texture.class);
-        assets.add(ORANGE_TEXTURE);
-        manager.load(GREEN_TEXTURE, Texture.class);
-        assets.add(GREEN_TEXTURE);
+        assets.add(registry.load(manager, BLUE_TEXTURE));
+        assets.add(registry.load(manager, ORANGE_TEXTURE));
+        assets.add(registry.load(manager, GREEN_TEXTURE));
 
         // Octopus Selector & Selector Circle textures
-        manager.load(SELECTOR_TEXTURE, Texture.class);
-        assets.add(SELECTOR_TEXTURE);
-        manager.load(OCTO_CIRCLE_FILE, Texture.class);
-        assets.add(OCTO_CIRCLE_FILE);
+        assets.add(registry.load(manager, SELECTOR_TEXTURE));
+        assets.add(registry.load(manager, OCTO_CIRCLE_FILE));
 
         // Explosion textures
-        manager.load(EXPLOSION_TEXTURE, Texture.class);
-        assets.add(EXPLOSION_TEXTURE);
-        manager.load(TELEPORT_SMOKE_TEXTURE, Texture.class);
-        assets.add(TELEPORT_SMOKE_TEXTURE);
-        manager.load(FLYING_SMOKE_TEXTURE, Texture.class);
-        assets.add(FLYING_SMOKE_TEXTURE);
+        assets.add(registry.load(manager, EXPLOSION_TEXTURE));
+        assets.add(registry.load(manager, TELEPORT_SMOKE_TEXTURE));
+        assets.add(registry.load(manager, FLYING_SMOKE_TEXTURE));
         // Timer textures
-        manager.load(FLYING_TIMER_TEXTURE, Texture.class);
-        assets.add(FLYING_TIMER_TEXTURE);
+        assets.add(registry.load(manager, FLYING_TIMER_TEXTURE));
         // Charge texture
-        manager.load(FOLD_CHARGE_TEXTURE, Texture.class);
-        assets.add(FOLD_CHARGE_TEXTURE);
+        assets.add(registry.load(manager, FOLD_CHARGE_TEXTURE));
         //Sounds
         manager.load(EXPLOSION_SOUND, Sound.class);
         assets.add(EXPLOSION_SOUND);
@@ -374,6 +337,20 @@ public class OctopusController {
         assets.add(GOAL_SET_SOUND);
     }
 
+    /**
+     * Gives the entities the textures that their bodies are sized from.
+     *
+     * This is split out of loadContent so that the headless tools, which only need the
+     * sizes, build their levels from the same textures as the game.
+     *
+     * @param manager Reference to global asset manager.
+     */
+    public void loadEntityTextures(AssetManager manager) {
+        OctopusEntity.teleporterTexture = createTexture(manager,BLUE_TEXTURE,false);
+        OctopusEntity.flyerTexture = createTexture(manager,GREEN_TEXTURE,false);
+        OctopusEntity.exploderTexture = createTexture(manager,ORANGE_TEXTURE,false);
+    }
+
     /**
      * Loads the assets for this controller.
      *
@@ -395,9 +372,7 @@ public class OctopusController {
         OctopusEntity.flyingTimer = createFilmStrip(manager,FLYING_TIMER_TEXTURE,1,4, OctopusEntity.FLYING_TIMER_FRAMES);
         OctopusEntity.foldCharges = createFilmStrip(manager,FOLD_CHARGE_TEXTURE,1,2, OctopusEntity.FOLD_CHARGES_FRAMES);
 
-        OctopusEntity.teleporterTexture = createTexture(manager,BLUE_TEXTURE,false);
-        OctopusEntity.flyerTexture = createTexture(manager,GREEN_TEXTURE,false);
-        OctopusEntity.exploderTexture = createTexture(manager,ORANGE_TEXTURE,false);
+        loadEntityTextures(manager);
         indicatorCircle = createTexture(manager, INDICATOR_CIRCLE_FILE, false);
         octoSelectorTexture = createTexture(manager,SELECTOR_TEXTURE,false);
         smallCircleTexture = createTexture(manager,OCTO_CIRCLE_FILE,false);
@@ -430,8 +405,6 @@ public class OctopusController {
         teleportQueued = false;
         cache = new Vector2();
         teleCount = 0;
-        explosionConfirmedCache = new ArrayList<Entity>();
-        explosionDetectedCache = new HashMap<Entity,Float>();
     }
 
     /**
@@ -460,14 +433,15 @@ public class OctopusController {
      *
      * @param dt Number of seconds since last animation frame
      * @param frozen Whether the game is frozen or not
-     * @param objects The list of objects in the world
+     * @param grid The spatial index of the entities in the world
      */
-    public void update(float dt, boolean frozen, PooledList<Entity> objects, World world, BoxEntity selector) {
+    public void update(float dt, boolean frozen, SpatialGrid grid, World world, BoxEntity selector) {
         InputController input = InputController.getInstance();
         AudioController audio = AudioController.getInstance();
-        selectOctopusOrEntity(input, objects, selector);
+        selectOctopusOrEntity(input, grid, selector);
         //This sets whether the ability is currently activated or not.
-        for (OctopusEntity o : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity o = octopusList.get(i);
             o.stateChanged = false;
             if (o.isRespawned) {
                 if (o.getOctopusSubType() == OctopusSubType.TELEPORTER)
@@ -523,7 +497,8 @@ public class OctopusController {
 
         // Octopus Ability Code
         if (!frozen) {
-            for (OctopusEntity o : octopusList) {
+            for (int i = 0; i < octopusList.size(); i++) {
+                OctopusEntity o = octopusList.get(i);
                 // TELEPORTER octopus code
                 Entity teleportEntity = o.getTeleportEntity();
 
@@ -603,7 +578,6 @@ public class OctopusController {
                 // FLYING octopus code
                 if (o.getOctopusSubType() == OctopusEntity.OctopusSubType.FLYER && o.isAbilityActive()) {
                     o.setState(State.ability);
-                    o.decFlyingCounter();
                     if(!o.getFlying()) {
                         o.setFlying(true);
                         o.setPosition(o.getPosition().x, o.getPosition().y + 0.02f);
@@ -630,7 +604,8 @@ public class OctopusController {
             }
         }
         //Move the octopus to the goal
-        for (OctopusEntity octopus : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity octopus = octopusList.get(i);
             if (!frozen && octopus.isAlive() && octopus.getLaunched() == 0 && !octopus.isGrabbed()) {
                 if (octopus.moveToGoal()) {
                     if (octopus.getFlying() && !audio.isActive("flightMove")) {
@@ -646,13 +621,35 @@ public class OctopusController {
                 octopus.setAngularVelocity(0);
             } else if (octopus.getLaunched() > 0 && octopus.isAlive()){
                 octopus.setState(State.idle);
-                if(octopus.getLaunched() == 1) octopus.setVelocity(0,0);
-                octopus.decrementLaunched();
             }
         }
         updateMusicState();
     }
 
+    /**
+     * Advances the timers of the octopi by one physics step.
+     *
+     * The flying time, the flying timer and the stun after a launch are counted in physics
+     * steps rather than in frames, so that they last as long whatever the frame rate.
+     *
+     * @param frozen Whether the game is frozen or not
+     */
+    public void step(boolean frozen) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity o = octopusList.get(i);
+            if (!frozen) {
+                if (o.getOctopusSubType() == OctopusSubType.FLYER && o.isAbilityActive() && o.getFlying()) {
+                    o.decFlyingCounter();
+                }
+                o.stepAnimations();
+            }
+            if (o.getLaunched() > 0 && o.isAlive()) {
+                if (o.getLaunched() == 1) o.setVelocity(0,0);
+                o.decrementLaunched();
+            }
+        }
+    }
+
     /**
      * Updates the current music state based on the octopi that are currently alive.
      */
@@ -660,7 +657,8 @@ public class OctopusController {
         boolean fight = false;
         boolean flight = false;
         boolean fold = false;
-        for (OctopusEntity octopusEntity : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity octopusEntity = octopusList.get(i);
             if (octopusEntity != null && octopusEntity.isAlive()) {
                 switch (octopusEntity.getOctopusSubType()) {
                     case FLYER:
@@ -713,9 +711,10 @@ public class OctopusController {
      * Helper method that selects an Octopus or Entity depending on what conditions are active when you click.
      *
      * @param input The player input
-     * @param objects The list of entities in the world
+     * @param grid The spatial index of the entities in the world
+     * @param selector The box following the crosshair, used to tell if it is over a wall
      */
-    public void selectOctopusOrEntity(InputController input, PooledList<Entity> objects, BoxEntity selector) {
+    public void selectOctopusOrEntity(InputController input, SpatialGrid grid, BoxEntity selector) {
         AudioController audio = AudioController.getInstance();
         //Octopus selection
         if (input.didSelectOne() && !octopusList.isEmpty()) {
@@ -766,8 +765,8 @@ public class OctopusController {
         if (input.didClick()) {
             cache.set(input.getCrossHair().x, input.getCrossHair().y);
             if (input.didClickLeft()) {
-                if(selector.getCollidingWithSize() > 0) {
-                    Entity e = selector.getClosestColliding();
+                Entity e = pickEntity(grid, cache.x, cache.y);
+                if (e != null) {
                     if (teleportSelectionActive && e.getEntityType()!=EntityType.WALL && e.getEntityType()!=EntityType.SELECTOR) {
                         //todo right now center has to be within range, do we want to keep it that way?
                         if (e != activeOctopus && Math.sqrt(Math.pow(activeOctopus.getPosition().x - e.getPosition().x, 2) +
@@ -806,31 +805,46 @@ public class OctopusController {
     }
 
     /**
-     * TODO documentation
+     * Returns the entity under the given point that is closest to it, or null if there is none.
+     *
+     * Like the selector sensor this replaced, sensors and inactive entities cannot be picked.
      *
-     * @param exploder
-     * @param world
+     * @param grid The spatial index of the entities in the world
+     * @param x The x-coordinate of the point in Box2D units
+     * @param y The y-coordinate of the point in Box2D units
+     *
+     * @return the entity under the point, or null if there is none
      */
-    public void explosion(OctopusEntity exploder, World world) {
-        AudioController audio = AudioController.getInstance();
-        Vector2 p1 = exploder.getPosition();
-        Vector2 p2 = new Vector2();
-        Vector2 vec = new Vector2();
-        for (int i = 0; i < RAY_COUNT; i++) {
-            float angle = (float) (2*Math.PI/RAY_COUNT)*i;
-            vec.x = (float)(EXPLOSION_RADIUS*Math.cos(angle));
-            vec.y = (float)(EXPLOSION_RADIUS*Math.sin(angle));
-            p2.set(p1.cpy().add(vec));
-            world.rayCast(callback,p1,p2);
-            for (Entity ent : explosionDetectedCache.keySet()) {
-                if (explosionDetectedCache.get(ent) < wall_fraction) {
-                    explosionConfirmedCache.add(ent);
-                }
+    private Entity pickEntity(SpatialGrid grid, float x, float y) {
+        grid.queryPoint(x, y, pickCache);
+        Entity closest = null;
+        float closestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < pickCache.size; i++) {
+            BoxEntity e = pickCache.get(i);
+            if (!e.isActive() || e.isSensor()) {
+                continue;
+            }
+            float distance = e.getPosition().dst2(x, y);
+            if (distance < closestDistance) {
+                closest = e;
+                closestDistance = distance;
             }
-            explosionDetectedCache.clear();
-            wall_fraction = 1.0f;
         }
-        for (Entity e : explosionConfirmedCache) {
+        pickCache.clear();
+        return closest;
+    }
+
+    /**
+     * Kills the enemies, launches the octopi and breaks the FIGHT_WALLs caught in the explosion.
+     *
+     * @param exploder the exploding octopus
+     * @param world the world that the explosion happens in
+     */
+    public void explosion(OctopusEntity exploder, World world) {
+        AudioController audio = AudioController.getInstance();
+        Array<Entity> hits = explosionResolver.resolve(exploder, world);
+        for (int i = 0; i < hits.size; i++) {
+            Entity e = hits.get(i);
             switch(e.getEntityType()) {
                 case ENEMY:
                     EnemyEntity enemy = (EnemyEntity) e;
@@ -867,17 +881,16 @@ public class OctopusController {
     }
 
     /**
-     * TODO documentation
+     * Launches an entity directly away from the exploder.
      *
-     * @param exploder
-     * @param other
-     * @return
+     * @param exploder the exploding octopus
+     * @param other the entity caught in the explosion
      */
     private void setExplosionVelocity(OctopusEntity exploder, Entity other) {
         Vector2 exploderPos = exploder.getPosition();
         Vector2 otherPos = other.getPosition();
-        Vector2 difference = new Vector2(otherPos.x - exploderPos.x, otherPos.y - exploderPos.y);
-        other.setLinearVelocity(difference.nor().scl(LAUNCH_SPEED));
+        launchCache.set(otherPos.x - exploderPos.x, otherPos.y - exploderPos.y);
+        other.setLinearVelocity(launchCache.nor().scl(LAUNCH_SPEED));
     }
 
     /**
@@ -890,8 +903,8 @@ public class OctopusController {
     public void setFoldVelocity(OctopusEntity fold, Entity other) {
         Vector2 foldPos = fold.getPosition();
         Vector2 otherPos = other.getPosition();
-        Vector2 difference = new Vector2(foldPos.x - otherPos.x, foldPos.y - otherPos.y);
-        if (difference.cpy().scl(scale).len() <= FOLDING_SPEED/2) {
+        Vector2 difference = differenceCache.set(foldPos.x - otherPos.x, foldPos.y - otherPos.y);
+        if (Vector2.len(difference.x * scale.x, difference.y * scale.y) <= FOLDING_SPEED/2) {
             other.setOctopusTeleportEntity(null);
             fold.setTeleportEntity(null);
             if (fold.getGrabCharges() < 1) {
@@ -901,7 +914,7 @@ public class OctopusController {
             fold.setIsGrab(false);
 //            fold.setBodyType(BodyDef.BodyType.DynamicBody);
             fold.setAbilityActive(false);
-            other.setLinearVelocity(new Vector2(0,0));
+            other.setLinearVelocity(Vector2.Zero);
             other.setGrabbed(false);
             other.setSensor(false);
         } else {
@@ -918,7 +931,11 @@ public class OctopusController {
     public void draw(float delta,boolean frozen) {
         // Draw non-active models
         canvas.begin();
-        for (OctopusEntity oct : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity oct = octopusList.get(i);
+            if (!oct.isInView()) {
+                continue;
+            }
             if (oct.getTexture() != null && oct.isAlive()) {
                 oct.draw(canvas);
             }
@@ -935,7 +952,8 @@ public class OctopusController {
         }
         //Draw active octopus last
         //todo fix this hack
-        if (activeOctopus != null && (activeOctopus.isAlive() || activeOctopus.getOctopusSubType() == OctopusSubType.EXPLODER)) {
+        if (activeOctopus != null && activeOctopus.isInView()
+                && (activeOctopus.isAlive() || activeOctopus.getOctopusSubType() == OctopusSubType.EXPLODER)) {
             if (activeOctopus.isAbilityActive()
                     && (activeOctopus.getOctopusSubType() != OctopusSubType.TELEPORTER || activeOctopus.getTeleportEntity() != null)
                     && (activeOctopus.getOctopusSubType() != OctopusSubType.FLYER || !activeOctopus.getFlying())) {
@@ -946,7 +964,8 @@ public class OctopusController {
         }
 
         // Goals & Goal lines
-        for (OctopusEntity oct : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity oct = octopusList.get(i);
             if (oct.getState() == State.win) continue;
             boolean shouldShowGoalLines = oct != null &&
                     (oct.getOctopusSubType() == OctopusSubType.FLYER ||
@@ -954,13 +973,12 @@ public class OctopusController {
                             oct.getOctopusSubType() == OctopusSubType.TELEPORTER && oct.getTeleportEntity() == null ||
                             !oct.isGrabbed());
             if (shouldShowGoalLines && oct.isMoving()) {
-                //TODO: Remove new Vector2 Initialization in the gameplay loop
                 Vector2 goal = oct.getGoal();
                 cache.set(oct.getPosition());
                 canvas.draw(octogoalTexture, Color.WHITE, octogoalTexture.getRegionWidth() / 2f,
                         octogoalTexture.getRegionHeight() / 2f, goal.x * scale.x, goal.y * scale.y, 0f, 1, 1);
 
-                Vector2 cache2 = new Vector2(cache.x - goal.x, cache.y - goal.y);
+                Vector2 cache2 = differenceCache.set(cache.x - goal.x, cache.y - goal.y);
                 cache.set((cache.x + goal.x) / 2, (cache.y + goal.y) / 2);
                 lineTexture.setRegionHeight((int) (cache2.len() * scale.y));
                 Color lineColor = (oct.isAbilityActive() && oct.getOctopusSubType() == OctopusSubType.FLYER) ? Color.SKY : Color.WHITE;
@@ -978,7 +996,8 @@ public class OctopusController {
         }
 
         //Draw octopus effects
-        for (OctopusEntity o : octopusList) {
+        for (int i = 0; i < octopusList.size(); i++) {
+            OctopusEntity o = octopusList.get(i);
             if (o != null) {
                 o.drawEffects(canvas, frozen);
             }
@@ -997,7 +1016,8 @@ public class OctopusController {
 
         //Indication Lines
         if (frozen) {
-            for (OctopusEntity oct : octopusList) {
+            for (int i = 0; i < octopusList.size(); i++) {
+                OctopusEntity oct = octopusList.get(i);
                 switch (oct.getOctopusSubType()) {
                 case FLYER:
                     break;
@@ -1014,10 +1034,9 @@ public class OctopusController {
                 case TELEPORTER:
                     //Teleport Indication Lines
                     if (oct.getTeleportEntity() != null && oct.isAlive() && oct.isActive()) {
-                        //TODO: Remove new Vector2 Initialization in the gameplay loop
                         cache.set(oct.getPosition());
                         Vector2 entityPos = oct.getTeleportEntity().getPosition();
-                        Vector2 cache2 = new Vector2(cache.x - entityPos.x, cache.y - entityPos.y);
+                        Vector2 cache2 = differenceCache.set(cache.x - entityPos.x, cache.y - entityPos.y);
                         cache.set((cache.x + entityPos.x)/2, (cache.y + entityPos.y)/2);
                         lineTexture.setRegionHeight((int)(cache2.len()*scale.y));
                         canvas.draw(lineTexture, Color.YELLOW, lineTexture.getRegionWidth() / 2f,
@@ -1037,7 +1056,8 @@ public class OctopusController {
      * Returns a newly loaded texture region for the given file.
      *
      * This helper methods is used to set texture settings (such as scaling, and
-     * whether or not the texture should repeat) after loading.
+     * whether or not the texture should repeat) after loading.  If the file is packed
+     * in an atlas, the region is cut from the atlas instead (see {@link TextureRegistry}).
      *
      * @param manager 	Reference to global asset manager.
      * @param file		The texture (region) file
@@ -1046,15 +1066,7 @@ public class OctopusController {
      * @return a newly loaded texture region for the given file.
      */
     protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
-        if (manager.isLoaded(file)) {
-            TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
-            region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            if (repeat) {
-                region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
-            }
-            return region;
-        }
-        return null;
+        return TextureRegistry.getInstance().getRegion(manager, file, repeat);
     }
 
     /**
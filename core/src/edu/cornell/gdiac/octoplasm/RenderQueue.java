@@ -0,0 +1,159 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.Comparator;
+
+/**
+ * Sprite draws collected over a frame and submitted together by {@link GameCanvas}.
+ *
+ * Only the overlays drawn over the level go through the queue: grabbing tentacles, octopus
+ * indicators, the reticles and the complete and failed screens. The walls, obstacles,
+ * octopi and enemies are still drawn straight to the batch in object order. Their Spine
+ * skeletons draw themselves and cannot be queued.
+ *
+ * Every draw is given a layer. Layers are drawn in increasing order, so a higher layer
+ * is always on top. Within a layer the draws are sorted by blend state and then texture,
+ * so the batch only flushes when one of those changes. The order of draws that share a
+ * layer, blend state and texture is kept. Only put draws in the same layer when it does
+ * not matter which one ends up on top.
+ */
+class RenderQueue {
+    //=========================================================================
+    //#region Fields
+    /**
+     * A single queued sprite draw.
+     */
+    private static class Command implements Pool.Poolable {
+        /** The layer to draw in */
+        int layer;
+        /** The order the draw was queued in */
+        int sequence;
+        /** The blend state to draw with */
+        GameCanvas.BlendState blend;
+        /** A copy of the region to draw, so filmstrips can change frame after queueing */
+        final TextureRegion region = new TextureRegion();
+        /** The packed color tint */
+        float color;
+        /** The width to draw the region at, before the transform */
+        float width;
+        /** The height to draw the region at, before the transform */
+        float height;
+        /** The transform of the region */
+        final Affine2 transform = new Affine2();
+
+        @Override
+        public void reset() {
+            region.setTexture(null);
+            blend = null;
+        }
+    }
+
+    /** The draws queued this frame */
+    private final Array<Command> commands;
+    /** Reusable commands */
+    private final Pool<Command> pool;
+    /** The order draws are submitted in */
+    private final Comparator<Command> order;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates an empty render queue.
+     */
+    RenderQueue() {
+        commands = new Array<>(false, 64);
+        pool = new Pool<Command>() {
+            @Override
+            protected Command newObject() {
+                return new Command();
+            }
+        };
+        order = new Comparator<Command>() {
+            @Override
+            public int compare(Command a, Command b) {
+                if (a.layer != b.layer) {
+                    return a.layer < b.layer ? -1 : 1;
+                }
+                if (a.blend != b.blend) {
+                    return a.blend.ordinal() - b.blend.ordinal();
+                }
+                int textureA = a.region.getTexture().getTextureObjectHandle();
+                int textureB = b.region.getTexture().getTextureObjectHandle();
+                if (textureA != textureB) {
+                    return textureA < textureB ? -1 : 1;
+                }
+                return a.sequence - b.sequence;
+            }
+        };
+    }
+    //#endregion
+    //=================================
+
+    /**
+     * Returns whether nothing is queued.
+     *
+     * @return whether nothing is queued
+     */
+    boolean isEmpty() {
+        return commands.size == 0;
+    }
+
+    /**
+     * Empties the queue without drawing anything.
+     */
+    void clear() {
+        pool.freeAll(commands);
+        commands.clear();
+    }
+
+    /**
+     * Queues a region drawn at the given size and transform.
+     *
+     * @param layer the layer to draw in
+     * @param blend the blend state to draw with
+     * @param region the region to draw
+     * @param color the packed color tint
+     * @param width the width to draw the region at, before the transform
+     * @param height the height to draw the region at, before the transform
+     *
+     * @return the transform of the draw, to be filled in by the caller
+     */
+    Affine2 add(int layer, GameCanvas.BlendState blend, TextureRegion region, float color, float width, float height) {
+        Command command = pool.obtain();
+        command.layer = layer;
+        command.sequence = commands.size;
+        command.blend = blend;
+        command.region.setRegion(region);
+        command.color = color;
+        command.width = width;
+        command.height = height;
+        commands.add(command);
+        return command.transform;
+    }
+
+    /**
+     * Draws every queued region to the batch in order, then empties the queue.
+     *
+     * The batch must already be drawing.
+     *
+     * @param canvas the canvas to set the blend state of
+     * @param batch the batch to draw to
+     */
+    void submit(GameCanvas canvas, PolygonSpriteBatch batch) {
+        commands.sort(order);
+        for (int i = 0; i < commands.size; i++) {
+            Command command = commands.get(i);
+            canvas.setBlendState(command.blend);
+            batch.setPackedColor(command.color);
+            batch.draw(command.region, command.width, command.height, command.transform);
+        }
+        clear();
+    }
+}
@@ -0,0 +1,255 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import edu.cornell.gdiac.octoplasm.entity.*;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+
+import java.util.Iterator;
+
+/**
+ * The simulation half of a gameplay frame, shared by GameplayController and the headless tools.
+ *
+ * A frame is simulated in three parts. prepare() wakes (or freezes) the bodies, clamps the
+ * octopi and enemies to the level and carries grabbed entities along with their octopus.
+ * advance() turns the physics engine at a fixed rate, however long the frame was, and
+ * advances everything counted in physics steps along with it. collect() then removes the
+ * deleted entities and updates the rest, passing on how far the frame got into the next
+ * physics step so that they are drawn between their last two positions.
+ *
+ * GameplayController adds the entities created by actions between prepare() and advance(),
+ * which is why the parts are separate. Anything without that step can call step().
+ */
+public class Simulation {
+    //=========================================================================
+    //#region Fields
+    /** The amount of time for a physics engine step. */
+    public static final float WORLD_STEP = 1/60.0f;
+    /** Number of velocity iterations for the constrain solvers */
+    public static final int WORLD_VELOC = 6;
+    /** Number of position iterations for the constrain solvers */
+    public static final int WORLD_POSIT = 2;
+    /** The longest frame (in seconds) that the physics accumulator will try to catch up on */
+    public static final float MAX_FRAME_TIME = 0.25f;
+    /** The most physics steps to take in a single frame before dropping the backlog */
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    /** radius of boxobject for detecting selection of objects (follows cursor) */
+    public static final float SELECTOR_RADIUS = 0.01f;
+    /** The side of a cell of the entity grid in Box2D units */
+    public static final float GRID_CELL_SIZE = 4.0f;
+    /** The number of physics steps the grabbing animation takes to loop */
+    public static final int GRABBING_STEPS = 35;
+
+    /** The octopus controller of the level */
+    private OctopusController OC;
+    /** The enemy controller of the level */
+    private EnemyController EC;
+    /** Simulation time (in seconds) that has not been stepped by the physics engine yet */
+    private float physicsAccumulator;
+    /** The physics steps into the grabbing animation loop */
+    private int grabbingStep;
+    /** Cache object for clamping positions to the level */
+    private Vector2 cache;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates the simulation of a level played by the given controllers.
+     *
+     * @param OC the octopus controller of the level
+     * @param EC the enemy controller of the level
+     */
+    public Simulation(OctopusController OC, EnemyController EC) {
+        this.OC = OC;
+        this.EC = EC;
+        cache = new Vector2();
+    }
+
+    /**
+     * Returns a new selector, the box that follows the crosshair.
+     *
+     * The selector is active and a sensor, but its physics are not activated.
+     *
+     * @param scale the drawing scale of the level
+     *
+     * @return a new selector
+     */
+    public static BoxEntity createSelector(Vector2 scale) {
+        BoxEntity selector = new BoxEntity(12,12,SELECTOR_RADIUS*scale.x,SELECTOR_RADIUS*scale.y, Entity.EntityType.SELECTOR);
+        selector.setActive(true);
+        selector.setSensor(true);
+        return selector;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Getters and Setters
+    /**
+     * Returns the physics steps into the grabbing animation loop.
+     *
+     * @return the physics steps into the grabbing animation loop, less than GRABBING_STEPS
+     */
+    public int getGrabbingStep() { return grabbingStep; }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Simulation
+    /**
+     * Starts the simulation over, for a new level or a replay.
+     */
+    public void reset() {
+        physicsAccumulator = 0;
+        grabbingStep = 0;
+    }
+
+    /**
+     * Readies the entities for the physics step.
+     *
+     * When frozen, every body but the selector is put to sleep. Otherwise every active body
+     * is woken up, removed entities are deactivated, octopi and enemies are kept inside the
+     * level and grabbed entities are given the velocity of their octopus.
+     *
+     * @param frozen whether the game is frozen
+     * @param objects the entities of the level
+     * @param bounds the bounds of the level
+     */
+    public void prepare(boolean frozen, PooledList<Entity> objects, Rectangle bounds) {
+        if (frozen) {
+            for (Entity entity : objects) {
+                if (entity.isActive() && entity.getEntityType() != Entity.EntityType.SELECTOR) {
+                    entity.getBody().setAwake(false);
+                }
+            }
+            return;
+        }
+        for (Entity entity : objects) {
+            if (entity.isActive()) {
+                entity.getBody().setAwake(true);
+                if (entity.isRemoved()) {
+                    entity.setActive(false);
+                }
+                //Clamp all box entities to world
+                if (entity.getEntityType() == Entity.EntityType.ENEMY || entity.getEntityType() == Entity.EntityType.OCTOPUS) {
+                    cache.set(entity.getPosition());
+                    cache.set(Math.min(Math.max(cache.x, 0), bounds.width), Math.min(Math.max(cache.y, 0), bounds.height));
+                    if (!cache.equals(entity.getPosition())) {
+                        entity.setPosition(cache);
+                    }
+                }
+            }
+            if (entity.getOctopusTeleportEntity() != null) {
+                OC.setFoldVelocity(entity.getOctopusTeleportEntity(), entity);
+            }
+        }
+    }
+
+    /**
+     * Turns the physics engine crank at a fixed rate, however long the frame was.
+     *
+     * Each physics step first advances the gameplay timers, then saves the transform of every
+     * body so that it can be drawn between its last two positions. Whatever could not be
+     * caught up on within MAX_STEPS_PER_FRAME is dropped so slow frames do not snowball.
+     *
+     * @param dt Number of seconds since last animation frame
+     * @param frozen whether the game is frozen
+     * @param world the Box2D world of the level
+     * @param objects the entities of the level
+     *
+     * @return how far (from 0 to 1) the frame got into the next physics step
+     */
+    public float advance(float dt, boolean frozen, World world, PooledList<Entity> objects) {
+        physicsAccumulator += Math.min(dt, MAX_FRAME_TIME);
+        int steps = 0;
+        while (physicsAccumulator >= WORLD_STEP && steps < MAX_STEPS_PER_FRAME) {
+            stepTimers(frozen);
+            for (Entity obj : objects) {
+                if (obj.getBody() != null) {
+                    obj.saveTransform();
+                }
+            }
+            world.step(WORLD_STEP,WORLD_VELOC,WORLD_POSIT);
+            physicsAccumulator -= WORLD_STEP;
+            steps++;
+        }
+        if (physicsAccumulator >= WORLD_STEP) {
+            physicsAccumulator %= WORLD_STEP;
+        }
+        return physicsAccumulator / WORLD_STEP;
+    }
+
+    /**
+     * Garbage collects the deleted entities and updates the rest.
+     *
+     * Note how we use the linked list nodes to delete O(1) in place.
+     * This is O(n) without copying.
+     *
+     * @param dt Number of seconds since last animation frame
+     * @param alpha how far the frame got into the next physics step, from advance()
+     * @param world the Box2D world of the level
+     * @param objects the entities of the level
+     * @param grid the spatial index of the entities
+     */
+    public void collect(float dt, float alpha, World world, PooledList<Entity> objects, SpatialGrid grid) {
+        Iterator<PooledList<Entity>.Entry> iterator = objects.entryIterator();
+        while (iterator.hasNext()) {
+            PooledList<Entity>.Entry entry = iterator.next();
+            Entity obj = entry.getValue();
+            if (obj.isRemoved()) {
+                obj.deactivatePhysics(world);
+                grid.remove(obj);
+                entry.remove();
+            } else {
+                // Note that update is called last!
+                obj.setInterpolation(alpha);
+                obj.update(dt);
+                grid.update(obj);
+            }
+        }
+    }
+
+    /**
+     * Simulates one frame: prepare(), advance() and collect() one after the other.
+     *
+     * @param dt Number of seconds since last animation frame
+     * @param frozen whether the game is frozen
+     * @param world the Box2D world of the level
+     * @param objects the entities of the level
+     * @param grid the spatial index of the entities
+     * @param bounds the bounds of the level
+     */
+    public void step(float dt, boolean frozen, World world, PooledList<Entity> objects, SpatialGrid grid, Rectangle bounds) {
+        prepare(frozen, objects, bounds);
+        float alpha = advance(dt, frozen, world, objects);
+        collect(dt, alpha, world, objects, grid);
+    }
+
+    /**
+     * Advances the gameplay timers by one physics step.
+     *
+     * Anything counted in steps rather than seconds, such as the flying time and how long an
+     * enemy takes to spot an octopus, is advanced here so that it lasts as long whatever the
+     * frame rate.
+     *
+     * @param frozen whether the game is frozen
+     */
+    private void stepTimers(boolean frozen) {
+        OC.step(frozen);
+        EC.step(frozen);
+        if (!frozen) {
+            for (int i = 0; i < OC.getOctopusList().size(); i++) {
+                Entity grabbed = OC.getOctopusList().get(i).getTeleportEntity();
+                if (grabbed != null && grabbed.isActive()) {
+                    grabbingStep = (grabbingStep + 1) % GRABBING_STEPS;
+                    break;
+                }
+            }
+        }
+    }
+    //#endregion
+    //=================================
+}
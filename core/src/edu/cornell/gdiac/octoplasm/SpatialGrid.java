@@ -0,0 +1,367 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import edu.cornell.gdiac.octoplasm.entity.*;
+
+/**
+ * A uniform grid over the level that answers "what is near here" without looking at
+ * every entity. Positions are in Box2D coordinates.
+ *
+ * Each entity is kept in the cell that holds its center, and is only moved to another
+ * cell when update() finds that it has crossed into one. Entities outside the level are
+ * kept in the closest edge cell. Range and point queries widen their search by the
+ * largest entity that was ever indexed, so an entity is found even when its center is in
+ * a different cell from the part of it being asked about. Only box entities (octopi,
+ * enemies, obstacles and tutorial icons) are indexed; walls are left to Box2D.
+ *
+ * The arrays passed to the queries are cleared and filled, so the caller can reuse them
+ * and nothing is allocated per query.
+ */
+public class SpatialGrid {
+    //=========================================================================
+    //#region Fields
+    /** The side of a cell in Box2D units */
+    private float cellSize;
+    /** The x-coordinate of the bottom left corner of the grid */
+    private float originX;
+    /** The y-coordinate of the bottom left corner of the grid */
+    private float originY;
+    /** The number of columns of cells */
+    private int columns;
+    /** The number of rows of cells */
+    private int rows;
+    /** The entities in each cell, row by row from the bottom left */
+    private Array<Array<BoxEntity>> cells;
+    /** The cell every indexed entity is in */
+    private ObjectIntMap<BoxEntity> cellOf;
+    /** The largest half diagonal of any entity indexed since the grid was last cleared */
+    private float maxExtent;
+
+    /** The squared distances of the entities found by the last nearest query */
+    private FloatArray distances;
+    /** Cache object for the dimension of an entity */
+    private Vector2 dimension;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates a new, empty spatial grid.
+     *
+     * The grid has a single cell until {@link #setBounds(Rectangle)} is called.
+     *
+     * @param cellSize the side of a cell in Box2D units
+     */
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+        cells = new Array<>();
+        cellOf = new ObjectIntMap<>();
+        distances = new FloatArray();
+        dimension = new Vector2();
+        setBounds(new Rectangle(0, 0, cellSize, cellSize));
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Getters and Setters
+    /**
+     * Returns the number of entities in the grid.
+     *
+     * @return the number of entities in the grid
+     */
+    public int size() {
+        return cellOf.size;
+    }
+
+    /**
+     * Returns the side of a cell in Box2D units.
+     *
+     * @return the side of a cell in Box2D units
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Sets the area covered by the grid and empties it.
+     *
+     * @param bounds the bounds of the level in Box2D coordinates
+     */
+    public void setBounds(Rectangle bounds) {
+        originX = bounds.x;
+        originY = bounds.y;
+        columns = Math.max(1, MathUtils.ceil(bounds.width / cellSize));
+        rows = Math.max(1, MathUtils.ceil(bounds.height / cellSize));
+        int count = columns * rows;
+        while (cells.size < count) {
+            cells.add(new Array<BoxEntity>(false, 4));
+        }
+        clear();
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Maintenance
+    /**
+     * Removes every entity from the grid.
+     */
+    public void clear() {
+        for (int i = 0; i < cells.size; i++) {
+            cells.get(i).clear();
+        }
+        cellOf.clear();
+        maxExtent = 0;
+    }
+
+    /**
+     * Adds the entity to the grid, or moves it to the cell it is in now.
+     *
+     * Entities that are not box entities are ignored. This does nothing if the entity has
+     * not left its cell, so it is cheap to call every time an entity might have moved.
+     *
+     * @param entity the entity to add or move
+     */
+    public void update(Entity entity) {
+        if (!(entity instanceof BoxEntity) || entity.getEntityType() == Entity.EntityType.SELECTOR) {
+            return;
+        }
+        BoxEntity box = (BoxEntity) entity;
+        int cell = cellAt(box.getX(), box.getY());
+        int previous = cellOf.get(box, -1);
+        if (previous == cell) {
+            return;
+        }
+        if (previous == -1) {
+            dimension.set(box.getDimension());
+            maxExtent = Math.max(maxExtent, dimension.len() / 2);
+        } else {
+            cells.get(previous).removeValue(box, true);
+        }
+        cells.get(cell).add(box);
+        cellOf.put(box, cell);
+    }
+
+    /**
+     * Removes the entity from the grid, if it is in it.
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(Entity entity) {
+        if (!(entity instanceof BoxEntity)) {
+            return;
+        }
+        int cell = cellOf.remove((BoxEntity) entity, -1);
+        if (cell != -1) {
+            cells.get(cell).removeValue((BoxEntity) entity, true);
+        }
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Queries
+    /**
+     * Finds every entity whose box overlaps the given rectangle.
+     *
+     * @param x0 the left side of the rectangle
+     * @param y0 the bottom of the rectangle
+     * @param x1 the right side of the rectangle
+     * @param y1 the top of the rectangle
+     * @param out the array to put the entities in; it is cleared first
+     *
+     * @return the array of entities found
+     */
+    public Array<BoxEntity> queryRange(float x0, float y0, float x1, float y1, Array<BoxEntity> out) {
+        out.clear();
+        int column0 = columnAt(x0 - maxExtent);
+        int column1 = columnAt(x1 + maxExtent);
+        int row0 = rowAt(y0 - maxExtent);
+        int row1 = rowAt(y1 + maxExtent);
+        for (int row = row0; row <= row1; row++) {
+            for (int column = column0; column <= column1; column++) {
+                Array<BoxEntity> cell = cells.get(row * columns + column);
+                for (int i = 0; i < cell.size; i++) {
+                    BoxEntity entity = cell.get(i);
+                    if (overlaps(entity, x0, y0, x1, y1)) {
+                        out.add(entity);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Finds every entity whose box contains the given point.
+     *
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param out the array to put the entities in; it is cleared first
+     *
+     * @return the array of entities found
+     */
+    public Array<BoxEntity> queryPoint(float x, float y, Array<BoxEntity> out) {
+        out.clear();
+        int column0 = columnAt(x - maxExtent);
+        int column1 = columnAt(x + maxExtent);
+        int row0 = rowAt(y - maxExtent);
+        int row1 = rowAt(y + maxExtent);
+        for (int row = row0; row <= row1; row++) {
+            for (int column = column0; column <= column1; column++) {
+                Array<BoxEntity> cell = cells.get(row * columns + column);
+                for (int i = 0; i < cell.size; i++) {
+                    BoxEntity entity = cell.get(i);
+                    if (contains(entity, x, y)) {
+                        out.add(entity);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Finds the k entities whose centers are closest to the given point, closest first.
+     *
+     * The search starts in the cell of the point and grows one ring of cells at a time,
+     * stopping once no unsearched cell could hold anything closer than what was found.
+     *
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param k the most entities to find
+     * @param out the array to put the entities in; it is cleared first
+     *
+     * @return the array of entities found
+     */
+    public Array<BoxEntity> nearest(float x, float y, int k, Array<BoxEntity> out) {
+        out.clear();
+        distances.clear();
+        if (k <= 0) {
+            return out;
+        }
+        int centerColumn = columnAt(x);
+        int centerRow = rowAt(y);
+        // How far the point is outside of the grid, which every unsearched cell may be closer by
+        float outside = Math.max(Math.max(originX - x, x - (originX + columns * cellSize)),
+                Math.max(originY - y, y - (originY + rows * cellSize)));
+        outside = Math.max(0, outside);
+        int maxRing = Math.max(Math.max(centerColumn, columns - 1 - centerColumn),
+                Math.max(centerRow, rows - 1 - centerRow));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(1, step)) {
+                    if (column >= 0 && column < columns) {
+                        collectNearest(cells.get(row * columns + column), x, y, k, out);
+                    }
+                }
+            }
+            // Every cell past this ring is at least this far from the point
+            float reach = Math.max(0, ring * cellSize - outside);
+            if (out.size == k && distances.get(k - 1) <= reach * reach) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Adds the entities in the cell to the nearest list, keeping it sorted and at most k long.
+     *
+     * @param cell the entities in the cell
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param k the most entities to keep
+     * @param out the closest entities so far
+     */
+    private void collectNearest(Array<BoxEntity> cell, float x, float y, int k, Array<BoxEntity> out) {
+        for (int i = 0; i < cell.size; i++) {
+            BoxEntity entity = cell.get(i);
+            float dx = entity.getX() - x;
+            float dy = entity.getY() - y;
+            float distance = dx * dx + dy * dy;
+            if (out.size == k && distance >= distances.get(k - 1)) {
+                continue;
+            }
+            int index = out.size == k ? k - 1 : out.size;
+            if (out.size < k) {
+                out.add(entity);
+                distances.add(distance);
+            }
+            while (index > 0 && distances.get(index - 1) > distance) {
+                out.set(index, out.get(index - 1));
+                distances.set(index, distances.get(index - 1));
+                index--;
+            }
+            out.set(index, entity);
+            distances.set(index, distance);
+        }
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Helpers
+    /**
+     * Returns whether the axis-aligned bounds of the entity's box overlap the rectangle.
+     */
+    private boolean overlaps(BoxEntity entity, float x0, float y0, float x1, float y1) {
+        dimension.set(entity.getDimension());
+        float cos = Math.abs(MathUtils.cos(entity.getAngle()));
+        float sin = Math.abs(MathUtils.sin(entity.getAngle()));
+        float halfWidth = (dimension.x * cos + dimension.y * sin) / 2;
+        float halfHeight = (dimension.x * sin + dimension.y * cos) / 2;
+        float x = entity.getX();
+        float y = entity.getY();
+        return x + halfWidth >= x0 && x - halfWidth <= x1 && y + halfHeight >= y0 && y - halfHeight <= y1;
+    }
+
+    /**
+     * Returns whether the entity's box, rotated with the entity, contains the point.
+     */
+    private boolean contains(BoxEntity entity, float x, float y) {
+        dimension.set(entity.getDimension());
+        float cos = MathUtils.cos(entity.getAngle());
+        float sin = MathUtils.sin(entity.getAngle());
+        float dx = x - entity.getX();
+        float dy = y - entity.getY();
+        float localX = dx * cos + dy * sin;
+        float localY = -dx * sin + dy * cos;
+        return Math.abs(localX) <= dimension.x / 2 && Math.abs(localY) <= dimension.y / 2;
+    }
+
+    /**
+     * Returns the index of the cell holding the point, clamped to the grid.
+     */
+    private int cellAt(float x, float y) {
+        return rowAt(y) * columns + columnAt(x);
+    }
+
+    /**
+     * Returns the column holding the x-coordinate, clamped to the grid.
+     */
+    private int columnAt(float x) {
+        return MathUtils.clamp(MathUtils.floor((x - originX) / cellSize), 0, columns - 1);
+    }
+
+    /**
+     * Returns the row holding the y-coordinate, clamped to the grid.
+     */
+    private int rowAt(float y) {
+        return MathUtils.clamp(MathUtils.floor((y - originY) / cellSize), 0, rows - 1);
+    }
+    //#endregion
+    //=================================
+}
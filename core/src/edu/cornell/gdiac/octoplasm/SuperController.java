@@ -11,4 +11,25 @@ public abstract class SuperController implements Screen {
     public abstract void transitionDraw(float delta);
 
     public abstract void showTransition();
+
+    /**
+     * Returns whether the screen has finished any work started in the background, so a
+     * transition to it can finish the preparation and fade it in.
+     *
+     * Transitions keep the screen black until this is true.
+     *
+     * @return whether the screen is ready for {@link #finishPreparation()}
+     */
+    public boolean isPrepared() {
+        return true;
+    }
+
+    /**
+     * Finishes preparing the screen on the main thread, once {@link #isPrepared()} is true.
+     *
+     * @return whether the screen can be shown; if not, the transition goes back
+     */
+    public boolean finishPreparation() {
+        return true;
+    }
 }
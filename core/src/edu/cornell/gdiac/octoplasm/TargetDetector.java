@@ -0,0 +1,218 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.entity.*;
+
+/**
+ * Target detection for enemies. Replaces the old 360 ray fan around each enemy with a
+ * broadphase query followed by a couple of line-of-sight rays per candidate octopus.
+ *
+ * The broadphase pass asks Box2D for every fixture whose bounding box overlaps the
+ * square around the enemy's range. Only live octopi whose center is within range are
+ * kept as candidates. Each candidate is then checked with a ray from the enemy to the
+ * octopus center; only if that ray is blocked do we try the two silhouette edges of the
+ * octopus, so a partially hidden octopus is still seen like it was with the ray fan.
+ *
+ * Only walls and the FIGHT/FLIGHT/FOLD wall obstacles block sight, which matches what
+ * the old ray-casting callback treated as a wall.
+ */
+public class TargetDetector {
+    //=========================================================================
+    //#region Fields
+    /** How far in (as a fraction of the half width) the silhouette rays aim, so they hit the octopus and not past it */
+    private static final float SILHOUETTE_INSET = 0.9f;
+
+    /** The octopi found by the last broadphase pass */
+    private Array<OctopusEntity> candidates;
+    /** Callback that collects candidate octopi from the broadphase */
+    private QueryCallback queryCallback;
+    /** Callback that handles a line-of-sight ray-casting intersection event */
+    private RayCastCallback sightCallback;
+
+    /** The position of the enemy doing the query */
+    private Vector2 origin;
+    /** Cache object for the end point of a ray */
+    private Vector2 rayEnd;
+    /** Cache object for vector calculations */
+    private Vector2 cache;
+    /** The squared range of the enemy doing the query */
+    private float rangeSquared;
+    /** Whether the current line-of-sight ray hit a wall */
+    private boolean blocked;
+
+    /** The number of rays cast since the counters were last reset */
+    private int rayCount;
+    /** The number of broadphase queries since the counters were last reset */
+    private int queryCount;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates a new target detector.
+     */
+    public TargetDetector() {
+        candidates = new Array<>();
+        origin = new Vector2();
+        rayEnd = new Vector2();
+        cache = new Vector2();
+        queryCallback = new QueryCallback() {
+            @Override
+            public boolean reportFixture(Fixture fixture) {
+                Entity entity = (Entity) fixture.getBody().getUserData();
+                if (entity == null || !entity.isActive() || entity.getEntityType() != Entity.EntityType.OCTOPUS) {
+                    return true;
+                }
+                OctopusEntity octopus = (OctopusEntity) entity;
+                if (octopus.isAlive() && !candidates.contains(octopus, true)
+                        && origin.dst2(octopus.getPosition()) < rangeSquared) {
+                    candidates.add(octopus);
+                }
+                return true;
+            }
+        };
+        sightCallback = new RayCastCallback() {
+            @Override
+            public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+                Entity entity = (Entity) fixture.getBody().getUserData();
+                if (entity != null && entity.isActive() && blocksSight(entity)) {
+                    blocked = true;
+                    return 0;
+                }
+                return 1;
+            }
+        };
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Getters and Setters
+    /**
+     * Returns the number of rays cast since the last call to {@link #resetCounters()}.
+     *
+     * @return the number of rays cast
+     */
+    public int getRayCount() {
+        return rayCount;
+    }
+
+    /**
+     * Returns the number of broadphase queries since the last call to {@link #resetCounters()}.
+     *
+     * @return the number of broadphase queries
+     */
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Resets the ray and query counters.
+     */
+    public void resetCounters() {
+        rayCount = 0;
+        queryCount = 0;
+    }
+    //#endregion
+    //=================================
+
+    /**
+     * Returns the closest octopus that the enemy can see within its range, or null if there is none.
+     *
+     * @param enemy the enemy that is looking for a target
+     * @param world the world that the queries will be performed on
+     *
+     * @return the closest visible octopus, or null if there is none
+     */
+    public OctopusEntity findTarget(EnemyEntity enemy, World world) {
+        float range = enemy.getRange();
+        origin.set(enemy.getPosition());
+        rangeSquared = range * range;
+
+        candidates.clear();
+        queryCount++;
+        world.QueryAABB(queryCallback, origin.x - range, origin.y - range, origin.x + range, origin.y + range);
+
+        OctopusEntity closest = null;
+        float closestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < candidates.size; i++) {
+            OctopusEntity octopus = candidates.get(i);
+            float distance = origin.dst2(octopus.getPosition());
+            if (distance < closestDistance && isVisible(octopus, world)) {
+                closest = octopus;
+                closestDistance = distance;
+            }
+        }
+        candidates.clear();
+        return closest;
+    }
+
+    /**
+     * Returns whether the octopus can be seen from the current origin.
+     *
+     * @param octopus the octopus to check
+     * @param world the world that the rays will be cast on
+     *
+     * @return whether the octopus can be seen
+     */
+    private boolean isVisible(OctopusEntity octopus, World world) {
+        Vector2 target = octopus.getPosition();
+        if (hasLineOfSight(rayEnd.set(target), world)) {
+            return true;
+        }
+
+        // The center is hidden, try both sides of the octopus
+        Vector2 dimension = octopus.getDimension();
+        float halfWidth = Math.min(dimension.x, dimension.y) / 2f * SILHOUETTE_INSET;
+        cache.set(target).sub(origin).nor().rotate90(1).scl(halfWidth);
+        if (hasLineOfSight(rayEnd.set(target).add(cache), world)) {
+            return true;
+        }
+        return hasLineOfSight(rayEnd.set(target).sub(cache), world);
+    }
+
+    /**
+     * Returns whether there is no wall between the origin and the given point.
+     *
+     * @param end the end point of the ray
+     * @param world the world that the ray will be cast on
+     *
+     * @return whether there is no wall between the origin and the given point
+     */
+    private boolean hasLineOfSight(Vector2 end, World world) {
+        if (origin.epsilonEquals(end, 0.0001f)) {
+            return true;
+        }
+        blocked = false;
+        rayCount++;
+        world.rayCast(sightCallback, origin, end);
+        return !blocked;
+    }
+
+    /**
+     * Returns whether the entity blocks an enemy's sight.
+     *
+     * @param entity the entity to check
+     *
+     * @return whether the entity blocks an enemy's sight
+     */
+    private static boolean blocksSight(Entity entity) {
+        switch (entity.getEntityType()) {
+            case WALL:
+                return true;
+            case OBSTACLE:
+                ObstacleEntity.ObstacleSubType subType = ((ObstacleEntity) entity).getObstacleSubType();
+                return subType == ObstacleEntity.ObstacleSubType.FIGHT_WALL
+                        || subType == ObstacleEntity.ObstacleSubType.FLIGHT_WALL
+                        || subType == ObstacleEntity.ObstacleSubType.FOLD_WALL;
+            default:
+                return false;
+        }
+    }
+}
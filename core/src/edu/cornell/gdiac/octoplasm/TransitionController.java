@@ -2,9 +2,12 @@ package edu.cornell.gdiac.octoplasm;
 
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.util.AssetBundles;
 import edu.cornell.gdiac.octoplasm.util.AudioController;
 import edu.cornell.gdiac.octoplasm.util.ScreenListener;
 
@@ -33,16 +36,29 @@ public class TransitionController implements Screen {
     private float counter = 0;
     private boolean active = false;
     private TransitionState currentState = TransitionState.DONE;
+    /** Whether screen2 could not be prepared, so the transition went back to screen1 */
+    private boolean preparationFailed = false;
     private Texture blackBackground;
     private GameCanvas canvas;
     private ScreenListener listener;
     private Vector2 cache = new Vector2();
+    /** Track all loaded assets (for unloading purposes). */
+    private Array<String> assets = new Array<>();
 
     public TransitionController() {
         screen1 = null;
         screen2 = null;
     }
 
+    /**
+     * Sets the asset bundles, making the assets queued by this controller its screen bundle.
+     *
+     * @param bundles The asset bundles of the screens and worlds
+     */
+    public void setBundles(AssetBundles bundles) {
+        bundles.setScreen(this, assets);
+    }
+
     /**
      * Sets the canvas associated with this controller
      *
@@ -64,6 +80,18 @@ public class TransitionController implements Screen {
         this.listener = listener;
     }
 
+    /**
+     * Returns whether the last transition could not prepare screen2.
+     *
+     * When this is true, screen2 has been replaced by screen1, which the transition faded
+     * back into instead.
+     *
+     * @return whether the last transition could not prepare screen2
+     */
+    public boolean didPreparationFail() {
+        return preparationFailed;
+    }
+
     /**
      * Preloads the assets for this controller.
      *
@@ -71,6 +99,10 @@ public class TransitionController implements Screen {
      */
     public void preLoadContent(AssetManager manager) {
         manager.load(BLACK_BACKGROUND, Texture.class);
+        assets.add(BLACK_BACKGROUND);
+        // Transitions play before the gameplay sounds have loaded
+        manager.load(TRANSITION, Sound.class);
+        assets.add(TRANSITION);
     }
 
     /**
@@ -85,6 +117,7 @@ public class TransitionController implements Screen {
      */
     public void loadContent(AssetManager manager) {
         blackBackground = manager.get(BLACK_BACKGROUND, Texture.class);
+        AudioController.getInstance().allocateSound(manager, TRANSITION);
     }
 
     /**
@@ -96,8 +129,10 @@ public class TransitionController implements Screen {
      * @param manager Reference to global asset manager.
      */
     public void unloadContent(AssetManager manager) {
-        if (manager.isLoaded(BLACK_BACKGROUND)) {
-            manager.unload(BLACK_BACKGROUND);
+        for (String s : assets) {
+            if (manager.isLoaded(s)) {
+                manager.unload(s);
+            }
         }
     }
 
@@ -108,6 +143,7 @@ public class TransitionController implements Screen {
         active = true;
         counter = 0;
         currentState = TransitionState.FADE_IN;
+        preparationFailed = false;
         canvas.setDisableUI(true);
         screen1.showTransition();
     }
@@ -133,9 +169,17 @@ public class TransitionController implements Screen {
             if (currentState == TransitionState.FADE_IN && counter > SCREEN_FADE_SECONDS) {
                 screen1.hide();
                 currentState = TransitionState.HOLD;
-                screen2.showTransition();
                 counter -= SCREEN_FADE_SECONDS;
-            } else if (currentState == TransitionState.HOLD && counter > SCREEN_BLACK_SECONDS) {
+            } else if (currentState == TransitionState.HOLD && counter > SCREEN_BLACK_SECONDS && screen2.isPrepared()) {
+                // Stay black for as long as screen2 is still being prepared in the background
+                if (!screen2.finishPreparation()) {
+                    preparationFailed = true;
+                    screen2 = screen1;
+                    rightToLeft = !rightToLeft;
+                }
+                screen2.showTransition();
+                // Time spent waiting must not eat into the fade out
+                counter = Math.min(counter, SCREEN_BLACK_SECONDS + delta);
                 audio.playSound("transition", TRANSITION, false); //Transition sound
                 currentState = TransitionState.FADE_OUT;
                 counter -= SCREEN_BLACK_SECONDS;
@@ -175,7 +219,7 @@ public class TransitionController implements Screen {
                 listener.exitScreen(this, 0);
                 break;
             }
-            AudioController.getInstance().update();
+            AudioController.getInstance().update(delta);
         }
     }
 
@@ -0,0 +1,266 @@
+package edu.cornell.gdiac.octoplasm;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g2d.PolygonRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+import edu.cornell.gdiac.octoplasm.entity.Entity;
+import edu.cornell.gdiac.octoplasm.entity.WallEntity;
+
+import java.util.Comparator;
+
+/**
+ * The walls of a level, baked into static meshes that are drawn without the sprite batch.
+ *
+ * Walls never move during play, yet drawing them through the sprite batch sends every wall
+ * polygon and edge strip to the graphics card again each frame. Instead, each wall adds its
+ * triangles once (@see WallEntity#bake), and they are baked into one or more meshes per
+ * texture, each drawn with a single call. The fills of every wall are drawn before any edge,
+ * so an edge is never hidden by a neighbouring wall.
+ *
+ * The meshes are rebuilt the next time they are drawn after {@link #markDirty()}, which must
+ * be called whenever a wall is added, removed or changed, such as when a level is populated
+ * or edited. Baked walls are always drawn whole, whether or not they are in view.
+ */
+public class WallMesh {
+    //=========================================================================
+    //#region Fields
+    /** The most vertices in a mesh, so that they can be indexed by a short */
+    private static final int MAX_VERTICES = Short.MAX_VALUE;
+    /** The number of floats in a vertex: the position, packed color and texture coordinates */
+    private static final int VERTEX_SIZE = 5;
+    /** The indices of the two triangles of a quad, in the order the sprite batch draws them */
+    private static final int[] QUAD = {0, 1, 2, 2, 3, 0};
+
+    /**
+     * The triangles of a single texture, baked into one mesh.
+     */
+    private static class Chunk {
+        /** The texture of the triangles */
+        final Texture texture;
+        /** Whether the triangles are edge strips, which are drawn over the fills */
+        final boolean edge;
+        /** The vertices of the triangles, in the layout of the sprite batch */
+        final FloatArray vertices = new FloatArray();
+        /** The indices of the triangles */
+        final ShortArray indices = new ShortArray();
+        /** The baked mesh, or null if it is not baked yet */
+        Mesh mesh;
+
+        Chunk(Texture texture, boolean edge) {
+            this.texture = texture;
+            this.edge = edge;
+        }
+
+        /**
+         * Returns the number of vertices in this chunk.
+         *
+         * @return the number of vertices in this chunk.
+         */
+        int size() {
+            return vertices.size / VERTEX_SIZE;
+        }
+    }
+
+    /** The chunks of the walls, fills first once baked */
+    private final Array<Chunk> chunks;
+    /** The order the chunks are drawn in */
+    private final Comparator<Chunk> order;
+    /** Whether the meshes must be rebuilt before they are next drawn */
+    private boolean dirty;
+    /** The packed color of every vertex */
+    private final float color;
+    /** Cache for transforming a vertex */
+    private final Vector2 vertex;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates an empty wall mesh.
+     *
+     * Nothing is sent to the graphics card until the walls are first drawn.
+     */
+    public WallMesh() {
+        chunks = new Array<>();
+        order = new Comparator<Chunk>() {
+            @Override
+            public int compare(Chunk a, Chunk b) {
+                return a.edge == b.edge ? 0 : (a.edge ? 1 : -1);
+            }
+        };
+        color = Color.WHITE.toFloatBits();
+        vertex = new Vector2();
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Baking
+    /**
+     * Marks the walls as changed, so that the meshes are rebuilt before they are next drawn.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Adds the triangles of a polygon region, transformed from its own coordinates.
+     *
+     * The triangles are the same as those drawn by the sprite batch for the region.
+     *
+     * @param region    The polygon region
+     * @param transform The transform from the region to the world (in pixels)
+     */
+    public void add(PolygonRegion region, Affine2 transform) {
+        float[] points = region.getVertices();
+        float[] coords = region.getTextureCoords();
+        short[] triangles = region.getTriangles();
+        if (triangles.length == 0) {
+            return;
+        }
+
+        Chunk chunk = getChunk(region.getRegion().getTexture(), false, points.length / 2);
+        int base = chunk.size();
+        for (int ii = 0; ii < points.length; ii += 2) {
+            addVertex(chunk, transform, points[ii], points[ii+1], coords[ii], coords[ii+1]);
+        }
+        for (short index : triangles) {
+            chunk.indices.add(base + index);
+        }
+    }
+
+    /**
+     * Adds the two triangles of a texture region, transformed from its own coordinates.
+     *
+     * The triangles are the same as those drawn by the sprite batch for the region at the
+     * given size, so a region taller than its repeating texture tiles it.
+     *
+     * @param region    The texture region
+     * @param width     The width to draw the region at, before the transform
+     * @param height    The height to draw the region at, before the transform
+     * @param transform The transform from the region to the world (in pixels)
+     */
+    public void add(TextureRegion region, float width, float height, Affine2 transform) {
+        Chunk chunk = getChunk(region.getTexture(), true, 4);
+        int base = chunk.size();
+        addVertex(chunk, transform, 0, 0, region.getU(), region.getV2());
+        addVertex(chunk, transform, 0, height, region.getU(), region.getV());
+        addVertex(chunk, transform, width, height, region.getU2(), region.getV());
+        addVertex(chunk, transform, width, 0, region.getU2(), region.getV2());
+        for (int index : QUAD) {
+            chunk.indices.add(base + index);
+        }
+    }
+
+    /**
+     * Returns the chunk to add the given number of vertices of a texture to.
+     *
+     * A new chunk is started if the last one for the texture is full.
+     *
+     * @param texture   The texture of the vertices
+     * @param edge      Whether the vertices are an edge strip
+     * @param count     The number of vertices to add
+     *
+     * @return the chunk to add the given number of vertices of a texture to.
+     */
+    private Chunk getChunk(Texture texture, boolean edge, int count) {
+        for (int ii = chunks.size - 1; ii >= 0; ii--) {
+            Chunk chunk = chunks.get(ii);
+            if (chunk.texture == texture && chunk.edge == edge) {
+                if (chunk.size() + count <= MAX_VERTICES) {
+                    return chunk;
+                }
+                break;
+            }
+        }
+        Chunk chunk = new Chunk(texture, edge);
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    /**
+     * Adds a transformed vertex to a chunk.
+     *
+     * @param chunk     The chunk
+     * @param transform The transform of the vertex
+     * @param x         The x-coordinate of the vertex, before the transform
+     * @param y         The y-coordinate of the vertex, before the transform
+     * @param u         The horizontal texture coordinate
+     * @param v         The vertical texture coordinate
+     */
+    private void addVertex(Chunk chunk, Affine2 transform, float x, float y, float u, float v) {
+        transform.applyTo(vertex.set(x, y));
+        chunk.vertices.add(vertex.x, vertex.y, color);
+        chunk.vertices.add(u, v);
+    }
+
+    /**
+     * Rebuilds the meshes from the active walls in the given list.
+     *
+     * @param objects The entities of the level
+     */
+    private void rebuild(Iterable<Entity> objects) {
+        dispose();
+        for (Entity obj : objects) {
+            if (obj.isActive() && obj.getEntityType() == Entity.EntityType.WALL) {
+                ((WallEntity) obj).bake(this);
+            }
+        }
+        chunks.sort(order);
+        for (int ii = 0; ii < chunks.size; ii++) {
+            Chunk chunk = chunks.get(ii);
+            chunk.mesh = new Mesh(true, chunk.size(), chunk.indices.size,
+                    VertexAttribute.Position(), VertexAttribute.ColorPacked(), VertexAttribute.TexCoords(0));
+            chunk.mesh.setVertices(chunk.vertices.items, 0, chunk.vertices.size);
+            chunk.mesh.setIndices(chunk.indices.items, 0, chunk.indices.size);
+        }
+        dirty = false;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Drawing
+    /**
+     * Draws the walls, first rebuilding the meshes if the walls have changed.
+     *
+     * This must be called inside a begin()-end() pair of the canvas.
+     *
+     * @param canvas  Drawing context
+     * @param objects The entities of the level, to rebuild the meshes from
+     */
+    public void draw(GameCanvas canvas, Iterable<Entity> objects) {
+        if (dirty) {
+            rebuild(objects);
+        }
+        for (int ii = 0; ii < chunks.size; ii++) {
+            Chunk chunk = chunks.get(ii);
+            canvas.draw(chunk.mesh, chunk.texture);
+        }
+    }
+
+    /**
+     * Frees the meshes, which are rebuilt from the walls when next drawn.
+     */
+    public void dispose() {
+        for (int ii = 0; ii < chunks.size; ii++) {
+            Mesh mesh = chunks.get(ii).mesh;
+            if (mesh != null) {
+                mesh.dispose();
+            }
+        }
+        chunks.clear();
+        dirty = true;
+    }
+    //#endregion
+    //=================================
+}
@@ -64,5 +64,23 @@ public abstract class CharacterView {
 		return false;
 	}
 
-	public abstract void update(float delta, boolean frozen);
+	/** Places the skeleton, advances its animation and poses it for drawing. */
+	public void update (float delta, boolean frozen) {
+		positionSkeleton();
+		animate(delta, frozen);
+		animationState.apply(skeleton);
+		skeleton.updateWorldTransform();
+	}
+
+	/** Advances the animation without posing the skeleton, for a character that is not being drawn. The skeleton is posed again
+	 * by the next call to {@link #update(float, boolean)}. */
+	public void updateCulled (float delta, boolean frozen) {
+		animate(delta, frozen);
+	}
+
+	/** Moves, rotates and scales the skeleton to match the character. */
+	abstract void positionSkeleton ();
+
+	/** Changes the animation if the character's state changed, otherwise advances the current one. */
+	abstract void animate (float delta, boolean frozen);
 }
@@ -20,15 +20,18 @@ public class EnemyView extends CharacterView {
     Bone coreBone, headBone, armsBone, frontBone, front1Bone, front2Bone, front3Bone, front4Bone, front5Bone, backBone, back1Bone, back2Bone, back3Bone;
     Vector2 temp1 = new Vector2(), temp2 = new Vector2();
     Vector2 scale;
+    /** The poses shared with the other enemies, or null to always pose this one itself */
+    PoseCache poseCache;
 
     public EnemyView(HashMap<EnemyEntity.EnemySubType, SkeletonData> enemySkeletonData,
                      HashMap<EnemyEntity.EnemySubType, AnimationStateData> enemyAnimationStateData,
                      HashMap<EnemyEntity.EnemySubType, ObjectMap<BoxEntity.State, InputController.StateView>> enemyStates,
-                     EnemyEntity enemyEntity, Vector2 scale) {
+                     EnemyEntity enemyEntity, Vector2 scale, PoseCache poseCache) {
         super();
         this.enemyStates = enemyStates.get(enemyEntity.getEnemySubType());
         this.enemyEntity = enemyEntity;
         this.scale = scale;
+        this.poseCache = poseCache;
 
         switch (enemyEntity.getEnemySubType()) {
             case NORMAL_ENEMY:
@@ -69,15 +72,27 @@ public class EnemyView extends CharacterView {
         skeleton.getRootBone().setScale(ANIMATION_SCALE);
     }
 
+    /**
+     * Places the skeleton, advances its animation and poses it for drawing, taking the pose
+     * from the pose cache when another enemy in the same frame has already solved it.
+     */
     @Override
     public void update(float delta, boolean frozen) {
-        float rotationAngle = enemyEntity.getAngle();
+        positionSkeleton();
+        animate(delta, frozen);
+        if (poseCache == null || !poseCache.pose(skeleton, animationState)) {
+            animationState.apply(skeleton);
+            skeleton.updateWorldTransform();
+        }
+    }
+
+    @Override
+    void positionSkeleton() {
+        float rotationAngle = enemyEntity.getDrawAngle();
         skeleton.getRootBone().setRotation((float)Math.toDegrees(rotationAngle)%360);
-        Vector2 size = new Vector2();
-        skeleton.getBounds(new Vector2(),size,new FloatArray());
         skeleton.getRootBone().setScale(0.5f);
-        skeleton.setX(enemyEntity.getPosition().x*scale.x);
-        skeleton.setY(enemyEntity.getPosition().y*scale.y);
+        skeleton.setX(enemyEntity.getDrawX()*scale.x);
+        skeleton.setY(enemyEntity.getDrawY()*scale.y);
 //        Vector2 size = new Vector2();
 //        skeleton.getBounds(new Vector2(),size,new FloatArray());
 //        float dx = (float) Math.sin(rotationAngle)*size.y/2;
@@ -87,12 +102,12 @@ public class EnemyView extends CharacterView {
 ////        skeleton.setY(enemyEntity.getPosition().y*scale.y);
 //        skeleton.setX((enemyEntity.getPosition().x)*scale.x+dx);
 //        skeleton.setY((enemyEntity.getPosition().y)*scale.y-size.y/2+dy);
+    }
 
+    @Override
+    void animate(float delta, boolean frozen) {
         if (!setAnimation(enemyStates.get(enemyEntity.state), enemyEntity.stateChanged) && !frozen) {
             animationState.update(delta);
         }
-        animationState.apply(skeleton);
-
-        skeleton.updateWorldTransform();
     }
 }
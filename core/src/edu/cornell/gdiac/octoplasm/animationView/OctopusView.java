@@ -3,7 +3,6 @@ package edu.cornell.gdiac.octoplasm.animationView;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.esotericsoftware.spine.*;
 import edu.cornell.gdiac.octoplasm.InputController;
@@ -74,14 +73,16 @@ public class OctopusView extends CharacterView {
     }
 
     @Override
-    public void update(float delta, boolean frozen) {
-        float rotationAngle = octopusEntity.getAngle();
+    void positionSkeleton() {
+        float rotationAngle = octopusEntity.getDrawAngle();
         skeleton.getRootBone().setRotation((float)Math.toDegrees(rotationAngle)%360);
-        Vector2 size = new Vector2();
-        skeleton.getBounds(new Vector2(),size,new FloatArray());
         skeleton.getRootBone().setScale(0.5f);
-        skeleton.setX(octopusEntity.getPosition().x*scale.x);
-        skeleton.setY(octopusEntity.getPosition().y*scale.y);
+        skeleton.setX(octopusEntity.getDrawX()*scale.x);
+        skeleton.setY(octopusEntity.getDrawY()*scale.y);
+    }
+
+    @Override
+    void animate(float delta, boolean frozen) {
         if (!setAnimation(octopusStates.get(octopusEntity.state), octopusEntity.stateChanged) && (!frozen || octopusEntity.getState() == BoxEntity.State.win)) {
             animationState.update(delta);
             if (octopusEntity.state== BoxEntity.State.death && octopusEntity.getOctopusSubType()== OctopusEntity.OctopusSubType.EXPLODER) {
@@ -97,8 +98,5 @@ public class OctopusView extends CharacterView {
                 octopusEntity.isRespawned = false;
             }
         }
-        animationState.apply(skeleton);
-
-        skeleton.updateWorldTransform();
     }
 }
@@ -0,0 +1,262 @@
+package edu.cornell.gdiac.octoplasm.animationView;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.esotericsoftware.spine.*;
+import com.esotericsoftware.spine.attachments.Attachment;
+
+/**
+ * Poses that are shared by every skeleton showing the same frame of the same animation.
+ *
+ * Many enemies of one type usually sit in the same state, started at the same time, so
+ * they are all in the same pose and only differ in where they are and which way they
+ * face. Instead of applying the animation and solving the skeleton for each of them, the
+ * pose is solved once on a private skeleton with the root at the origin and unrotated,
+ * and then copied to each of them with their own root transform.
+ *
+ * Animation time is rounded down to {@link #POSE_STEP}, so every skeleton in the same step
+ * gets exactly the same pose. Animations that key the root bone cannot be shared, since
+ * the root transform is what differs between skeletons; neither can a track that is
+ * still mixing from the previous animation.
+ *
+ * The cache holds on to the skeleton data it has seen, so it should be cleared whenever the
+ * skeletons are unloaded, such as between levels. It also starts over by itself once it
+ * holds {@link #MAX_POSES} poses.
+ */
+public class PoseCache {
+    /** The length of a frame of a shared pose, in seconds */
+    private static final float POSE_STEP = 1 / 60f;
+    /** The most poses kept before the cache starts over */
+    private static final int MAX_POSES = 4096;
+
+    /** The skeleton each pose of a skeleton data is solved on */
+    private ObjectMap<SkeletonData, Skeleton> prototypes;
+    /** The poses of each animation by frame */
+    private ObjectMap<Animation, IntMap<Pose>> poses;
+    /** Whether each animation can be shared (1) or not (0) */
+    private ObjectIntMap<Animation> shareable;
+    /** The number of poses in the cache */
+    private int size;
+
+    /**
+     * Creates a new, empty pose cache.
+     */
+    public PoseCache() {
+        prototypes = new ObjectMap<>();
+        poses = new ObjectMap<>();
+        shareable = new ObjectIntMap<>();
+    }
+
+    /**
+     * Returns the number of poses in the cache.
+     *
+     * @return the number of poses in the cache
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every pose from the cache.
+     *
+     * This also lets go of the skeleton data and animations the poses were solved from, so
+     * the cache must be cleared whenever those are unloaded.
+     */
+    public void clear() {
+        prototypes.clear();
+        poses.clear();
+        shareable.clear();
+        size = 0;
+    }
+
+    /**
+     * Poses the skeleton from the cache, if its animation can be shared.
+     *
+     * The root bone's rotation and scale and the skeleton's position must already be set,
+     * as they would be before applying the animation state.
+     *
+     * @param skeleton the skeleton to pose
+     * @param state the animation state of the skeleton
+     *
+     * @return whether the skeleton was posed; if not, it must be posed the usual way
+     */
+    public boolean pose(Skeleton skeleton, AnimationState state) {
+        AnimationState.TrackEntry current = state.getCurrent(0);
+        if (current == null || current.getMixingFrom() != null || current.getAlpha() != 1
+                || state.getTracks().size > 1 || !isShareable(current.getAnimation())) {
+            return false;
+        }
+        int frame = MathUtils.floor(current.getAnimationTime() / POSE_STEP);
+        IntMap<Pose> frames = poses.get(current.getAnimation());
+        Pose pose = frames == null ? null : frames.get(frame);
+        if (pose == null) {
+            if (size >= MAX_POSES) {
+                clear();
+                frames = null;
+            }
+            if (frames == null) {
+                frames = new IntMap<>();
+                poses.put(current.getAnimation(), frames);
+            }
+            pose = solve(skeleton.getData(), skeleton.getRootBone(), current.getAnimation(), frame * POSE_STEP);
+            frames.put(frame, pose);
+            size++;
+        }
+        pose.apply(skeleton);
+        return true;
+    }
+
+    /**
+     * Returns whether the animation leaves the root bone alone, so it can be shared.
+     */
+    private boolean isShareable(Animation animation) {
+        int cached = shareable.get(animation, -1);
+        if (cached != -1) {
+            return cached == 1;
+        }
+        boolean result = true;
+        Array<Animation.Timeline> timelines = animation.getTimelines();
+        for (int i = 0; i < timelines.size; i++) {
+            Animation.Timeline timeline = timelines.get(i);
+            if (timeline instanceof Animation.RotateTimeline && ((Animation.RotateTimeline) timeline).getBoneIndex() == 0
+                    || timeline instanceof Animation.TranslateTimeline && ((Animation.TranslateTimeline) timeline).getBoneIndex() == 0) {
+                result = false;
+                break;
+            }
+        }
+        shareable.put(animation, result ? 1 : 0);
+        return result;
+    }
+
+    /**
+     * Solves a frame of an animation on the prototype skeleton and records it.
+     *
+     * @param data the skeleton data the animation belongs to
+     * @param root the root bone of the skeleton asking, for its scale
+     * @param animation the animation to pose
+     * @param time the animation time of the frame
+     *
+     * @return the recorded pose
+     */
+    private Pose solve(SkeletonData data, Bone root, Animation animation, float time) {
+        Skeleton prototype = prototypes.get(data);
+        if (prototype == null) {
+            prototype = new Skeleton(data);
+            prototypes.put(data, prototype);
+        }
+        prototype.setToSetupPose();
+        prototype.setPosition(0, 0);
+        prototype.getRootBone().setRotation(0);
+        prototype.getRootBone().setScale(root.getScaleX(), root.getScaleY());
+        animation.apply(prototype, time, time, false, null, 1, Animation.MixPose.setup, Animation.MixDirection.in);
+        prototype.updateWorldTransform();
+        return new Pose(prototype);
+    }
+
+    /**
+     * The world transforms of the bones and the state of the slots of one solved frame.
+     */
+    private static class Pose {
+        /** The world x and y of the root bone */
+        private float rootX, rootY;
+        /** The a, b, c, d, world x and world y of every bone */
+        private float[] bones;
+        /** The attachment of every slot */
+        private Attachment[] attachments;
+        /** The color of every slot, then its dark color if it has one */
+        private Color[] colors;
+        /** The deformed vertices of every slot, or null if they are not deformed */
+        private float[][] vertices;
+        /** The index of every slot in draw order */
+        private int[] drawOrder;
+
+        /**
+         * Records the pose of a solved skeleton.
+         *
+         * @param skeleton the skeleton, with its world transform updated
+         */
+        Pose(Skeleton skeleton) {
+            Array<Bone> boneList = skeleton.getBones();
+            bones = new float[boneList.size * 6];
+            for (int i = 0; i < boneList.size; i++) {
+                Bone bone = boneList.get(i);
+                bones[6 * i] = bone.getA();
+                bones[6 * i + 1] = bone.getB();
+                bones[6 * i + 2] = bone.getC();
+                bones[6 * i + 3] = bone.getD();
+                bones[6 * i + 4] = bone.getWorldX();
+                bones[6 * i + 5] = bone.getWorldY();
+            }
+            rootX = skeleton.getRootBone().getWorldX();
+            rootY = skeleton.getRootBone().getWorldY();
+
+            Array<Slot> slots = skeleton.getSlots();
+            attachments = new Attachment[slots.size];
+            colors = new Color[slots.size * 2];
+            vertices = new float[slots.size][];
+            for (int i = 0; i < slots.size; i++) {
+                Slot slot = slots.get(i);
+                attachments[i] = slot.getAttachment();
+                colors[2 * i] = new Color(slot.getColor());
+                colors[2 * i + 1] = slot.getDarkColor() == null ? null : new Color(slot.getDarkColor());
+                FloatArray deform = slot.getAttachmentVertices();
+                vertices[i] = deform.size == 0 ? null : deform.toArray();
+            }
+
+            Array<Slot> order = skeleton.getDrawOrder();
+            drawOrder = new int[order.size];
+            for (int i = 0; i < order.size; i++) {
+                drawOrder[i] = order.get(i).getData().getIndex();
+            }
+        }
+
+        /**
+         * Copies the pose to a skeleton, turned by its root bone and moved to its position.
+         *
+         * @param skeleton the skeleton to pose, made from the same skeleton data
+         */
+        void apply(Skeleton skeleton) {
+            float cos = (float) Math.cos(Math.toRadians(skeleton.getRootBone().getRotation()));
+            float sin = (float) Math.sin(Math.toRadians(skeleton.getRootBone().getRotation()));
+            float offsetX = rootX + skeleton.getX();
+            float offsetY = rootY + skeleton.getY();
+            Array<Bone> boneList = skeleton.getBones();
+            for (int i = 0; i < boneList.size; i++) {
+                Bone bone = boneList.get(i);
+                float a = bones[6 * i], b = bones[6 * i + 1], c = bones[6 * i + 2], d = bones[6 * i + 3];
+                float x = bones[6 * i + 4] - rootX, y = bones[6 * i + 5] - rootY;
+                bone.setA(cos * a - sin * c);
+                bone.setB(cos * b - sin * d);
+                bone.setC(sin * a + cos * c);
+                bone.setD(sin * b + cos * d);
+                bone.setWorldX(cos * x - sin * y + offsetX);
+                bone.setWorldY(sin * x + cos * y + offsetY);
+            }
+
+            Array<Slot> slots = skeleton.getSlots();
+            for (int i = 0; i < slots.size; i++) {
+                Slot slot = slots.get(i);
+                slot.setAttachment(attachments[i]);
+                slot.getColor().set(colors[2 * i]);
+                if (colors[2 * i + 1] != null) {
+                    slot.getDarkColor().set(colors[2 * i + 1]);
+                }
+                FloatArray deform = slot.getAttachmentVertices();
+                deform.clear();
+                if (vertices[i] != null) {
+                    deform.addAll(vertices[i]);
+                }
+            }
+
+            Array<Slot> order = skeleton.getDrawOrder();
+            for (int i = 0; i < drawOrder.length; i++) {
+                order.set(i, slots.get(drawOrder[i]));
+            }
+        }
+    }
+}
@@ -43,6 +43,8 @@ public class BoxEntity extends Entity {
     private float[] vertices;
     /** The octopus's current goal position, given in world coordinates */
     private Vector2 pathGoal;
+    /** A cache value for when the user wants to access the goal */
+    private Vector2 goalCache;
     /** The entity that this entity is currently colliding with (only used for selector)*/
     private LinkedList<Entity> collidingWith = new LinkedList<Entity>();
     /** int for selector that states whether goals may be placed */
@@ -77,6 +79,7 @@ public class BoxEntity extends Entity {
         geometry = null;
         wallsTouched = 0;
         pathGoal = new Vector2();
+        goalCache = new Vector2();
 
         resize(w, h);
     }
@@ -190,10 +193,14 @@ public class BoxEntity extends Entity {
     /**
      * Returns the goal position
      *
+     * This method does NOT return a reference to the goal vector. Changes to this vector
+     * will not affect the goal. However, it returns the same vector each time it is called,
+     * and so cannot be used as an allocator.
+     *
      * @return the goal position
      */
     public Vector2 getGoal() {
-        return new Vector2(pathGoal.x, pathGoal.y);
+        return goalCache.set(pathGoal);
     }
 
     /**
@@ -267,6 +274,19 @@ public class BoxEntity extends Entity {
         }
     }
 
+    /**
+     * Frees the Box2D shape of this object.
+     *
+     * The object must not be activated again.
+     */
+    @Override
+    public void dispose() {
+        if (shape != null) {
+            shape.dispose();
+            shape = null;
+        }
+    }
+
     /**
      * Draws the outline of the physics body.
      *
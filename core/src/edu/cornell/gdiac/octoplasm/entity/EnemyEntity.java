@@ -38,7 +38,7 @@ public class EnemyEntity extends BoxEntity {
     /** The turn angle (in radians) from the desired angle before we can start moving forward */
     private static final float TURN_ANGLE = (float) (Math.PI / 3f);
 
-    /**  */
+    /** The physics steps an enemy takes to detect an octopus */
     private static final int DETECTION_TIME = (int) (0.5 * 60);
 
     /** Texture assets for the normal enemy models. */
@@ -65,10 +65,6 @@ public class EnemyEntity extends BoxEntity {
     private boolean moving;
     /** Shape information for this box */
     protected PolygonShape shape;
-    /** The width and height of the box */
-    private Vector2 dimension;
-    /** A cache value for when the user wants to access the dimensions */
-    private Vector2 sizeCache;
     /** A cache value for the fixture (for resizing) */
     private Fixture geometry;
     /** Cache of the polygon vertices (for resizing) */
@@ -90,6 +86,8 @@ public class EnemyEntity extends BoxEntity {
     private Vector2 cache;
     /** The octopus's current goal position, given in world coordinates */
     private Vector2 pathGoal;
+    /** A cache value for when the user wants to access the goal */
+    private Vector2 goalCache;
     /** Whether or not the octopus is still alive */
     private boolean alive;
     /** Whether or not the octopus is currently turning (shouldn't change goal position if turning) */
@@ -155,6 +153,7 @@ public class EnemyEntity extends BoxEntity {
             default:
         }
         pathGoal = new Vector2();
+        goalCache = new Vector2();
         this.setPosition(x,y);
         cache = new Vector2();
         setDensity(DEFAULT_DENSITY);
@@ -224,14 +223,14 @@ public class EnemyEntity extends BoxEntity {
     }
 
     /**
-     * decrease the counter clock by 1 frame-time
+     * decrease the counter clock by 1 physics step
      */
     public void decrementClock() {
         attackCounter -= 1;
     }
 
     /**
-     * Decrements the detection clock by 1, updating the chasing flag in enemy entity once it reaches zero.
+     * Decrements the detection clock by 1 physics step, updating the chasing flag in enemy entity once it reaches zero.
      */
     public void decrementDetectionCounter() {
         detectionCounter -= 1;
@@ -240,7 +239,7 @@ public class EnemyEntity extends BoxEntity {
 
     /**
      * Returns the time remains for the enemy to launch an attack
-     * @return the frame-time remains before an attack
+     * @return the physics steps that remain before an attack
      */
     public float timeRemain() {
         return attackCounter;
@@ -257,50 +256,14 @@ public class EnemyEntity extends BoxEntity {
     }
 
     /**
-     * Returns the frames needed for this enemy to detect you.
+     * Returns the physics steps needed for this enemy to detect you.
      *
-     * @return the frames needed for this enemy to detect you.
+     * @return the physics steps needed for this enemy to detect you.
      */
     public float getMaxDetection() {
         return DETECTION_TIME;
     }
 
-    /**
-     * Returns the dimensions of this box
-     *
-     * This method does NOT return a reference to the dimension vector. Changes to this
-     * vector will not affect the shape.  However, it returns the same vector each time
-     * its is called, and so cannot be used as an allocator.
-     *
-     * @return the dimensions of this box
-     */
-    public Vector2 getDimension() {
-        return sizeCache.set(dimension);
-    }
-
-    /**
-     * Sets the dimensions of this box
-     *
-     * This method does not keep a reference to the parameter.
-     *
-     * @param value  the dimensions of this box
-     */
-    public void setDimension(Vector2 value) {
-        setDimension(value.x, value.y);
-    }
-
-    /**
-     * Sets the dimensions of this box
-     *
-     * @param width   The width of this box
-     * @param height  The height of this box
-     */
-    public void setDimension(float width, float height) {
-        dimension.set(width, height);
-        markDirty(true);
-        resize(width, height);
-    }
-
     /**
      * Returns the box width
      *
@@ -310,16 +273,6 @@ public class EnemyEntity extends BoxEntity {
         return getTextureWidth(enemySubType);
     }
 
-    /**
-     * Sets the box width
-     *
-     * @param value  the box width
-     */
-    public void setWidth(float value) {
-        sizeCache.set(value,dimension.y);
-        setDimension(sizeCache);
-    }
-
     /**
      * Returns the box width
      *
@@ -329,16 +282,6 @@ public class EnemyEntity extends BoxEntity {
         return getTextureHeight(enemySubType);
     }
 
-    /**
-     * Sets the box width
-     *
-     * @param value  the box width
-     */
-    public void setHeight(float value) {
-        sizeCache.set(value,dimension.y);
-        setDimension(sizeCache);
-    }
-
     /**
      * Get the speed of the enemy
      * @return the speed of the entity
@@ -402,10 +345,15 @@ public class EnemyEntity extends BoxEntity {
 
     /**
      * Get the goal position of the enemy
+     *
+     * This method does NOT return a reference to the goal vector. Changes to this vector
+     * will not affect the goal. However, it returns the same vector each time it is called,
+     * and so cannot be used as an allocator.
+     *
      * @return the goal position of the enemy.
      */
     public Vector2 getGoal() {
-        return new Vector2(pathGoal.x, pathGoal.y);
+        return goalCache.set(pathGoal);
     }
 
     /**
@@ -517,7 +465,7 @@ public class EnemyEntity extends BoxEntity {
      */
     public void drawSilhouette(GameCanvas canvas, Vector2 scale) {
         canvas.draw(texture, Color.GRAY, texture.getRegionWidth()/2f, texture.getRegionHeight()/2f,
-                getPosition().x * scale.x, getPosition().y * scale.y, getAngle(), resizeScale * 1.4f, resizeScale * 1.4f);
+                getDrawX() * scale.x, getDrawY() * scale.y, getDrawAngle(), resizeScale * 1.4f, resizeScale * 1.4f);
     }
 
     /**
@@ -5,11 +5,11 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.octoplasm.*; // For GameCanvas
 import edu.cornell.gdiac.octoplasm.animationView.CharacterView;
 //import org.graalvm.compiler.lir.amd64.vector.AMD64VectorMove;
 
-import java.util.LinkedList;
 
 /**
  * Base model class to support collisions.
@@ -85,6 +85,17 @@ public abstract class Entity {
     protected Vector2 centroidCache = new Vector2();
     /** A cache value for when the user wants to access the drawing scale */
     protected Vector2 scaleCache = new Vector2();
+    /** A cache value for when the user wants to access the interpolated position */
+    protected Vector2 drawPositionCache = new Vector2();
+    // Render interpolation
+    /** The position of the body before the last physics step */
+    private Vector2 previousPosition = new Vector2();
+    /** The angle of the body before the last physics step */
+    private float previousAngle;
+    /** Whether previousPosition and previousAngle hold a valid physics state */
+    private boolean hasPreviousTransform;
+    /** How far (0 to 1) between the previous and current physics state to draw */
+    private float interpolation = 1;
     /** Stores health of the entity */
     protected int health;
     /** Stores the type of the entity: 1. Octopus 2. Enemy 3. Obstacle */
@@ -95,6 +106,8 @@ public abstract class Entity {
     protected boolean grabbed;
     /** TODO documentation */
     private boolean isDead;
+    /** Whether this entity is close enough to the camera to be drawn this frame */
+    private boolean inView;
     //#endregion
     //=================================
 
@@ -117,6 +130,7 @@ public abstract class Entity {
         // Object has yet to be deactivated
         toRemove = false;
         isDead = false;
+        inView = true;
 
         // Set the type of the entity
         this.entityType = entityType;
@@ -170,6 +184,23 @@ public abstract class Entity {
      */
     public void setIsDead(boolean value) { isDead = value; }
 
+    /**
+     * Returns whether this entity is close enough to the camera to be drawn.
+     *
+     * Entities are in view until culling says otherwise, so anything that is never
+     * culled is always drawn.
+     *
+     * @return whether this entity is close enough to the camera to be drawn
+     */
+    public boolean isInView() { return inView; }
+
+    /**
+     * Sets whether this entity is close enough to the camera to be drawn.
+     *
+     * @param value whether this entity is close enough to the camera to be drawn
+     */
+    public void setInView(boolean value) { inView = value; }
+
     /**
      * returns how long the entity is grabbed for
      * @return how long the entity is grabbed for
@@ -215,13 +246,14 @@ public abstract class Entity {
     public void setOctopusTeleportEntity(OctopusEntity octopus) {octopusTeleportEntity = octopus;}
 
 
-    private LinkedList<Entity> collidingWith = new LinkedList<Entity>();
+    /** The entities this one is touching, kept in an array so that contacts do not allocate */
+    private Array<Entity> collidingWith = new Array<Entity>();
     /**
      * returns size of collidingWith
      * @return size of collidingWith
      */
     public int getCollidingWithSize(){
-        return collidingWith.size();
+        return collidingWith.size;
     }
 
     /**
@@ -235,7 +267,8 @@ public abstract class Entity {
     public Entity getClosestColliding() {
         double dist = 99999;
         Entity closestHit = null;
-        for(Entity ent:collidingWith) {
+        for(int i = 0; i < collidingWith.size; i++) {
+            Entity ent = collidingWith.get(i);
             try {
                 Vector2 v = ent.getPosition().sub(getPosition());
                 double a = Math.pow(v.x,2)+Math.pow(v.y,2);
@@ -262,7 +295,14 @@ public abstract class Entity {
      * @param e object to remove
      */
     public void removeCollidingWith(Entity e){
-        collidingWith.remove(e);
+        collidingWith.removeValue(e, true);
+    }
+
+    /**
+     * removes every object from the list of collided objects
+     */
+    public void clearCollidingWith(){
+        collidingWith.clear();
     }
     /// BodyDef Methods
     /**
@@ -311,7 +351,8 @@ public abstract class Entity {
     /**
      * Sets the current position for this physics body
      *
-     * This method does not keep a reference to the parameter.
+     * This method does not keep a reference to the parameter. The body is drawn at the
+     * new position right away, rather than interpolated from where it was.
      *
      * @param value the current position for this physics body
      */
@@ -322,11 +363,15 @@ public abstract class Entity {
         } else {
             bodyinfo.position.set(value);
         }
+        previousPosition.set(value);
     }
 
     /**
      * Sets the current position for this physics body
      *
+     * The body is drawn at the new position right away, rather than interpolated from
+     * where it was.
+     *
      * @param x the x-coordinate for this physics body
      * @param y the y-coordinate for this physics body
      */
@@ -337,6 +382,7 @@ public abstract class Entity {
         } else {
             bodyinfo.position.set(x, y);
         }
+        previousPosition.set(x, y);
     }
 
     /**
@@ -360,6 +406,7 @@ public abstract class Entity {
         } else {
             bodyinfo.position.x = value;
         }
+        previousPosition.x = value;
     }
 
     /**
@@ -383,6 +430,7 @@ public abstract class Entity {
         } else {
             bodyinfo.position.y = value;
         }
+        previousPosition.y = value;
     }
 
     /**
@@ -399,6 +447,9 @@ public abstract class Entity {
     /**
      * Sets the angle of rotation for this body (about the center).
      *
+     * The body is drawn at the new angle right away, rather than interpolated from the
+     * old one.
+     *
      * @param value the angle of rotation for this body (in radians)
      */
     public void setAngle(float value) {
@@ -407,6 +458,76 @@ public abstract class Entity {
         } else {
             bodyinfo.angle = value;
         }
+        previousAngle = value;
+    }
+
+    /**
+     * Stores the current position and angle as the previous physics state.
+     *
+     * This should be called right before each physics step, so that drawing can
+     * interpolate between the last two physics states.
+     */
+    public void saveTransform() {
+        previousPosition.set(getPosition());
+        previousAngle = getAngle();
+        hasPreviousTransform = true;
+    }
+
+    /**
+     * Sets how far between the previous and current physics state this entity is drawn.
+     *
+     * @param alpha the interpolation factor, from 0 (previous state) to 1 (current state)
+     */
+    public void setInterpolation(float alpha) {
+        interpolation = alpha;
+    }
+
+    /**
+     * Returns the position this entity should be drawn at, in physics units.
+     *
+     * This is the body position interpolated between the last two physics steps. Like
+     * getPosition(), it returns the same vector each time it is called.
+     *
+     * @return the interpolated position of this entity
+     */
+    public Vector2 getDrawPosition() {
+        if (!hasPreviousTransform || interpolation >= 1) {
+            return drawPositionCache.set(getPosition());
+        }
+        return drawPositionCache.set(previousPosition).lerp(getPosition(), interpolation);
+    }
+
+    /**
+     * Returns the x-coordinate this entity should be drawn at, in physics units.
+     *
+     * @return the interpolated x-coordinate of this entity
+     */
+    public float getDrawX() {
+        return getDrawPosition().x;
+    }
+
+    /**
+     * Returns the y-coordinate this entity should be drawn at, in physics units.
+     *
+     * @return the interpolated y-coordinate of this entity
+     */
+    public float getDrawY() {
+        return getDrawPosition().y;
+    }
+
+    /**
+     * Returns the angle this entity should be drawn at, in radians.
+     *
+     * @return the interpolated angle of this entity
+     */
+    public float getDrawAngle() {
+        if (!hasPreviousTransform || interpolation >= 1) {
+            return getAngle();
+        }
+        // Turn the short way round, even when the angle wraps past pi
+        float turn = getAngle() - previousAngle;
+        turn -= MathUtils.PI2 * MathUtils.floor((turn + MathUtils.PI) / MathUtils.PI2);
+        return previousAngle + turn * interpolation;
     }
 
     /**
@@ -1274,8 +1395,8 @@ public abstract class Entity {
      */
     public void draw(GameCanvas canvas) {
         if (texture != null) {
-            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,
-                    getY()*drawScale.y,getAngle(),resizeScale,resizeScale);
+            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,
+                    getDrawY()*drawScale.y,getDrawAngle(),resizeScale,resizeScale);
         }
     }
 
@@ -1287,8 +1408,8 @@ public abstract class Entity {
      */
     public void draw(GameCanvas canvas, Color color) {
         if (texture != null) {
-            canvas.draw(texture, color, origin.x,origin.y,getX()*drawScale.x,
-                    getY()*drawScale.y,getAngle(),resizeScale,resizeScale);
+            canvas.draw(texture, color, origin.x,origin.y,getDrawX()*drawScale.x,
+                    getDrawY()*drawScale.y,getDrawAngle(),resizeScale,resizeScale);
         }
     }
 
@@ -1316,6 +1437,7 @@ public abstract class Entity {
         bodyinfo.active = true;
         body = world.createBody(bodyinfo);
         body.setUserData(this);
+        hasPreviousTransform = false;
 
         // Only initialize if a body was created.
         if (body != null) {
@@ -1359,6 +1481,14 @@ public abstract class Entity {
      */
     protected abstract void releaseFixtures();
 
+    /**
+     * Frees the Box2D shapes of this object.
+     *
+     * Fixtures copy their shapes, so this is safe once the physics is deactivated
+     * (or the world disposed), but the object must not be activated again.
+     */
+    public abstract void dispose();
+
 
     /**
      * Draws the outline of the physics body.
@@ -10,7 +10,6 @@ import edu.cornell.gdiac.octoplasm.animationView.OctopusView;
 import edu.cornell.gdiac.octoplasm.util.FilmStrip;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /** This class implements the general octopus class
  *
@@ -53,7 +52,7 @@ public class OctopusEntity extends BoxEntity {
     public static final int FLYING_TIMER_FRAMES = 4;
     /** The number of frames for the fold charges */
     public static final int FOLD_CHARGES_FRAMES = 2;
-    /** The number of frames an octopi cannot move after being launched*/
+    /** The number of physics steps an octopi cannot move after being launched*/
     private static final int LAUNCH_DURATION = 30;
     // Default physics values
     /** The density of this octopus */
@@ -72,7 +71,7 @@ public class OctopusEntity extends BoxEntity {
     private static final float FLYER_TURN_SPEED = 20.0f;
     /** The turn angle (in radians) from the desired angle before we can start moving forward */
     private static final float TURN_ANGLE = (float) (Math.PI / 3f);
-    /** The flying time in seconds */
+    /** The flying time in physics steps */
     private static final int FLYING_TIME = 3 * 60;
 
     /** The texture of the exploder octopus */
@@ -124,7 +123,7 @@ public class OctopusEntity extends BoxEntity {
     //Ability specific fields
     /** Whether or not this octopus is flying */
     private boolean flying = false;
-    /** The amount of time this octopus has left to fly */
+    /** The number of physics steps this octopus has left to fly */
     private int flyingCounter = -1;
     /** entity that the teleport octopus wants to teleport over **/
     private Entity teleportEntity = null;
@@ -218,7 +217,7 @@ public class OctopusEntity extends BoxEntity {
             reBoostFlag = true;
         }
         boostCount--;
-        float len = new Vector2(horizontal,vertical).len();
+        float len = Vector2.len(horizontal,vertical);
         body.setLinearVelocity(cache.set(horizontal, vertical).nor().scl(
                 flying ? FLYER_SPEED : (len < DEFAULT_SPEED/4 ? len*4:boosted)));
         if(boosted > DEFAULT_SPEED){
@@ -242,6 +241,15 @@ public class OctopusEntity extends BoxEntity {
         launched = LAUNCH_DURATION;
     }
 
+    /**
+     * Advances the effect animations of this octopus by one physics step.
+     */
+    public void stepAnimations() {
+        for (int i = 0; i < animationList.size(); i++) {
+            animationList.get(i).incFrame();
+        }
+    }
+
     /**
      * Returns the box width
      *
@@ -275,7 +283,7 @@ public class OctopusEntity extends BoxEntity {
     public boolean doneFlying() {return flying && flyingCounter <= 0;}
 
     /**
-     * Decrements the flying counter
+     * Decrements the flying counter by one physics step
      */
     public void decFlyingCounter() {flyingCounter--;}
 
@@ -578,7 +586,7 @@ public class OctopusEntity extends BoxEntity {
      */
     public void drawSilhouette(GameCanvas canvas, Vector2 scale) {
         canvas.draw(texture, Color.GRAY, texture.getRegionWidth()/2f, texture.getRegionHeight()/2f,
-                getPosition().x * scale.x, getPosition().y * scale.y, getAngle(), resizeScale * 1.4f, resizeScale * 1.4f);
+                getDrawX() * scale.x, getDrawY() * scale.y, getDrawAngle(), resizeScale * 1.4f, resizeScale * 1.4f);
     }
 
     /**
@@ -593,14 +601,13 @@ public class OctopusEntity extends BoxEntity {
             if (grabCharges > 0 && isAlive()) {
                 foldCharges.setFrame(grabCharges - 1);
                 canvas.draw(foldCharges, com.badlogic.gdx.graphics.Color.WHITE,foldCharges.getRegionWidth()/2f,
-                        foldCharges.getRegionHeight()/2f,getPosition().x*drawScale.x,
-                        getPosition().y*drawScale.y,0f,2,2);
+                        foldCharges.getRegionHeight()/2f,getDrawX()*drawScale.x,
+                        getDrawY()*drawScale.y,0f,2,2);
             }
         }
         // Explosion explode Animation
-        Iterator<animationObject> it = animationList.iterator();
-        while (it.hasNext()) {
-            animationObject a = it.next();
+        for (int i = 0; i < animationList.size(); i++) {
+            animationObject a = animationList.get(i);
             Vector2 pos = a.getPosition();
             int frame = a.getFrame();
             switch (octopusSubType) {
@@ -635,12 +642,10 @@ public class OctopusEntity extends BoxEntity {
                             frame = frame/45;
                             if (frame >= 0 && frame < FLYING_TIMER_FRAMES) {
                                 flyingTimer.setFrame(frame);
-                                if (!frozen)
-                                    a.incFrame();
                                 canvas.draw(flyingTimer, com.badlogic.gdx.graphics.Color.WHITE,flyingTimer.getRegionWidth()/2f,
                                         flyingTimer.getRegionHeight()/2f,pos.x*drawScale.x,pos.y*drawScale.y,0f,2,2);
                             } else if (frame >= FLYING_TIMER_FRAMES) {
-                                it.remove();
+                                animationList.remove(i--);
                             }
                             break;
                         default:
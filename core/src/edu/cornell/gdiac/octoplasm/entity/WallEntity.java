@@ -3,12 +3,15 @@ package edu.cornell.gdiac.octoplasm.entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.PolygonRegion;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.ShortArray;
 import edu.cornell.gdiac.octoplasm.GameCanvas;
 import edu.cornell.gdiac.octoplasm.GameplayController;
+import edu.cornell.gdiac.octoplasm.WallMesh;
 
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -47,6 +50,8 @@ public class WallEntity extends Entity{
 
     /** An earclipping triangular to make sure we work with convex shapes */
     private static final EarClippingTriangulator TRIANGULATOR = new EarClippingTriangulator();
+    /** Cache for the transform of the polygon or an edge strip */
+    private static final Affine2 TRANSFORM = new Affine2();
 
     /** File to texture for walls and platforms */
     private static String EARTH_FILE = "background_wall_textures/Cave_Tile_Rock.png";
@@ -86,6 +91,8 @@ public class WallEntity extends Entity{
     private float[] vertices;
     /** Cache of original vertices used during level editor */
     private float[] origVertices;
+    /** The box around the original vertices, relative to the polygon origin */
+    private Rectangle extent;
     //#endregion
     //=================================
 
@@ -122,6 +129,10 @@ public class WallEntity extends Entity{
         // Object has yet to be deactivated
 //        toRemove = false;
         origVertices = points.clone();
+        extent = new Rectangle(points[0], points[1], 0, 0);
+        for (int i = 2; i < points.length; i += 2) {
+            extent.merge(points[i], points[i+1]);
+        }
         // Allocate the body information
         bodyinfo = new BodyDef();
         bodyinfo.awake  = true;
@@ -165,6 +176,24 @@ public class WallEntity extends Entity{
      * @return the original vertices */
     public float[] getOrigVertices() { return origVertices; }
 
+    /**
+     * Returns whether the box around this wall overlaps the given rectangle.
+     *
+     * The box is the one around the original vertices, so it ignores rotation.
+     *
+     * @param x0 the left side of the rectangle in Box2D units
+     * @param y0 the bottom of the rectangle in Box2D units
+     * @param x1 the right side of the rectangle in Box2D units
+     * @param y1 the top of the rectangle in Box2D units
+     *
+     * @return whether the box around this wall overlaps the rectangle
+     */
+    public boolean overlaps(float x0, float y0, float x1, float y1) {
+        float x = getX() + extent.x;
+        float y = getY() + extent.y;
+        return x + extent.width >= x0 && x <= x1 && y + extent.height >= y0 && y <= y1;
+    }
+
     /**
      * TODO documentation
      *
@@ -476,6 +505,21 @@ public class WallEntity extends Entity{
         }
     }
 
+    /**
+     * Frees the Box2D shapes of this polygon.
+     *
+     * The polygon must not be activated again.
+     */
+    @Override
+    public void dispose() {
+        if (shapes != null) {
+            for(PolygonShape shape : shapes) {
+                shape.dispose();
+            }
+            shapes = null;
+        }
+    }
+
     /**
      * Sets the object texture for drawing purposes.
      *
@@ -549,6 +593,8 @@ public class WallEntity extends Entity{
     /**
      * Draws the physics object.
      *
+     * Walls in a level are normally baked into a WallMesh instead (@see bake).
+     *
      * @param canvas Drawing context
      */
     public void draw(GameCanvas canvas) {
@@ -556,24 +602,55 @@ public class WallEntity extends Entity{
             canvas.draw(region, Color.WHITE,0,0,getX()*drawScale.x,getY()*drawScale.y,getAngle(),1,1);
             float[] vertices = getOrigVertices();
             for(int i = 2; i < vertices.length+2; i = i + 2) {
-                Vector2 prev;
-                Vector2 curr;
-                if (i < vertices.length) {
-                    prev = new Vector2(vertices[i-2], vertices[i-1]);
-                    curr = new Vector2(vertices[i], vertices[i+1]);
-                } else {
-                    prev = new Vector2(vertices[i-2], vertices[i-1]);
-                    curr = new Vector2(vertices[0], vertices[1]);
-                }
-                Vector2 cache2 = new Vector2(prev.x - curr.x, prev.y - curr.y);
-                Vector2 cache = new Vector2((prev.x + curr.x)/2, (prev.y + curr.y)/2);
-                wallEdge.setRegionHeight((int)(cache2.len()*drawScale.y));
-                canvas.draw(wallEdge, com.badlogic.gdx.graphics.Color.WHITE, wallEdge.getRegionWidth() / 2f,
-                        wallEdge.getRegionHeight() / 2f, cache.x * drawScale.x, cache.y * drawScale.y, cache2.rotate90(1).angleRad(), 1, 1);
+                setEdge(vertices, i);
+                canvas.draw(wallEdge, Color.WHITE, 0, 0, TRANSFORM);
             }
         }
     }
 
+    /**
+     * Adds the polygon and edge strips of this wall to a wall mesh.
+     *
+     * The triangles are the same as those drawn by draw(GameCanvas), so a baked wall
+     * looks the same. The wall must be baked again whenever it changes.
+     *
+     * @param mesh The wall mesh
+     */
+    public void bake(WallMesh mesh) {
+        if (region != null) {
+            TRANSFORM.setToTranslation(getX()*drawScale.x, getY()*drawScale.y);
+            TRANSFORM.rotate(180.0f*getAngle()/(float)Math.PI);
+            mesh.add(region, TRANSFORM);
+            float[] vertices = getOrigVertices();
+            for(int i = 2; i < vertices.length+2; i = i + 2) {
+                setEdge(vertices, i);
+                mesh.add(wallEdge, wallEdge.getRegionWidth(), wallEdge.getRegionHeight(), TRANSFORM);
+            }
+        }
+    }
+
+    /**
+     * Sizes the edge texture to an edge, and sets the transform to draw it with.
+     *
+     * The edge runs from the previous vertex to the given one, wrapping around at the end.
+     *
+     * @param vertices The original vertices
+     * @param i The index of the x-coordinate of the end of the edge, up to vertices.length
+     */
+    private void setEdge(float[] vertices, int i) {
+        float prevX = vertices[i-2];
+        float prevY = vertices[i-1];
+        float currX = i < vertices.length ? vertices[i] : vertices[0];
+        float currY = i < vertices.length ? vertices[i+1] : vertices[1];
+        float edgeX = prevX - currX;
+        float edgeY = prevY - currY;
+        wallEdge.setRegionHeight((int)(Vector2.len(edgeX, edgeY)*drawScale.y));
+        // The edge texture is drawn across the edge, so it is turned a quarter from it
+        TRANSFORM.setToTranslation((prevX + currX)/2 * drawScale.x, (prevY + currY)/2 * drawScale.y);
+        TRANSFORM.rotate(180.0f*(float)Math.atan2(edgeX, -edgeY)/(float)Math.PI);
+        TRANSFORM.translate(-wallEdge.getRegionWidth() / 2f, -wallEdge.getRegionHeight() / 2f);
+    }
+
     /**
      * Draws the outline of the physics body.
      *
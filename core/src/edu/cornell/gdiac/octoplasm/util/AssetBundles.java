@@ -0,0 +1,293 @@
+package edu.cornell.gdiac.octoplasm.util;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.octoplasm.GameplayController.GameWorld;
+
+/**
+ * Groups the assets of the game into bundles, so that each is only loaded when it is needed.
+ *
+ * A screen bundle is the list of files a screen queued in its preLoadContent. Screens are
+ * queued in the order they are first needed, so the menu can be shown as soon as its own
+ * bundle has loaded while the rest keep loading behind it. A screen uses its bundle to know
+ * when it can load its content.
+ *
+ * A world bundle holds the assets only used in one {@link GameWorld}, such as its music. It
+ * is queued when the first screen requests it and unloaded when the last one releases it,
+ * once none of its music is still playing. Assets shared between bundles are reference
+ * counted by the asset manager, which keeps an asset until every load of it is unloaded.
+ */
+public class AssetBundles {
+    //=========================================================================
+    //#region Fields
+    /** The default time to spend loading assets each frame, in milliseconds */
+    public static final int DEFAULT_BUDGET = 15;
+    /** The time to spend loading assets each frame while a screen is being played, in milliseconds */
+    public static final int BACKGROUND_BUDGET = 1;
+
+    /** The asset manager the bundles are loaded with */
+    private final AssetManager manager;
+    /** The time to spend loading assets each frame, in milliseconds */
+    private int budget;
+    /** The files of each screen bundle */
+    private final ObjectMap<Screen, Array<String>> screens;
+    /** The assets of each world bundle */
+    private final ObjectMap<GameWorld, Array<AssetDescriptor<?>>> worlds;
+    /** The number of screens holding each world bundle */
+    private final ObjectIntMap<GameWorld> references;
+    /** The world bundles released by every screen, waiting for their music to stop */
+    private final Array<GameWorld> releasing;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates an empty set of bundles for the given asset manager.
+     *
+     * @param manager The asset manager to load the bundles with
+     */
+    public AssetBundles(AssetManager manager) {
+        this.manager = manager;
+        budget = DEFAULT_BUDGET;
+        screens = new ObjectMap<>();
+        worlds = new ObjectMap<>();
+        references = new ObjectIntMap<>();
+        releasing = new Array<>();
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Screen Bundles
+    /**
+     * Sets the bundle of a screen to the files it queued in the asset manager.
+     *
+     * The list is not copied, so files the screen queues later are part of the bundle too.
+     *
+     * @param screen The screen
+     * @param files  The files the screen queued
+     */
+    public void setScreen(Screen screen, Array<String> files) {
+        screens.put(screen, files);
+    }
+
+    /**
+     * Returns true if every file of the bundle of a screen has loaded.
+     *
+     * A screen without a bundle has nothing to wait for.
+     *
+     * @param screen The screen
+     *
+     * @return true if every file of the bundle of a screen has loaded.
+     */
+    public boolean isLoaded(Screen screen) {
+        Array<String> files = screens.get(screen);
+        if (files == null) {
+            return true;
+        }
+        for (int ii = 0; ii < files.size; ii++) {
+            if (!manager.isLoaded(files.get(ii))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the fraction of the files of the given screens that have loaded.
+     *
+     * @param required The screens to wait for
+     *
+     * @return the fraction (0 to 1) of the files of the given screens that have loaded.
+     */
+    public float getProgress(Screen... required) {
+        int total = 0;
+        int loaded = 0;
+        for (Screen screen : required) {
+            Array<String> files = screens.get(screen);
+            if (files == null) {
+                continue;
+            }
+            for (int ii = 0; ii < files.size; ii++) {
+                if (manager.isLoaded(files.get(ii))) {
+                    loaded++;
+                }
+            }
+            total += files.size;
+        }
+        return total == 0 ? 1.0f : loaded / (float) total;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region World Bundles
+    /**
+     * Adds an asset to the bundle of a world.
+     *
+     * This does not load the asset; it is loaded whenever the world is requested.
+     *
+     * @param world The world
+     * @param file  The file of the asset
+     * @param type  The type of the asset
+     */
+    public <T> void add(GameWorld world, String file, Class<T> type) {
+        Array<AssetDescriptor<?>> assets = worlds.get(world);
+        if (assets == null) {
+            assets = new Array<>();
+            worlds.put(world, assets);
+        }
+        assets.add(new AssetDescriptor<>(file, type));
+    }
+
+    /**
+     * Holds the bundle of a world for a screen, queueing it if no screen held it yet.
+     *
+     * Every request must be matched by a call to {@link #release(GameWorld)}.
+     *
+     * @param world The world
+     */
+    public void request(GameWorld world) {
+        if (references.getAndIncrement(world, 0, 1) > 0) {
+            return;
+        }
+        // A bundle that is still waiting to unload can simply be kept
+        if (releasing.removeValue(world, true)) {
+            return;
+        }
+        Array<AssetDescriptor<?>> assets = worlds.get(world);
+        if (assets != null) {
+            for (int ii = 0; ii < assets.size; ii++) {
+                manager.load(assets.get(ii));
+            }
+        }
+    }
+
+    /**
+     * Lets go of the bundle of a world for a screen.
+     *
+     * Once no screen holds the bundle, it is unloaded by {@link #update()} as soon as none of
+     * its music is playing anymore.
+     *
+     * @param world The world
+     */
+    public void release(GameWorld world) {
+        int count = references.get(world, 0);
+        if (count <= 0) {
+            return;
+        }
+        references.put(world, count - 1);
+        if (count == 1) {
+            releasing.add(world);
+        }
+    }
+
+    /**
+     * Returns true if every asset of the bundle of a world has loaded.
+     *
+     * @param world The world
+     *
+     * @return true if every asset of the bundle of a world has loaded.
+     */
+    public boolean isLoaded(GameWorld world) {
+        Array<AssetDescriptor<?>> assets = worlds.get(world);
+        if (assets == null) {
+            return true;
+        }
+        for (int ii = 0; ii < assets.size; ii++) {
+            if (!manager.isLoaded(assets.get(ii).fileName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of screens holding the bundle of a world.
+     *
+     * @param world The world
+     *
+     * @return the number of screens holding the bundle of a world.
+     */
+    public int getReferences(GameWorld world) {
+        return references.get(world, 0);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Updating
+    /**
+     * Returns the time to spend loading assets each frame, in milliseconds.
+     *
+     * @return the time to spend loading assets each frame, in milliseconds.
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the time to spend loading assets each frame, in milliseconds.
+     *
+     * A frame at 60 fps is about 16 milliseconds, so the budget is taken out of the time
+     * left to update and draw the current screen.
+     *
+     * @param millis The time to spend loading assets each frame, in milliseconds
+     */
+    public void setBudget(int millis) {
+        budget = millis;
+    }
+
+    /**
+     * Loads the queued assets for up to the budget, and unloads released bundles.
+     *
+     * Each asset takes several steps of the asset manager to load, so the manager is
+     * stepped until the budget runs out rather than once a frame. This is called every
+     * frame, whichever screen is showing, and is the only place the asset manager is
+     * stepped, so anything waiting on a queued asset (such as music) only needs to check
+     * whether it has loaded.
+     */
+    public void update() {
+        manager.update(budget);
+        for (int ii = releasing.size - 1; ii >= 0; ii--) {
+            Array<AssetDescriptor<?>> assets = worlds.get(releasing.get(ii));
+            if (assets == null) {
+                releasing.removeIndex(ii);
+            } else if (!isPlaying(assets)) {
+                releasing.removeIndex(ii);
+                for (int jj = 0; jj < assets.size; jj++) {
+                    String file = assets.get(jj).fileName;
+                    if (manager.contains(file)) {
+                        manager.unload(file);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if any of the given assets is music that is still playing.
+     *
+     * @param assets The assets of a bundle
+     *
+     * @return true if any of the given assets is music that is still playing.
+     */
+    private boolean isPlaying(Array<AssetDescriptor<?>> assets) {
+        AudioController audio = AudioController.getInstance();
+        for (int ii = 0; ii < assets.size; ii++) {
+            AssetDescriptor<?> asset = assets.get(ii);
+            if (asset.type == AudioSource.class && audio.isSourceInUse(asset.fileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    //#endregion
+    //=================================
+}
@@ -43,9 +43,9 @@ import edu.cornell.gdiac.audio.SoundBuffer;
  * demo for more.
  *
  * To get around (2), we have an update() method.  By calling this method
- * you let the AudioController know that time has progressed by one animation
- * frame.  The cooldown prevents you from playing the same instance of a 
- * sound too close together.  In addition, the frame limit prevents you 
+ * you let the AudioController know how much time has passed since the last
+ * animation frame.  The cooldown prevents you from playing the same instance
+ * of a sound too close together.  In addition, the frame limit prevents you
  * from playing too many sounds during the same animation frame (which can
  * lead to distortion).  This is not as good as being able to tell when a
  * sound is finished, but it works for most applications.
@@ -90,26 +90,30 @@ public class AudioController {
     /** The amplitude of the foley volume curve */
     private static final float FOLEY_VOL_AMP = 0.1f;
 
-    /** The number of frames it takes for one full period of the foley volume sin curve */
-    private static final int FOLEY_FRAME_PERIOD = 10 * 60;
-    /** The default number of frames that a foley fade takes */
-    private static final int FOLEY_FADE_FRAMES = (int) (2f * 60);
+    /** The number of seconds it takes for one full period of the foley volume sin curve */
+    private static final float FOLEY_PERIOD = 10f;
+    /** The number of seconds between points of the foley volume curve (faded between) */
+    private static final float FOLEY_SEGMENT = 0.5f;
+    /** The default number of seconds that a foley fade takes */
+    private static final float FOLEY_FADE_TIME = 2f;
 
     /** The music buffer for playing background foley */
     private MusicBuffer foleyBuffer;
 
     /** The center of the foley volume curve */
     private float foleyVolCenter;
-    /**  */
-    private float foleyFadeStep;
 
-    /** The counter used for fade outs and fade ins for foley */
-    private int foleyFadeCounter;
-    /** The variable used in the calculation of the foley volume curve */
-    private int foleyVariable;
+    /** The number of seconds left in a foley fade out */
+    private float foleyFadeTime;
+    /** The number of seconds into the foley volume curve */
+    private float foleyTime;
+    /** The number of seconds left until the next point of the foley volume curve */
+    private float foleySegmentTime;
 
     /** If the foley is being faded out. */
     private boolean foleyFadeOut;
+    /** The foley file to start once it has loaded. Null if there is none. */
+    private String pendingFoley;
     //#endregion
         //=============================================
 
@@ -125,8 +129,8 @@ public class AudioController {
         public long  id;
         /** Is the sound looping (so no garbage collection) */
         public boolean loop;
-        /** How long this sound has been running in gameplay frames */
-        public long frameLifespan;
+        /** How long this sound has been running in seconds */
+        public float lifespan;
 
         /**
          * Creates a new active sound with the given values
@@ -139,14 +143,14 @@ public class AudioController {
             sound = s;
             id = n;
             loop = b;
-            frameLifespan = 0;
+            lifespan = 0;
         }
     }
 
-    /** The default sound cooldown */
-    private static final int DEFAULT_COOL = 10;
-    /** The default sound length limit */
-    private static final int DEFAULT_LIMIT = 120;
+    /** The default sound cooldown in seconds */
+    private static final float DEFAULT_COOL = 10 / 60f;
+    /** The default sound length limit in seconds */
+    private static final float DEFAULT_LIMIT = 2f;
     /** The default limit on sounds per frame */
     private static final int DEFAULT_FRAME = 2;
 
@@ -157,10 +161,10 @@ public class AudioController {
     /** Support class for sound garbage collection */
     private Array<String> collection;
 
-    /** The number of animation frames before a key can be reused */
-    private long cooldown;
-    /** The maximum amount of animation frames a sound can run */
-    private long timeLimit;
+    /** The number of seconds before a key can be reused */
+    private float cooldown;
+    /** The maximum number of seconds a sound can run */
+    private float timeLimit;
 
     /** The maximum number of sounds we can play each animation frame */
     private int frameLimit;
@@ -175,16 +179,96 @@ public class AudioController {
 
         //=============================================================
     //#region Music Variables
+    /**
+     * A handle to a request to play a music track.
+     *
+     * Music is never loaded on the spot. A request for a track that is not loaded yet stays
+     * pending (and the previous track keeps playing) until the audio source is ready, at which
+     * point the track is switched to in the next update. A newer request cancels a pending one.
+     */
+    public static class MusicRequest {
+        /** The states a music request may be in */
+        public enum State {
+            /** Waiting for the audio source to load */
+            PENDING,
+            /** The track has been switched to */
+            PLAYING,
+            /** The request was dropped before the track was switched to */
+            CANCELLED
+        }
+
+        /** Reference to the music file */
+        private final String filepath;
+        /** Whether to play the track from the spot of the current track */
+        private final boolean fromSpot;
+        /** Whether to crossfade into the track */
+        private final boolean crossfade;
+        /** The state of this request */
+        private State state;
+
+        /**
+         * Creates a new pending music request
+         *
+         * @param filepath  Reference to the music file
+         * @param fromSpot  Whether to play the track from the spot of the current track
+         * @param crossfade Whether to crossfade into the track
+         */
+        private MusicRequest(String filepath, boolean fromSpot, boolean crossfade) {
+            this.filepath = filepath;
+            this.fromSpot = fromSpot;
+            this.crossfade = crossfade;
+            state = State.PENDING;
+        }
+
+        /**
+         * Returns the music file of this request.
+         *
+         * @return the music file of this request.
+         */
+        public String getFilepath() {
+            return filepath;
+        }
+
+        /**
+         * Returns the state of this request.
+         *
+         * @return the state of this request.
+         */
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Returns true if this request is still waiting for its track to load.
+         *
+         * @return true if this request is still waiting for its track to load.
+         */
+        public boolean isPending() {
+            return state == State.PENDING;
+        }
+
+        /**
+         * Cancels this request if it is still pending. The current track keeps playing.
+         */
+        public void cancel() {
+            if (state == State.PENDING) {
+                state = State.CANCELLED;
+            }
+        }
+    }
+
     /** The default sample rate of the music buffer. */
     private static final int DEFAULT_SAMPLE_RATE = 44100;
-    /** The default number of frames that a crossfade takes */
-    private static final int CROSSFADE_FRAMES = (int) (1.5f * 60);
-    /** The default number of frames that a sidechain takes */
-    private static final int SIDECHAIN_FRAMES = 2 * 60;
+    /** The default number of seconds that a crossfade takes */
+    private static final float CROSSFADE_TIME = 1.5f;
+    /** The default number of seconds that a sidechain takes */
+    private static final float SIDECHAIN_TIME = 2f;
     /** The number of sections to split the crossfade curve into. */
     private static final int CROSSFADE_SECTIONS = 7;
-    /** The number of sections it takes for a music track to  */
+    /** The number of sections it would take a crossfade to move a track through the whole music volume */
     private static final int SECTIONS_TO_FADE = 4;
+    /** The seconds each track fades over: the first three sections for the old, the last three for the new */
+    private static final float CROSSFADE_RAMP_TIME = CROSSFADE_TIME * (CROSSFADE_SECTIONS - SECTIONS_TO_FADE) / CROSSFADE_SECTIONS;
 
     /** The volume modifier for a sidechain activation */
     private static final float SIDECHAIN_VOLUME = 0.5f;
@@ -195,8 +279,12 @@ public class AudioController {
     private ObjectIntMap<AudioSource> audioSourcePosTracker;
     /** Keeps track of all audio sources relative to their loaded filepath. */
     private ObjectMap<String, AudioSource> filenameTracker;
-    /** Keeps track of all music files currently loading synchronously. */
+    /** Keeps track of all music files currently loading in the background. */
     private Array<String> loadingFilepaths;
+    /** The music files waiting to load before they are added to the music buffer, in order. */
+    private Array<String> pendingEnqueues;
+    /** The music request waiting for its track to load. Null if there is none. */
+    private MusicRequest pendingMusic;
 
     /** The number of audio sources loaded into the current music buffer. */
     private int audioSourcesLoaded;
@@ -208,15 +296,10 @@ public class AudioController {
 
     /** The current position in the music buffer. Set to -1 if no music is playing. */
     private int currentBufferPos;
-    /** The counter for sidechaining music. Contains the amount of frames left for sidechaining the music. */
-    private int sidechainCounter;
-    /** The counter for crossfading music. Contains the amount of frames left for crossfading the music. */
-    private int crossfadeCounter;
-
-    /** The amount of each sidechain step back to the original volume. */
-    private float sidechainStep;
-    /** The amount of each crossfade step back to the original volume. */
-    private float crossfadeStep;
+    /** The timer for sidechaining music. Contains the seconds left for sidechaining the music. */
+    private float sidechainTime;
+    /** The timer for crossfading music. Contains the seconds left for crossfading the music. */
+    private float crossfadeTime;
     /** The music volume  */
     private float musicVolume;
 
@@ -254,7 +337,7 @@ public class AudioController {
         soundVolume = DEFAULT_VOLUME;
 
         //Foley
-        foleyVariable = 0;
+        foleyTime = 0;
         foleyBuffer = audioEngine.newMusicBuffer(false, DEFAULT_SAMPLE_RATE);
         foleyVolCenter = soundVolume * FOLEY_VOLUME_MODIFIER * masterVolume;
         foleyFadeOut = false;
@@ -267,6 +350,7 @@ public class AudioController {
         filenameTracker = new ObjectMap<>();
         audioSourcesLoaded = 0;
         loadingFilepaths = new Array<>();
+        pendingEnqueues = new Array<>();
         currentBufferPos = -1;
         musicVolume = DEFAULT_VOLUME;
     }
@@ -290,35 +374,35 @@ public class AudioController {
     //=========================================================================
     //#region Getters and Setters
     /**
-     * Returns the number of frames before a key can be reused
+     * Returns the number of seconds before a key can be reused
      *
      * If a key was used very recently, then an attempt to use the key
      * again means that the sound will be stopped and restarted. This
      * can cause undesirable artifacts.  So we limit how fast a key
      * can be reused.
      *
-     * @return the number of frames before a key can be reused
+     * @return the number of seconds before a key can be reused
      */
-    public long getCoolDown() {
+    public float getCoolDown() {
         return cooldown;
     }
 
     /**
-     * Sets the number of frames before a key can be reused
+     * Sets the number of seconds before a key can be reused
      *
      * If a key was used very recently, then an attempt to use the key
      * again means that the sound will be stopped and restarted. This
      * can cause undesirable artifacts.  So we limit how fast a key
      * can be reused.
      *
-     * @param value	the number of frames before a key can be reused
+     * @param value	the number of seconds before a key can be reused
      */
-    public void setCoolDown(long value) {
+    public void setCoolDown(float value) {
         cooldown = value;
     }
 
     /**
-     * Returns the maximum amount of animation frames a sound can run
+     * Returns the maximum number of seconds a sound can run
      *
      * Eventually we want to garbage collect sound instances.  Since we cannot
      * do this, we set an upper bound on all sound effects (default is 2
@@ -327,14 +411,14 @@ public class AudioController {
      * Sounds on a loop with NEVER be garbage collected.  They must be stopped
      * manually via stop().
      *
-     * @return the maximum amount of animation frames a sound can run
+     * @return the maximum number of seconds a sound can run
      */
-    public long getTimeLimit() {
+    public float getTimeLimit() {
         return timeLimit;
     }
 
     /**
-     * Sets the maximum amount of animation frames a sound can run
+     * Sets the maximum number of seconds a sound can run
      *
      * Eventually we want to garbage collect sound instances.  Since we cannot
      * do this, we set an upper bound on all sound effects (default is 2
@@ -343,9 +427,9 @@ public class AudioController {
      * Sounds on a loop with NEVER be garbage collected.  They must be stopped
      * manually via stop().
      *
-     * @param value the maximum amount of animation frames a sound can run
+     * @param value the maximum number of seconds a sound can run
      */
-    public void setTimeLimit(long value) {
+    public void setTimeLimit(float value) {
         timeLimit = value;
     }
 
@@ -470,6 +554,31 @@ public class AudioController {
         }
     }
 
+    /**
+     * Returns true if the music file is in either music buffer, or is waiting to be added to one.
+     *
+     * A music file in use must stay loaded, even if the screen that loaded it is gone.
+     *
+     * @param filepath Reference to the music file.
+     * @return true if the music file is in use by this controller.
+     */
+    public boolean isSourceInUse(String filepath) {
+        if (filenameTracker.containsKey(filepath) || pendingEnqueues.contains(filepath, false)
+                || pendingMusic != null && pendingMusic.filepath.equals(filepath)) {
+            return true;
+        }
+        if (manager == null || !manager.isLoaded(filepath)) {
+            return false;
+        }
+        AudioSource source = manager.get(filepath, AudioSource.class);
+        for (int ii = 0; ii < crossfadeBuffer.getNumberOfSources(); ii++) {
+            if (crossfadeBuffer.getSource(ii) == source) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Whether the music Buffer is playing.
      *
@@ -592,33 +701,78 @@ public class AudioController {
     //#region Music Management
     /**
      * Plays the music file. If a music file is already playing, the previous music file is stopped and
-     * the new music file is introduced at the previous volume. If the Music files are still loading,
-     * we finish asset loading until it is available.
+     * the new music file is introduced at the previous volume. If the music file is still loading,
+     * the previous music keeps playing and the switch happens in the update once it has loaded.
      *
      * @param filepath Reference to the music file.
+     * @return The handle to the request, which is pending until the music is switched to.
      */
-    public void playMusic(String filepath) {
-        //Load new music file
-        if (!manager.isLoaded(filepath)) {
-            if (manager.contains(filepath)) {
-                manager.finishLoadingAsset(filepath);
-            } else {
-                manager.load(filepath, AudioSource.class);
-                manager.finishLoading();
-            }
-        }
-        playLoadedMusic(filepath);
+    public MusicRequest playMusic(String filepath) {
+        return requestMusic(filepath, false, false);
     }
 
     /**
      * Plays the music from the spot of the currently playing music.
      * If there is no music currently playing, this starts the music from the beginning.
+     * If the music file is still loading, the switch happens once it has loaded.
      *
      * @param filename Reference to the music file.
+     * @return The handle to the request, which is pending until the music is switched to.
      */
-    public void playMusicFromSpot(String filename) {
-        playLoadedMusicFromSpot = true;
-        playMusic(filename);
+    public MusicRequest playMusicFromSpot(String filename) {
+        return requestMusic(filename, true, false);
+    }
+
+    /**
+     * Requests a switch to the music file, starting it now if it is ready.
+     *
+     * A music file is ready once it has loaded and every music file enqueued before it has
+     * been added to the buffer. Otherwise its loading is started (if it was not already) and
+     * the request waits in the update, replacing any request that was waiting before it.
+     *
+     * @param filepath  Reference to the music file.
+     * @param fromSpot  Whether to play the music from the spot of the current music.
+     * @param crossfade Whether to crossfade into the music.
+     * @return The handle to the request.
+     */
+    private MusicRequest requestMusic(String filepath, boolean fromSpot, boolean crossfade) {
+        if (pendingMusic != null) {
+            pendingMusic.cancel();
+            pendingMusic = null;
+        }
+        MusicRequest request = new MusicRequest(filepath, fromSpot, crossfade);
+        if (isMusicReady(filepath)) {
+            startMusic(request);
+        } else {
+            loadSyncAudio(filepath);
+            pendingMusic = request;
+        }
+        return request;
+    }
+
+    /**
+     * Returns true if the music file can be switched to without waiting on the asset manager.
+     *
+     * @param filepath Reference to the music file.
+     * @return true if the music file can be switched to without waiting on the asset manager.
+     */
+    private boolean isMusicReady(String filepath) {
+        return manager.isLoaded(filepath) && pendingEnqueues.size == 0;
+    }
+
+    /**
+     * Switches to the music of a request whose music file is ready.
+     *
+     * @param request The request to play.
+     */
+    private void startMusic(MusicRequest request) {
+        request.state = MusicRequest.State.PLAYING;
+        if (request.crossfade) {
+            crossfadeLoaded(request.filepath);
+        } else {
+            playLoadedMusicFromSpot = request.fromSpot;
+            playLoadedMusic(request.filepath);
+        }
     }
 
     /**
@@ -711,6 +865,10 @@ public class AudioController {
      * Stops playing the music buffer.
      */
     public void stopMusic() {
+        if (pendingMusic != null) {
+            pendingMusic.cancel();
+            pendingMusic = null;
+        }
         musicBuffer.stop();
         duckMusic = false;
         crossfaded = false;
@@ -727,24 +885,33 @@ public class AudioController {
     public void sidechain() {
         sidechained = true;
         musicBuffer.setVolume(clamp(musicBuffer.getVolume() * SIDECHAIN_VOLUME));
-        sidechainStep = (1 - musicBuffer.getVolume()) / (float) SIDECHAIN_FRAMES;
-        sidechainCounter = SIDECHAIN_FRAMES;
+        sidechainTime = SIDECHAIN_TIME;
+        musicBuffer.fadeVolume(restingMusicVolume(), sidechainTime);
     }
 
     /**
      * Crossfades the current music track to the next music track "seamlessly" over a default amount.
      * If there is no track currently playing, crossfade works the same as {@link #playMusic(String filepath)}.
-     * Does not work as intended if buffer is cleared before function call.
+     * If the music file is still loading, the current track keeps playing and the crossfade starts
+     * once it has loaded. Does not work as intended if buffer is cleared before function call.
      *
      * @param filepath Reference to the music file.
+     * @return The handle to the request, which is pending until the crossfade starts.
      */
-    public void crossfade(String filepath) {
-        if (!manager.isLoaded(filepath)) {
-            manager.load(filepath, AudioSource.class);
-            manager.finishLoading();
-        }
+    public MusicRequest crossfade(String filepath) {
+        return requestMusic(filepath, false, true);
+    }
+
+    /**
+     * Crossfades the current music track to the next music track, given that it has already been
+     * loaded in the AssetManager.
+     *
+     * @param filepath Reference to the music file.
+     */
+    private void crossfadeLoaded(String filepath) {
         if (!musicBuffer.isPlaying() || musicBuffer.getCurrent() == null || musicBuffer.getNumberOfSources() == 0) {
-            playMusic(filepath);
+            playLoadedMusicFromSpot = false;
+            playLoadedMusic(filepath);
         } else {
             //If already crossfading either:
             if (crossfaded) {
@@ -780,10 +947,11 @@ public class AudioController {
             musicBuffer.setLooping(true);
             musicBuffer.setLoopBehavior(true);
 
-            //Set flags for update loop
+            //Fade the previous track out, and set flags for update loop to start the new one
+            crossfadeBuffer.fadeVolume(clamp(vol - crossfadeChange(CROSSFADE_RAMP_TIME)), CROSSFADE_RAMP_TIME);
             crossfaded = true;
-            crossfadeStep = ((musicVolume * masterVolume) / CROSSFADE_FRAMES) * (CROSSFADE_SECTIONS/ (float) SECTIONS_TO_FADE);
-            crossfadeCounter = CROSSFADE_FRAMES;
+            sidechained = false;
+            crossfadeTime = CROSSFADE_TIME;
             duckMusic = false;
         }
     }
@@ -797,12 +965,14 @@ public class AudioController {
             this.duckMusic = duckMusic;
             if (duckMusic) {
                 if (sidechained) {
-                    sidechainCounter *= DUCK_MUSIC_VOLUME;
+                    sidechainTime *= DUCK_MUSIC_VOLUME;
                     musicBuffer.setVolume(clamp(musicBuffer.getVolume() * DUCK_MUSIC_VOLUME));
+                    musicBuffer.fadeVolume(restingMusicVolume(), sidechainTime);
                 } else {
                     musicBuffer.setVolume(clamp(musicVolume * DUCK_MUSIC_VOLUME * masterVolume));
                 }
             } else {
+                sidechained = false;
                 musicBuffer.setVolume(clamp(musicVolume * masterVolume));
             }
         }
@@ -810,43 +980,47 @@ public class AudioController {
 
     /**
      * Loads an audio source behind the scenes, with little impact on running the game.
-     * Should only be called if the audio is not needed immediately
+     * The loading is advanced a step at a time by the update. If the audio file is already
+     * loaded or loading, nothing is queued again.
      *
      * @param filepath Reference to the music file.
      */
     public void loadSyncAudio(String filepath) {
-        manager.load(filepath, AudioSource.class);
-        loadingFilepaths.add(filepath);
+        if (!manager.contains(filepath)) {
+            manager.load(filepath, AudioSource.class);
+        }
+        if (!manager.isLoaded(filepath) && !loadingFilepaths.contains(filepath, false)) {
+            loadingFilepaths.add(filepath);
+        }
     }
 
     /**
-     * Loads an audio source, halting progress until the music file is loaded.
-     * If the audio file is already loaded, nothing is halted.
+     * Starts loading an audio source ahead of the music that needs it. This never halts the
+     * game; music requested before the file has loaded waits for it in the update.
      *
      * @param filepath Reference to the music file.
      */
     public void loadAsyncAudio(String filepath) {
-        if (!manager.isLoaded(filepath)) {
-            if (!manager.contains(filepath))
-                manager.load(filepath, AudioSource.class);
-            manager.finishLoadingAsset(filepath);
-        }
+        loadSyncAudio(filepath);
     }
 
     /**
      * Enqueues an audio source to the music buffer if it has been previously loaded by the AssetManager.
      * If the audio source has not already been added to the manager, this method will do nothing.
-     * If the audio source is currently being loaded to the manager, this method will fish loading it before adding.
+     * If the audio source is currently being loaded to the manager, it is added to the buffer by the
+     * update once it has loaded, keeping the order in which the sources were enqueued.
      *
      * @param filepath Reference to the music file.
      */
     public void enqueueMusicToBuffer(String filepath) {
        if (manager != null && manager.contains(filepath)) {
-           if (!manager.isLoaded(filepath)) {
-               manager.finishLoadingAsset(filepath);
+           if (manager.isLoaded(filepath) && pendingEnqueues.size == 0) {
+               AudioSource loadedMusic = manager.get(filepath, AudioSource.class);
+               enqueueMusic(filepath, loadedMusic);
+           } else {
+               loadSyncAudio(filepath);
+               pendingEnqueues.add(filepath);
            }
-           AudioSource loadedMusic = manager.get(filepath, AudioSource.class);
-           enqueueMusic(filepath, loadedMusic);
        }
     }
 
@@ -868,6 +1042,7 @@ public class AudioController {
      */
     public void clearMusicBuffer() {
         musicBuffer.clearSources();
+        pendingEnqueues.clear();
         audioSourcePosTracker.clear();
         filenameTracker.clear();
         audioSourcesLoaded = 0;
@@ -882,37 +1057,51 @@ public class AudioController {
     /**
      * Plays foley audio if it has been previously loaded by the AssetManager.
      * If the audio source has not already been added to the manager, this method will do nothing.
-     * If the audio source is currently being loaded to the manager, this method will fish loading it before adding.
+     * If the audio source is currently being loaded to the manager, the foley starts in the update
+     * once it has loaded.
      *
      * @param filepath Reference to the music file.
      */
     public void playFoley(String filepath) {
         if (manager != null && manager.contains(filepath)) {
-            if (!manager.isLoaded(filepath)) {
-                manager.finishLoadingAsset(filepath);
-            }
-            AudioSource loadedFoley = manager.get(filepath, AudioSource.class);
-            if (foleyBuffer.getNumberOfSources() > 0) {
-                stopFoley();
+            if (manager.isLoaded(filepath)) {
+                startFoley(manager.get(filepath, AudioSource.class));
+            } else {
+                loadSyncAudio(filepath);
+                pendingFoley = filepath;
             }
-            foleyBuffer.addSource(loadedFoley);
-            foleyBuffer.setLooping(true);
-            foleyBuffer.play();
-            foleyBuffer.setVolume(clamp(foleyVolCenter * masterVolume));
-            foleyFadeOut = false;
-            foleyVariable = 0;
         }
     }
 
     /**
+     * Plays foley audio that has been loaded, replacing any foley that is playing.
      *
+     * @param loadedFoley The foley audio source.
+     */
+    private void startFoley(AudioSource loadedFoley) {
+        if (foleyBuffer.getNumberOfSources() > 0) {
+            stopFoley();
+        }
+        pendingFoley = null;
+        foleyBuffer.addSource(loadedFoley);
+        foleyBuffer.setLooping(true);
+        foleyBuffer.play();
+        foleyBuffer.setVolume(clamp(foleyVolCenter * masterVolume));
+        foleyFadeOut = false;
+        foleyTime = 0;
+        foleySegmentTime = 0;
+    }
+
+    /**
+     * Fades the foley effects out, and stops them once they are silent.
      */
     public void fadeOutFoley() {
+        pendingFoley = null;
         if (foleyBuffer.isPlaying()) {
             foleyFadeOut = true;
-            foleyFadeCounter = FOLEY_FADE_FRAMES;
-            foleyFadeStep = foleyBuffer.getVolume() / (float) FOLEY_FADE_FRAMES;
-            foleyVariable = 0;
+            foleyFadeTime = FOLEY_FADE_TIME;
+            foleyBuffer.fadeVolume(0f, FOLEY_FADE_TIME);
+            foleyTime = 0;
         }
     }
 
@@ -920,10 +1109,11 @@ public class AudioController {
      * Clears the current foley buffer of the loaded foley effects.
      */
     public void stopFoley() {
+        pendingFoley = null;
         if (foleyBuffer.isPlaying())
             foleyBuffer.stop();
         foleyBuffer.clearSources();
-        foleyVariable = 0;
+        foleyTime = 0;
     }
     //#endregion
     //=================================
@@ -937,33 +1127,38 @@ public class AudioController {
      * of sounds per animation frame.  In addition it allows us some primitive
      * garbage collection.
      *
-     * For music, this method is primarily used for keeping track of synchronous music loading,
-     * sidechaining, and crossfading between tracks.
+     * For music, this method is primarily used for keeping track of background music loading,
+     * starting requested music, sidechaining, and crossfading between tracks.  The volume envelopes themselves are timed
+     * and stepped by the music buffers, so they last the same time at any frame rate.
+     *
+     * @param dt Number of seconds since last animation frame
      */
-    public void update() {
-        updateSounds();
-        updateFoley();
-        updateMusic();
+    public void update(float dt) {
+        updateSounds(dt);
+        updateFoley(dt);
+        updateMusic(dt);
     }
 
     /**
      * This method serves two purposes for Sounds. First, it allows us to limit the number
      * of sounds per animation frame. In addition it allows us some primitive
      * garbage collection.
+     *
+     * @param dt Number of seconds since last animation frame
      */
-    private void updateSounds() {
+    private void updateSounds(float dt) {
         // Update Sounds
         for(String key : activeSounds.keys()) {
             ActiveSound snd = activeSounds.get(key);
-            snd.frameLifespan++;
-            if (snd.frameLifespan > timeLimit) {
+            snd.lifespan += dt;
+            if (snd.lifespan > timeLimit) {
                 collection.add(key);
                 snd.sound.setLooping(snd.id,false); // Will eventually garbage collect
                 snd.sound.setVolume(snd.id, 0.0f);
             }
         }
 
-        // Remove Sounds that have lived past the frame limit
+        // Remove Sounds that have lived past the time limit
         for(String key : collection) {
             activeSounds.remove(key);
         }
@@ -973,71 +1168,88 @@ public class AudioController {
 
     /**
      * For the foley effects, we update where the foley volume is in its curve.
+     *
+     * The curve is traced by fading between points of it, so the foley buffer only
+     * needs a new volume a few times a second.
+     *
+     * @param dt Number of seconds since last animation frame
      */
-    private void updateFoley() {
+    private void updateFoley(float dt) {
+        //Start requested foley once it has loaded
+        if (pendingFoley != null && manager.isLoaded(pendingFoley)) {
+            startFoley(manager.get(pendingFoley, AudioSource.class));
+        }
         if (foleyBuffer.isPlaying()) {
             if (foleyFadeOut) {
-                foleyBuffer.setVolume(clamp(foleyBuffer.getVolume() - foleyFadeStep));
-                foleyFadeCounter--;
-                if (foleyFadeCounter <= 0) {
+                foleyFadeTime -= dt;
+                if (foleyFadeTime <= 0) {
                     foleyBuffer.stop();
                     foleyFadeOut = false;
                 }
             } else {
-                foleyVariable = (foleyVariable + 1) % FOLEY_FRAME_PERIOD;
-                float newVolume = foleyVolCenter + (float) (FOLEY_VOL_AMP *
-                        Math.sin(foleyVariable * ((2 * Math.PI) / (float) FOLEY_FRAME_PERIOD)));
-                newVolume *= masterVolume;
-                foleyBuffer.setVolume(clamp(Math.min(newVolume, soundVolume * masterVolume)));
+                foleyTime = (foleyTime + dt) % FOLEY_PERIOD;
+                foleySegmentTime -= dt;
+                if (foleySegmentTime <= 0) {
+                    foleySegmentTime = FOLEY_SEGMENT;
+                    float newVolume = foleyVolCenter + (float) (FOLEY_VOL_AMP *
+                            Math.sin((foleyTime + FOLEY_SEGMENT) * ((2 * Math.PI) / FOLEY_PERIOD)));
+                    newVolume *= masterVolume;
+                    foleyBuffer.fadeVolume(clamp(Math.min(newVolume, soundVolume * masterVolume)), FOLEY_SEGMENT);
+                }
             }
         }
     }
 
     /**
-     * For music, this method is primarily used for keeping track of synchronous music loading,
-     * sidechaining, and crossfading between tracks.
+     * For music, this method is primarily used for keeping track of background music loading,
+     * starting requested music once it has loaded, sidechaining, and crossfading between tracks.
+     *
+     * @param dt Number of seconds since last animation frame
      */
-    private void updateMusic() {
-        //Check on synchronous loading status for each filepath
-        for (String loadingFilePath : loadingFilepaths) {
-            if (manager.isLoaded(loadingFilePath)) {
-                loadingFilepaths.removeValue(loadingFilePath, true);
+    private void updateMusic(float dt) {
+        //Check on background loading status for each filepath, loaded by the asset bundles
+        for (int ii = loadingFilepaths.size - 1; ii >= 0; ii--) {
+            if (manager.isLoaded(loadingFilepaths.get(ii))) {
+                loadingFilepaths.removeIndex(ii);
             }
         }
-        //Synchronous loading
-        if (!loadingFilepaths.isEmpty()) {
-            manager.update(3);
+
+        //Add loaded music to the buffer in the order it was enqueued
+        while (pendingEnqueues.size > 0 && manager.isLoaded(pendingEnqueues.first())) {
+            String filepath = pendingEnqueues.removeIndex(0);
+            enqueueMusic(filepath, manager.get(filepath, AudioSource.class));
+        }
+        //Switch to the requested music once it is ready
+        if (pendingMusic != null) {
+            if (!pendingMusic.isPending()) {
+                pendingMusic = null;
+            } else if (isMusicReady(pendingMusic.filepath)) {
+                MusicRequest request = pendingMusic;
+                pendingMusic = null;
+                startMusic(request);
+            }
         }
 
         //Sidechaining and crossfading
         if (sidechained) {
-            //Update volume to next volume on sidechain curve
-            musicBuffer.setVolume(clamp(Math.min(musicBuffer.getVolume() + sidechainStep, musicVolume * masterVolume)));
-            if (sidechainCounter-- <= 0) {
-                if (duckMusic)
-                    musicBuffer.setVolume(clamp(musicVolume * masterVolume * DUCK_MUSIC_VOLUME));
-                else
-                    musicBuffer.setVolume(clamp(musicVolume * masterVolume));
+            //The music buffer fades back up on its own, so just settle it when done
+            sidechainTime -= dt;
+            if (sidechainTime <= 0) {
+                musicBuffer.setVolume(restingMusicVolume());
                 sidechained = false;
             }
         } else if (crossfaded) {
-            float crossfadeThreshold = (CROSSFADE_FRAMES / (float) CROSSFADE_SECTIONS) * SECTIONS_TO_FADE;
-            if (crossfadeCounter > crossfadeThreshold) {
-                //Fade previous out
-                crossfadeBuffer.setVolume(clamp(crossfadeBuffer.getVolume() - crossfadeStep));
-            }
-            if (crossfadeCounter < CROSSFADE_FRAMES - crossfadeThreshold) {
-                //Start track once ready
-                if (!musicBuffer.isPlaying()) {
-                    musicBuffer.play();
-                    musicBuffer.setVolume(0f);
-                }
-                //Fade new Track in
-                musicBuffer.setVolume(clamp(Math.min(musicBuffer.getVolume() + crossfadeStep, musicVolume * masterVolume)));
+            crossfadeTime -= dt;
+            if (crossfadeTime <= CROSSFADE_RAMP_TIME && !musicBuffer.isPlaying()) {
+                //Start new track once ready, and fade it in until the crossfade ends
+                float remaining = Math.max(crossfadeTime, 0);
+                musicBuffer.play();
+                musicBuffer.setVolume(0f);
+                musicBuffer.fadeVolume(clamp(crossfadeChange(remaining)), remaining);
             }
 
             // Check for crossfade finished
-            if (crossfadeCounter-- <= 0) {
+            if (crossfadeTime <= 0) {
                 crossfadeBuffer.stop();
                 crossfadeBuffer.clearSources();
                 musicBuffer.setVolume(clamp(musicVolume * masterVolume));
@@ -1046,6 +1258,35 @@ public class AudioController {
         }
     }
 
+    /**
+     * Returns how much the volume of a track changes over the given time of a crossfade.
+     *
+     * Both tracks change at the same rate, fast enough to cover the music volume in
+     * SECTIONS_TO_FADE of the CROSSFADE_SECTIONS of the crossfade. So the previous track
+     * fades to a quarter of its volume over the first three sections, and the new track
+     * fades in to three quarters over the last three, before it is set to the full volume
+     * when the crossfade ends.
+     *
+     * @param seconds The time of the crossfade
+     *
+     * @return how much the volume of a track changes over the given time of a crossfade.
+     */
+    private float crossfadeChange(float seconds) {
+        return musicVolume * masterVolume * CROSSFADE_SECTIONS / SECTIONS_TO_FADE * seconds / CROSSFADE_TIME;
+    }
+
+    /**
+     * Returns the volume the music returns to after a sidechain.
+     *
+     * @return the volume the music returns to after a sidechain.
+     */
+    private float restingMusicVolume() {
+        if (duckMusic) {
+            return clamp(musicVolume * masterVolume * DUCK_MUSIC_VOLUME);
+        }
+        return clamp(musicVolume * masterVolume);
+    }
+
     private float clamp(float volume) {
         return soundActive ? Math.max(Math.min(volume, 1), 0) : 0;
     }
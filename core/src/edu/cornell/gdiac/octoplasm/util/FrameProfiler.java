@@ -0,0 +1,406 @@
+package edu.cornell.gdiac.octoplasm.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Times each phase of the gameplay loop, so a bad frame can be pinned on the phase that caused it.
+ *
+ * Each phase is timed with start() and stop(), which may be called more than once a frame (the
+ * times add up). The phase times of the last WINDOW frames are kept in a ring, along with the
+ * number of garbage collections that ran and textures bound during each frame, and the summary is
+ * given as rolling percentiles. Nothing is timed while the profiler is disabled.
+ *
+ * The summary can be written to a CSV file with one row per phase, so that two builds can be
+ * compared by diffing their files.
+ */
+public class FrameProfiler {
+    //=========================================================================
+    //#region Fields
+    /**
+     * The phases of the gameplay loop, in the order they run.
+     */
+    public enum Phase {
+        /** Reading input and handling menus (preUpdate) */
+        INPUT("input"),
+        /** Updating the obstacles (ObstacleController.update) */
+        OBSTACLES("obstacles"),
+        /** Updating the octopi (OctopusController.update) */
+        OCTOPI("octopi"),
+        /** Updating the enemies and their raycasts (EnemyController.update) */
+        ENEMIES("enemies"),
+        /** Updating the music and sound effects */
+        AUDIO("audio"),
+        /** Stepping the physics world (World.step) */
+        PHYSICS("physics"),
+        /** Everything else in postUpdate, such as garbage collecting removed entities */
+        POST_UPDATE("postUpdate"),
+        /** Posing the skeletons (CharacterView.update) */
+        ANIMATION("animation"),
+        /** Drawing the background, walls and debug shapes and queueing the overlays (predraw and postdraw) */
+        DRAW_WORLD("drawWorld"),
+        /** Drawing the obstacles straight to the batch (ObstacleController.draw) */
+        DRAW_OBSTACLES("drawObstacles"),
+        /** Drawing the octopi and their skeletons straight to the batch (OctopusController.draw) */
+        DRAW_OCTOPI("drawOctopi"),
+        /** Drawing the enemies and their skeletons straight to the batch (EnemyController.draw) */
+        DRAW_ENEMIES("drawEnemies"),
+        /** Drawing the render queue, which holds only the overlays such as indicators and end screens */
+        DRAW_QUEUE("drawQueue"),
+        /** Drawing the text and the stage */
+        UI("ui"),
+        /** The whole frame, from the start of render to the end */
+        FRAME("frame");
+
+        /** The name of this phase in the overlay and CSV file */
+        public final String label;
+
+        /**
+         * Creates a phase with the given name.
+         *
+         * @param label The name of this phase in the overlay and CSV file
+         */
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /** The number of frames the percentiles are taken over */
+    public static final int WINDOW = 600;
+    /** The number of frames between updates of the overlay text */
+    private static final int SUMMARY_PERIOD = 30;
+    /** The folder that CSV files are written to */
+    private static final String CSV_FOLDER = "profiles/";
+
+    /** The cached list of phases */
+    private static final Phase[] PHASES = Phase.values();
+
+    /** Whether the profiler is timing this frame */
+    private boolean enabled;
+    /** Whether the profiler should time from the next frame on */
+    private boolean requested;
+    /** The start time of each running phase in nanoseconds */
+    private long[] starts;
+    /** The time spent in each phase this frame in nanoseconds */
+    private long[] current;
+    /** The time spent in each phase over the window in nanoseconds, by phase and then frame */
+    private long[][] samples;
+    /** The number of garbage collections during each frame of the window */
+    private long[] collections;
+    /** The time spent in garbage collection during each frame of the window in milliseconds */
+    private long[] collectionTimes;
+    /** The number of texture binds during each frame of the window */
+    private long[] binds;
+    /** The next frame in the window to write */
+    private int next;
+    /** The number of frames in the window so far */
+    private int count;
+    /** The number of frames timed since the profiler was enabled */
+    private long frames;
+
+    /** The garbage collectors of the virtual machine */
+    private List<GarbageCollectorMXBean> collectors;
+    /** The garbage collection count at the start of the frame */
+    private long collectionStart;
+    /** The garbage collection time at the start of the frame in milliseconds */
+    private long collectionTimeStart;
+    /** The counter of GL calls, created when the profiler is first enabled */
+    private GLProfiler calls;
+
+    /** Scratch space for sorting samples */
+    private long[] sorted;
+    /** The overlay text, rebuilt every SUMMARY_PERIOD frames */
+    private String summary;
+    /** Builder for the overlay text */
+    private StringBuilder builder;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates a disabled frame profiler.
+     */
+    public FrameProfiler() {
+        starts = new long[PHASES.length];
+        current = new long[PHASES.length];
+        samples = new long[PHASES.length][WINDOW];
+        collections = new long[WINDOW];
+        collectionTimes = new long[WINDOW];
+        binds = new long[WINDOW];
+        sorted = new long[WINDOW];
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        builder = new StringBuilder();
+        summary = "";
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Getters and Setters
+    /**
+     * Returns true if the profiler is timing.
+     *
+     * @return true if the profiler is timing.
+     */
+    public boolean isEnabled() {
+        return requested;
+    }
+
+    /**
+     * Sets whether the profiler is timing.
+     *
+     * This takes effect at the start of the next frame, so it is safe to call in the
+     * middle of one.  Enabling the profiler clears the window, so the percentiles only
+     * cover frames played since.
+     *
+     * @param value whether the profiler is timing.
+     */
+    public void setEnabled(boolean value) {
+        requested = value;
+    }
+
+    /**
+     * Returns the overlay text, with the percentiles of each phase in milliseconds.
+     *
+     * The text is only rebuilt every few frames, so that it is readable.
+     *
+     * @return the overlay text
+     */
+    public String getSummary() {
+        return summary;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Timing
+    /**
+     * Starts a new frame.
+     */
+    public void beginFrame() {
+        if (requested && !enabled) {
+            next = 0;
+            count = 0;
+            frames = 0;
+            summary = "Profiling...";
+        }
+        enabled = requested;
+        if (!enabled) {
+            if (calls != null && calls.isEnabled()) {
+                calls.disable();
+            }
+            return;
+        }
+        if (calls == null && Gdx.graphics != null) {
+            calls = new GLProfiler(Gdx.graphics);
+        }
+        if (calls != null) {
+            // Counting wraps every GL call, so it is only on while profiling
+            calls.enable();
+            calls.reset();
+        }
+        Arrays.fill(current, 0);
+        collectionStart = collectionCount();
+        collectionTimeStart = collectionTime();
+        start(Phase.FRAME);
+    }
+
+    /**
+     * Ends the frame, adding its phase times to the window.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        stop(Phase.FRAME);
+        for (int i = 0; i < PHASES.length; i++) {
+            samples[i][next] = current[i];
+        }
+        collections[next] = collectionCount() - collectionStart;
+        collectionTimes[next] = collectionTime() - collectionTimeStart;
+        binds[next] = calls == null ? 0 : calls.getTextureBindings();
+        next = (next + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+        frames++;
+        if (frames % SUMMARY_PERIOD == 0) {
+            summary = summarize();
+        }
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase The phase to time
+     */
+    public void start(Phase phase) {
+        if (enabled) {
+            starts[phase.ordinal()] = TimeUtils.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing a phase, adding the time since start() to this frame.
+     *
+     * @param phase The phase to time
+     */
+    public void stop(Phase phase) {
+        if (enabled) {
+            current[phase.ordinal()] += TimeUtils.nanoTime() - starts[phase.ordinal()];
+        }
+    }
+
+    /**
+     * Returns the total number of garbage collections so far.
+     *
+     * @return the total number of garbage collections so far.
+     */
+    private long collectionCount() {
+        long total = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total time spent in garbage collection so far in milliseconds.
+     *
+     * @return the total time spent in garbage collection so far in milliseconds.
+     */
+    private long collectionTime() {
+        long total = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return total;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Reporting
+    /**
+     * Sorts a window of samples into the scratch array.
+     *
+     * @param window The samples of each frame in the window
+     */
+    private void sort(long[] window) {
+        System.arraycopy(window, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+    }
+
+    /**
+     * Returns the given percentile of the sorted scratch array.
+     *
+     * @param percent The percentile in the range [0,100]
+     * @param unit The size of one unit of the result in samples (1e6 for milliseconds)
+     *
+     * @return the given percentile of the sorted scratch array.
+     */
+    private double percentile(int percent, double unit) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = Math.min(count - 1, (int) Math.ceil(percent / 100.0 * count) - 1);
+        return sorted[Math.max(index, 0)] / unit;
+    }
+
+    /**
+     * Returns the mean of the sorted scratch array.
+     *
+     * @param unit The size of one unit of the result in samples (1e6 for milliseconds)
+     *
+     * @return the mean of the sorted scratch array.
+     */
+    private double mean(double unit) {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += sorted[i];
+        }
+        return total / unit / count;
+    }
+
+    /**
+     * Builds the overlay text from the window.
+     *
+     * @return the overlay text
+     */
+    private String summarize() {
+        builder.setLength(0);
+        builder.append(String.format(Locale.US, "%-14s %6s %6s %6s %6s\n", "ms", "p50", "p95", "p99", "max"));
+        for (Phase phase : PHASES) {
+            sort(samples[phase.ordinal()]);
+            builder.append(String.format(Locale.US, "%-14s %6.2f %6.2f %6.2f %6.2f\n", phase.label,
+                    percentile(50, 1e6), percentile(95, 1e6), percentile(99, 1e6), percentile(100, 1e6)));
+        }
+        sort(collections);
+        long gcs = Math.round(mean(1) * count);
+        sort(collectionTimes);
+        long gcTime = Math.round(mean(1) * count);
+        builder.append("GC: ").append(gcs).append(" collections, ").append(gcTime)
+                .append(" ms in ").append(count).append(" frames\n");
+        sort(binds);
+        builder.append(String.format(Locale.US, "Texture binds: %.0f p50, %.0f p95, %.0f max",
+                percentile(50, 1), percentile(95, 1), percentile(100, 1)));
+        return builder.toString();
+    }
+
+    /**
+     * Writes the window to a new CSV file in the profiles folder, and returns the file.
+     *
+     * There is a row for each phase with its mean and percentiles in milliseconds. The
+     * last three rows are the garbage collections per frame, their time per frame in
+     * milliseconds, and the texture binds per frame, with the same columns.
+     *
+     * @return the file written, or null if there were no frames to write
+     */
+    public FileHandle writeCsv() {
+        if (count == 0) {
+            return null;
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        FileHandle file = Gdx.files.local(CSV_FOLDER + "frames-" + stamp + ".csv");
+        StringBuilder csv = new StringBuilder();
+        csv.append("phase,frames,mean,p50,p95,p99,max\n");
+        for (Phase phase : PHASES) {
+            sort(samples[phase.ordinal()]);
+            appendRow(csv, phase.label, 1e6);
+        }
+        sort(collections);
+        appendRow(csv, "gc", 1);
+        sort(collectionTimes);
+        appendRow(csv, "gc_ms", 1);
+        sort(binds);
+        appendRow(csv, "texture_binds", 1);
+        file.writeString(csv.toString(), false);
+        return file;
+    }
+
+    /**
+     * Appends a CSV row for the sorted scratch array.
+     *
+     * @param csv The CSV text
+     * @param label The name of the row
+     * @param unit The size of one unit of the row in samples (1e6 for milliseconds)
+     */
+    private void appendRow(StringBuilder csv, String label, double unit) {
+        csv.append(String.format(Locale.US, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f\n", label, count, mean(unit),
+                percentile(50, unit), percentile(95, unit), percentile(99, unit), percentile(100, unit)));
+    }
+    //#endregion
+    //=================================
+}
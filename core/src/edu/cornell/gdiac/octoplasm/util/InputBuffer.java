@@ -0,0 +1,164 @@
+package edu.cornell.gdiac.octoplasm.util;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring buffer of timestamped key and mouse button events.
+ *
+ * Events are recorded by the input processor callbacks as they arrive, and consumed by
+ * the game loop when it reads its input, so that a key tapped and let go between two
+ * reads is still seen. There must be only one thread recording and one thread consuming
+ * (they may be the same thread). Neither side ever blocks or allocates.
+ *
+ * If the buffer fills up, new events are dropped and the buffer is marked as overflowed,
+ * so that the consumer knows to poll for the state it missed.
+ */
+public class InputBuffer {
+    //=========================================================================
+    //#region Fields
+    /** A key was pressed; the code is a key code */
+    public static final int KEY_DOWN = 0;
+    /** A key was released; the code is a key code */
+    public static final int KEY_UP = 1;
+    /** A mouse button was pressed; the code is a button code */
+    public static final int BUTTON_DOWN = 2;
+    /** A mouse button was released; the code is a button code */
+    public static final int BUTTON_UP = 3;
+
+    /** The number of events the buffer holds (a power of two) */
+    private static final int CAPACITY = 256;
+    /** The mask to turn an event count into an index */
+    private static final int MASK = CAPACITY - 1;
+
+    /** The type of each event */
+    private final int[] types;
+    /** The key or button code of each event */
+    private final int[] codes;
+    /** The time of each event in nanoseconds */
+    private final long[] times;
+    /** The number of events consumed so far, written only by the consumer */
+    private final AtomicLong head;
+    /** The number of events recorded so far, written only by the recorder */
+    private final AtomicLong tail;
+    /** Whether an event was dropped since the last check */
+    private final AtomicBoolean overflowed;
+
+    /** The type of the current event */
+    private int type;
+    /** The code of the current event */
+    private int code;
+    /** The time of the current event in nanoseconds */
+    private long time;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Creates an empty input buffer.
+     */
+    public InputBuffer() {
+        types = new int[CAPACITY];
+        codes = new int[CAPACITY];
+        times = new long[CAPACITY];
+        head = new AtomicLong();
+        tail = new AtomicLong();
+        overflowed = new AtomicBoolean();
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Recording
+    /**
+     * Records an event, stamped with the current time.
+     *
+     * This may only be called from the thread that delivers input events.
+     *
+     * @param type  The type of the event
+     * @param code  The key or button code
+     *
+     * @return false if the buffer was full and the event was dropped
+     */
+    public boolean record(int type, int code) {
+        long next = tail.get();
+        if (next - head.get() >= CAPACITY) {
+            overflowed.set(true);
+            return false;
+        }
+        int index = (int) (next & MASK);
+        types[index] = type;
+        codes[index] = code;
+        times[index] = TimeUtils.nanoTime();
+        // Publish the event only once it is written
+        tail.lazySet(next + 1);
+        return true;
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Consuming
+    /**
+     * Moves to the next event, returning false if there is none.
+     *
+     * The event is read with the getters below. This may only be called from the thread
+     * that consumes the buffer.
+     *
+     * @return false if there are no more events
+     */
+    public boolean next() {
+        long first = head.get();
+        if (first == tail.get()) {
+            return false;
+        }
+        int index = (int) (first & MASK);
+        type = types[index];
+        code = codes[index];
+        time = times[index];
+        // Free the slot only once it is read
+        head.lazySet(first + 1);
+        return true;
+    }
+
+    /**
+     * Returns true if an event was dropped since the last call, and clears the flag.
+     *
+     * @return true if an event was dropped since the last call
+     */
+    public boolean checkOverflow() {
+        return overflowed.getAndSet(false);
+    }
+
+    /**
+     * Returns the type of the current event.
+     *
+     * @return the type of the current event.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Returns the key or button code of the current event.
+     *
+     * @return the key or button code of the current event.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the time of the current event in nanoseconds.
+     *
+     * @return the time of the current event in nanoseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+    //#endregion
+    //=================================
+}
@@ -7,6 +7,8 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.Json;
 import com.fasterxml.jackson.core.*;
 import edu.cornell.gdiac.octoplasm.EnemyController;
@@ -15,12 +17,17 @@ import edu.cornell.gdiac.octoplasm.ObstacleController;
 import edu.cornell.gdiac.octoplasm.OctopusController;
 import edu.cornell.gdiac.octoplasm.entity.*;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.FileSystem;
-import java.util.LinkedList;
-import java.util.ListIterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
 
 /**
  * TODO: documentation
@@ -47,6 +54,24 @@ public class LevelLoader {
 
     //JSON parser
     public static JsonFactory factory = new JsonFactory();
+
+    // Binary levels
+    /** The extension of a binary level, which is loaded instead of the JSON when it is current */
+    public static final String BINARY_EXTENSION = ".lvl";
+    /** The first four bytes of every binary level ("OCTL") */
+    private static final int BINARY_MAGIC = 0x4F43544C;
+    /** The version of the binary format; bump this whenever the layout changes */
+    private static final int BINARY_VERSION = 2;
+
+    /** How many parsed levels to keep in memory */
+    private static final int CACHE_SIZE = 8;
+    /** The most recently loaded level models by level name, least recently used first */
+    private static final LinkedHashMap<String, LevelModel> cache = new LinkedHashMap<String, LevelModel>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LevelModel> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
     //#endregion
     //=================================
 
@@ -79,22 +104,22 @@ public class LevelLoader {
 //        JSONParser parser = new JSONParser();
 //        FileReader reader = new FileReader("levels/" + s + ".json");
 
-        LinkedList<float[]> walls = new LinkedList<>();
-        LinkedList<WallEntity.WallTexture> wallTexture = new LinkedList<>();
+        Array<float[]> walls = new Array<>();
+        Array<WallEntity.WallTexture> wallTexture = new Array<>();
 
-        LinkedList<ObstacleEntity.ObstacleSubType> OT = new LinkedList<>();
-        LinkedList<Vector2> objectPos = new LinkedList<>();
-        LinkedList<Float> objectAngle = new LinkedList<>();
+        Array<ObstacleEntity.ObstacleSubType> OT = new Array<>();
+        FloatArray objectPos = new FloatArray();
+        FloatArray objectAngle = new FloatArray();
 
-        LinkedList<EnemyEntity.EnemySubType> ET = new LinkedList<>();
-        LinkedList<Vector2> enemyPos = new LinkedList<>();
+        Array<EnemyEntity.EnemySubType> ET = new Array<>();
+        FloatArray enemyPos = new FloatArray();
 
-        LinkedList<OctopusEntity.OctopusSubType> octT = new LinkedList<>();
-        LinkedList<Vector2> octopusPos = new LinkedList<>();
+        Array<OctopusEntity.OctopusSubType> octT = new Array<>();
+        FloatArray octopusPos = new FloatArray();
 
-        LinkedList<TutorialEntity.TutorialSubType> tutorialT = new LinkedList<>();
-        LinkedList<Vector2> tutorialPos = new LinkedList<>();
-        LinkedList<Float> tutorialAngle = new LinkedList<>();
+        Array<TutorialEntity.TutorialSubType> tutorialT = new Array<>();
+        FloatArray tutorialPos = new FloatArray();
+        FloatArray tutorialAngle = new FloatArray();
 
         Vector2 initCamPos = new Vector2();
 
@@ -107,7 +132,7 @@ public class LevelLoader {
 
                 jsonToken = parser.nextToken();
                 if ("CAM".equals(fieldName)) {
-                    LinkedList<Float> camPos = new LinkedList<Float>();
+                    FloatArray camPos = new FloatArray();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         jsonToken = parser.nextToken();
                         while (!JsonToken.END_ARRAY.equals(jsonToken)) {
@@ -119,12 +144,12 @@ public class LevelLoader {
                     initCamPos.y = camPos.get(1);
                 }
                 else if("walls".equals(fieldName)){
-                    LinkedList<float[]> toAdd = new LinkedList<float[]>();
+                    Array<float[]> toAdd = new Array<>();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //Should be START_ARRAY of first element of array or END_ARRAY if no walls
                         jsonToken = parser.nextToken();
                         //outer array
-                        LinkedList<Float> toAdd2 = new LinkedList<Float>();
+                        FloatArray toAdd2 = new FloatArray();
                         while (!JsonToken.END_ARRAY.equals(jsonToken)) {
                             //inner array
                             if(JsonToken.START_ARRAY.equals(jsonToken)) {
@@ -135,13 +160,8 @@ public class LevelLoader {
                                     //should be next float or END_ARRAY
                                     jsonToken = parser.nextToken();
                                 }
-                                float[] floats = new float[toAdd2.size()];
-                                int i = 0;
-                                for (Float fl : toAdd2){
-                                    floats[i++] = fl;
-                                }
-                                toAdd2 = new LinkedList<>();
-                                toAdd.add(floats);
+                                toAdd.add(toAdd2.toArray());
+                                toAdd2.clear();
                                 //should be START_ARRAY of next wall or END_ARRAY if no more walls
                                 jsonToken = parser.nextToken();
                             }
@@ -175,7 +195,7 @@ public class LevelLoader {
                     }
                 } //Objects
                 else if("OT".equals(fieldName)){
-                    LinkedList<ObstacleEntity.ObstacleSubType> toAdd = new LinkedList<>();
+                    Array<ObstacleEntity.ObstacleSubType> toAdd = new Array<>();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //Should be START_ARRAY of first element of array or END_ARRAY if no obstacles
                         //should be first string
@@ -211,7 +231,7 @@ public class LevelLoader {
                     }
                     OT = toAdd;
                 } else if("objectPos".equals(fieldName)){
-                    LinkedList<Vector2> toAdd = new LinkedList<Vector2>();
+                    FloatArray toAdd = new FloatArray();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -220,7 +240,7 @@ public class LevelLoader {
                             //should be next element (y value)
                             jsonToken = parser.nextToken();
                             float y = (float)parser.getValueAsDouble();
-                            toAdd.add(new Vector2(x,y));
+                            toAdd.add(x, y);
                             //should be next element or END_ARRAY
                             jsonToken = parser.nextToken();
                         }
@@ -228,7 +248,7 @@ public class LevelLoader {
                     }
                     objectPos = toAdd;
                 } else if("objectAngle".equals(fieldName)){
-                    LinkedList<Float> toAdd = new LinkedList<Float>();
+                    FloatArray toAdd = new FloatArray();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -243,7 +263,7 @@ public class LevelLoader {
                     objectAngle = toAdd;
                 } //Enemies
                 else if("ET".equals(fieldName)){
-                    LinkedList<EnemyEntity.EnemySubType> toAdd = new LinkedList<EnemyEntity.EnemySubType>();
+                    Array<EnemyEntity.EnemySubType> toAdd = new Array<>();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first string
                         jsonToken = parser.nextToken();
@@ -275,7 +295,7 @@ public class LevelLoader {
                     }
                     ET = toAdd;
                 } else if("enemyPos".equals(fieldName)){
-                    LinkedList<Vector2> toAdd = new LinkedList<Vector2>();
+                    FloatArray toAdd = new FloatArray();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -284,7 +304,7 @@ public class LevelLoader {
                             //should be next element (y value)
                             jsonToken = parser.nextToken();
                             float y = (float)parser.getValueAsDouble();
-                            toAdd.add(new Vector2(x,y));
+                            toAdd.add(x, y);
                             //should be next element or END_ARRAY
                             jsonToken = parser.nextToken();
                         }
@@ -293,7 +313,7 @@ public class LevelLoader {
                     enemyPos = toAdd;
                 } //Octopi
                 else if("octT".equals(fieldName)){
-                    LinkedList<OctopusEntity.OctopusSubType> toAdd = new LinkedList<OctopusEntity.OctopusSubType>();
+                    Array<OctopusEntity.OctopusSubType> toAdd = new Array<>();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first string
                         jsonToken = parser.nextToken();
@@ -318,7 +338,7 @@ public class LevelLoader {
                     }
                     octT = toAdd;
                 } else if("octopusPos".equals(fieldName)) {
-                    LinkedList<Vector2> toAdd = new LinkedList<Vector2>();
+                    FloatArray toAdd = new FloatArray();
                     if (JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -327,7 +347,7 @@ public class LevelLoader {
                             //should be next element (y value)
                             jsonToken = parser.nextToken();
                             float y = (float) parser.getValueAsDouble();
-                            toAdd.add(new Vector2(x, y));
+                            toAdd.add(x, y);
                             //should be next element or END_ARRAY
                             jsonToken = parser.nextToken();
                         }
@@ -350,7 +370,7 @@ public class LevelLoader {
                     }
                 } //Tutorial
                 else if("TT".equals(fieldName)) {
-                    LinkedList<TutorialEntity.TutorialSubType> toAdd = new LinkedList<>();
+                    Array<TutorialEntity.TutorialSubType> toAdd = new Array<>();
                     if (JsonToken.START_ARRAY.equals(jsonToken)) {
                         jsonToken = parser.nextToken();
                         while (!JsonToken.END_ARRAY.equals(jsonToken)) {
@@ -444,7 +464,7 @@ public class LevelLoader {
                     tutorialT = toAdd;
                 }
                 else if("tutorialAngle".equals(fieldName)){
-                    LinkedList<Float> toAdd = new LinkedList<>();
+                    FloatArray toAdd = new FloatArray();
                     if(JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -458,7 +478,7 @@ public class LevelLoader {
                     tutorialAngle = toAdd;
                 }
                 else if("tutorialPos".equals(fieldName)){
-                    LinkedList<Vector2> toAdd = new LinkedList<>();
+                    FloatArray toAdd = new FloatArray();
                     if (JsonToken.START_ARRAY.equals(jsonToken)) {
                         //should be first element (x value)
                         jsonToken = parser.nextToken();
@@ -467,7 +487,7 @@ public class LevelLoader {
                             //should be next element (y value)
                             jsonToken = parser.nextToken();
                             float y = (float) parser.getValueAsDouble();
-                            toAdd.add(new Vector2(x, y));
+                            toAdd.add(x, y);
                             //should be next element or END_ARRAY
                             jsonToken = parser.nextToken();
                         }
@@ -479,11 +499,329 @@ public class LevelLoader {
                 }
             }
         }
-        return new LevelModel(walls,wallTexture,OT,objectPos, objectAngle,
-                ET,enemyPos,octT,octopusPos, tutorialT, tutorialPos, tutorialAngle,
-                bounds, initCamPos);
+        boolean valid = (OT.size == objectPos.size / 2 && OT.size == objectAngle.size);
+        valid = valid && (ET.size == enemyPos.size / 2);
+        valid = valid && (octT.size == octopusPos.size / 2);
+        valid = valid && (tutorialT.size == tutorialAngle.size);
+        valid = valid && (tutorialT.size == tutorialPos.size / 2);
+        valid = valid && (walls.size == wallTexture.size);
+        if (!valid) {
+            throw new IOException("Level not valid");
+        }
+
+        LevelModel model = new LevelModel();
+        for (int i = 0; i < walls.size; i++) {
+            model.addWall(walls.get(i), wallTexture.get(i));
+        }
+        for (int i = 0; i < OT.size; i++) {
+            model.addObstacle(OT.get(i), objectPos.get(2 * i), objectPos.get(2 * i + 1), objectAngle.get(i));
+        }
+        for (int i = 0; i < ET.size; i++) {
+            model.addEnemy(ET.get(i), enemyPos.get(2 * i), enemyPos.get(2 * i + 1));
+        }
+        for (int i = 0; i < octT.size; i++) {
+            model.addOctopus(octT.get(i), octopusPos.get(2 * i), octopusPos.get(2 * i + 1));
+        }
+        for (int i = 0; i < tutorialT.size; i++) {
+            model.addTutorial(tutorialT.get(i), tutorialPos.get(2 * i), tutorialPos.get(2 * i + 1), tutorialAngle.get(i));
+        }
+        model.bounds = bounds;
+        model.initCamPos = initCamPos;
+        return model;
+    }
+
+    //=========================================================================
+    //#region Binary Levels
+    /**
+     * Returns the model of the given level, parsing it only if it is not already cached.
+     *
+     * The binary level is read if there is one, unless it was converted from a different
+     * version of the JSON (see {@link #isCurrent(String)}), such as when the JSON was edited
+     * by hand and not converted again. The returned model is
+     * shared with every other caller, so it must not be modified; copy it with
+     * {@link LevelModel#LevelModel(LevelModel)} first.
+     *
+     * This may be called from a worker thread while the game is running, so the cache is
+     * only touched while holding the class lock.
+     *
+     * @param s name of the level (not including the extension or filepath to levels folder)
+     *
+     * @return the level model of the level
+     *
+     * @throws IOException
+     */
+    public static synchronized LevelModel loadLevel(String s) throws IOException {
+        LevelModel model = cache.get(s);
+        if (model == null) {
+            FileHandle binary = Gdx.files.internal("levels/" + s + BINARY_EXTENSION);
+            FileHandle json = Gdx.files.internal("levels/" + s + ".json");
+            boolean current = binary.exists() && (!json.exists() || isCurrent(s));
+            model = current ? parseBinary(s) : parseJson(s);
+            cache.put(s, model);
+        }
+        return model;
+    }
+
+    /**
+     * Removes a level from the cache, so the next {@link #loadLevel(String)} parses it again.
+     *
+     * @param s name of the level (not including the extension or filepath to levels folder)
+     */
+    public static synchronized void evictLevel(String s) {
+        cache.remove(s);
+    }
+
+    /**
+     * Checks that a parsed level can be populated, so a broken file is caught before the
+     * current level is torn down.
+     *
+     * The level must have positive bounds, and every wall must be a polygon: an even number
+     * of coordinates and at least three vertices.
+     *
+     * @param model the level model to check
+     * @param s name of the level, for the error message
+     *
+     * @throws IOException if the level cannot be populated
+     */
+    public static void validate(LevelModel model, String s) throws IOException {
+        if (model.bounds == null || model.bounds.width <= 0 || model.bounds.height <= 0) {
+            throw new IOException("levels/" + s + " has no bounds");
+        }
+        for (int i = 0; i < model.getWallCount(); i++) {
+            int length = model.getWallLength(i);
+            if (length < 6 || length % 2 != 0) {
+                throw new IOException("levels/" + s + " has a wall with " + length + " coordinates");
+            }
+        }
+    }
+
+    /**
+     * Returns whether the binary level was converted from the JSON level as it is now.
+     *
+     * The binary records the length and CRC-32 of the JSON it was written from. File times
+     * are no use here, as a checkout or a copy can leave either file the newer one.
+     *
+     * @param s name of the level (not including the extension or filepath to levels folder)
+     *
+     * @return whether the binary level matches the JSON level
+     *
+     * @throws IOException
+     */
+    public static boolean isCurrent(String s) throws IOException {
+        byte[] source = Gdx.files.internal("levels/" + s + ".json").readBytes();
+        DataInputStream in = new DataInputStream(Gdx.files.internal("levels/" + s + BINARY_EXTENSION).read());
+        try {
+            return in.readInt() == BINARY_MAGIC && in.readInt() == BINARY_VERSION
+                    && in.readInt() == source.length && in.readInt() == checksum(source);
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of a JSON level, as recorded in the binary levels.
+     *
+     * @param source the bytes of the JSON level
+     *
+     * @return the CRC-32 of the JSON level
+     */
+    private static int checksum(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Parses a binary level written by {@link #generateBinary(LevelModel, FileHandle, FileHandle)}.
+     *
+     * The layout is big endian. After the magic number and version come the length and
+     * CRC-32 of the JSON the level was converted from, then the bounds and
+     * camera position, then each kind of entity as a count, its sub type names, and one flat
+     * float array: x, y (and angle for obstacles and tutorials) per entity. Walls are stored
+     * as a texture name and a float array of vertices each.
+     *
+     * @param s name of the level (not including .lvl or filepath to levels folder)
+     *
+     * @return the level model constructed from the binary
+     *
+     * @throws IOException if the file is not a binary level of the current version
+     */
+    public static LevelModel parseBinary(String s) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Gdx.files.internal("levels/" + s + BINARY_EXTENSION).readBytes());
+        if (buffer.getInt() != BINARY_MAGIC) {
+            throw new IOException("levels/" + s + BINARY_EXTENSION + " is not a binary level");
+        }
+        int version = buffer.getInt();
+        if (version != BINARY_VERSION) {
+            throw new IOException("levels/" + s + BINARY_EXTENSION + " has version " + version + ", expected " + BINARY_VERSION);
+        }
+        // Skip the length and checksum of the JSON, which only matter to isCurrent
+        buffer.position(buffer.position() + 8);
+
+        LevelModel model = new LevelModel();
+        model.bounds = new Rectangle(0, 0, buffer.getFloat(), buffer.getFloat());
+        model.initCamPos.set(buffer.getFloat(), buffer.getFloat());
+
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            WallEntity.WallTexture texture = WallEntity.WallTexture.valueOf(readName(buffer));
+            model.addWall(readFloats(buffer, buffer.getInt()), texture);
+        }
+
+        count = buffer.getInt();
+        Array<ObstacleEntity.ObstacleSubType> obstacleTypes = new Array<>(count);
+        for (int i = 0; i < count; i++) {
+            obstacleTypes.add(ObstacleEntity.ObstacleSubType.valueOf(readName(buffer)));
+        }
+        float[] values = readFloats(buffer, 3 * count);
+        for (int i = 0; i < count; i++) {
+            model.addObstacle(obstacleTypes.get(i), values[3 * i], values[3 * i + 1], values[3 * i + 2]);
+        }
+
+        count = buffer.getInt();
+        Array<EnemyEntity.EnemySubType> enemyTypes = new Array<>(count);
+        for (int i = 0; i < count; i++) {
+            enemyTypes.add(EnemyEntity.EnemySubType.valueOf(readName(buffer)));
+        }
+        values = readFloats(buffer, 2 * count);
+        for (int i = 0; i < count; i++) {
+            model.addEnemy(enemyTypes.get(i), values[2 * i], values[2 * i + 1]);
+        }
+
+        count = buffer.getInt();
+        Array<OctopusEntity.OctopusSubType> octopusTypes = new Array<>(count);
+        for (int i = 0; i < count; i++) {
+            octopusTypes.add(OctopusEntity.OctopusSubType.valueOf(readName(buffer)));
+        }
+        values = readFloats(buffer, 2 * count);
+        for (int i = 0; i < count; i++) {
+            model.addOctopus(octopusTypes.get(i), values[2 * i], values[2 * i + 1]);
+        }
+
+        count = buffer.getInt();
+        Array<TutorialEntity.TutorialSubType> tutorialTypes = new Array<>(count);
+        for (int i = 0; i < count; i++) {
+            tutorialTypes.add(TutorialEntity.TutorialSubType.valueOf(readName(buffer)));
+        }
+        values = readFloats(buffer, 3 * count);
+        for (int i = 0; i < count; i++) {
+            model.addTutorial(tutorialTypes.get(i), values[3 * i], values[3 * i + 1], values[3 * i + 2]);
+        }
+        return model;
+    }
+
+    /**
+     * Writes a level model in the binary level format (see {@link #parseBinary(String)}).
+     *
+     * The model must have been read from (or just saved to) the given JSON, whose length and
+     * checksum are recorded so that the binary is ignored once the JSON changes.
+     *
+     * @param model the model to write
+     * @param source the JSON level the model was read from
+     * @param file the file to write to
+     *
+     * @throws IOException
+     */
+    public static void generateBinary(LevelModel model, FileHandle source, FileHandle file) throws IOException {
+        byte[] json = source.readBytes();
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(BINARY_VERSION);
+            out.writeInt(json.length);
+            out.writeInt(checksum(json));
+            out.writeFloat(model.bounds.width);
+            out.writeFloat(model.bounds.height);
+            out.writeFloat(model.initCamPos.x);
+            out.writeFloat(model.initCamPos.y);
+
+            out.writeInt(model.getWallCount());
+            for (int i = 0; i < model.getWallCount(); i++) {
+                out.writeUTF(model.getWallTexture(i).name());
+                out.writeInt(model.getWallLength(i));
+                for (int j = 0; j < model.getWallLength(i); j++) {
+                    out.writeFloat(model.getWallVertex(i, j));
+                }
+            }
+
+            out.writeInt(model.getObstacleCount());
+            for (int i = 0; i < model.getObstacleCount(); i++) {
+                out.writeUTF(model.getObstacleType(i).name());
+            }
+            for (int i = 0; i < model.getObstacleCount(); i++) {
+                out.writeFloat(model.getObstacleX(i));
+                out.writeFloat(model.getObstacleY(i));
+                out.writeFloat(model.getObstacleAngle(i));
+            }
+
+            out.writeInt(model.getEnemyCount());
+            for (int i = 0; i < model.getEnemyCount(); i++) {
+                out.writeUTF(model.getEnemyType(i).name());
+            }
+            for (int i = 0; i < model.getEnemyCount(); i++) {
+                out.writeFloat(model.getEnemyX(i));
+                out.writeFloat(model.getEnemyY(i));
+            }
+
+            out.writeInt(model.getOctopusCount());
+            for (int i = 0; i < model.getOctopusCount(); i++) {
+                out.writeUTF(model.getOctopusType(i).name());
+            }
+            for (int i = 0; i < model.getOctopusCount(); i++) {
+                out.writeFloat(model.getOctopusX(i));
+                out.writeFloat(model.getOctopusY(i));
+            }
+
+            out.writeInt(model.getTutorialCount());
+            for (int i = 0; i < model.getTutorialCount(); i++) {
+                out.writeUTF(model.getTutorialType(i).name());
+            }
+            for (int i = 0; i < model.getTutorialCount(); i++) {
+                out.writeFloat(model.getTutorialX(i));
+                out.writeFloat(model.getTutorialY(i));
+                out.writeFloat(model.getTutorialAngle(i));
+            }
+        } finally {
+            out.close();
+        }
     }
 
+    /**
+     * Reads a name written with {@link DataOutputStream#writeUTF(String)}.
+     *
+     * Only enum constant names are written, so the bytes are plain ASCII.
+     *
+     * @param buffer the buffer to read from
+     *
+     * @return the name
+     */
+    private static String readName(ByteBuffer buffer) {
+        char[] chars = new char[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) buffer.get();
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Reads a block of floats in one go.
+     *
+     * @param buffer the buffer to read from
+     * @param count the number of floats to read
+     *
+     * @return the floats
+     */
+    private static float[] readFloats(ByteBuffer buffer, int count) {
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+    //#endregion
+    //=================================
+
     /**
      * Immediately adds the object to the physics world
      *
@@ -542,16 +880,28 @@ public class LevelLoader {
     public static Rectangle populateLevel(World world, PooledList<Entity> objects, LevelModel model, Vector2 scale,
                                           OctopusController OC, EnemyController EC, ObstacleController BC, GameplayController.GameWorld area)
             throws Exception {
-        verifyLevelModel(model);
+        populateWalls(world, objects, model, scale);
+        return populateEntities(world, objects, model, scale, OC, EC, BC, area);
+    }
+
+    /**
+     * Adds the walls of the level.
+     *
+     * The walls never change while a level is played, so they can be kept when the level
+     * restarts (see {@link #populateEntities}).
+     *
+     * @param world the world in which to put the walls
+     * @param objects the list of objects to add the walls to
+     * @param model the model from which to get the walls
+     * @param scale the scale of the world
+     */
+    public static void populateWalls(World world, PooledList<Entity> objects, LevelModel model, Vector2 scale) {
         //Add walls
-        int i = 1;
-        for(float[] WALL1: model.walls){
-            float[] wallsScaled = new float[WALL1.length];
+        for(int i = 0; i < model.getWallCount(); i++){
             //descale walls so that they can be rescaled for various screen sizes
-            int j = 0;
-            for(float f : WALL1){
-                wallsScaled[j] = j/2 == 0 ? f*scale.x : f*scale.y;
-                j++;
+            float[] wallsScaled = model.getWallVertices(i, new float[model.getWallLength(i)]);
+            for(int j = 0; j < wallsScaled.length; j++){
+                wallsScaled[j] *= j % 2 == 0 ? scale.x : scale.y;
             }
             WallEntity wall1 = new WallEntity(wallsScaled, 0, 0);
             wall1.setBodyType(BodyDef.BodyType.StaticBody);
@@ -559,20 +909,33 @@ public class LevelLoader {
             wall1.setFriction(BASIC_FRICTION);
             wall1.setRestitution(BASIC_RESTITUTION);
             wall1.setDrawScale(scale);
-            wall1.setTexture(model.wallTexture.get(i-1));
-            wall1.setName("wall"+i);
+            wall1.setTexture(model.getWallTexture(i));
+            wall1.setName("wall"+(i+1));
             addObject(wall1, objects, world, model.bounds);
-            i++;
         }
+    }
+
+    /**
+     * Adds everything but the walls of the level: obstacles, tutorial icons, enemies and octopi.
+     *
+     * @param world the world in which to put the objects
+     * @param objects the list of objects to update from the level model
+     * @param model the model from which to get the objects
+     * @param scale the scale of the world
+     * @param OC the octopuscontroller
+     * @param EC the enemycontroller
+     * @param BC the obstaclecontroller
+     * @param area the area of the level, which picks the obstacle textures
+     * @return the bounds of the level
+     */
+    public static Rectangle populateEntities(World world, PooledList<Entity> objects, LevelModel model, Vector2 scale,
+                                             OctopusController OC, EnemyController EC, ObstacleController BC,
+                                             GameplayController.GameWorld area) throws Exception {
         //Add Obstacles
-        ListIterator<ObstacleEntity.ObstacleSubType> obstacleType = model.OT.listIterator();
-        ListIterator<Vector2> obstaclePos = model.objectPos.listIterator();
-        ListIterator<Float> obstacleAngle = model.objectAngle.listIterator();
-        while(obstacleType.hasNext()){
-            ObstacleEntity.ObstacleSubType obstacleT = obstacleType.next();
-            Vector2 obstacleP = obstaclePos.next();
-            Float obstacleAng = obstacleAngle.next();
-            ObstacleEntity obstacle = new ObstacleEntity(obstacleP.x*scale.x, obstacleP.y*scale.y, obstacleAng,
+        for(int i = 0; i < model.getObstacleCount(); i++){
+            ObstacleEntity.ObstacleSubType obstacleT = model.getObstacleType(i);
+            ObstacleEntity obstacle = new ObstacleEntity(model.getObstacleX(i)*scale.x, model.getObstacleY(i)*scale.y,
+                    model.getObstacleAngle(i),
                     ObstacleEntity.getTextureWidth(obstacleT)/scale.x,
                     ObstacleEntity.getTextureHeight(obstacleT)/scale.y,obstacleT, area);
             obstacle.setDrawScale(scale);
@@ -580,14 +943,10 @@ public class LevelLoader {
             BC.addObstacle(obstacle);
         }
         //Add Tutorial Icons
-        ListIterator<TutorialEntity.TutorialSubType> tutorialType = model.TT.listIterator();
-        ListIterator<Vector2> tutorialPos = model.tutorialPos.listIterator();
-        ListIterator<Float> tutorialAngle = model.tutorialAngle.listIterator();
-        while(tutorialType.hasNext()){
-            TutorialEntity.TutorialSubType tutorialSubType = tutorialType.next();
-            Vector2 tutorialP = tutorialPos.next();
-            Float tutorialAng = tutorialAngle.next();
-            TutorialEntity tutorialEntity = new TutorialEntity(tutorialP.x*scale.x, tutorialP.y*scale.y, tutorialAng,
+        for(int i = 0; i < model.getTutorialCount(); i++){
+            TutorialEntity.TutorialSubType tutorialSubType = model.getTutorialType(i);
+            TutorialEntity tutorialEntity = new TutorialEntity(model.getTutorialX(i)*scale.x, model.getTutorialY(i)*scale.y,
+                    model.getTutorialAngle(i),
                     TutorialEntity.getTextureWidth(tutorialSubType)/scale.x,
                     TutorialEntity.getTextureHeight(tutorialSubType)/scale.x, tutorialSubType);
             tutorialEntity.setDrawScale(scale);
@@ -595,12 +954,9 @@ public class LevelLoader {
             BC.addTutorial(tutorialEntity);
         }
         //Add enemies
-        ListIterator<EnemyEntity.EnemySubType> enemyType = model.ET.listIterator();
-        ListIterator<Vector2> enemyPos = model.enemyPos.listIterator();
-        while(enemyType.hasNext()){
-            EnemyEntity.EnemySubType enemyT = enemyType.next();
-            Vector2 enemyP = enemyPos.next();
-            EnemyEntity enemy = new EnemyEntity(enemyP.x*scale.x,enemyP.y*scale.y,
+        for(int i = 0; i < model.getEnemyCount(); i++){
+            EnemyEntity.EnemySubType enemyT = model.getEnemyType(i);
+            EnemyEntity enemy = new EnemyEntity(model.getEnemyX(i)*scale.x,model.getEnemyY(i)*scale.y,
                     EnemyEntity.getTextureWidth(enemyT)/scale.x,
                     EnemyEntity.getTextureHeight(enemyT)/scale.y,enemyT);
             enemy.setDrawScale(scale);
@@ -608,41 +964,18 @@ public class LevelLoader {
             EC.addEnemy(enemy);
         }
         //Add Octopi
-        i = 0;
-        ListIterator<OctopusEntity.OctopusSubType> octopusType = model.octT.listIterator();
-        ListIterator<Vector2> octopusPos = model.octopusPos.listIterator();
-        while(octopusType.hasNext()){
-            OctopusEntity.OctopusSubType octopusT = octopusType.next();
-            Vector2 octopusP = octopusPos.next();
-            OctopusEntity octopus = new OctopusEntity(octopusP.x*scale.x,octopusP.y*scale.y,
+        for(int i = 0; i < model.getOctopusCount(); i++){
+            OctopusEntity.OctopusSubType octopusT = model.getOctopusType(i);
+            OctopusEntity octopus = new OctopusEntity(model.getOctopusX(i)*scale.x,model.getOctopusY(i)*scale.y,
                     OctopusEntity.getTextureWidth(octopusT)/scale.x,
                     OctopusEntity.getTextureHeight(octopusT)/scale.y,octopusT);
             octopus.setDrawScale(scale);
             addObject(octopus,objects, world, model.bounds);
             OC.addOctopus(octopus);
-            i++;
         }
         return model.bounds;
     }
 
-    /**
-     * Verifies a level model to be containing a valid level.
-     * Checks list lengths.
-     *
-     * @param model
-     */
-    private static void verifyLevelModel(LevelModel model) throws Exception {
-        boolean valid = (model.OT.size() == model.objectPos.size() && model.OT.size() == model.objectAngle.size());
-        valid = valid && (model.ET.size() == model.enemyPos.size());
-        valid = valid && (model.octT.size() == model.octopusPos.size());
-        valid = valid && (model.TT.size() == model.tutorialAngle.size());
-        valid = valid && (model.TT.size() == model.tutorialPos.size());
-        valid = valid && (model.walls.size() == model.wallTexture.size());
-        if (!valid) {
-            throw new Exception("Level not valid");
-        }
-    }
-
     /**
      * Creates a json file from a saved levelmodel
      *
@@ -654,12 +987,10 @@ public class LevelLoader {
         generator.writeStartObject();
         //Walls
         generator.writeArrayFieldStart("walls");
-        ListIterator<float[]> iterator = model.walls.listIterator();
-        while(iterator.hasNext()){
+        for(int i = 0; i < model.getWallCount(); i++){
             generator.writeStartArray();
-            float[] wall = iterator.next();
-            for(int i = 0; i < wall.length;i++){
-                generator.writeNumber(wall[i]);
+            for(int j = 0; j < model.getWallLength(i); j++){
+                generator.writeNumber(model.getWallVertex(i, j));
             }
             generator.writeEndArray();
         }
@@ -671,9 +1002,8 @@ public class LevelLoader {
         generator.writeEndArray();
         //WallTexture
         generator.writeArrayFieldStart("wallTexture");
-        ListIterator<WallEntity.WallTexture> walliterator = model.wallTexture.listIterator();
-        while(walliterator.hasNext()){
-            WallEntity.WallTexture wall = walliterator.next();
+        for(int i = 0; i < model.getWallCount(); i++){
+            WallEntity.WallTexture wall = model.getWallTexture(i);
             switch(wall){
                 case PIRATE:
                     generator.writeString("PIRATE");
@@ -689,9 +1019,8 @@ public class LevelLoader {
         generator.writeEndArray();
         //Objects
         generator.writeArrayFieldStart("OT");
-        ListIterator<ObstacleEntity.ObstacleSubType> OTiterator = model.OT.listIterator();
-        while(OTiterator.hasNext()){
-            ObstacleEntity.ObstacleSubType s = OTiterator.next();
+        for(int i = 0; i < model.getObstacleCount(); i++){
+            ObstacleEntity.ObstacleSubType s = model.getObstacleType(i);
             switch(s){
                 case GOAL:
                     generator.writeString("GOAL");
@@ -715,26 +1044,21 @@ public class LevelLoader {
         }
         generator.writeEndArray();
         generator.writeArrayFieldStart("objectPos");
-        ListIterator<Vector2> pIterator = model.objectPos.listIterator();
-        while(pIterator.hasNext()){
-            Vector2 v = pIterator.next();
-            generator.writeNumber(v.x);
-            generator.writeNumber(v.y);
+        for(int i = 0; i < model.getObstacleCount(); i++){
+            generator.writeNumber(model.getObstacleX(i));
+            generator.writeNumber(model.getObstacleY(i));
         }
         generator.writeEndArray();
         //Object angles
         generator.writeArrayFieldStart("objectAngle");
-        ListIterator<Float> angIterator = model.objectAngle.listIterator();
-        while(angIterator.hasNext()){
-            Float f = angIterator.next();
-            generator.writeNumber(f);
+        for(int i = 0; i < model.getObstacleCount(); i++){
+            generator.writeNumber(model.getObstacleAngle(i));
         }
         generator.writeEndArray();
         //Enemies
         generator.writeArrayFieldStart("ET");
-        ListIterator<EnemyEntity.EnemySubType> ETiterator = model.ET.listIterator();
-        while(ETiterator.hasNext()){
-            EnemyEntity.EnemySubType s = ETiterator.next();
+        for(int i = 0; i < model.getEnemyCount(); i++){
+            EnemyEntity.EnemySubType s = model.getEnemyType(i);
             switch(s){
                 case NORMAL_ENEMY:
                     generator.writeString("NORMAL_ENEMY");
@@ -755,18 +1079,15 @@ public class LevelLoader {
         }
         generator.writeEndArray();
         generator.writeArrayFieldStart("enemyPos");
-        pIterator = model.enemyPos.listIterator();
-        while(pIterator.hasNext()){
-            Vector2 v = pIterator.next();
-            generator.writeNumber(v.x);
-            generator.writeNumber(v.y);
+        for(int i = 0; i < model.getEnemyCount(); i++){
+            generator.writeNumber(model.getEnemyX(i));
+            generator.writeNumber(model.getEnemyY(i));
         }
         generator.writeEndArray();
         //Octopi
         generator.writeArrayFieldStart("octT");
-        ListIterator<OctopusEntity.OctopusSubType> octTiterator = model.octT.listIterator();
-        while(octTiterator.hasNext()){
-            OctopusEntity.OctopusSubType s = octTiterator.next();
+        for(int i = 0; i < model.getOctopusCount(); i++){
+            OctopusEntity.OctopusSubType s = model.getOctopusType(i);
             switch(s){
                 case FLYER:
                     generator.writeString("FLYER");
@@ -781,18 +1102,15 @@ public class LevelLoader {
         }
         generator.writeEndArray();
         generator.writeArrayFieldStart("octopusPos");
-        pIterator = model.octopusPos.listIterator();
-        while(pIterator.hasNext()){
-            Vector2 v = pIterator.next();
-            generator.writeNumber(v.x);
-            generator.writeNumber(v.y);
+        for(int i = 0; i < model.getOctopusCount(); i++){
+            generator.writeNumber(model.getOctopusX(i));
+            generator.writeNumber(model.getOctopusY(i));
         }
         generator.writeEndArray();
         //Tutorial Objects
         generator.writeArrayFieldStart("TT");
-        ListIterator<TutorialEntity.TutorialSubType> tutIterator = model.TT.listIterator();
-        while(tutIterator.hasNext()){
-            TutorialEntity.TutorialSubType s = tutIterator.next();
+        for(int i = 0; i < model.getTutorialCount(); i++){
+            TutorialEntity.TutorialSubType s = model.getTutorialType(i);
             switch(s){
                 case MOUSE_LEFT:
                     generator.writeString("MOUSE_LEFT");
@@ -876,18 +1194,14 @@ public class LevelLoader {
         }
         generator.writeEndArray();
         generator.writeArrayFieldStart("tutorialPos");
-        pIterator = model.tutorialPos.listIterator();
-        while(pIterator.hasNext()){
-            Vector2 v = pIterator.next();
-            generator.writeNumber(v.x);
-            generator.writeNumber(v.y);
+        for(int i = 0; i < model.getTutorialCount(); i++){
+            generator.writeNumber(model.getTutorialX(i));
+            generator.writeNumber(model.getTutorialY(i));
         }
         generator.writeEndArray();
         generator.writeArrayFieldStart("tutorialAngle");
-        angIterator = model.tutorialAngle.listIterator();
-        while(angIterator.hasNext()){
-            Float f = angIterator.next();
-            generator.writeNumber(f);
+        for(int i = 0; i < model.getTutorialCount(); i++){
+            generator.writeNumber(model.getTutorialAngle(i));
         }
         generator.writeEndArray();
         //bounds
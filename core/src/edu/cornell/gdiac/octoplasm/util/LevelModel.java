@@ -1,15 +1,19 @@
 package edu.cornell.gdiac.octoplasm.util;
 
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import edu.cornell.gdiac.octoplasm.entity.*;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-
 /**
- * TODO: documentation
+ * Everything needed to build a level, in level coordinates (before scaling).
+ *
+ * Each kind of entity is stored as an array of sub types and a flat float array of its
+ * positions (and angles), so entity i of a kind is found in constant time. Walls are stored
+ * back to back in one float array, with the index where each wall starts. Walk a kind with
+ * its count and indexed getters, e.g. {@link #getEnemyCount()} and {@link #getEnemyX(int)}.
  *
  * @author Jarrett Coleman
  */
@@ -17,32 +21,40 @@ public class LevelModel {
 
     //=========================================================================
     //#region Fields
-    /** The walls */
-    public LinkedList<float[]> walls;
-    /** The wall texture */
-    public LinkedList<WallEntity.WallTexture> wallTexture;
-    /** The list of obstacle object sub types */
-    public LinkedList<ObstacleEntity.ObstacleSubType> OT;
-    /** The list of obstacle positions */
-    public LinkedList<Vector2> objectPos;
-    /** The list of obstacle Angle */
-    public LinkedList<Float> objectAngle;
-    /** The list of enemy object subtypes */
-    public LinkedList<EnemyEntity.EnemySubType> ET;
-    /** The list of enemy positions */
-    public LinkedList<Vector2> enemyPos;
-    /** The list of octopus object subtypes */
-    public LinkedList<OctopusEntity.OctopusSubType> octT;
-    /** The list of octopus positions */
-    public LinkedList<Vector2> octopusPos;
-    /** The list of tutorial types */
-    public LinkedList<TutorialEntity.TutorialSubType> TT;
-    /**  */
-    public LinkedList<Float> tutorialAngle;
-    /** The list of tutorial positions */
-    public LinkedList<Vector2> tutorialPos;
+    /** The number of floats per obstacle: x, y and angle */
+    private static final int OBSTACLE_STRIDE = 3;
+    /** The number of floats per enemy: x and y */
+    private static final int ENEMY_STRIDE = 2;
+    /** The number of floats per octopus: x and y */
+    private static final int OCTOPUS_STRIDE = 2;
+    /** The number of floats per tutorial: x, y and angle */
+    private static final int TUTORIAL_STRIDE = 3;
+
+    /** The vertices of every wall, one wall after another */
+    private FloatArray wallVertices;
+    /** The index in wallVertices where each wall starts */
+    private IntArray wallStarts;
+    /** The texture of each wall */
+    private Array<WallEntity.WallTexture> wallTextures;
+    /** The sub type of each obstacle */
+    private Array<ObstacleEntity.ObstacleSubType> obstacleTypes;
+    /** The x, y and angle of each obstacle */
+    private FloatArray obstacleData;
+    /** The sub type of each enemy */
+    private Array<EnemyEntity.EnemySubType> enemyTypes;
+    /** The x and y of each enemy */
+    private FloatArray enemyData;
+    /** The sub type of each octopus */
+    private Array<OctopusEntity.OctopusSubType> octopusTypes;
+    /** The x and y of each octopus */
+    private FloatArray octopusData;
+    /** The sub type of each tutorial */
+    private Array<TutorialEntity.TutorialSubType> tutorialTypes;
+    /** The x, y and angle of each tutorial */
+    private FloatArray tutorialData;
     /** The boundary of the level*/
     public Rectangle bounds;
+    /** The initial position of the camera */
     public Vector2 initCamPos;
     //#endregion
     //=================================
@@ -53,62 +65,406 @@ public class LevelModel {
      * Creates a new level model with nothing in it.
      */
     public LevelModel() {
-        this.walls = new LinkedList<>();
-        this.wallTexture = new LinkedList<>();
-        this.OT = new LinkedList<>();
-        this.objectPos = new LinkedList<>();
-        this.objectAngle = new LinkedList<>();
-        this.ET = new LinkedList<>();
-        this.enemyPos = new LinkedList<>();
-        this.octT = new LinkedList<>();
-        this.octopusPos = new LinkedList<>();
-        this.TT = new LinkedList<>();
-        this.tutorialPos = new LinkedList<>();
-        this.tutorialAngle = new LinkedList<>();
+        this.wallVertices = new FloatArray();
+        this.wallStarts = new IntArray();
+        this.wallTextures = new Array<>();
+        this.obstacleTypes = new Array<>();
+        this.obstacleData = new FloatArray();
+        this.enemyTypes = new Array<>();
+        this.enemyData = new FloatArray();
+        this.octopusTypes = new Array<>();
+        this.octopusData = new FloatArray();
+        this.tutorialTypes = new Array<>();
+        this.tutorialData = new FloatArray();
 
         this.initCamPos = new Vector2();
     }
 
     /**
-     * Creates a new level model filled with the provided values.
-     *
-     * @param walls
-     * @param wallTexture
-     * @param OT
-     * @param objectPos
-     * @param objectAngle
-     * @param ET
-     * @param enemyPos
-     * @param octT
-     * @param octopusPos
-     */
-    public LevelModel(LinkedList<float[]> walls, LinkedList<WallEntity.WallTexture> wallTexture, LinkedList<ObstacleEntity.ObstacleSubType> OT,
-                      LinkedList<Vector2> objectPos,
-                      LinkedList<Float> objectAngle,
-                      LinkedList<EnemyEntity.EnemySubType> ET,
-                      LinkedList<Vector2> enemyPos,
-                      LinkedList<OctopusEntity.OctopusSubType> octT,
-                      LinkedList<Vector2> octopusPos,
-                      LinkedList<TutorialEntity.TutorialSubType> tutorialSubTypes,
-                      LinkedList<Vector2> tutorialPos,
-                      LinkedList<Float> tutorialAngle,
-                      Rectangle bounds,
-                      Vector2 initCamPos){
-        this.wallTexture = wallTexture;
-        this.walls = walls;
-        this.OT = OT;
-        this.objectPos = objectPos;
-        this.objectAngle = objectAngle;
-        this.ET = ET;
-        this.enemyPos = enemyPos;
-        this.octT = octT;
-        this.octopusPos = octopusPos;
-        this.bounds = bounds;
-        this.initCamPos = initCamPos;
-
-        this.TT = tutorialSubTypes;
-        this.tutorialPos = tutorialPos;
-        this.tutorialAngle = tutorialAngle;
+     * Creates a deep copy of the given level model.
+     *
+     * Models handed out by {@link LevelLoader#loadLevel(String)} are shared, so this is
+     * used to get a model that is safe to edit.
+     *
+     * @param model the model to copy
+     */
+    public LevelModel(LevelModel model) {
+        this();
+        wallVertices.addAll(model.wallVertices);
+        wallStarts.addAll(model.wallStarts);
+        wallTextures.addAll(model.wallTextures);
+        obstacleTypes.addAll(model.obstacleTypes);
+        obstacleData.addAll(model.obstacleData);
+        enemyTypes.addAll(model.enemyTypes);
+        enemyData.addAll(model.enemyData);
+        octopusTypes.addAll(model.octopusTypes);
+        octopusData.addAll(model.octopusData);
+        tutorialTypes.addAll(model.tutorialTypes);
+        tutorialData.addAll(model.tutorialData);
+        bounds = model.bounds == null ? null : new Rectangle(model.bounds);
+        initCamPos.set(model.initCamPos);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Adding
+    /**
+     * Removes every wall, obstacle, enemy, octopus and tutorial from the level.
+     */
+    public void clear() {
+        wallVertices.clear();
+        wallStarts.clear();
+        wallTextures.clear();
+        obstacleTypes.clear();
+        obstacleData.clear();
+        enemyTypes.clear();
+        enemyData.clear();
+        octopusTypes.clear();
+        octopusData.clear();
+        tutorialTypes.clear();
+        tutorialData.clear();
+    }
+
+    /**
+     * Adds a wall to the level.
+     *
+     * @param vertices the x and y of each vertex of the wall
+     * @param texture the texture of the wall
+     */
+    public void addWall(float[] vertices, WallEntity.WallTexture texture) {
+        addWall(vertices, 0, vertices.length, texture);
+    }
+
+    /**
+     * Adds a wall to the level.
+     *
+     * @param vertices an array holding the x and y of each vertex of the wall
+     * @param offset the index of the first vertex x in the array
+     * @param length the number of floats in the wall (twice the number of vertices)
+     * @param texture the texture of the wall
+     */
+    public void addWall(float[] vertices, int offset, int length, WallEntity.WallTexture texture) {
+        wallStarts.add(wallVertices.size);
+        wallVertices.addAll(vertices, offset, length);
+        wallTextures.add(texture);
+    }
+
+    /**
+     * Adds an obstacle to the level.
+     *
+     * @param type the sub type of the obstacle
+     * @param x the x position of the obstacle
+     * @param y the y position of the obstacle
+     * @param angle the angle of the obstacle
+     */
+    public void addObstacle(ObstacleEntity.ObstacleSubType type, float x, float y, float angle) {
+        obstacleTypes.add(type);
+        obstacleData.add(x, y, angle);
+    }
+
+    /**
+     * Adds an enemy to the level.
+     *
+     * @param type the sub type of the enemy
+     * @param x the x position of the enemy
+     * @param y the y position of the enemy
+     */
+    public void addEnemy(EnemyEntity.EnemySubType type, float x, float y) {
+        enemyTypes.add(type);
+        enemyData.add(x, y);
+    }
+
+    /**
+     * Adds an octopus to the level.
+     *
+     * @param type the sub type of the octopus
+     * @param x the x position of the octopus
+     * @param y the y position of the octopus
+     */
+    public void addOctopus(OctopusEntity.OctopusSubType type, float x, float y) {
+        octopusTypes.add(type);
+        octopusData.add(x, y);
+    }
+
+    /**
+     * Adds a tutorial icon to the level.
+     *
+     * @param type the sub type of the tutorial
+     * @param x the x position of the tutorial
+     * @param y the y position of the tutorial
+     * @param angle the angle of the tutorial
+     */
+    public void addTutorial(TutorialEntity.TutorialSubType type, float x, float y, float angle) {
+        tutorialTypes.add(type);
+        tutorialData.add(x, y, angle);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Walls
+    /**
+     * Returns the number of walls in the level.
+     *
+     * @return the number of walls in the level
+     */
+    public int getWallCount() {
+        return wallStarts.size;
+    }
+
+    /**
+     * Returns the number of floats in a wall (twice the number of vertices).
+     *
+     * @param wall the index of the wall
+     *
+     * @return the number of floats in the wall
+     */
+    public int getWallLength(int wall) {
+        int end = wall + 1 < wallStarts.size ? wallStarts.get(wall + 1) : wallVertices.size;
+        return end - wallStarts.get(wall);
+    }
+
+    /**
+     * Returns one coordinate of a wall.
+     *
+     * @param wall the index of the wall
+     * @param index the index of the coordinate, alternating x and y
+     *
+     * @return the coordinate
+     */
+    public float getWallVertex(int wall, int index) {
+        return wallVertices.get(wallStarts.get(wall) + index);
+    }
+
+    /**
+     * Copies the vertices of a wall into the given array.
+     *
+     * @param wall the index of the wall
+     * @param out an array at least {@link #getWallLength(int)} long
+     *
+     * @return the given array
+     */
+    public float[] getWallVertices(int wall, float[] out) {
+        System.arraycopy(wallVertices.items, wallStarts.get(wall), out, 0, getWallLength(wall));
+        return out;
+    }
+
+    /**
+     * Returns the texture of a wall.
+     *
+     * @param wall the index of the wall
+     *
+     * @return the texture of the wall
+     */
+    public WallEntity.WallTexture getWallTexture(int wall) {
+        return wallTextures.get(wall);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Obstacles
+    /**
+     * Returns the number of obstacles in the level.
+     *
+     * @return the number of obstacles in the level
+     */
+    public int getObstacleCount() {
+        return obstacleTypes.size;
+    }
+
+    /**
+     * Returns the sub type of an obstacle.
+     *
+     * @param obstacle the index of the obstacle
+     *
+     * @return the sub type of the obstacle
+     */
+    public ObstacleEntity.ObstacleSubType getObstacleType(int obstacle) {
+        return obstacleTypes.get(obstacle);
+    }
+
+    /**
+     * Returns the x position of an obstacle.
+     *
+     * @param obstacle the index of the obstacle
+     *
+     * @return the x position of the obstacle
+     */
+    public float getObstacleX(int obstacle) {
+        return obstacleData.get(OBSTACLE_STRIDE * obstacle);
+    }
+
+    /**
+     * Returns the y position of an obstacle.
+     *
+     * @param obstacle the index of the obstacle
+     *
+     * @return the y position of the obstacle
+     */
+    public float getObstacleY(int obstacle) {
+        return obstacleData.get(OBSTACLE_STRIDE * obstacle + 1);
+    }
+
+    /**
+     * Returns the angle of an obstacle.
+     *
+     * @param obstacle the index of the obstacle
+     *
+     * @return the angle of the obstacle
+     */
+    public float getObstacleAngle(int obstacle) {
+        return obstacleData.get(OBSTACLE_STRIDE * obstacle + 2);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Enemies
+    /**
+     * Returns the number of enemies in the level.
+     *
+     * @return the number of enemies in the level
+     */
+    public int getEnemyCount() {
+        return enemyTypes.size;
+    }
+
+    /**
+     * Returns the sub type of an enemy.
+     *
+     * @param enemy the index of the enemy
+     *
+     * @return the sub type of the enemy
+     */
+    public EnemyEntity.EnemySubType getEnemyType(int enemy) {
+        return enemyTypes.get(enemy);
+    }
+
+    /**
+     * Returns the x position of an enemy.
+     *
+     * @param enemy the index of the enemy
+     *
+     * @return the x position of the enemy
+     */
+    public float getEnemyX(int enemy) {
+        return enemyData.get(ENEMY_STRIDE * enemy);
+    }
+
+    /**
+     * Returns the y position of an enemy.
+     *
+     * @param enemy the index of the enemy
+     *
+     * @return the y position of the enemy
+     */
+    public float getEnemyY(int enemy) {
+        return enemyData.get(ENEMY_STRIDE * enemy + 1);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Octopi
+    /**
+     * Returns the number of octopi in the level.
+     *
+     * @return the number of octopi in the level
+     */
+    public int getOctopusCount() {
+        return octopusTypes.size;
+    }
+
+    /**
+     * Returns the sub type of an octopus.
+     *
+     * @param octopus the index of the octopus
+     *
+     * @return the sub type of the octopus
+     */
+    public OctopusEntity.OctopusSubType getOctopusType(int octopus) {
+        return octopusTypes.get(octopus);
+    }
+
+    /**
+     * Returns the x position of an octopus.
+     *
+     * @param octopus the index of the octopus
+     *
+     * @return the x position of the octopus
+     */
+    public float getOctopusX(int octopus) {
+        return octopusData.get(OCTOPUS_STRIDE * octopus);
+    }
+
+    /**
+     * Returns the y position of an octopus.
+     *
+     * @param octopus the index of the octopus
+     *
+     * @return the y position of the octopus
+     */
+    public float getOctopusY(int octopus) {
+        return octopusData.get(OCTOPUS_STRIDE * octopus + 1);
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Tutorials
+    /**
+     * Returns the number of tutorial icons in the level.
+     *
+     * @return the number of tutorial icons in the level
+     */
+    public int getTutorialCount() {
+        return tutorialTypes.size;
+    }
+
+    /**
+     * Returns the sub type of a tutorial icon.
+     *
+     * @param tutorial the index of the tutorial
+     *
+     * @return the sub type of the tutorial
+     */
+    public TutorialEntity.TutorialSubType getTutorialType(int tutorial) {
+        return tutorialTypes.get(tutorial);
+    }
+
+    /**
+     * Returns the x position of a tutorial icon.
+     *
+     * @param tutorial the index of the tutorial
+     *
+     * @return the x position of the tutorial
+     */
+    public float getTutorialX(int tutorial) {
+        return tutorialData.get(TUTORIAL_STRIDE * tutorial);
+    }
+
+    /**
+     * Returns the y position of a tutorial icon.
+     *
+     * @param tutorial the index of the tutorial
+     *
+     * @return the y position of the tutorial
+     */
+    public float getTutorialY(int tutorial) {
+        return tutorialData.get(TUTORIAL_STRIDE * tutorial + 1);
+    }
+
+    /**
+     * Returns the angle of a tutorial icon.
+     *
+     * @param tutorial the index of the tutorial
+     *
+     * @return the angle of the tutorial
+     */
+    public float getTutorialAngle(int tutorial) {
+        return tutorialData.get(TUTORIAL_STRIDE * tutorial + 2);
     }
     //#endregion
     //=================================
@@ -0,0 +1,217 @@
+package edu.cornell.gdiac.octoplasm.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Finds the texture region of an image file, whether it is packed in an atlas or loose.
+ *
+ * The small gameplay sprites are packed into a few atlases by the packAtlases task, so that
+ * drawing them does not switch textures (and flush the sprite batch) at every sprite. Every
+ * atlas and the files packed into it are listed in {@link Atlas}. A controller loads an image
+ * with {@link #load(AssetManager, String)}, which queues its atlas instead if it has one, and
+ * gets its region with {@link #getRegion(AssetManager, String, boolean)} once loaded. Both fall
+ * back to the loose file if the atlases have not been packed.
+ *
+ * Images that repeat, are cut into filmstrips, or are used as whole textures (such as the
+ * scene2d tables) must not be packed.
+ *
+ * Note that this class is an instance of a Singleton. Use getInstance() to access it.
+ */
+public class TextureRegistry {
+    //=========================================================================
+    //#region Atlases
+    /**
+     * The atlases, with the files packed into each.
+     */
+    public enum Atlas {
+        /** The sprites shared by every world */
+        GAMEPLAY("atlases/gameplay.atlas",
+                "images/indicator1_fight.png", "images/indicator2_fight.png", "images/indicator3_fight.png",
+                "images/indicator1_flight.png", "images/indicator2_flight.png", "images/indicator3_flight.png",
+                "images/indicator1_fold.png", "images/indicator2_fold.png", "images/indicator3_fold.png",
+                "ui/cursors/crosshair.png", "ui/cursors/teleport_selector.png", "ui/gameplay/pause.png",
+                "ui/gameplay/level_done/complete_octopi.png", "ui/gameplay/level_done/failed_text.png",
+                "static_sprites/fight_glow.png", "static_sprites/flight_glow.png",
+                "static_sprites/fold_glow.png", "static_sprites/no_glow.png",
+                "static_sprites/enemy/basicGhostEnemy2.png", "static_sprites/enemy/enemyArmored.png",
+                "static_sprites/enemy/enemySpiked.png", "static_sprites/enemy/holeEnemy.png",
+                "static_sprites/enemy/superEnemy.png",
+                "ui/gameplay/enemy/enemy_arrow.png", "ui/gameplay/enemy/enemy_exclamation.png",
+                "static_sprites/octopus/Fight.png", "static_sprites/octopus/Flight.png",
+                "static_sprites/octopus/Fold.png",
+                "ui/gameplay/octopus/octo_goal.png", "ui/gameplay/octopus/octo_selector.png",
+                "ui/gameplay/octopus/circle_small.png",
+                "static_sprites/obstacles/GoalDoor-FightOnly.png", "static_sprites/obstacles/GoalDoor-FlightOnly.png",
+                "static_sprites/obstacles/GoalDoor-FoldOnly.png", "static_sprites/obstacles/respawn.png"),
+        /** The obstacles of the cave, and the tutorial (which only has cave levels) */
+        CAVE("atlases/cave.atlas",
+                "static_sprites/obstacles/Cave_BoomerWall_Explosion_LitRepeatable.png",
+                "static_sprites/obstacles/Cave_FlightWall_Repeatable.png",
+                "static_sprites/obstacles/Cave_FoldWall_Large.png",
+                "ui/gameplay/tutorial/cursor.png", "ui/gameplay/tutorial/mouseLeft.png",
+                "ui/gameplay/tutorial/mouseRight.png", "ui/gameplay/tutorial/e_key.png",
+                "ui/gameplay/tutorial/w_key.png", "ui/gameplay/tutorial/a_key.png",
+                "ui/gameplay/tutorial/s_key.png", "ui/gameplay/tutorial/d_key.png",
+                "ui/gameplay/tutorial/space.png", "ui/gameplay/tutorial/esc.png",
+                "ui/gameplay/tutorial/level1_text.png", "ui/gameplay/tutorial/level2_text.png",
+                "ui/gameplay/tutorial/level3_text.png", "ui/gameplay/tutorial/level4_text.png",
+                "ui/gameplay/tutorial/level5_text.png", "ui/gameplay/tutorial/level6_text.png",
+                "ui/gameplay/tutorial/level7_text.png", "ui/gameplay/tutorial/level8_text.png",
+                "ui/gameplay/tutorial/level9_text.png", "ui/gameplay/tutorial/level10_text.png",
+                "ui/gameplay/tutorial/level11_text.png", "ui/gameplay/tutorial/level12_text.png",
+                "ui/gameplay/tutorial/level13_text.png", "ui/gameplay/tutorial/level14_text.png",
+                "ui/gameplay/tutorial/level15_text.png", "ui/gameplay/tutorial/level16_text.png"),
+        /** The obstacles of the ship */
+        SHIP("atlases/ship.atlas",
+                "static_sprites/obstacles/Pirate_FightWall_ColorCoded2X.png",
+                "static_sprites/obstacles/Pirate_FoldWall_ColorCodedRepeatable.png");
+
+        /** The atlas file */
+        public final String file;
+        /** The image files packed into the atlas */
+        public final String[] images;
+
+        /**
+         * Creates an atlas of the given images.
+         *
+         * @param file   The atlas file
+         * @param images The image files packed into the atlas
+         */
+        Atlas(String file, String... images) {
+            this.file = file;
+            this.images = images;
+        }
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Fields
+    /** The singleton texture registry */
+    private static TextureRegistry registry;
+
+    /** The atlas each packed image file is in */
+    private final ObjectMap<String, Atlas> packed;
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Constructor
+    /**
+     * Returns the single instance of the texture registry.
+     *
+     * @return the single instance of the texture registry.
+     */
+    public static TextureRegistry getInstance() {
+        if (registry == null) {
+            registry = new TextureRegistry();
+        }
+        return registry;
+    }
+
+    /**
+     * Creates the texture registry from the list of atlases.
+     *
+     * This constructor is private, as this class is a singleton.
+     */
+    private TextureRegistry() {
+        packed = new ObjectMap<>();
+        for (Atlas atlas : Atlas.values()) {
+            for (String image : atlas.images) {
+                packed.put(image, atlas);
+            }
+        }
+    }
+    //#endregion
+    //=================================
+
+    //=========================================================================
+    //#region Lookup
+    /**
+     * Returns the name of the region of an image file in its atlas.
+     *
+     * This is the path of the file without its extension.
+     *
+     * @param file The image file
+     *
+     * @return the name of the region of an image file in its atlas.
+     */
+    public static String getRegionName(String file) {
+        int dot = file.lastIndexOf('.');
+        return dot < 0 ? file : file.substring(0, dot);
+    }
+
+    /**
+     * Returns the atlas an image file is packed into, or null if it is loose.
+     *
+     * @param file The image file
+     *
+     * @return the atlas an image file is packed into, or null if it is loose.
+     */
+    public Atlas getAtlas(String file) {
+        return packed.get(file);
+    }
+
+    /**
+     * Queues an image file in the asset manager, and returns the file actually queued.
+     *
+     * If the image is packed, its atlas is queued instead. The asset manager counts every
+     * load of the atlas, so each file returned must be unloaded once, like any other asset.
+     *
+     * @param manager Reference to global asset manager.
+     * @param file    The image file
+     *
+     * @return the file queued, to be unloaded later
+     */
+    public String load(AssetManager manager, String file) {
+        Atlas atlas = packed.get(file);
+        if (atlas != null && Gdx.files.internal(atlas.file).exists()) {
+            manager.load(atlas.file, TextureAtlas.class);
+            return atlas.file;
+        }
+        manager.load(file, Texture.class);
+        return file;
+    }
+
+    /**
+     * Returns a new texture region for a loaded image file, or null if it is not loaded.
+     *
+     * The region is a copy, so it can be changed without affecting other users of the image.
+     * Loose textures are set to linear filtering like the atlases, and to repeat if asked;
+     * a packed image cannot repeat, as it shares its texture with the rest of the atlas.
+     *
+     * @param manager Reference to global asset manager.
+     * @param file    The image file
+     * @param repeat  Whether the texture should be repeated
+     *
+     * @return a new texture region for a loaded image file, or null if it is not loaded.
+     */
+    public TextureRegion getRegion(AssetManager manager, String file, boolean repeat) {
+        Atlas atlas = packed.get(file);
+        if (atlas != null && manager.isLoaded(atlas.file)) {
+            TextureRegion region = manager.get(atlas.file, TextureAtlas.class).findRegion(getRegionName(file));
+            if (region != null) {
+                if (repeat) {
+                    Gdx.app.error("TextureRegistry", file+" is packed and cannot repeat", new IllegalArgumentException());
+                }
+                return new TextureRegion(region);
+            }
+        }
+        if (manager.isLoaded(file)) {
+            TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
+            region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            if (repeat) {
+                region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
+            }
+            return region;
+        }
+        return null;
+    }
+    //#endregion
+    //=================================
+}
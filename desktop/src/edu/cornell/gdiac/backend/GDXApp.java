@@ -41,6 +41,9 @@ public class GDXApp extends LwjglProxy {
     public GDXApp(ApplicationListener listener, GDXAppSettings config) {
         super( listener, config.getLwjglConfiguration() );
         this.config = config;
+        if (engine != null && config.audioStreaming) {
+            engine.startStreaming();
+        }
     }
 
     /**
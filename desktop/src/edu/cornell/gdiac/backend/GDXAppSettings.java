@@ -60,6 +60,13 @@ public class GDXAppSettings {
     public int audioDeviceBufferSize = 512;
     /** The audio device buffer count **/
     public int audioDeviceBufferCount = 9;
+    /**
+     * Whether to refill music buffers on a dedicated streaming thread.
+     *
+     * Otherwise music is decoded on the application thread every frame, and a long frame
+     * can starve it.
+     */
+    public boolean audioStreaming = false;
     /** The initial background color */
     public Color initialBackgroundColor = Color.BLACK;
     /**
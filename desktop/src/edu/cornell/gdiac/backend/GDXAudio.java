@@ -29,6 +29,9 @@ import org.lwjgl.openal.*;
 
 import java.lang.reflect.Method;
 import java.nio.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class is an implementation of the {@link Audio} interface using OpenAL.
@@ -75,13 +78,29 @@ public class GDXAudio implements AudioEngine {
     private int recentIndex;
         
     /** Whether we have instituted a global pause */
-    private boolean globalPause;
+    private volatile boolean globalPause;
 
     /** The sources affected by a global pause */
     private boolean[] paused;
     
     /** A float buffer to query OpenAL */
     private FloatBuffer floatdata;
+
+    /** The default budget of the decoded sound cache, in bytes */
+    private static final long DEFAULT_SOUND_CACHE = 16 << 20;
+    /** The decoded audio of every sound buffer, so each file is only decoded once */
+    private final PcmCache soundCache = new PcmCache( DEFAULT_SOUND_CACHE );
+
+    /** The thread refilling the music buffers (null if they are refilled in {@link #update}) */
+    private volatile Streamer streamer;
+    /** The number of times a music buffer ran dry */
+    private final AtomicLong underruns = new AtomicLong();
+    /** The number of music buffers refilled */
+    private final AtomicLong refills = new AtomicLong();
+    /** The total time spent refilling music buffers, in nanoseconds */
+    private final AtomicLong decodeTime = new AtomicLong();
+    /** The longest time spent refilling a music buffer, in nanoseconds */
+    private final AtomicLong peakDecodeTime = new AtomicLong();
     
     /**
      * Creates an audio engine with the default settings.
@@ -155,6 +174,7 @@ public class GDXAudio implements AudioEngine {
             return;
         }
 
+        stopStreaming();
         for(int ii = 0; ii < buffers.length; ii++) {
             if (buffers[ii] != null) {
                 buffers[ii].stop();
@@ -279,7 +299,9 @@ public class GDXAudio implements AudioEngine {
      * fully into memory. While there is no upper limit on the audio file size, you
      * should avoid using this method for any sound asset greater than 1 MB.
      * 
-     * The currently supported formats are WAV, MP3 and OGG.
+     * The currently supported formats are WAV, MP3 and OGG.  The decoded audio is
+     * cached by file (see {@link #setSoundCacheBudget}), so making another sound
+     * buffer for the same file does not decode it again.
      *
      * The sound buffer should be disposed if it is no longer used via the 
      * {@link SoundBuffer#dispose()} method.
@@ -430,14 +452,16 @@ public class GDXAudio implements AudioEngine {
      */
     public void pause() {
         if (!noDevice) {
-            globalPause = true;
-            for(int ii = 0; ii < paused.length; ii++) {
-                int sourceId = indexToSource.get( ii, -1 );
-                if (getSourceState( sourceId ) == AL10.AL_PLAYING) {
-                    paused[ii] = true;
-                    AL10.alSourcePause( sourceId );
-                } else {
-                    paused[ii] = false;
+            synchronized (buffers) {
+                globalPause = true;
+                for(int ii = 0; ii < paused.length; ii++) {
+                    int sourceId = indexToSource.get( ii, -1 );
+                    if (getSourceState( sourceId ) == AL10.AL_PLAYING) {
+                        paused[ii] = true;
+                        AL10.alSourcePause( sourceId );
+                    } else {
+                        paused[ii] = false;
+                    }
                 }
             }
         }
@@ -452,15 +476,17 @@ public class GDXAudio implements AudioEngine {
      */
     public void resume() {
         if (!noDevice) {
-            for(int ii = 0; ii < paused.length; ii++) {
-                if (paused[ii]) {
-                    int sourceId = indexToSource.get( ii, -1 );
-                    AL10.alSourcePlay( sourceId );
-                    paused[ii] = false;
+            synchronized (buffers) {
+                for(int ii = 0; ii < paused.length; ii++) {
+                    if (paused[ii]) {
+                        int sourceId = indexToSource.get( ii, -1 );
+                        AL10.alSourcePlay( sourceId );
+                        paused[ii] = false;
+                    }
                 }
+                globalPause = false;
             }
         }
-        globalPause = false;
     }
     
     // #mark OpenAL Source Controls
@@ -477,29 +503,31 @@ public class GDXAudio implements AudioEngine {
             return 0;
         }
         
-        // Try to find an available buffer
-        int sourceId = -1;
-        for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
-            if (buffers[next] == null) {
-                buffers[next] = sound;
-                sourceId = indexToSource.get( next, -1 );
-                recentIndex = next;
-            }
-        }
-        
-        // Try to evict the oldest evictable buffer
-        if (sourceId == -1) {
+        synchronized (buffers) {
+            // Try to find an available buffer
+            int sourceId = -1;
             for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
-                if (buffers[next] != null && buffers[next].evictable()) {
-                    sourceId = indexToSource.get( next, -1 );
-                    stopSource(sourceId);
+                if (buffers[next] == null) {
                     buffers[next] = sound;
+                    sourceId = indexToSource.get( next, -1 );
                     recentIndex = next;
                 }
             }
+
+            // Try to evict the oldest evictable buffer
+            if (sourceId == -1) {
+                for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
+                    if (buffers[next] != null && buffers[next].evictable()) {
+                        sourceId = indexToSource.get( next, -1 );
+                        stopSource(sourceId);
+                        buffers[next] = sound;
+                        recentIndex = next;
+                    }
+                }
+            }
+
+            return sourceId;
         }
-        
-        return sourceId;
     }
     
     /**
@@ -514,10 +542,12 @@ public class GDXAudio implements AudioEngine {
             return;
         }
 
-        AL10.alSourceStop(sourceId);
-        AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
-        int index = sourceToIndex.get(sourceId, -1);
-        buffers[index] = null;
+        synchronized (buffers) {
+            AL10.alSourceStop(sourceId);
+            AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
+            int index = sourceToIndex.get(sourceId, -1);
+            buffers[index] = null;
+        }
     }
 
     /**
@@ -529,9 +559,11 @@ public class GDXAudio implements AudioEngine {
      */
     public void stopSource(int sourceId) {
         if (sourceId != -1 && !noDevice) {
-            AL10.alSourceStop(sourceId);
-            AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
-            buffers[sourceToIndex.get(sourceId,-1)] = null;
+            synchronized (buffers) {
+                AL10.alSourceStop(sourceId);
+                AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
+                buffers[sourceToIndex.get(sourceId,-1)] = null;
+            }
         }
     }
     
@@ -793,16 +825,167 @@ public class GDXAudio implements AudioEngine {
      * This method is used to push data to the music buffers, and to invoke
      * any necessary callback functions.  It must be executed in the main
      * thread.
+     *
+     * If the engine is streaming, the music buffers are left to the streaming
+     * thread, and this method only invokes the callbacks it has deferred.
      */
     public void update () {
         if (noDevice) {
             return;
         }
-        for(int ii = 0; ii < buffers.length; ii++) {
-            if (buffers[ii] != null) {
-                buffers[ii].update( indexToSource.get(ii, -1) );
+        // The streaming thread may claim sources, so hold them still while updating
+        Streamer current = streamer;
+        synchronized (buffers) {
+            for(int ii = 0; ii < buffers.length; ii++) {
+                if (buffers[ii] != null && (current == null || !(buffers[ii] instanceof MusicHandle))) {
+                    buffers[ii].update( indexToSource.get(ii, -1) );
+                }
             }
         }
+        if (current != null) {
+            current.dispatchEvents();
+        }
+    }
+
+    // #mark Music Streaming
+    /**
+     * Starts refilling the music buffers on a dedicated streaming thread.
+     *
+     * Decoding music and refilling the OpenAL buffers no longer happens in {@link #update},
+     * so a long frame cannot starve the music, and decoding does not take time from the
+     * frame. Playing, pausing and stopping music and changing its volume are queued to the
+     * streaming thread without locking. Music callbacks are still invoked from {@link #update}.
+     *
+     * This method has no effect if the engine is already streaming.
+     */
+    public void startStreaming() {
+        if (noDevice || streamer != null) {
+            return;
+        }
+        Streamer thread = new Streamer();
+        thread.start();
+        streamer = thread;
+    }
+
+    /**
+     * Stops the streaming thread, returning the music buffers to {@link #update}.
+     *
+     * Any queued commands are executed before the thread stops. This method must be
+     * called from the same thread that controls the music.
+     */
+    public void stopStreaming() {
+        Streamer thread = streamer;
+        if (thread == null) {
+            return;
+        }
+        streamer = null;
+        thread.finish();
+        thread.dispatchEvents();
+    }
+
+    /**
+     * Returns whether music buffers are refilled on a dedicated streaming thread.
+     *
+     * Otherwise they are refilled from the application thread on every frame.
+     *
+     * @return whether music buffers are refilled on a dedicated streaming thread.
+     */
+    public boolean isStreaming() {
+        return streamer != null;
+    }
+
+    /**
+     * Returns the number of times a music buffer ran dry since the engine started.
+     *
+     * A music buffer runs dry when it is not refilled before OpenAL plays all of its
+     * queued audio, which is heard as a gap in the music.
+     *
+     * @return the number of times a music buffer ran dry since the engine started.
+     */
+    public long getUnderrunCount() {
+        return underruns.get();
+    }
+
+    /**
+     * Returns the number of OpenAL buffers refilled with decoded music.
+     *
+     * @return the number of OpenAL buffers refilled with decoded music.
+     */
+    public long getRefillCount() {
+        return refills.get();
+    }
+
+    /**
+     * Returns the total time spent decoding music into OpenAL buffers, in nanoseconds.
+     *
+     * Divide this by {@link #getRefillCount()} for the average time per buffer.
+     *
+     * @return the total time spent decoding music into OpenAL buffers, in nanoseconds.
+     */
+    public long getDecodeTime() {
+        return decodeTime.get();
+    }
+
+    /**
+     * Returns the longest time spent decoding a single music buffer, in nanoseconds.
+     *
+     * @return the longest time spent decoding a single music buffer, in nanoseconds.
+     */
+    public long getPeakDecodeTime() {
+        return peakDecodeTime.get();
+    }
+
+    /**
+     * Returns the number of sound buffers made without decoding their audio.
+     *
+     * @return the number of sound buffers made without decoding their audio.
+     */
+    public long getSoundCacheHits() {
+        return soundCache.getHits();
+    }
+
+    /**
+     * Returns the number of sound buffers that had to decode their audio.
+     *
+     * @return the number of sound buffers that had to decode their audio.
+     */
+    public long getSoundCacheMisses() {
+        return soundCache.getMisses();
+    }
+
+    /**
+     * Returns the number of bytes of decoded audio kept for sound buffers.
+     *
+     * @return the number of bytes of decoded audio kept for sound buffers.
+     */
+    public long getSoundCacheSize() {
+        return soundCache.getSize();
+    }
+
+    /**
+     * Sets the most bytes of decoded audio to keep for sound buffers.
+     *
+     * Decoded audio is kept so that another sound buffer for the same file does not
+     * have to decode it again.  The least recently used audio is evicted first.
+     *
+     * @param budget    The most bytes of decoded audio to keep
+     */
+    public void setSoundCacheBudget(long budget) {
+        soundCache.setBudget( budget );
+    }
+
+    /**
+     * Records the time spent refilling one music buffer.
+     *
+     * @param time  The time spent decoding and buffering, in nanoseconds
+     */
+    private void recordRefill(long time) {
+        refills.incrementAndGet();
+        decodeTime.addAndGet(time);
+        long peak = peakDecodeTime.get();
+        while (time > peak && !peakDecodeTime.compareAndSet(peak, time)) {
+            peak = peakDecodeTime.get();
+        }
     }
 
     // #mark -
@@ -846,7 +1029,7 @@ public class GDXAudio implements AudioEngine {
         public SoundHandle(AudioSource sample) {
             super(null);
             this.sample = sample;
-            ByteBuffer buffer = sample.getData();
+            ByteBuffer buffer = soundCache.get( sample );
             int bytesize = buffer.limit();
             
             // Generate an OpenAL buffer
@@ -1501,8 +1684,16 @@ public class GDXAudio implements AudioEngine {
         private boolean isLooping;
         /** Whether to applying looping to current track only */
         private boolean loopLocal;
-        /** The volume of this stream */
-        private float volume = 1;
+        /** The volume of this stream (set without locking, so it may be queued) */
+        private volatile float volume = 1;
+        /** The volume at the start of the current fade */
+        private float fadeFrom;
+        /** The volume at the end of the current fade */
+        private float fadeTo;
+        /** The time the current fade started, in nanoseconds */
+        private long fadeStart;
+        /** The length of the current fade in nanoseconds (0 if not fading) */
+        private long fadeLength;
         /** The pitch setting of this stream */
         private float pitch = 1.0f;
         /** The stereo pan of this stream */
@@ -1537,6 +1728,9 @@ public class GDXAudio implements AudioEngine {
         private OnCompletionListener onCompletionListener = null;
         /** A callback function for queue transitions */
         private OnTransitionListener onTransitionListener = null;
+
+        /** The number of commands queued to the streaming thread and not yet executed */
+        private final AtomicInteger pending = new AtomicInteger();
         
         /**
          * Creates a new music buffer with the given properties.
@@ -1645,7 +1839,7 @@ public class GDXAudio implements AudioEngine {
                 error = AL10.alGetError();
                 if (error != AL10.AL_NO_ERROR) {
                     Gdx.app.error("OpenAL", "Music buffer "+bufferId+" could not be initialized: "+AL10.alGetString(error));
-                    stop();
+                    stopNow();
                     return false;
                 }
             }
@@ -1659,8 +1853,9 @@ public class GDXAudio implements AudioEngine {
          * Disposes of this music buffer, releasing all resources
          */
         @Override
-        public void dispose() {
-            stop();
+        public synchronized void dispose() {
+            settle();
+            stopNow();
             if (allBuffers != null) {
                 AL10.alDeleteBuffers( allBuffers );
                 allBuffers = null;
@@ -1684,23 +1879,41 @@ public class GDXAudio implements AudioEngine {
          * the music, but it will not be played until the engine is resumed.
          */
         @Override
-        public synchronized void play() {
+        public void play() {
+            if (!post( Streamer.PLAY, 0 )) {
+                synchronized (this) {
+                    settle();
+                    playNow();
+                }
+            }
+        }
+
+        /**
+         * Starts the play back of the music stream on this thread.
+         *
+         * This is the body of {@link #play}, which is either called directly or from
+         * the streaming thread.
+         */
+        private void playNow() {
             if (sourceId == -1) {
                 sourceId = obtainSource( this );
                 if (sourceId == -1) return;
                 
                 position = 0;
                 setSourceLoop( sourceId, false );
-                setPan( pan, volume );
+                setSourcePan( sourceId, pan );
+                setSourceGain( sourceId, volume );
                 
                 boolean filled = initBuffers();
-                if (!filled && onCompletionListener != null) {
-                    onCompletionListener.onCompletion( this );
+                if (!filled) {
+                    notifyCompletion( null );
                 }
             }
             if (!isPlaying) {
                 if (globalPause) {
-                    paused[sourceToIndex.get(sourceId, -1)] = true;
+                    synchronized (buffers) {
+                        paused[sourceToIndex.get(sourceId, -1)] = true;
+                    }
                 } else {
                     setSourceGain( sourceId, volume );
                     setSourcePitch( sourceId, pitch );
@@ -1721,7 +1934,19 @@ public class GDXAudio implements AudioEngine {
          * the music will not automatically resume when the parent resumes.
          */
         @Override
-        public synchronized void pause() {
+        public void pause() {
+            if (!post( Streamer.PAUSE, 0 )) {
+                synchronized (this) {
+                    settle();
+                    pauseNow();
+                }
+            }
+        }
+
+        /**
+         * Pauses the play back on this thread.
+         */
+        private void pauseNow() {
             pauseSource(sourceId);
             isPlaying = false;
         }
@@ -1736,7 +1961,19 @@ public class GDXAudio implements AudioEngine {
          * If the parent {@link AudioEngine} is currently paused, this will queue up
          * the music, but it will not be played until the engine is resumed.
          */
-        public synchronized void resume() {
+        public void resume() {
+            if (!post( Streamer.RESUME, 0 )) {
+                synchronized (this) {
+                    settle();
+                    resumeNow();
+                }
+            }
+        }
+
+        /**
+         * Resumes the play back on this thread.
+         */
+        private void resumeNow() {
             resumeSource(sourceId);
             isPlaying = true;
         }
@@ -1749,7 +1986,19 @@ public class GDXAudio implements AudioEngine {
          * invoked the stream will start from the beginning. 
          */
         @Override
-        public synchronized void stop() {
+        public void stop() {
+            if (!post( Streamer.STOP, 0 )) {
+                synchronized (this) {
+                    settle();
+                    stopNow();
+                }
+            }
+        }
+
+        /**
+         * Stops the stream on this thread, releasing its OpenAL source.
+         */
+        private void stopNow() {
             if (sourceId != -1) {
                 reset();
                 freeSource( sourceId );
@@ -1768,6 +2017,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized boolean isPlaying() {
+            settle();
             return isPlaying && !globalPause;
         }
 
@@ -1777,9 +2027,80 @@ public class GDXAudio implements AudioEngine {
          * @param volume    The volume in range [0,1]
          */
         @Override
-        public synchronized void setVolume(float volume) {
+        public void setVolume(float volume) {
             this.volume = volume;
-            setSourceGain(sourceId, volume );
+            if (!post( Streamer.GAIN, volume )) {
+                synchronized (this) {
+                    settle();
+                    fadeLength = 0;
+                    setSourceGain( sourceId, volume );
+                }
+            }
+        }
+
+        /**
+         * Fades the volume of the music stream linearly to the given value.
+         *
+         * The fade is stepped each time the stream is refilled, which is every few
+         * milliseconds on the streaming thread, or every frame otherwise.
+         *
+         * @param volume    The volume at the end of the fade, in range [0,1]
+         * @param duration  The length of the fade in seconds
+         */
+        @Override
+        public void fadeVolume(float volume, float duration) {
+            if (duration <= 0) {
+                setVolume( volume );
+                return;
+            }
+            if (!post( Streamer.FADE, volume, duration )) {
+                synchronized (this) {
+                    settle();
+                    fadeNow( volume, duration );
+                }
+            }
+        }
+
+        /**
+         * Starts a volume fade on this thread.
+         *
+         * @param volume    The volume at the end of the fade
+         * @param duration  The length of the fade in seconds
+         */
+        private void fadeNow(float volume, float duration) {
+            fadeFrom = this.volume;
+            fadeTo = volume;
+            fadeStart = TimeUtils.nanoTime();
+            fadeLength = Math.max( 1, (long)(duration * 1000000000L) );
+        }
+
+        /**
+         * Returns true if the volume of the music stream is fading.
+         *
+         * @return true if the volume of the music stream is fading.
+         */
+        @Override
+        public synchronized boolean isFading() {
+            settle();
+            return fadeLength > 0 && TimeUtils.nanoTime() - fadeStart < fadeLength;
+        }
+
+        /**
+         * Steps the volume of the current fade, if any, to the current time.
+         *
+         * This must be called holding the lock of this buffer.
+         */
+        private void stepFade() {
+            if (fadeLength > 0) {
+                long elapsed = TimeUtils.nanoTime() - fadeStart;
+                if (elapsed >= fadeLength) {
+                    volume = fadeTo;
+                    fadeLength = 0;
+                } else {
+                    volume = fadeFrom + (fadeTo - fadeFrom) * ((float)elapsed / fadeLength);
+                }
+                setSourceGain( sourceId, volume );
+            }
         }
 
         /** 
@@ -1788,7 +2109,7 @@ public class GDXAudio implements AudioEngine {
          * @return the volume of the music stream
          */
         @Override
-        public synchronized float getVolume() {
+        public float getVolume() {
             return this.volume;
         }
 
@@ -1836,6 +2157,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void setPan(float pan, float volume) {
+            settle();
             this.volume = volume;
             this.pan = pan;
             setSourcePan(sourceId,pan);
@@ -1859,6 +2181,7 @@ public class GDXAudio implements AudioEngine {
          */ 
         @Override
         public synchronized void setPosition(float seconds) {
+            settle();
             // The original renderedSeconds implementation was a mess.
             // If you want to seek in a stream, seek in the damn stream.
             // Use renderedSeconds only for getting
@@ -1902,7 +2225,7 @@ public class GDXAudio implements AudioEngine {
                     int error = AL10.alGetError();
                     if (error != AL10.AL_NO_ERROR) {
                         Gdx.app.error("OpenAL", "Stream seek position failed: "+AL10.alGetString(error));
-                        stop();
+                        stopNow();
                     } else {
                         initBuffers();
                         filled = true;
@@ -1914,7 +2237,7 @@ public class GDXAudio implements AudioEngine {
             
             // Position is not there?  We are at end.
             if (!filled) {
-                stop();
+                stopNow();
                 if (onCompletionListener != null) {
                     onCompletionListener.onCompletion( this );
                 }
@@ -1943,6 +2266,7 @@ public class GDXAudio implements AudioEngine {
          */ 
         @Override
         public synchronized float getPosition() {
+            settle();
             long offset = renderedBytes + (sourceId != -1 ? AL10.alGetSourcei( sourceId, AL11.AL_BYTE_OFFSET) : 0);
             long bytesPerFrame = (format == AL10.AL_FORMAT_MONO16 ? bytesPerSample : 2*bytesPerSample);
             return offset/(float)(sampleRate*bytesPerFrame);
@@ -2019,6 +2343,7 @@ public class GDXAudio implements AudioEngine {
          * @param pitch The pitch of the  music stream
          */
         public synchronized void setPitch(float pitch) {
+            settle();
             this.pitch = pitch;
             setSourcePitch(sourceId,pitch);
 
@@ -2045,6 +2370,7 @@ public class GDXAudio implements AudioEngine {
          * @param pan       The pan value -1 (left) to 1 (right). Use 0 for center.
          */
         public synchronized void setPan(float pan) {
+            settle();
             this.pan = pan;
             setSourcePan(sourceId,pan);
         }
@@ -2118,6 +2444,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized AudioSource getCurrent() {
+            settle();
             if (position >= 0 && position < samples.size) {
                 return samples.get(position);
             }
@@ -2147,6 +2474,7 @@ public class GDXAudio implements AudioEngine {
          * @param source    The source to place
          */
         public synchronized void setSource(int pos, AudioSource source) {
+            settle();
             int nformat = AL10.AL_FORMAT_VORBIS_EXT;
             if (source.getChannels() <= 2) {
                 nformat = source.getChannels() == 1 ? AL10.AL_FORMAT_MONO16 : AL10.AL_FORMAT_STEREO16;
@@ -2169,6 +2497,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void addSource(AudioSource source) {
+            settle();
             int nformat = AL10.AL_FORMAT_VORBIS_EXT;
             if (source.getChannels() <= 2) {
                 nformat = source.getChannels() == 1 ? AL10.AL_FORMAT_MONO16 : AL10.AL_FORMAT_STEREO16;
@@ -2196,6 +2525,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void insertSource(int pos, AudioSource source) {
+            settle();
             int nformat = AL10.AL_FORMAT_VORBIS_EXT;
             if (source.getChannels() <= 2) {
                 nformat = source.getChannels() == 1 ? AL10.AL_FORMAT_MONO16 : AL10.AL_FORMAT_STEREO16;
@@ -2226,6 +2556,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized AudioSource removeSource(int pos) {
+            settle();
             if (position == pos) {
                 orphaned = samples.get(pos);
             }
@@ -2241,6 +2572,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void clearSources() {
+            settle();
             streams.clear();
             samples.clear();
         }
@@ -2276,6 +2608,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void advanceSource(int steps) {
+            settle();
             if (steps < 0) {
                 throw new IllegalArgumentException("Advance may not move backwards");
             } 
@@ -2308,7 +2641,7 @@ public class GDXAudio implements AudioEngine {
                 filled = initBuffers( );
                 // Position is not there?  We are at end.
                 if (!filled) {
-                    stop();
+                    stopNow();
                     if (onCompletionListener != null) {
                         onCompletionListener.onCompletion( this );
                     }
@@ -2336,6 +2669,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void jumpToSource(int pos) {
+            settle();
             if (pos < 0) {
                 pos = 0;
             } else if (pos >= streams.size) {
@@ -2358,7 +2692,7 @@ public class GDXAudio implements AudioEngine {
                 filled = initBuffers( );
                 // Position is not there?  We are at end.
                 if (!filled) {
-                    stop();
+                    stopNow();
                     if (onCompletionListener != null) {
                         onCompletionListener.onCompletion( this );
                     }
@@ -2383,6 +2717,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized void reset() {
+            settle();
             for(AudioStream stream : streams) {
                 stream.reset();
             }
@@ -2404,6 +2739,7 @@ public class GDXAudio implements AudioEngine {
          */
         public synchronized void update(int sourceId) {
             if (sourceId != -1) {
+                stepFade();
                 boolean end = false;
                 int buffers = AL10.alGetSourcei( sourceId, AL10.AL_BUFFERS_PROCESSED );
                 while (buffers-- > 0) {
@@ -2421,14 +2757,8 @@ public class GDXAudio implements AudioEngine {
                     if (!end) {
                         if (fill( bufferId )) {
                             AL10.alSourceQueueBuffers( sourceId, bufferId );
-                            if (onTransitionListener != null) {
-                                if (arriving[offset] != null) {
-                                    if (leaving[offset] != null) {
-                                        onTransitionListener.onTransition( this, leaving[offset], arriving[offset] );
-                                    } else {
-                                        onTransitionListener.onLoopback( this, arriving[offset] );
-                                    }
-                                }
+                            if (arriving[offset] != null) {
+                                notifyTransition( leaving[offset], arriving[offset] );
                             }
                         } else {
                             end = true;
@@ -2439,16 +2769,13 @@ public class GDXAudio implements AudioEngine {
                 }
                 
                 if (end && AL10.alGetSourcei( sourceId, AL10.AL_BUFFERS_QUEUED ) == 0) {
-                    stop();
-                    if (onTransitionListener != null) {
-                        onTransitionListener.onCompletion( this, samples.get( samples.size - 1 ) );
-                    }
-                    if (onCompletionListener != null) {
-                        onCompletionListener.onCompletion( this );
-                    }
+                    AudioSource last = samples.get( samples.size - 1 );
+                    stopNow();
+                    notifyCompletion( last );
                 } else if (isPlaying && AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE ) != AL10.AL_PLAYING) {
                     if (!globalPause) {
                         // A buffer underflow will cause the source to stop.
+                        underruns.incrementAndGet();
                         AL10.alSourcePlay( sourceId );
                     }
                 }
@@ -2500,6 +2827,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public synchronized int read(byte[] buffer) {
+            settle();
             int length = 0;
             if (position >= 0 && position < streams.size) {
                 length = streams.get(position).read( tempBytes );
@@ -2543,9 +2871,161 @@ public class GDXAudio implements AudioEngine {
          * @return the OpenAL source owned by this buffer (or -1 for none)
          */
         public synchronized int getSourceId() {
+            settle();
             return sourceId;
         }
 
+        /**
+         * Queues a command for this buffer to the streaming thread.
+         *
+         * This method does not lock.  It returns false if the engine is not streaming,
+         * if it is called from the streaming thread, or if the queue is full.  In that
+         * case the caller must execute the command itself, after calling {@link #settle}.
+         *
+         * @param command   The command to queue
+         * @param value     The argument of the command
+         *
+         * @return whether the command was queued
+         */
+        private boolean post(int command, float value) {
+            return post( command, value, 0 );
+        }
+
+        /**
+         * Queues a command with two arguments for this buffer to the streaming thread.
+         *
+         * @param command   The command to queue
+         * @param value     The first argument of the command
+         * @param duration  The second argument of the command (a time in seconds)
+         *
+         * @return whether the command was queued
+         */
+        private boolean post(int command, float value, float duration) {
+            Streamer current = streamer;
+            if (current == null || Thread.currentThread() instanceof Streamer) {
+                return false;
+            }
+            pending.incrementAndGet();
+            if (!current.post( command, this, value, duration )) {
+                pending.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Waits for the streaming thread to execute the commands queued for this buffer.
+         *
+         * This must be called holding the lock of this buffer, which is released while
+         * waiting.  This method does nothing on the streaming thread.
+         */
+        private void settle() {
+            if (Thread.currentThread() instanceof Streamer) {
+                return;
+            }
+            Streamer current = streamer;
+            while (pending.get() > 0) {
+                if (current != null) {
+                    current.wake();
+                }
+                try {
+                    wait( 1 );
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Executes a command queued to the streaming thread.
+         *
+         * @param command   The command to execute
+         * @param value     The first argument of the command
+         * @param duration  The second argument of the command
+         */
+        private synchronized void execute(int command, float value, float duration) {
+            try {
+                switch (command) {
+                    case Streamer.PLAY:
+                        playNow();
+                        break;
+                    case Streamer.PAUSE:
+                        pauseNow();
+                        break;
+                    case Streamer.RESUME:
+                        resumeNow();
+                        break;
+                    case Streamer.STOP:
+                        stopNow();
+                        break;
+                    case Streamer.GAIN:
+                        volume = value;
+                        fadeLength = 0;
+                        setSourceGain( sourceId, value );
+                        break;
+                    case Streamer.FADE:
+                        fadeNow( value, duration );
+                        break;
+                }
+            } finally {
+                pending.decrementAndGet();
+                notifyAll();
+            }
+        }
+
+        /**
+         * Notifies the transition listener that a new source has started.
+         *
+         * On the streaming thread, the listener is invoked later from {@link GDXAudio#update}.
+         *
+         * @param leaving   The source that finished (null for a loop back)
+         * @param arriving  The source that started
+         */
+        private void notifyTransition(AudioSource leaving, AudioSource arriving) {
+            if (onTransitionListener == null || defer( Streamer.TRANSITION, leaving, arriving )) {
+                return;
+            }
+            if (leaving != null) {
+                onTransitionListener.onTransition( this, leaving, arriving );
+            } else {
+                onTransitionListener.onLoopback( this, arriving );
+            }
+        }
+
+        /**
+         * Notifies the listeners that this buffer has finished playing.
+         *
+         * On the streaming thread, the listeners are invoked later from {@link GDXAudio#update}.
+         *
+         * @param last  The last source played (null to only notify the completion listener)
+         */
+        private void notifyCompletion(AudioSource last) {
+            if (defer( Streamer.COMPLETION, last, null )) {
+                return;
+            }
+            if (last != null && onTransitionListener != null) {
+                onTransitionListener.onCompletion( this, last );
+            }
+            if (onCompletionListener != null) {
+                onCompletionListener.onCompletion( this );
+            }
+        }
+
+        /**
+         * Defers a listener event to the application thread, if on the streaming thread.
+         *
+         * @param event     The listener event
+         * @param first     The first source of the event
+         * @param second    The second source of the event
+         *
+         * @return whether the event was deferred
+         */
+        private boolean defer(int event, AudioSource first, AudioSource second) {
+            Thread current = Thread.currentThread();
+            return current instanceof Streamer && ((Streamer)current).defer( event, this, first, second );
+        }
+
         /**
          * Fills the given OpenAL buffer with as many bytes as possible.
          *
@@ -2561,6 +3041,7 @@ public class GDXAudio implements AudioEngine {
          * @param bufferID  The OpenAL buffer to fill
          */
         private boolean fill(int bufferID) {
+            long start = TimeUtils.nanoTime();
             tempBuffer.clear();
             int length = 0;
             if (orphaned != null) {
@@ -2610,6 +3091,7 @@ public class GDXAudio implements AudioEngine {
 
             tempBuffer.put( tempBytes, 0, length ).flip();
             AL10.alBufferData( bufferID, format, tempBuffer, sampleRate );
+            recordRefill( TimeUtils.nanoTime()-start );
             return true;
         }
 
@@ -2659,6 +3141,292 @@ public class GDXAudio implements AudioEngine {
         }
     }
 
+    // #mark -
+    // #mark Streaming Thread
+    /**
+     * This class is the thread that refills the music buffers when the engine is streaming.
+     *
+     * Every few milliseconds, or as soon as a command is queued, this thread executes the
+     * queued commands and then refills every music buffer that owns an OpenAL source.  Only
+     * this thread decodes music, other than seeking or jumping in a music buffer.
+     *
+     * Commands are queued by the application thread, and listener events are queued back
+     * to it, each in a single-producer single-consumer ring, so neither side ever locks to
+     * talk to the other.  Each music buffer is still locked while it is refilled or runs
+     * a command, which is only contended if the application calls it at the same time.
+     */
+    private class Streamer extends Thread {
+        /** The command to start playing a music buffer */
+        static final int PLAY = 0;
+        /** The command to pause a music buffer */
+        static final int PAUSE = 1;
+        /** The command to resume a music buffer */
+        static final int RESUME = 2;
+        /** The command to stop a music buffer */
+        static final int STOP = 3;
+        /** The command to set the gain of a music buffer */
+        static final int GAIN = 4;
+        /** The command to fade the gain of a music buffer */
+        static final int FADE = 5;
+        /** The event for a transition (or loop back) between sources */
+        static final int TRANSITION = 6;
+        /** The event for a music buffer finishing */
+        static final int COMPLETION = 7;
+
+        /** The longest time to sleep between refills, in nanoseconds */
+        private static final long REFILL_PERIOD = 5000000L;
+        /** The number of commands (and events) that may be queued at once */
+        private static final int QUEUE_CAPACITY = 256;
+
+        /** The commands queued by the application thread */
+        private final CommandQueue commands = new CommandQueue( QUEUE_CAPACITY );
+        /** The listener events queued for the application thread */
+        private final CommandQueue events = new CommandQueue( QUEUE_CAPACITY );
+        /** The music buffers to refill this pass */
+        private final MusicHandle[] streamed = new MusicHandle[buffers.length];
+        /** Whether this thread should keep running */
+        private volatile boolean running = true;
+
+        /**
+         * Creates a new streaming thread.
+         */
+        Streamer() {
+            super( "AudioStreamer" );
+            setDaemon( true );
+            setPriority( Thread.MAX_PRIORITY );
+        }
+
+        /**
+         * Executes queued commands and refills the music buffers until finished.
+         */
+        @Override
+        public void run() {
+            while (running) {
+                executeCommands();
+                refill();
+                LockSupport.parkNanos( this, REFILL_PERIOD );
+            }
+            executeCommands();
+        }
+
+        /**
+         * Stops this thread, once it has executed every queued command.
+         */
+        void finish() {
+            running = false;
+            wake();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Wakes this thread up early, to execute new commands.
+         */
+        void wake() {
+            LockSupport.unpark( this );
+        }
+
+        /**
+         * Queues a command for a music buffer.
+         *
+         * @param command   The command
+         * @param handle    The music buffer
+         * @param value     The first argument of the command
+         * @param duration  The second argument of the command
+         *
+         * @return whether the command was queued (false if the queue is full)
+         */
+        boolean post(int command, MusicHandle handle, float value, float duration) {
+            if (!commands.offer( command, handle, value, duration, null, null )) {
+                return false;
+            }
+            wake();
+            return true;
+        }
+
+        /**
+         * Queues a listener event for the application thread.
+         *
+         * @param event     The event
+         * @param handle    The music buffer
+         * @param first     The first source of the event
+         * @param second    The second source of the event
+         *
+         * @return whether the event was queued (false if the queue is full)
+         */
+        boolean defer(int event, MusicHandle handle, AudioSource first, AudioSource second) {
+            return events.offer( event, handle, 0, 0, first, second );
+        }
+
+        /**
+         * Invokes the listeners of every event queued for the application thread.
+         */
+        void dispatchEvents() {
+            while (!events.isEmpty()) {
+                int index = events.peek();
+                int event = events.commands[index];
+                MusicHandle handle = events.handles[index];
+                AudioSource first  = events.firsts[index];
+                AudioSource second = events.seconds[index];
+                events.pop();
+                if (event == TRANSITION) {
+                    handle.notifyTransition( first, second );
+                } else {
+                    handle.notifyCompletion( first );
+                }
+            }
+        }
+
+        /**
+         * Executes every command queued by the application thread.
+         */
+        private void executeCommands() {
+            while (!commands.isEmpty()) {
+                int index = commands.peek();
+                int command = commands.commands[index];
+                MusicHandle handle = commands.handles[index];
+                float value = commands.values[index];
+                float duration = commands.durations[index];
+                commands.pop();
+                try {
+                    handle.execute( command, value, duration );
+                } catch (Throwable t) {
+                    Gdx.app.error( "OpenAL", "Music command "+command+" failed", t );
+                }
+            }
+        }
+
+        /**
+         * Refills every music buffer that owns an OpenAL source.
+         */
+        private void refill() {
+            int count = 0;
+            synchronized (buffers) {
+                for (int ii = 0; ii < buffers.length; ii++) {
+                    if (buffers[ii] instanceof MusicHandle) {
+                        streamed[count++] = (MusicHandle)buffers[ii];
+                    }
+                }
+            }
+            for (int ii = 0; ii < count; ii++) {
+                try {
+                    streamed[ii].update();
+                } catch (Throwable t) {
+                    Gdx.app.error( "OpenAL", "Music refill failed", t );
+                }
+                streamed[ii] = null;
+            }
+        }
+    }
+
+    /**
+     * This class is a bounded, lock-free queue of commands for music buffers.
+     *
+     * Exactly one thread may offer to this queue and exactly one thread may peek and pop.
+     * The entries are stored in parallel arrays that are reused, so the queue does not
+     * allocate once created.
+     */
+    private static class CommandQueue {
+        /** The capacity minus one (the capacity is a power of two) */
+        private final int mask;
+        /** The command or event of each entry */
+        final int[] commands;
+        /** The music buffer of each entry */
+        final MusicHandle[] handles;
+        /** The float argument of each entry */
+        final float[] values;
+        /** The duration argument of each entry (for fades) */
+        final float[] durations;
+        /** The first source argument of each entry */
+        final AudioSource[] firsts;
+        /** The second source argument of each entry */
+        final AudioSource[] seconds;
+        /** The number of entries ever popped (written only by the consumer) */
+        private final AtomicLong head = new AtomicLong();
+        /** The number of entries ever offered (written only by the producer) */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * Creates a new, empty queue.
+         *
+         * @param capacity  The capacity of the queue, which must be a power of two
+         */
+        CommandQueue(int capacity) {
+            mask = capacity-1;
+            commands = new int[capacity];
+            handles = new MusicHandle[capacity];
+            values = new float[capacity];
+            durations = new float[capacity];
+            firsts = new AudioSource[capacity];
+            seconds = new AudioSource[capacity];
+        }
+
+        /**
+         * Adds an entry to the end of the queue, if there is room.
+         *
+         * @param command   The command or event
+         * @param handle    The music buffer
+         * @param value     The float argument
+         * @param duration  The duration argument
+         * @param first     The first source argument
+         * @param second    The second source argument
+         *
+         * @return whether the entry was added
+         */
+        boolean offer(int command, MusicHandle handle, float value, float duration, AudioSource first, AudioSource second) {
+            long next = tail.get();
+            if (next-head.get() > mask) {
+                return false;
+            }
+            int index = (int)(next & mask);
+            commands[index] = command;
+            handles[index] = handle;
+            values[index] = value;
+            durations[index] = duration;
+            firsts[index] = first;
+            seconds[index] = second;
+            tail.lazySet( next+1 );
+            return true;
+        }
+
+        /**
+         * Returns whether the queue is empty.
+         *
+         * @return whether the queue is empty.
+         */
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+
+        /**
+         * Returns the array index of the entry at the front of the queue.
+         *
+         * The queue must not be empty.
+         *
+         * @return the array index of the entry at the front of the queue.
+         */
+        int peek() {
+            return (int)(head.get() & mask);
+        }
+
+        /**
+         * Removes the entry at the front of the queue.
+         *
+         * The queue must not be empty.
+         */
+        void pop() {
+            long first = head.get();
+            int index = (int)(first & mask);
+            handles[index] = null;
+            firsts[index] = null;
+            seconds[index] = null;
+            head.lazySet( first+1 );
+        }
+    }
+
     // #mark -
     // #mark Audio Device
     /** 
@@ -12,10 +12,14 @@ package edu.cornell.gdiac.backend.audio;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.StreamUtils;
 import edu.cornell.gdiac.audio.*;
 import javazoom.jl.decoder.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -23,8 +27,33 @@ import java.nio.ByteOrder;
  * This class is an implementation of {@link AudioSource} for MP3 files.
  *
  * MP3 files may be streamed or loaded into memory. 
+ *
+ * Streams seek with a {@link SeekIndex} of the frames in the file, built on the first
+ * decode and cached on disk.  A frame may borrow data from the frames before it (its
+ * bit reservoir), so a seek starts a little before the frame holding the position and
+ * decodes the frames in between without keeping their audio.
  */
 public class Mp3Source implements AudioSource {
+    /** The bitrates (kbps) of MPEG-1 frames, for layers I, II and III */
+    private static final int[][] MPEG1_BITRATES = {
+        {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+        {0, 32, 48, 56,  64,  80,  96, 112, 128, 160, 192, 224, 256, 320, 384},
+        {0, 32, 40, 48,  56,  64,  80,  96, 112, 128, 160, 192, 224, 256, 320}
+    };
+    /** The bitrates (kbps) of MPEG-2 and 2.5 frames, for layer I and layers II and III */
+    private static final int[][] MPEG2_BITRATES = {
+        {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+        {0,  8, 16, 24, 32, 40, 48,  56,  64,  80,  96, 112, 128, 144, 160}
+    };
+    /** The sample rates by version bits (MPEG-2.5, reserved, MPEG-2, MPEG-1) */
+    private static final int[][] SAMPLE_RATES = {
+        {11025, 12000, 8000}, null, {22050, 24000, 16000}, {44100, 48000, 32000}
+    };
+    /** The most bytes before a frame that its audio data may start (with a header) */
+    private static final int RESERVOIR_SIZE = 548;
+    /** The number of frames to decode in full before the frame holding a seek position */
+    private static final int SEEK_PRIMING = 2;
+
     /** The source file */
     protected FileHandle source;
     /** The number of channels (1 for mono, 2 for stereo) */
@@ -35,6 +64,8 @@ public class Mp3Source implements AudioSource {
     protected float duration;
     /** The length of the MP3 asset in bytes */
     protected long byteSize;
+    /** The seek points of the frames in the file (null if the file could not be indexed) */
+    protected SeekIndex index;
 
     /** 
      * Creates an MP3 source from the given file.
@@ -51,13 +82,23 @@ public class Mp3Source implements AudioSource {
     /**
      * Initializes the audio source with header information.
      *
-     * This requires an initial scan of the file
+     * This requires an initial scan of the file, unless its seek index is cached.
      *
      * @throws GdxRuntimeException if the asset could not be initialized
      */
     private void init() {
+        index = SeekIndex.load( source );
+        if (index != null) {
+            channels = index.getChannels();
+            sampleRate = index.getSampleRate();
+            byteSize = index.getByteSize();
+            duration = (byteSize / (2 * channels)) / (float)sampleRate;
+            return;
+        }
+
         Bitstream bitstream = new Bitstream(source.read());
         MP3Decoder decoder = new MP3Decoder();
+        LongArray positions = new LongArray();
 
         try {
             OutputBuffer outputBuffer = null;
@@ -78,6 +119,7 @@ public class Mp3Source implements AudioSource {
                     // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
                 }
                 bitstream.closeFrame();
+                positions.add( byteSize );
                 byteSize += outputBuffer.reset();
             }
             bitstream.closeFrame();
@@ -86,6 +128,82 @@ public class Mp3Source implements AudioSource {
         } catch (Throwable ex) {
             throw new GdxRuntimeException("Error reading audio data.", ex);
         }
+
+        LongArray offsets = scanFrames();
+        if (offsets.size == positions.size) {
+            index = new SeekIndex( channels, sampleRate );
+            index.setByteSize( byteSize );
+            for (int ii = 0; ii < offsets.size; ii++) {
+                index.add( offsets.get( ii ), positions.get( ii ) );
+            }
+            index.save( source );
+        }
+    }
+
+    /**
+     * Returns the byte offset of each frame in the file.
+     *
+     * This reads only the frame headers, skipping any ID3v2 tag at the start.  Bytes that
+     * are not a valid frame header are skipped one at a time, as the decoder does.  If the
+     * frames found do not match the frames decoded, the file is not indexed.
+     *
+     * @return the byte offset of each frame in the file.
+     */
+    private LongArray scanFrames() {
+        LongArray result = new LongArray();
+        byte[] data = source.readBytes();
+        int offset = 0;
+        if (data.length >= 10 && data[0] == 'I' && data[1] == 'D' && data[2] == '3') {
+            offset = 10 + ((data[6] & 0x7F) << 21 | (data[7] & 0x7F) << 14 | (data[8] & 0x7F) << 7 | (data[9] & 0x7F));
+            if ((data[5] & 0x10) != 0) {
+                offset += 10;
+            }
+        }
+        while (offset+4 <= data.length) {
+            int length = frameLength( data, offset );
+            if (length <= 0) {
+                offset++;
+            } else {
+                result.add( offset );
+                offset += length;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length in bytes of the frame at the given offset, or 0 if it is not one.
+     *
+     * Free format frames (with no bitrate) are not supported.
+     *
+     * @param data      The contents of the file
+     * @param offset    The offset of the frame header
+     *
+     * @return the length in bytes of the frame at the given offset, or 0 if it is not one.
+     */
+    private static int frameLength(byte[] data, int offset) {
+        int header = (data[offset] & 0xFF) << 24 | (data[offset+1] & 0xFF) << 16 |
+                     (data[offset+2] & 0xFF) << 8 | (data[offset+3] & 0xFF);
+        if ((header & 0xFFE00000) != 0xFFE00000) {
+            return 0;
+        }
+        int version = (header >>> 19) & 3;
+        int layer   = (header >>> 17) & 3;
+        int bitrate = (header >>> 12) & 15;
+        int rate    = (header >>> 10) & 3;
+        int padding = (header >>>  9) & 1;
+        if (version == 1 || layer == 0 || bitrate == 0 || bitrate == 15 || rate == 3) {
+            return 0;
+        }
+
+        int frequency = SAMPLE_RATES[version][rate];
+        if (layer == 3) {
+            int kbps = (version == 3 ? MPEG1_BITRATES[0] : MPEG2_BITRATES[0])[bitrate];
+            return (12000 * kbps / frequency + padding) * 4;
+        }
+        int kbps = version == 3 ? MPEG1_BITRATES[3-layer][bitrate] : MPEG2_BITRATES[1][bitrate];
+        int factor = (layer == 1 && version != 3) ? 72000 : 144000;
+        return factor * kbps / frequency + padding;
     }
     
     /**
@@ -98,6 +216,7 @@ public class Mp3Source implements AudioSource {
         sampleRate = 0;
         duration = 0;
         byteSize = 0;
+        index = null;
     }
     
     /**
@@ -244,6 +363,8 @@ public class Mp3Source implements AudioSource {
         private MP3Decoder decoder;
         /** An output buffer to pull from the decoder */
         private OutputBuffer outputBuffer;
+        /** Whether the decoder has yet to be given an output buffer */
+        private boolean fresh;
         /** The current byte position in the stream */
         private long byteOffs;
         /** A byte array for grabbing data for sample queries */
@@ -358,41 +479,85 @@ public class Mp3Source implements AudioSource {
         @Override
         public int read (byte[] buffer) {
             try {
-                boolean setup = bitstream == null;
-                if (setup) {
-                    bitstream = new Bitstream(source.read());
-                    decoder = new MP3Decoder();
-                }
-                
-                int totalLength = 0;
-                int minRequiredLength = buffer.length - OutputBuffer.BUFFERSIZE * 2;
-                while (totalLength <= minRequiredLength) {
-                    Header header = bitstream.readFrame();
-                    if (header == null) break;
-                    if (setup) {
-                        int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
-                        outputBuffer = new OutputBuffer(channels, false);
-                        decoder.setOutputBuffer(outputBuffer);
-                        setup = false;
-                    }
-                    try {
-                        decoder.decodeFrame(header, bitstream);
-                    } catch (Exception ignored) {
-                        // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
-                    }
-                    bitstream.closeFrame();
-                    
-                    int length = outputBuffer.reset();
-                    System.arraycopy(outputBuffer.getBuffer(), 0, buffer, totalLength, length);
-                    totalLength += length;
-                    byteOffs += length;
+                if (bitstream == null) {
+                    open( 0 );
                 }
-                return totalLength;
+                return fill( buffer, 0 );
             } catch (Throwable ex) {
                 reset();
                 throw new GdxRuntimeException("Error reading audio data.", ex);
             }
         }
+
+        /**
+         * Decodes whole frames into the given buffer, starting at the given offset.
+         *
+         * This stops when another frame might not fit in the buffer.
+         *
+         * @param buffer    The buffer store the audio data
+         * @param offset    The offset in the buffer to start at
+         *
+         * @return the number of bytes read
+         */
+        private int fill(byte[] buffer, int offset) throws BitstreamException {
+            int totalLength = offset;
+            int minRequiredLength = buffer.length - OutputBuffer.BUFFERSIZE * 2;
+            while (totalLength <= minRequiredLength) {
+                int length = decodeFrame();
+                if (length < 0) break;
+                System.arraycopy(outputBuffer.getBuffer(), 0, buffer, totalLength, length);
+                totalLength += length;
+                byteOffs += length;
+            }
+            return totalLength-offset;
+        }
+
+        /**
+         * Decodes the next frame into the output buffer.
+         *
+         * @return the number of bytes decoded, or -1 at the end of the file
+         */
+        private int decodeFrame() throws BitstreamException {
+            Header header = bitstream.readFrame();
+            if (header == null) return -1;
+            if (fresh) {
+                int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+                outputBuffer = new OutputBuffer(channels, false);
+                decoder.setOutputBuffer(outputBuffer);
+                fresh = false;
+            }
+            try {
+                decoder.decodeFrame(header, bitstream);
+            } catch (Exception ignored) {
+                // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
+            }
+            bitstream.closeFrame();
+            return outputBuffer.reset();
+        }
+
+        /**
+         * Opens the file at the given byte offset, with a new decoder.
+         *
+         * @param offset    The byte offset of a frame (or the start of the file)
+         */
+        private void open(long offset) {
+            InputStream stream = source.read();
+            try {
+                while (offset > 0) {
+                    long skipped = stream.skip( offset );
+                    if (skipped <= 0) {
+                        throw new IOException( "Seek past the end of "+source.path() );
+                    }
+                    offset -= skipped;
+                }
+            } catch (IOException e) {
+                StreamUtils.closeQuietly( stream );
+                throw new GdxRuntimeException( "Error seeking in MP3 stream.", e );
+            }
+            bitstream = new Bitstream(stream);
+            decoder = new MP3Decoder();
+            fresh = true;
+        }
         
         /**
          * Reads the next page of audio samples into the given buffer.
@@ -487,59 +652,70 @@ public class Mp3Source implements AudioSource {
          */
         @Override
         public int seek(long pos, byte[] buffer) {
-            if (pos <= 0 || buffer.length <= 1) {
+            if (pos < 0 || buffer.length <= 1) {
                 throw new IllegalArgumentException( "Illegal seek parameters" );
             }
-            byte[] temp = new byte[buffer.length/2];
-            if (pos < byteOffs) {
-                reset();
-            }
             
             try {
-                boolean setup = bitstream == null;
-                if (setup) {
-                    bitstream = new Bitstream(source.read());
-                    decoder = new MP3Decoder();
+                if (bitstream == null || pos < byteOffs ||
+                    (index != null && index.find( pos )-SEEK_PRIMING > index.find( byteOffs ))) {
+                    jump( pos );
                 }
-                
-                int chunk = 1;
-                while (chunk > 0 && byteOffs < pos) {
-                    Header header = bitstream.readFrame();
-                    if (header == null) break;
-                    if (setup) {
-                        int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
-                        outputBuffer = new OutputBuffer(channels, false);
-                        decoder.setOutputBuffer(outputBuffer);
-                        setup = false;
-                    }
-                    try {
-                        decoder.decodeFrame(header, bitstream);
-                    } catch (Exception ignored) {
-                        // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
+
+                int length = 0;
+                while (byteOffs < pos) {
+                    length = decodeFrame();
+                    if (length < 0) {
+                        reset();
+                        return 0;
                     }
-                    bitstream.closeFrame();
-                    chunk = outputBuffer.reset();
-                    byteOffs += chunk;
-                }
-                
-                if (byteOffs < pos) {
-                    reset();
-                    return 0;
+                    byteOffs += length;
                 }
                 
-                System.arraycopy(outputBuffer.getBuffer(), 0, temp, 0, chunk);
                 int mark = (int)(byteOffs-pos);
-                System.arraycopy( temp, mark, buffer,0,chunk-mark );
-                mark = chunk-mark;
-                chunk = read( temp );
-                System.arraycopy( temp,0, buffer, mark, chunk );
-                
-                return chunk+mark;
+                int rest = Math.min( mark, buffer.length );
+                System.arraycopy( outputBuffer.getBuffer(), length-mark, buffer, 0, rest );
+                return rest+fill( buffer, rest );
             } catch (Throwable ex) {
                 reset();
                 throw new GdxRuntimeException("Error reading audio data.", ex);
             }
         }
+
+        /**
+         * Opens the file at a frame at or before the given byte position.
+         *
+         * The frame is far enough back that the {@link #SEEK_PRIMING} frames before the
+         * one holding the position have all their data.  Those frames are decoded, but
+         * their audio is dropped.  Without a seek index, or for a position in the first
+         * frames, this opens the file at the start.
+         *
+         * @param pos   The byte position to move before
+         */
+        private void jump(long pos) throws BitstreamException {
+            reset();
+            byteOffs = 0;
+            int target = index == null ? -1 : index.find( pos );
+            int frame = target-SEEK_PRIMING;
+            if (frame > 0) {
+                long limit = index.getOffset( frame )-RESERVOIR_SIZE;
+                while (frame > 0 && index.getOffset( frame ) > limit) {
+                    frame--;
+                }
+            }
+            if (frame <= 0) {
+                open( 0 );
+                return;
+            }
+
+            open( index.getOffset( frame ) );
+            for (int ii = frame; ii < target; ii++) {
+                if (decodeFrame() < 0) {
+                    break;
+                }
+            }
+            byteOffs = index.getPosition( target );
+        }
         
         /**
          * Seeks to the given audio sample, reading the results into the provided buffer
@@ -20,7 +20,8 @@
  * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
-// WMW2: This class is unmodified from com.badlogic.gdx.backends.lwjgl.audio;
+// WMW2: This class is unmodified from com.badlogic.gdx.backends.lwjgl.audio, except for
+// the page tracking and seeking (see seekPage) used by OggSource.
 
 package edu.cornell.gdiac.backend.audio;
 
@@ -94,6 +95,17 @@ public class OggInputStream extends InputStream {
     /** The total number of bytes */
     private int total;
 
+    /** The number of bytes read from the input stream */
+    private long consumed;
+    /** The byte offset in the file just past the last page read */
+    private long pageEnd;
+    /** The number of bytes decoded since the start of the file (or the last seek) */
+    private long produced;
+    /** True if data was skipped to find a page, so page offsets are no longer known */
+    private boolean lostSync;
+    /** A seek index to add each page to as it is read (may be null) */
+    private SeekIndex index;
+
     /** Create a new stream to decode OGG data
      *
      * @param input The input stream from which to read the OGG file */
@@ -181,6 +193,7 @@ public class OggInputStream extends InputStream {
         } catch (Exception e) {
             throw new GdxRuntimeException("Failure reading Vorbis.", e);
         }
+        if (bytes > 0) consumed += bytes;
         syncState.wrote(bytes);
 
         // Get the first page.
@@ -191,6 +204,7 @@ public class OggInputStream extends InputStream {
             // error case. Must not be Vorbis data
             throw new GdxRuntimeException("Input does not appear to be an Ogg bitstream.");
         }
+        trackPage();
 
         // Get the serial number and set up the rest of decode.
         // serialno first; use it to set up a logical stream
@@ -240,6 +254,7 @@ public class OggInputStream extends InputStream {
                 // catch it at the packet output phase
 
                 if (result == 1) {
+                    trackPage();
                     streamState.pagein(page); // we can ignore any errors here
                     // as they'll also become apparent
                     // at packetout
@@ -266,6 +281,7 @@ public class OggInputStream extends InputStream {
             } catch (Exception e) {
                 throw new GdxRuntimeException("Failed to read Vorbis.", e);
             }
+            if (bytes > 0) consumed += bytes;
             if (bytes == 0 && i < 2) {
                 throw new GdxRuntimeException("End of file before finding all Vorbis headers.");
             }
@@ -317,7 +333,9 @@ public class OggInputStream extends InputStream {
                     if (result == -1) { // missing or corrupt data at this page position
                         // throw new GdxRuntimeException("Corrupt or missing data in bitstream.");
                         Gdx.app.log("gdx-audio", "Error reading OGG: Corrupt or missing data in bitstream.");
+                        lostSync = true;
                     } else {
+                        trackPage();
                         streamState.pagein(page); // can safely ignore errors at
                         // this point
                         while (true) {
@@ -378,6 +396,7 @@ public class OggInputStream extends InputStream {
                                     } else {
                                         System.arraycopy(convbuffer, 0, outBuffer, outIndex, bytesToWrite);
                                         outIndex += bytesToWrite;
+                                        produced += bytesToWrite;
                                     }
 
                                     wrote = true;
@@ -407,6 +426,7 @@ public class OggInputStream extends InputStream {
                         } catch (Exception e) {
                             throw new GdxRuntimeException("Error during Vorbis decoding.", e);
                         }
+                        if (bytes > 0) consumed += bytes;
                     } else {
                         bytes = 0;
                     }
@@ -470,6 +490,68 @@ public class OggInputStream extends InputStream {
         return read(b, 0, b.length);
     }
 
+    /** Records the page just read, adding it to the seek index if there is one */
+    private void trackPage () {
+        if (index != null && !lostSync) index.add(pageEnd, produced);
+        pageEnd += page.header_len + page.body_len;
+    }
+
+    /** Sets a seek index to add each page read from now on to.
+     *
+     * Each page is added with its byte offset in the file and the byte position in the
+     * decoded audio where the audio of its packets starts. This is only correct for a
+     * stream read in full from the start of the file.
+     *
+     * @param index The seek index to add pages to, or null to stop */
+    public void setIndex (SeekIndex index) {
+        this.index = index;
+    }
+
+    /** Get whether data was skipped to find a page
+     *
+     * If so, the pages added to the seek index since are not correct.
+     *
+     * @return True if data was skipped to find a page */
+    public boolean hasLostSync () {
+        return lostSync;
+    }
+
+    /** Moves this stream to the OGG page at the given entry of a seek index.
+     *
+     * This may only be called on a stream that has read its headers and nothing else.
+     * Decoding restarts at the page, as if the stream began there. A Vorbis packet only
+     * yields the audio that overlaps the packet before it, so the audio of the first
+     * page is lost, but once a page yields audio, that audio ends where the next page in
+     * the index starts. That tells where the buffered audio starts.
+     *
+     * @param index The seek index of the file
+     * @param entry The page to move to
+     * @return the byte position in the decoded audio of the next byte read, or -1 if the page is not after the headers */
+    public long seekPage (SeekIndex index, int entry) {
+        long offset = index.getOffset(entry);
+        if (offset < consumed || readIndex != 0 || outIndex != 0) return -1;
+        try {
+            long skip = offset - consumed;
+            while (skip > 0) {
+                long skipped = input.skip(skip);
+                if (skipped <= 0) return -1;
+                skip -= skipped;
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error seeking in Vorbis stream.", e);
+        }
+        consumed = offset;
+        pageEnd = offset;
+        produced = 0;
+        syncState.reset();
+        streamState.reset();
+
+        readPCM();
+        int next = index.findOffset(pageEnd);
+        if (next == -1 || outIndex == 0 || lostSync) return -1;
+        return index.getPosition(next) - outIndex;
+    }
+
     public void close () {
         StreamUtils.closeQuietly(input);
     }
@@ -23,8 +23,17 @@ import java.nio.*;
  *
  * OGG files may be streamed or loaded into memory. While the OGG format supports 
  * more than 2 channels, LibGDX only supports mono and stereo.
+ *
+ * Streams seek with a {@link SeekIndex} of the pages in the file, built on the first
+ * decode and cached on disk.  A seek jumps to the page before the one holding the
+ * position and decodes from there, so it costs a page or two of decoding at most.
  */
 public class OggSource implements AudioSource {
+    /** The number of pages to start before the page holding a seek position */
+    private static final int SEEK_PRIMING = 1;
+    /** The size of the buffer for decoding up to a seek position */
+    private static final int SKIP_SIZE = 4096;
+
     /** The source file */
     protected FileHandle source;
     /** The number of channels (1 for mono, 2 for stereo) */
@@ -38,6 +47,8 @@ public class OggSource implements AudioSource {
 
     /** An initial OGG input stream for header data */
     protected OggInputStream input;
+    /** The seek points of the pages in the file (null if the file could not be indexed) */
+    protected SeekIndex index;
 
     /** 
      * Creates an OGG source from the given file.
@@ -54,15 +65,27 @@ public class OggSource implements AudioSource {
     /**
      * Initializes the audio source with header information.
      *
-     * This requires an initial scan of the file
+     * This requires an initial scan of the file, unless its seek index is cached.
      *
      * @throws GdxRuntimeException if the asset could not be initialized
      */
     private void init() {
+        index = SeekIndex.load( source );
+        if (index != null) {
+            channels = index.getChannels();
+            sampleRate = index.getSampleRate();
+            byteSize = index.getByteSize();
+            duration = (byteSize / (2 * channels)) / (float)sampleRate;
+            return;
+        }
+
+        SeekIndex pages = null;
         try {
             input = new OggInputStream( source.read() );
             channels = input.getChannels();
             sampleRate = input.getSampleRate();
+            pages = new SeekIndex( channels, sampleRate );
+            input.setIndex( pages );
             byte[] buffer = new byte[2048];
             byteSize = 0;
             int length = 0;
@@ -75,9 +98,18 @@ public class OggSource implements AudioSource {
             byteSize -= (byteSize % (channels > 1 ? 4 : 2));
             long samples = byteSize / (2 * channels);
             duration = samples / (float)sampleRate;
+            if (input.hasLostSync()) {
+                pages = null;
+            }
         } finally {
             StreamUtils.closeQuietly(input);
         }
+
+        if (pages != null) {
+            pages.setByteSize( byteSize );
+            pages.save( source );
+            index = pages;
+        }
     }
 
     /**
@@ -90,6 +122,7 @@ public class OggSource implements AudioSource {
         sampleRate = 0;
         duration = 0;
         byteSize = 0;
+        index = null;
     }
     
     /**
@@ -225,6 +258,8 @@ public class OggSource implements AudioSource {
         private long byteOffs;
         /** A byte array for grabbing data for sample queries */
         private byte[] tempBytes;
+        /** A byte array for decoding past the audio before a seek position */
+        private byte[] skipBytes;
         
         /**
          * Creates a new OGG stream
@@ -426,39 +461,66 @@ public class OggSource implements AudioSource {
          */
         @Override
         public int seek(long pos, byte[] buffer) {
-            if (pos <= 0 || buffer.length <= 1) {
+            if (pos < 0 || buffer.length <= 1) {
                 throw new IllegalArgumentException( "Illegal seek parameters" );
             }
-            byte[] temp = new byte[buffer.length/2];
-
-            if (pos < byteOffs) {
-                StreamUtils.closeQuietly( input );
-                input = new OggInputStream( source.read(), input );
-                byteOffs = 0;
-            }
-            if (input == null) {
-                input = new OggInputStream(source.read(), previous);
-                previous = null; // release this reference
+            if (input == null || pos < byteOffs ||
+                (index != null && index.find( pos )-SEEK_PRIMING > index.find( byteOffs ))) {
+                jump( pos );
             }
 
-            int chunk = 1;
-            while (chunk > 0 && byteOffs < pos) {
-                chunk = input.read(temp,0,temp.length);
+            if (skipBytes == null) {
+                skipBytes = new byte[SKIP_SIZE];
+            }
+            while (byteOffs < pos) {
+                int chunk = input.read( skipBytes, 0, (int)Math.min( skipBytes.length, pos-byteOffs ) );
+                if (chunk <= 0) {
+                    reset();
+                    return 0;
+                }
                 byteOffs += chunk;
             }
-            
-            if (byteOffs < pos) {
+
+            int length = input.read( buffer, 0, buffer.length );
+            if (length <= 0) {
                 reset();
                 return 0;
             }
-            
-            int mark = (int)(byteOffs-pos);
-            System.arraycopy( temp, mark, buffer,0,chunk-mark );
-            mark = chunk-mark;
-            chunk = input.read( temp,0, temp.length );
-            System.arraycopy( temp,0, buffer, mark, chunk );
+            byteOffs += length;
+            return length;
+        }
 
-            return chunk+mark;
+        /**
+         * Moves the input to a page at or before the given byte position.
+         *
+         * This starts {@link #SEEK_PRIMING} pages before the page holding the position, as
+         * the first packet decoded after a jump only primes the decoder.  If that is still
+         * too late, it backs up a page at a time.  Without a seek index, or for a position
+         * in the first pages, this rewinds to the start of the file.
+         *
+         * @param pos   The byte position to move before
+         */
+        private void jump(long pos) {
+            OggInputStream reuse = input != null ? input : previous;
+            StreamUtils.closeQuietly( input );
+            previous = null;
+            if (index != null) {
+                for (int page = index.find( pos )-SEEK_PRIMING; page > 0; page--) {
+                    input = new OggInputStream( source.read(), reuse );
+                    long start = input.seekPage( index, page );
+                    if (start >= 0 && start <= pos) {
+                        byteOffs = start;
+                        return;
+                    }
+                    reuse = input;
+                    StreamUtils.closeQuietly( input );
+                    if (start < 0) {
+                        break;
+                    }
+                }
+            }
+            input = new OggInputStream( source.read(), reuse );
+            byteOffs = 0;
         }
         
         /**
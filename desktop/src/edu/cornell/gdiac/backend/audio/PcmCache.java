@@ -0,0 +1,167 @@
+/*
+ * PcmCache.java
+ *
+ * This is a cache of decoded audio, so that an audio file is only decoded once no matter
+ * how many sound buffers are made from it.  Decoding an MP3 or OGG file in full is the
+ * most expensive part of creating a sound buffer.
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import edu.cornell.gdiac.audio.AudioSource;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches the decoded PCM data of audio sources, up to a budget in bytes.
+ *
+ * Data is cached by the path of the source file.  When the cache is over budget, the
+ * least recently used data is evicted until it is not (the data just added is never
+ * evicted, so a single file larger than the budget is still returned).  Evicted data is
+ * simply decoded again the next time it is asked for.
+ *
+ * This class is thread safe, as sound buffers are created on the asset loading thread.
+ * Decoding happens outside of the lock, so a slow decode does not block other callers.
+ */
+public class PcmCache {
+    /** The decoded data by the path of its file, in least recently used order */
+    private LinkedHashMap<String, ByteBuffer> entries;
+    /** The number of bytes of decoded data in the cache */
+    private long size;
+    /** The most bytes of decoded data to keep */
+    private long budget;
+    /** The number of requests answered from the cache */
+    private long hits;
+    /** The number of requests that had to decode */
+    private long misses;
+
+    /**
+     * Creates an empty cache with the given budget.
+     *
+     * @param budget    The most bytes of decoded data to keep
+     */
+    public PcmCache(long budget) {
+        this.budget = budget;
+        entries = new LinkedHashMap<String, ByteBuffer>( 16, 0.75f, true );
+    }
+
+    /**
+     * Returns the decoded data of an audio source, decoding it if it is not cached.
+     *
+     * The buffer returned is a duplicate, so its position and limit may be changed
+     * freely.  The contents must not be changed, as they are shared.
+     *
+     * @param source    The audio source
+     *
+     * @return the decoded data of the audio source
+     */
+    public ByteBuffer get(AudioSource source) {
+        String key = source.getFile().path();
+        synchronized (this) {
+            ByteBuffer data = entries.get( key );
+            if (data != null) {
+                hits++;
+                return share( data );
+            }
+            misses++;
+        }
+
+        ByteBuffer data = source.getData();
+        synchronized (this) {
+            ByteBuffer other = entries.get( key );
+            if (other != null) {
+                // Another thread decoded it first
+                return share( other );
+            }
+            entries.put( key, data );
+            size += data.capacity();
+            trim( key );
+        }
+        return share( data );
+    }
+
+    /**
+     * Returns the number of requests answered from the cache.
+     *
+     * @return the number of requests answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that had to decode.
+     *
+     * @return the number of requests that had to decode.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of bytes of decoded data in the cache.
+     *
+     * @return the number of bytes of decoded data in the cache.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the most bytes of decoded data to keep.
+     *
+     * @return the most bytes of decoded data to keep.
+     */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the most bytes of decoded data to keep, evicting data if necessary.
+     *
+     * @param budget    The most bytes of decoded data to keep
+     */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        trim( null );
+    }
+
+    /**
+     * Removes all decoded data from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns a duplicate of decoded data for a caller.
+     *
+     * A duplicate does not keep the byte order, which OpenAL depends on.
+     *
+     * @param data  The decoded data
+     *
+     * @return a duplicate of decoded data for a caller.
+     */
+    private static ByteBuffer share(ByteBuffer data) {
+        return data.duplicate().order( data.order() );
+    }
+
+    /**
+     * Evicts the least recently used data until the cache is within budget.
+     *
+     * @param keep  The path of data that must not be evicted (or null)
+     */
+    private void trim(String keep) {
+        Iterator<Map.Entry<String, ByteBuffer>> iterator = entries.entrySet().iterator();
+        while (size > budget && iterator.hasNext()) {
+            Map.Entry<String, ByteBuffer> entry = iterator.next();
+            if (!entry.getKey().equals( keep )) {
+                size -= entry.getValue().capacity();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * SeekIndex.java
+ *
+ * This is a table of seek points for a compressed audio file, so that a stream can jump
+ * close to a position and decode only a little audio, instead of decoding everything
+ * before it.  The table is built on the first scan of the file and cached on disk.
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a sorted table of seek points in a compressed audio file.
+ *
+ * Each seek point is the byte offset of a page (OGG) or frame (MP3) in the file, paired
+ * with the position in the decoded audio, in bytes, at which that page or frame starts.
+ * The positions are counted while decoding the whole file, rather than worked out from
+ * the timestamps in the file, as encoders do not always stamp them exactly.  The table
+ * also keeps the header information of the source, so that a source with a cached table
+ * does not have to scan the file at all.
+ *
+ * Tables are cached in the external cache folder, keyed by the path of the source file.
+ * A cached table is only used if the file still has the same length and modification time,
+ * as a re-encoded file (such as a constant bitrate MP3) may keep its length.  Failing to read or
+ * write the cache is never an error, as the table can always be built again.
+ */
+public class SeekIndex {
+    /** The magic number at the start of a cached table ("SEEK") */
+    private static final int MAGIC = 0x5345454B;
+    /** The version of the cache format, to be bumped when it changes */
+    private static final int VERSION = 2;
+    /** The folder (in external storage) for the cached tables */
+    public static final String CACHE_FOLDER = "octoplasmCache/seek/";
+    /** The extension of a cached table */
+    public static final String EXTENSION = ".idx";
+
+    /** The number of channels of the source */
+    private int channels;
+    /** The sample rate of the source */
+    private int sampleRate;
+    /** The length of the decoded source in bytes */
+    private long byteSize;
+    /** The byte offset of each seek point in the file */
+    private long[] offsets;
+    /** The byte position of each seek point in the decoded audio */
+    private long[] positions;
+    /** The number of seek points */
+    private int size;
+
+    /**
+     * Creates an empty table for a source with the given format.
+     *
+     * @param channels      The number of channels of the source
+     * @param sampleRate    The sample rate of the source
+     */
+    public SeekIndex(int channels, int sampleRate) {
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        offsets = new long[256];
+        positions = new long[256];
+    }
+
+    /**
+     * Returns the number of channels of the source.
+     *
+     * @return the number of channels of the source.
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Returns the sample rate of the source.
+     *
+     * @return the sample rate of the source.
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Returns the length of the decoded source in bytes.
+     *
+     * @return the length of the decoded source in bytes.
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    /**
+     * Sets the length of the decoded source in bytes.
+     *
+     * @param byteSize  The length of the decoded source in bytes
+     */
+    public void setByteSize(long byteSize) {
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Returns the number of seek points in this table.
+     *
+     * @return the number of seek points in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the byte offset in the file of the given seek point.
+     *
+     * @param index The seek point
+     *
+     * @return the byte offset in the file of the given seek point.
+     */
+    public long getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Returns the byte position in the decoded audio of the given seek point.
+     *
+     * @param index The seek point
+     *
+     * @return the byte position in the decoded audio of the given seek point.
+     */
+    public long getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Appends a seek point to this table.
+     *
+     * Seek points must be added in file order, and their positions may not decrease.
+     *
+     * @param offset    The byte offset of the page or frame in the file
+     * @param position  The byte position in the decoded audio where it starts
+     */
+    public void add(long offset, long position) {
+        if (size == offsets.length) {
+            long[] temp = new long[2*size];
+            System.arraycopy( offsets, 0, temp, 0, size );
+            offsets = temp;
+            temp = new long[2*size];
+            System.arraycopy( positions, 0, temp, 0, size );
+            positions = temp;
+        }
+        offsets[size] = offset;
+        positions[size] = position;
+        size++;
+    }
+
+    /**
+     * Returns the last seek point at or before the given position, or -1 if there is none.
+     *
+     * This is a binary search.  Of several seek points with the same position (such as
+     * pages that end no packet), the last one is returned.
+     *
+     * @param position  The byte position in the decoded audio
+     *
+     * @return the last seek point at or before the given position, or -1 if there is none.
+     */
+    public int find(long position) {
+        int low = 0;
+        int high = size-1;
+        while (low <= high) {
+            int mid = (low+high) >>> 1;
+            if (positions[mid] <= position) {
+                low = mid+1;
+            } else {
+                high = mid-1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the seek point at the given byte offset in the file, or -1 if there is none.
+     *
+     * This is a binary search.
+     *
+     * @param offset    The byte offset in the file
+     *
+     * @return the seek point at the given byte offset in the file, or -1 if there is none.
+     */
+    public int findOffset(long offset) {
+        int low = 0;
+        int high = size-1;
+        while (low <= high) {
+            int mid = (low+high) >>> 1;
+            if (offsets[mid] < offset) {
+                low = mid+1;
+            } else if (offsets[mid] > offset) {
+                high = mid-1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // #mark -
+    // #mark Caching
+    /**
+     * Returns the cached table for the given source, or null if there is no valid one.
+     *
+     * @param source    The source file
+     *
+     * @return the cached table for the given source, or null if there is no valid one.
+     */
+    public static SeekIndex load(FileHandle source) {
+        FileHandle file = getCacheFile( source );
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap( file.readBytes() );
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != source.length()
+                    || buffer.getLong() != source.lastModified()) {
+                return null;
+            }
+            SeekIndex index = new SeekIndex( buffer.getInt(), buffer.getInt() );
+            index.byteSize = buffer.getLong();
+            int size = buffer.getInt();
+            index.offsets = new long[Math.max( size, 1 )];
+            index.positions = new long[Math.max( size, 1 )];
+            for (int ii = 0; ii < size; ii++) {
+                index.offsets[ii] = buffer.getLong();
+                index.positions[ii] = buffer.getLong();
+            }
+            index.size = size;
+            return index;
+        } catch (RuntimeException e) {
+            // A truncated or unreadable cache is simply rebuilt
+            return null;
+        }
+    }
+
+    /**
+     * Writes this table to the cache for the given source.
+     *
+     * The layout is big endian: the magic number, version, length and modification time of
+     * the source file, channels, sample rate, decoded length, and the number of seek points followed by
+     * the offset and position of each.
+     *
+     * @param source    The source file
+     */
+    public void save(FileHandle source) {
+        FileHandle file = getCacheFile( source );
+        if (file == null) {
+            return;
+        }
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream( file.write( false, 4096 ) );
+            out.writeInt( MAGIC );
+            out.writeInt( VERSION );
+            out.writeLong( source.length() );
+            out.writeLong( source.lastModified() );
+            out.writeInt( channels );
+            out.writeInt( sampleRate );
+            out.writeLong( byteSize );
+            out.writeInt( size );
+            for (int ii = 0; ii < size; ii++) {
+                out.writeLong( offsets[ii] );
+                out.writeLong( positions[ii] );
+            }
+            out.close();
+        } catch (IOException | GdxRuntimeException e) {
+            if (Gdx.app != null) {
+                Gdx.app.error( "SeekIndex", "Could not cache seek table for "+source.path(), e );
+            }
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * Returns the cache file for the given source, or null if there is no file system.
+     *
+     * @param source    The source file
+     *
+     * @return the cache file for the given source, or null if there is no file system.
+     */
+    private static FileHandle getCacheFile(FileHandle source) {
+        if (Gdx.files == null || !Gdx.files.isExternalStorageAvailable()) {
+            return null;
+        }
+        String name = source.path().replace( '/', '_' ).replace( '\\', '_' ).replace( ':', '_' );
+        return Gdx.files.external( CACHE_FOLDER+name+EXTENSION );
+    }
+}
@@ -0,0 +1,101 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.entity.OctopusEntity;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Checks that a gameplay frame does not allocate once a level is under way.
+ *
+ * Every level is played with {@link HeadlessGame}, with the octopi sent to random points
+ * from a fixed seed. After a warm up, we count the bytes allocated by the frames and fail
+ * if any level averages more than the allowed bytes per frame.
+ *
+ * Usage: AllocationHarness [frames] [bytes per frame] [level...]
+ *
+ * The defaults are 1200 frames, 16 bytes and every shipped level. Run with the assets
+ * folder as the working directory (see the allocationCheck task).
+ */
+public class AllocationHarness {
+	/** The length of a frame, as if the game ran at 60 fps */
+	private static final float FRAME_TIME = 1 / 60f;
+	/** How many frames to play before measuring */
+	private static final int WARMUP_FRAMES = 600;
+	/** How many frames to measure if not given */
+	private static final int DEFAULT_FRAMES = 1200;
+	/** How many bytes a frame may allocate on average if not given */
+	private static final long DEFAULT_THRESHOLD = 16;
+	/** How many frames between new goals for the octopi */
+	private static final int GOAL_PERIOD = 90;
+	/** The seed for the octopus goals, so that every run plays the same */
+	private static final long SEED = 2020;
+
+	public static void main(String[] args) throws Exception {
+		int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+		long threshold = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_THRESHOLD;
+		HeadlessLevels.init();
+		Array<String> levels = new Array<>();
+		for (int i = 2; i < args.length; i++) {
+			levels.add(args[i]);
+		}
+		if (levels.size == 0) {
+			levels = HeadlessLevels.getLevelNames();
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		System.out.printf("%-10s %8s %14s %12s%n", "level", "frames", "bytes", "bytes/frame");
+		Array<String> failed = new Array<>();
+		for (String level : levels) {
+			HeadlessGame game = new HeadlessGame(level);
+			Random random = new Random(SEED);
+			int frame = 0;
+			for (; frame < WARMUP_FRAMES; frame++) {
+				play(game, random, frame);
+			}
+			long bytes = threads.getThreadAllocatedBytes(thread);
+			for (; frame < WARMUP_FRAMES + frames; frame++) {
+				play(game, random, frame);
+			}
+			bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+			game.dispose();
+
+			double perFrame = bytes / (double) frames;
+			System.out.printf("%-10s %8d %14d %12.1f%s%n", level, frames, bytes, perFrame,
+					perFrame > threshold ? "  FAIL" : "");
+			if (perFrame > threshold) {
+				failed.add(level);
+			}
+		}
+
+		if (failed.size > 0) {
+			System.out.println(failed.size + " level(s) allocated more than " + threshold + " bytes per frame: " + failed);
+			System.exit(1);
+		}
+		System.out.println("All levels within " + threshold + " bytes per frame");
+	}
+
+	/**
+	 * Plays one frame, first sending the octopi somewhere new if it is time to.
+	 *
+	 * @param game the level being played
+	 * @param random the source of the octopus goals
+	 * @param frame the number of the frame
+	 */
+	private static void play(HeadlessGame game, Random random, int frame) {
+		if (frame % GOAL_PERIOD == 0) {
+			Rectangle bounds = game.getBounds();
+			ArrayList<OctopusEntity> octopi = game.getOctopusController().getOctopusList();
+			for (int i = 0; i < octopi.size(); i++) {
+				game.moveOctopus(octopi.get(i), bounds.x + random.nextFloat() * bounds.width,
+						bounds.y + random.nextFloat() * bounds.height);
+			}
+		}
+		game.step(FRAME_TIME);
+	}
+}
@@ -0,0 +1,226 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import edu.cornell.gdiac.octoplasm.util.TextureRegistry;
+
+import java.util.Comparator;
+
+/**
+ * Packs the images listed in {@link TextureRegistry.Atlas} into texture atlases.
+ *
+ * Each atlas is written as one or more PNG pages next to an atlas file in the format read by
+ * TextureAtlas, with one region per image named by {@link TextureRegistry#getRegionName}.
+ * Images are packed on shelves, tallest first, and never rotated or trimmed, so a region has
+ * the same size as its image. Every region is surrounded by a copy of its edge pixels, so that
+ * linear filtering at the edge samples the image itself rather than its neighbour.
+ *
+ * Run with the assets folder as the working directory (see the packAtlases task), and again
+ * whenever a packed image or the list of atlases changes.
+ */
+public class AtlasPacker {
+	/** The largest width and height of a page */
+	private static final int MAX_SIZE = 2048;
+	/** The edge pixels copied around each region */
+	private static final int PADDING = 1;
+
+	/**
+	 * An image placed on a page.
+	 */
+	private static class Placement {
+		/** The image file */
+		final String file;
+		/** The image */
+		final Pixmap image;
+		/** The page the image is on */
+		int page;
+		/** The left edge of the image on its page */
+		int x;
+		/** The top edge of the image on its page */
+		int y;
+
+		Placement(String file, Pixmap image) {
+			this.file = file;
+			this.image = image;
+		}
+	}
+
+	public static void main(String[] args) {
+		GdxNativesLoader.load();
+		Gdx.files = new LwjglFiles();
+		System.out.printf("%-20s %10s %8s %6s%n", "page", "size", "regions", "fill");
+		for (TextureRegistry.Atlas atlas : TextureRegistry.Atlas.values()) {
+			pack(atlas);
+		}
+	}
+
+	/**
+	 * Packs the images of an atlas, replacing any earlier pages.
+	 *
+	 * @param atlas the atlas to pack
+	 */
+	private static void pack(TextureRegistry.Atlas atlas) {
+		FileHandle file = Gdx.files.local(atlas.file);
+		String name = file.nameWithoutExtension();
+		for (FileHandle old : file.parent().list(".png")) {
+			if (old.nameWithoutExtension().matches(name + "\\d*")) {
+				old.delete();
+			}
+		}
+
+		Array<Placement> placements = new Array<>();
+		for (String image : atlas.images) {
+			placements.add(new Placement(image, new Pixmap(Gdx.files.local(image))));
+		}
+		placements.sort(new Comparator<Placement>() {
+			@Override
+			public int compare(Placement a, Placement b) {
+				if (a.image.getHeight() != b.image.getHeight()) {
+					return b.image.getHeight() - a.image.getHeight();
+				}
+				return b.image.getWidth() - a.image.getWidth();
+			}
+		});
+
+		// Use the smallest page that holds every image, or as many of the largest as needed
+		int bestWidth = MAX_SIZE;
+		int bestHeight = MAX_SIZE;
+		for (int height = 64; height <= MAX_SIZE; height *= 2) {
+			for (int width = 64; width <= MAX_SIZE; width *= 2) {
+				if (width * height < bestWidth * bestHeight && shelve(placements, width, height).size == 1) {
+					bestWidth = width;
+					bestHeight = height;
+				}
+			}
+		}
+		Array<int[]> pages = shelve(placements, bestWidth, bestHeight);
+
+		StringBuilder text = new StringBuilder();
+		for (int ii = 0; ii < pages.size; ii++) {
+			int width = MathUtils.nextPowerOfTwo(pages.get(ii)[0]);
+			int height = MathUtils.nextPowerOfTwo(pages.get(ii)[1]);
+			String page = name + (ii == 0 ? "" : Integer.toString(ii + 1)) + ".png";
+			Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+			pixmap.setBlending(Pixmap.Blending.None);
+			pixmap.setColor(0, 0, 0, 0);
+			pixmap.fill();
+
+			text.append('\n').append(page).append('\n');
+			text.append("size: ").append(width).append(',').append(height).append('\n');
+			text.append("format: RGBA8888\nfilter: Linear,Linear\nrepeat: none\n");
+			int regions = 0;
+			long filled = 0;
+			for (Placement placement : placements) {
+				if (placement.page != ii) {
+					continue;
+				}
+				draw(pixmap, placement);
+				int w = placement.image.getWidth();
+				int h = placement.image.getHeight();
+				text.append(TextureRegistry.getRegionName(placement.file)).append('\n');
+				text.append("  rotate: false\n");
+				text.append("  xy: ").append(placement.x).append(", ").append(placement.y).append('\n');
+				text.append("  size: ").append(w).append(", ").append(h).append('\n');
+				text.append("  orig: ").append(w).append(", ").append(h).append('\n');
+				text.append("  offset: 0, 0\n  index: -1\n");
+				regions++;
+				filled += w * h;
+			}
+			PixmapIO.writePNG(file.sibling(page), pixmap);
+			pixmap.dispose();
+			System.out.printf("%-20s %10s %8d %5.0f%%%n", page, width + "x" + height, regions,
+					100.0 * filled / (width * height));
+		}
+		file.writeString(text.toString(), false);
+
+		for (Placement placement : placements) {
+			placement.image.dispose();
+		}
+	}
+
+	/**
+	 * Places the images on shelves in pages of the given size.
+	 *
+	 * The images must be sorted tallest first. Each image goes on the first shelf of the
+	 * page with room left for it, so small images fill the ends of the taller shelves.
+	 *
+	 * @param placements the images to place
+	 * @param width the width of a page
+	 * @param height the height of a page
+	 *
+	 * @return the width and height used on each page
+	 */
+	private static Array<int[]> shelve(Array<Placement> placements, int width, int height) {
+		Array<int[]> pages = new Array<>();
+		int[] used = {0, 0};
+		// The top, height and filled width of each shelf of the page
+		Array<int[]> shelves = new Array<>();
+		for (Placement placement : placements) {
+			int w = placement.image.getWidth() + 2 * PADDING;
+			int h = placement.image.getHeight() + 2 * PADDING;
+			if (w > MAX_SIZE || h > MAX_SIZE) {
+				throw new IllegalStateException(placement.file + " does not fit on a page");
+			}
+			int[] shelf = null;
+			for (int ii = 0; ii < shelves.size && shelf == null; ii++) {
+				if (shelves.get(ii)[2] + w <= width) {
+					shelf = shelves.get(ii);
+				}
+			}
+			if (shelf == null) {
+				int top = shelves.size == 0 ? 0 : shelves.peek()[0] + shelves.peek()[1];
+				if (w > width || top + h > height) {
+					pages.add(used);
+					used = new int[]{0, 0};
+					shelves.clear();
+					top = 0;
+				}
+				shelf = new int[]{top, h, 0};
+				shelves.add(shelf);
+			}
+			placement.page = pages.size;
+			placement.x = shelf[2] + PADDING;
+			placement.y = shelf[0] + PADDING;
+			shelf[2] += w;
+			used[0] = Math.max(used[0], shelf[2]);
+			used[1] = Math.max(used[1], shelf[0] + shelf[1]);
+		}
+		pages.add(used);
+		return pages;
+	}
+
+	/**
+	 * Copies an image onto its page, surrounded by copies of its edge pixels.
+	 *
+	 * @param page the page
+	 * @param placement the image and where it goes
+	 */
+	private static void draw(Pixmap page, Placement placement) {
+		Pixmap image = placement.image;
+		int x = placement.x;
+		int y = placement.y;
+		int w = image.getWidth();
+		int h = image.getHeight();
+		page.drawPixmap(image, x, y);
+		for (int ii = 1; ii <= PADDING; ii++) {
+			// Edges
+			page.drawPixmap(image, x, y - ii, 0, 0, w, 1);
+			page.drawPixmap(image, x, y + h - 1 + ii, 0, h - 1, w, 1);
+			page.drawPixmap(image, x - ii, y, 0, 0, 1, h);
+			page.drawPixmap(image, x + w - 1 + ii, y, w - 1, 0, 1, h);
+			// Corners
+			for (int jj = 1; jj <= PADDING; jj++) {
+				page.drawPixmap(image, x - ii, y - jj, 0, 0, 1, 1);
+				page.drawPixmap(image, x + w - 1 + ii, y - jj, w - 1, 0, 1, 1);
+				page.drawPixmap(image, x - ii, y + h - 1 + jj, 0, h - 1, 1, 1);
+				page.drawPixmap(image, x + w - 1 + ii, y + h - 1 + jj, w - 1, h - 1, 1, 1);
+			}
+		}
+	}
+}
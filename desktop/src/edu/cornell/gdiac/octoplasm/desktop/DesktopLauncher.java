@@ -12,6 +12,7 @@ public class DesktopLauncher {
 		config.resizable  = true;
 		config.forceExit = true;
 		config.vSyncEnabled = false;
+		config.audioStreaming = true;
 		new GDXApp( new GDXRoot(), config );
 	}
 }
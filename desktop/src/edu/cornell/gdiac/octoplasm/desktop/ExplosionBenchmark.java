@@ -0,0 +1,239 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.EnemyController;
+import edu.cornell.gdiac.octoplasm.ExplosionResolver;
+import edu.cornell.gdiac.octoplasm.ObstacleController;
+import edu.cornell.gdiac.octoplasm.OctopusController;
+import edu.cornell.gdiac.octoplasm.entity.*;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Compares the old 360 ray explosion against {@link ExplosionResolver} on the shipped levels.
+ *
+ * For every level, an exploder is moved over a grid covering the open parts of the level
+ * and both versions are run at each point. We report the time and rays per explosion, the
+ * bytes allocated per explosion, and how many explosions the two versions disagreed on.
+ *
+ * Run with the assets folder as the working directory (see the explosionBenchmark task).
+ */
+public class ExplosionBenchmark {
+	/** The blast radius, the same as OctopusController */
+	private static final float EXPLOSION_RADIUS = 5.0f;
+	/** The number of rays the old explosion cast */
+	private static final int RAY_COUNT = 360;
+	/** The distance between explosions on the grid, in Box2D units */
+	private static final float GRID_STEP = 1.0f;
+	/** How many times to run every level before measuring */
+	private static final int WARMUP_ROUNDS = 3;
+	/** How many times to run every level while measuring */
+	private static final int MEASURED_ROUNDS = 10;
+
+	//=========================================================================
+	//#region Old explosion
+	/** The entities confirmed hit by the old explosion */
+	private static ArrayList<Entity> explosionConfirmedCache = new ArrayList<Entity>();
+	/** The entities seen by the current ray of the old explosion */
+	private static HashMap<Entity,Float> explosionDetectedCache = new HashMap<Entity,Float>();
+	/** The closest wall on the current ray of the old explosion */
+	private static float wall_fraction = 1f;
+	/** The ray-casting callback of the old explosion */
+	private static RayCastCallback callback = new RayCastCallback() {
+		@Override
+		public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+			Entity entity = (Entity) fixture.getBody().getUserData();
+			if (!entity.isActive()) return 1;
+			switch (entity.getEntityType()) {
+				case WALL:
+					wall_fraction = Math.min(fraction,wall_fraction);
+					return 1;
+				case OBSTACLE:
+					if (((ObstacleEntity)entity).getObstacleSubType() != ObstacleEntity.ObstacleSubType.FIGHT_WALL) {
+						wall_fraction = Math.min(fraction,wall_fraction);
+					} else if (wall_fraction > fraction) {
+						if(!explosionDetectedCache.containsKey(entity)) {
+							explosionDetectedCache.put(entity, fraction);
+						}
+					}
+					return 1;
+				default:
+					if(!explosionDetectedCache.containsKey(entity) && wall_fraction > fraction)
+						explosionDetectedCache.put(entity,fraction);
+					return 1;
+			}
+		}
+	};
+
+	/**
+	 * The explosion as OctopusController did it before the resolver, minus the effects.
+	 *
+	 * @param exploder the exploding octopus
+	 * @param world the world to cast the rays in
+	 */
+	private static void oldExplosion(OctopusEntity exploder, World world) {
+		explosionConfirmedCache.clear();
+		Vector2 p1 = exploder.getPosition();
+		Vector2 p2 = new Vector2();
+		Vector2 vec = new Vector2();
+		for (int i = 0; i < RAY_COUNT; i++) {
+			float angle = (float) (2*Math.PI/RAY_COUNT)*i;
+			vec.x = (float)(EXPLOSION_RADIUS*Math.cos(angle));
+			vec.y = (float)(EXPLOSION_RADIUS*Math.sin(angle));
+			p2.set(p1.cpy().add(vec));
+			world.rayCast(callback,p1,p2);
+			for (Entity ent : explosionDetectedCache.keySet()) {
+				if (explosionDetectedCache.get(ent) < wall_fraction) {
+					explosionConfirmedCache.add(ent);
+				}
+			}
+			explosionDetectedCache.clear();
+			wall_fraction = 1.0f;
+		}
+	}
+	//#endregion
+	//=================================
+
+	public static void main(String[] args) throws Exception {
+		HeadlessLevels.init();
+		ExplosionResolver resolver = new ExplosionResolver(EXPLOSION_RADIUS);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		System.out.printf("%-10s %6s %12s %12s %10s %10s %12s %12s %8s %10s%n", "level", "blasts",
+				"old us", "new us", "old rays", "new rays", "old bytes", "new bytes", "speedup", "disagree");
+		long totalOld = 0, totalNew = 0;
+		for (String level : HeadlessLevels.getLevelNames()) {
+			World world = new World(new Vector2(0, 0), false);
+			PooledList<Entity> objects = new PooledList<Entity>();
+			Array<String> assets = new Array<String>();
+			Rectangle bounds = HeadlessLevels.populate(level, world, objects,
+					new OctopusController(HeadlessLevels.SCALE, null, assets),
+					new EnemyController(HeadlessLevels.SCALE, null, assets),
+					new ObstacleController(null, HeadlessLevels.SCALE, assets));
+
+			OctopusEntity exploder = new OctopusEntity(0, 0,
+					OctopusEntity.getTextureWidth(OctopusEntity.OctopusSubType.EXPLODER) / HeadlessLevels.SCALE.x,
+					OctopusEntity.getTextureHeight(OctopusEntity.OctopusSubType.EXPLODER) / HeadlessLevels.SCALE.y,
+					OctopusEntity.OctopusSubType.EXPLODER);
+			exploder.activatePhysics(world);
+
+			// Grid points the exploder could be at, and how many explosions the two versions disagree on
+			Array<Vector2> points = new Array<Vector2>();
+			for (float x = GRID_STEP / 2; x < bounds.width; x += GRID_STEP) {
+				for (float y = GRID_STEP / 2; y < bounds.height; y += GRID_STEP) {
+					if (!isInsideSolid(world, x, y)) {
+						points.add(new Vector2(x, y));
+					}
+				}
+			}
+			int disagree = 0;
+			for (Vector2 point : points) {
+				exploder.setPosition(point);
+				oldExplosion(exploder, world);
+				Array<Entity> hits = resolver.resolve(exploder, world);
+				boolean same = true;
+				for (Entity e : hits) same &= explosionConfirmedCache.contains(e);
+				for (Entity e : explosionConfirmedCache) same &= !isAffected(e) || hits.contains(e, true);
+				if (!same) disagree++;
+			}
+
+			for (int i = 0; i < WARMUP_ROUNDS; i++) {
+				runOld(exploder, world, points);
+				runNew(resolver, exploder, world, points);
+			}
+			long oldBytes = threads.getThreadAllocatedBytes(thread);
+			long oldTime = 0;
+			for (int i = 0; i < MEASURED_ROUNDS; i++) oldTime += runOld(exploder, world, points);
+			oldBytes = threads.getThreadAllocatedBytes(thread) - oldBytes;
+
+			resolver.resetCounters();
+			long newBytes = threads.getThreadAllocatedBytes(thread);
+			long newTime = 0;
+			for (int i = 0; i < MEASURED_ROUNDS; i++) newTime += runNew(resolver, exploder, world, points);
+			newBytes = threads.getThreadAllocatedBytes(thread) - newBytes;
+
+			long blasts = (long) points.size * MEASURED_ROUNDS;
+			System.out.printf("%-10s %6d %12.2f %12.2f %10d %10.1f %12d %12d %7.1fx %10d%n", level, points.size,
+					oldTime / 1000.0 / blasts, newTime / 1000.0 / blasts, RAY_COUNT,
+					resolver.getRayCount() / (double) blasts, oldBytes / blasts, newBytes / blasts,
+					oldTime / (double) newTime, disagree);
+			totalOld += oldTime;
+			totalNew += newTime;
+			world.dispose();
+		}
+		System.out.printf("overall speedup %.1fx%n", totalOld / (double) totalNew);
+	}
+
+	/**
+	 * Returns whether the point is inside a wall or body, where an octopus could never explode.
+	 */
+	private static boolean isInsideSolid(World world, final float x, final float y) {
+		final boolean[] inside = new boolean[1];
+		world.QueryAABB(new QueryCallback() {
+			@Override
+			public boolean reportFixture(Fixture fixture) {
+				if (!fixture.isSensor() && fixture.testPoint(x, y)) {
+					inside[0] = true;
+					return false;
+				}
+				return true;
+			}
+		}, x - 0.01f, y - 0.01f, x + 0.01f, y + 0.01f);
+		return inside[0];
+	}
+
+	/**
+	 * Returns whether an explosion does anything to the entity.
+	 *
+	 * The old ray fan also collected tutorial icons and the like, which OctopusController ignored.
+	 */
+	private static boolean isAffected(Entity entity) {
+		switch (entity.getEntityType()) {
+			case ENEMY:
+			case OCTOPUS:
+				return true;
+			case OBSTACLE:
+				return ((ObstacleEntity) entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.FIGHT_WALL;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Runs the old explosion at every point and returns the time it took in nanoseconds.
+	 */
+	private static long runOld(OctopusEntity exploder, World world, Array<Vector2> points) {
+		long time = 0;
+		for (int i = 0; i < points.size; i++) {
+			exploder.setPosition(points.get(i));
+			long start = System.nanoTime();
+			oldExplosion(exploder, world);
+			time += System.nanoTime() - start;
+		}
+		return time;
+	}
+
+	/**
+	 * Runs the explosion resolver at every point and returns the time it took in nanoseconds.
+	 */
+	private static long runNew(ExplosionResolver resolver, OctopusEntity exploder, World world, Array<Vector2> points) {
+		long time = 0;
+		for (int i = 0; i < points.size; i++) {
+			exploder.setPosition(points.get(i));
+			long start = System.nanoTime();
+			resolver.resolve(exploder, world);
+			time += System.nanoTime() - start;
+		}
+		return time;
+	}
+}
@@ -0,0 +1,169 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.*;
+import edu.cornell.gdiac.octoplasm.entity.*;
+import edu.cornell.gdiac.octoplasm.util.AudioController;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+
+/**
+ * Plays a shipped level without a window, for the headless tools.
+ *
+ * A frame is the controller updates of {@link GameplayController} followed by the same
+ * {@link Simulation} step that it uses, minus the camera, the menus and anything that
+ * draws. There is no player, so octopi only move when they are sent somewhere with
+ * {@link #moveOctopus}, and the respawn points are taken out since they need the player
+ * to pick from a menu.
+ *
+ * {@link HeadlessLevels#init()} must be called first.
+ */
+public class HeadlessGame {
+	/** The Box2D world of the level */
+	private World world;
+	/** All the entities in the level */
+	private PooledList<Entity> objects;
+	/** The spatial index of the entities in the level */
+	private SpatialGrid grid;
+	/** The box that follows the crosshair */
+	private BoxEntity selector;
+	/** The bounds of the level */
+	private Rectangle bounds;
+	/** The octopus controller */
+	private OctopusController OC;
+	/** The enemy controller */
+	private EnemyController EC;
+	/** The obstacle controller */
+	private ObstacleController BC;
+	/** The collision controller */
+	private CollisionController CC;
+	/** The fixed step physics simulation of the level */
+	private Simulation simulation;
+
+	/**
+	 * Loads the level into a new world, ready to play.
+	 *
+	 * @param level the name of the level (not including .json or the levels folder)
+	 */
+	public HeadlessGame(String level) throws Exception {
+		world = new World(new Vector2(0, 0), false);
+		objects = new PooledList<>();
+		grid = new SpatialGrid(Simulation.GRID_CELL_SIZE);
+		Array<String> assets = new Array<>();
+		OC = new OctopusController(HeadlessLevels.SCALE, null, assets);
+		EC = new EnemyController(HeadlessLevels.SCALE, null, assets);
+		BC = new ObstacleController(null, HeadlessLevels.SCALE, assets);
+		CC = new CollisionController(BC, OC);
+		world.setContactListener(CC);
+		simulation = new Simulation(OC, EC);
+
+		selector = Simulation.createSelector(HeadlessLevels.SCALE);
+		selector.activatePhysics(world);
+		objects.add(selector);
+
+		bounds = HeadlessLevels.populate(level, world, objects, OC, EC, BC);
+		grid.setBounds(bounds);
+		for (Entity entity : objects) {
+			// Respawning opens a menu for the player to pick an octopus from
+			if (entity.getEntityType() == Entity.EntityType.OBSTACLE
+					&& ((ObstacleEntity) entity).getObstacleSubType() == ObstacleEntity.ObstacleSubType.RESPAWN) {
+				entity.markRemoved(true);
+			}
+			grid.update(entity);
+		}
+	}
+
+	/**
+	 * Returns the octopus controller of the level.
+	 *
+	 * @return the octopus controller of the level
+	 */
+	public OctopusController getOctopusController() {
+		return OC;
+	}
+
+	/**
+	 * Returns the enemy controller of the level.
+	 *
+	 * @return the enemy controller of the level
+	 */
+	public EnemyController getEnemyController() {
+		return EC;
+	}
+
+	/**
+	 * Returns the collision controller of the level.
+	 *
+	 * @return the collision controller of the level
+	 */
+	public CollisionController getCollisionController() {
+		return CC;
+	}
+
+	/**
+	 * Returns all the entities in the level.
+	 *
+	 * @return all the entities in the level
+	 */
+	public PooledList<Entity> getObjects() {
+		return objects;
+	}
+
+	/**
+	 * Returns the Box2D world of the level.
+	 *
+	 * @return the Box2D world of the level
+	 */
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * Returns the bounds of the level.
+	 *
+	 * @return the bounds of the level
+	 */
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Sends the octopus to the given point, as if the player had right clicked there.
+	 *
+	 * @param octopus the octopus to move
+	 * @param x the x-coordinate of the goal in Box2D units
+	 * @param y the y-coordinate of the goal in Box2D units
+	 */
+	public void moveOctopus(OctopusEntity octopus, float x, float y) {
+		octopus.setGoal(x, y);
+		octopus.setMoving(true);
+	}
+
+	/**
+	 * Plays one frame of the level.
+	 *
+	 * @param dt the length of the frame in seconds
+	 */
+	public void step(float dt) {
+		// GameplayController.update
+		BC.update(dt, false, world, OC.getDeadOctopi());
+		OC.update(dt, false, grid, world, selector);
+		EC.update(dt, OC.getOctopusList(), false, world);
+		AudioController.getInstance().update(dt);
+
+		// GameplayController.postUpdate
+		simulation.step(dt, false, world, objects, grid, bounds);
+	}
+
+	/**
+	 * Frees the Box2D world of the level and the shapes of its entities.
+	 */
+	public void dispose() {
+		world.dispose();
+		for (Entity entity : objects) {
+			entity.dispose();
+		}
+	}
+}
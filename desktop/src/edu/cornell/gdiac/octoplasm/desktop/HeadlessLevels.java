@@ -0,0 +1,252 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StreamUtils;
+import edu.cornell.gdiac.audio.AudioEngine;
+import edu.cornell.gdiac.audio.MusicBuffer;
+import edu.cornell.gdiac.octoplasm.EnemyController;
+import edu.cornell.gdiac.octoplasm.GameplayController;
+import edu.cornell.gdiac.octoplasm.ObstacleController;
+import edu.cornell.gdiac.octoplasm.OctopusController;
+import edu.cornell.gdiac.octoplasm.entity.*;
+import edu.cornell.gdiac.octoplasm.util.LevelLoader;
+import edu.cornell.gdiac.octoplasm.util.LevelModel;
+import edu.cornell.gdiac.octoplasm.util.PooledList;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+
+/**
+ * Loads the shipped levels into a Box2D world without opening a window.
+ *
+ * The entities only need their textures for their sizes, so instead of loading the images
+ * onto a GPU we read the sizes out of the PNG headers and hand the entities empty regions
+ * of that size. This is enough to build the same physics world that the game builds, which
+ * is all that the benchmarks and headless tools need.
+ *
+ * Must be run with the assets folder as the working directory, like the run task.
+ */
+public class HeadlessLevels {
+	/** The drawing scale the game uses with its 1280x720 viewport on a 32x18 world */
+	public static final Vector2 SCALE = new Vector2(1280 / 32f, 720 / 18f);
+	/** The size given to textures that do not affect the physics world */
+	private static final int DEFAULT_SIZE = 64;
+
+	/** Whether the natives and textures have been set up */
+	private static boolean initialized;
+
+	/**
+	 * A texture region that only knows its size.
+	 */
+	private static class SizedRegion extends TextureRegion {
+		/** The width of the image */
+		private final int width;
+		/** The height of the image */
+		private final int height;
+
+		SizedRegion(int width, int height) {
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public int getRegionWidth() {
+			return width;
+		}
+
+		@Override
+		public int getRegionHeight() {
+			return height;
+		}
+	}
+
+	/**
+	 * Loads the Box2D natives, the file system, a silent audio engine and the entity texture sizes.
+	 *
+	 * This is safe to call more than once.
+	 */
+	public static void init() {
+		if (initialized) return;
+		Box2D.init();
+		Gdx.files = new LwjglFiles();
+		Gdx.audio = silence(AudioEngine.class);
+
+		// Anything without a real size below only matters for drawing
+		stubTextures(OctopusEntity.class);
+		stubTextures(EnemyEntity.class);
+		stubTextures(ObstacleEntity.class);
+		stubTextures(TutorialEntity.class);
+
+		// The controllers hand out the textures, so the paths are the ones the game loads
+		Array<String> assets = new Array<>();
+		new OctopusController(SCALE, null, assets) {
+			@Override
+			protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
+				return load(file);
+			}
+		}.loadEntityTextures(null);
+		new EnemyController(SCALE, null, assets) {
+			@Override
+			protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
+				return load(file);
+			}
+		}.loadEntityTextures(null);
+		new ObstacleController(null, SCALE, assets) {
+			@Override
+			protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
+				return load(file);
+			}
+		}.loadEntityTextures(null);
+
+		TextureRegion wall = new SizedRegion(DEFAULT_SIZE, DEFAULT_SIZE);
+		WallEntity.setWallTextures(wall, wall, wall);
+		WallEntity.setWallEdgeTexture(wall, wall, wall);
+		initialized = true;
+	}
+
+	/**
+	 * Returns the names of the shipped world levels, in the order they are played.
+	 *
+	 * @return the names of the shipped world levels
+	 */
+	public static Array<String> getLevelNames() {
+		Array<String> levels = new Array<>();
+		for (FileHandle file : Gdx.files.internal("levels").list(".json")) {
+			if (file.nameWithoutExtension().matches("world\\d+_\\d+")) {
+				levels.add(file.nameWithoutExtension());
+			}
+		}
+		levels.sort(new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				int result = Integer.compare(getWorld(a), getWorld(b));
+				return result != 0 ? result : Integer.compare(getNumber(a), getNumber(b));
+			}
+		});
+		return levels;
+	}
+
+	/**
+	 * Builds a level into the given world, the same way {@link GameplayController} does.
+	 *
+	 * @param level the name of the level (not including .json or the levels folder)
+	 * @param physics the world to add the bodies to
+	 * @param objects the list to add the entities to
+	 * @param OC the octopus controller to register the octopi with
+	 * @param EC the enemy controller to register the enemies with
+	 * @param BC the obstacle controller to register the obstacles with
+	 *
+	 * @return the bounds of the level
+	 */
+	public static Rectangle populate(String level, World physics, PooledList<Entity> objects,
+									 OctopusController OC, EnemyController EC, ObstacleController BC) throws Exception {
+		LevelModel model = LevelLoader.loadLevel(level);
+		int world = getWorld(level);
+		GameplayController.GameWorld area = world == 1 ? GameplayController.GameWorld.CAVE
+				: world == 2 ? GameplayController.GameWorld.SHIP : GameplayController.GameWorld.OCEAN;
+		return LevelLoader.populateLevel(physics, objects, model, SCALE, OC, EC, BC, area);
+	}
+
+	/**
+	 * Returns the world number of a level name like world2_7.
+	 *
+	 * @param level the name of the level
+	 *
+	 * @return the world number of the level
+	 */
+	private static int getWorld(String level) {
+		return Integer.parseInt(level.substring("world".length(), level.indexOf('_')));
+	}
+
+	/**
+	 * Returns the level number within its world of a level name like world2_7.
+	 *
+	 * @param level the name of the level
+	 *
+	 * @return the level number of the level
+	 */
+	private static int getNumber(String level) {
+		return Integer.parseInt(level.substring(level.indexOf('_') + 1));
+	}
+
+	/**
+	 * Returns a texture region the size of the given image.
+	 *
+	 * @param path the path of the PNG, relative to the assets folder
+	 *
+	 * @return a texture region the size of the image
+	 */
+	private static TextureRegion load(String path) {
+		DataInputStream in = new DataInputStream(Gdx.files.internal(path).read());
+		try {
+			// 8 byte signature, then the IHDR chunk length and type, then width and height
+			in.skipBytes(16);
+			int width = in.readInt();
+			int height = in.readInt();
+			return new SizedRegion(width, height);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read the size of " + path, e);
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Returns an implementation of the interface that does nothing.
+	 *
+	 * Every method returns false, zero or null, except that the audio engine hands out
+	 * music buffers that do nothing, since AudioController needs those to start up. No
+	 * sounds are ever loaded, so AudioController never tries to play one.
+	 *
+	 * @param type the interface to implement
+	 *
+	 * @return an implementation of the interface that does nothing
+	 */
+	private static <T> T silence(Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				Class<?> result = method.getReturnType();
+				if (result == MusicBuffer.class) return silence(MusicBuffer.class);
+				if (result == boolean.class) return false;
+				if (result == int.class) return 0;
+				if (result == long.class) return 0L;
+				if (result == float.class) return 0f;
+				if (result == double.class) return 0.0;
+				return null;
+			}
+		}));
+	}
+
+	/**
+	 * Gives every static texture region of the class an empty default sized region.
+	 *
+	 * @param type the entity class to fill in
+	 */
+	private static void stubTextures(Class<?> type) {
+		for (Field field : type.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == TextureRegion.class) {
+				try {
+					field.set(null, new SizedRegion(DEFAULT_SIZE, DEFAULT_SIZE));
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+	}
+}
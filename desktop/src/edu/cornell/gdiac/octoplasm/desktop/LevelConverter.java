@@ -0,0 +1,57 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.util.LevelLoader;
+import edu.cornell.gdiac.octoplasm.util.LevelModel;
+
+import java.util.Arrays;
+
+/**
+ * Converts the JSON levels into the binary level format read by {@link LevelLoader}.
+ *
+ * With no arguments every shipped world level is converted, otherwise only the named
+ * levels are. Each binary level is read back and written again to check that nothing was
+ * lost, and the time to parse the JSON and the binary is printed next to the file sizes.
+ *
+ * Run with the assets folder as the working directory (see the convertLevels task).
+ */
+public class LevelConverter {
+	/** How many times to parse each level when timing */
+	private static final int PARSE_ROUNDS = 50;
+
+	public static void main(String[] args) throws Exception {
+		HeadlessLevels.init();
+		Array<String> levels = args.length > 0 ? new Array<String>(args) : HeadlessLevels.getLevelNames();
+
+		System.out.printf("%-10s %10s %10s %10s %10s%n", "level", "json B", "binary B", "json us", "binary us");
+		for (String level : levels) {
+			FileHandle json = Gdx.files.local("levels/" + level + ".json");
+			FileHandle binary = Gdx.files.local("levels/" + level + LevelLoader.BINARY_EXTENSION);
+			LevelModel model = LevelLoader.parseJson(level);
+			LevelLoader.generateBinary(model, json, binary);
+
+			// Writing what we read back must give the same bytes
+			FileHandle check = FileHandle.tempFile("level");
+			LevelLoader.generateBinary(LevelLoader.parseBinary(level), json, check);
+			boolean same = Arrays.equals(binary.readBytes(), check.readBytes());
+			check.delete();
+			if (!same) {
+				throw new IllegalStateException(level + " did not survive the round trip");
+			}
+
+			long jsonTime = 0, binaryTime = 0;
+			for (int i = 0; i < PARSE_ROUNDS; i++) {
+				long start = System.nanoTime();
+				LevelLoader.parseJson(level);
+				jsonTime += System.nanoTime() - start;
+				start = System.nanoTime();
+				LevelLoader.parseBinary(level);
+				binaryTime += System.nanoTime() - start;
+			}
+			System.out.printf("%-10s %10d %10d %10.1f %10.1f%n", level, json.length(), binary.length(),
+					jsonTime / 1000.0 / PARSE_ROUNDS, binaryTime / 1000.0 / PARSE_ROUNDS);
+		}
+	}
+}
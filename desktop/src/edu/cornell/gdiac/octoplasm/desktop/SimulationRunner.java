@@ -0,0 +1,226 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.octoplasm.Simulation;
+import edu.cornell.gdiac.octoplasm.entity.Entity;
+import edu.cornell.gdiac.octoplasm.entity.OctopusEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Plays levels without a window as fast as possible, to soak test the AI and physics.
+ *
+ * Every level is played with {@link HeadlessGame} for a number of ticks, where a tick is
+ * one gameplay frame of exactly one physics step. The octopi follow a script: either a
+ * file of moves, or new random goals every GOAL_PERIOD ticks from a seed. Either way the
+ * same arguments always play the same game, and for each level we print the ticks per
+ * second along with a checksum of where every entity ended up, so that two builds (or two
+ * runs) can be compared. With --verify every level is played twice and the run fails if
+ * the checksums differ.
+ *
+ * Usage: SimulationRunner [--ticks N] [--seed S] [--script FILE] [--verify] [level...]
+ *
+ * A level is the name of any file in levels/ without the .json. The defaults are 10000
+ * ticks, the same seed as {@link AllocationHarness} and every shipped level. A script has
+ * one move per line, "tick octopus x y", sending the octopus with that index to the point
+ * in Box2D units at that tick. Lines starting with # are ignored.
+ *
+ * Run with the assets folder as the working directory (see the simulate task).
+ */
+public class SimulationRunner {
+	/** The length of a tick, one physics step */
+	private static final float TICK_TIME = Simulation.WORLD_STEP;
+	/** How many ticks to play if not given */
+	private static final int DEFAULT_TICKS = 10000;
+	/** The seed for the octopus goals if not given */
+	private static final long DEFAULT_SEED = 2020;
+	/** How many ticks between new goals for the octopi, when there is no script */
+	private static final int GOAL_PERIOD = 90;
+
+	/**
+	 * A scripted move of an octopus.
+	 */
+	private static class Move {
+		/** The tick to move on */
+		final int tick;
+		/** The index of the octopus in the octopus list */
+		final int octopus;
+		/** The goal in Box2D units */
+		final Vector2 goal;
+
+		Move(int tick, int octopus, float x, float y) {
+			this.tick = tick;
+			this.octopus = octopus;
+			this.goal = new Vector2(x, y);
+		}
+	}
+
+	/**
+	 * The result of playing a level once.
+	 */
+	private static class Result {
+		/** The time taken by the ticks, in nanoseconds */
+		long time;
+		/** The checksum of the entities after the last tick */
+		int checksum;
+		/** Whether the level was won */
+		boolean complete;
+		/** The number of octopi that died */
+		int dead;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int ticks = DEFAULT_TICKS;
+		long seed = DEFAULT_SEED;
+		String script = null;
+		boolean verify = false;
+		Array<String> levels = new Array<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--ticks")) {
+				ticks = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--seed")) {
+				seed = Long.parseLong(args[++i]);
+			} else if (args[i].equals("--script")) {
+				script = args[++i];
+			} else if (args[i].equals("--verify")) {
+				verify = true;
+			} else {
+				levels.add(args[i]);
+			}
+		}
+
+		HeadlessLevels.init();
+		if (levels.size == 0) {
+			levels = HeadlessLevels.getLevelNames();
+		}
+		Array<Move> moves = script != null ? readScript(script) : null;
+
+		System.out.printf("%-12s %8s %10s %12s %10s %8s %5s%n", "level", "ticks", "ms", "ticks/s", "checksum", "outcome", "dead");
+		long totalTime = 0;
+		long totalTicks = 0;
+		Array<String> mismatched = new Array<>();
+		for (String level : levels) {
+			Result result = play(level, ticks, seed, moves);
+			if (verify && play(level, ticks, seed, moves).checksum != result.checksum) {
+				mismatched.add(level);
+			}
+			totalTime += result.time;
+			totalTicks += ticks;
+			System.out.printf("%-12s %8d %10.1f %12.0f %10s %8s %5d%s%n", level, ticks, result.time / 1e6,
+					ticks / (result.time / 1e9), Integer.toHexString(result.checksum),
+					result.complete ? "won" : "playing", result.dead, mismatched.contains(level, false) ? "  MISMATCH" : "");
+		}
+		System.out.printf("%d ticks in %.1f ms, %.0f ticks/s%n", totalTicks, totalTime / 1e6, totalTicks / (totalTime / 1e9));
+
+		if (mismatched.size > 0) {
+			System.out.println(mismatched.size + " level(s) did not play the same twice: " + mismatched);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Plays a level from the start for the given number of ticks.
+	 *
+	 * @param level the name of the level
+	 * @param ticks how many ticks to play
+	 * @param seed the seed for the octopus goals
+	 * @param moves the scripted moves in tick order, or null to use random goals
+	 *
+	 * @return the time taken and the state at the end
+	 */
+	private static Result play(String level, int ticks, long seed, Array<Move> moves) throws Exception {
+		HeadlessGame game = new HeadlessGame(level);
+		Random random = new Random(seed);
+		ArrayList<OctopusEntity> octopi = game.getOctopusController().getOctopusList();
+		Rectangle bounds = game.getBounds();
+		int next = 0;
+
+		long start = System.nanoTime();
+		for (int tick = 0; tick < ticks; tick++) {
+			if (moves == null) {
+				if (tick % GOAL_PERIOD == 0) {
+					for (int i = 0; i < octopi.size(); i++) {
+						game.moveOctopus(octopi.get(i), bounds.x + random.nextFloat() * bounds.width,
+								bounds.y + random.nextFloat() * bounds.height);
+					}
+				}
+			} else {
+				for (; next < moves.size && moves.get(next).tick <= tick; next++) {
+					Move move = moves.get(next);
+					if (move.octopus < octopi.size()) {
+						game.moveOctopus(octopi.get(move.octopus), move.goal.x, move.goal.y);
+					}
+				}
+			}
+			game.step(TICK_TIME);
+		}
+
+		Result result = new Result();
+		result.time = System.nanoTime() - start;
+		result.checksum = checksum(game);
+		result.complete = game.getCollisionController().isComplete();
+		result.dead = game.getOctopusController().getDeadOctopi().size();
+		game.dispose();
+		return result;
+	}
+
+	/**
+	 * Returns a hash of the type, position, angle and velocity of every entity.
+	 *
+	 * @param game the level being played
+	 *
+	 * @return a hash of the state of every entity
+	 */
+	private static int checksum(HeadlessGame game) {
+		int hash = 17;
+		for (Entity entity : game.getObjects()) {
+			hash = 31 * hash + entity.getEntityType().ordinal();
+			hash = 31 * hash + (entity.isActive() ? 1 : 0);
+			if (entity.getBody() != null) {
+				Vector2 position = entity.getPosition();
+				hash = 31 * hash + Float.floatToIntBits(position.x);
+				hash = 31 * hash + Float.floatToIntBits(position.y);
+				hash = 31 * hash + Float.floatToIntBits(entity.getAngle());
+				Vector2 velocity = entity.getLinearVelocity();
+				hash = 31 * hash + Float.floatToIntBits(velocity.x);
+				hash = 31 * hash + Float.floatToIntBits(velocity.y);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Reads a script of moves, sorted by tick.
+	 *
+	 * @param path the path of the script
+	 *
+	 * @return the moves of the script, sorted by tick
+	 */
+	private static Array<Move> readScript(String path) {
+		Array<Move> moves = new Array<>();
+		for (String line : Gdx.files.absolute(path).readString().split("\n")) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] parts = line.split("\\s+");
+			if (parts.length != 4) {
+				throw new IllegalArgumentException("Expected \"tick octopus x y\" but got \"" + line + "\"");
+			}
+			moves.add(new Move(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+					Float.parseFloat(parts[2]), Float.parseFloat(parts[3])));
+		}
+		moves.sort(new Comparator<Move>() {
+			@Override
+			public int compare(Move a, Move b) {
+				return Integer.compare(a.tick, b.tick);
+			}
+		});
+		return moves;
+	}
+}
@@ -0,0 +1,414 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.DataOutput;
+import com.esotericsoftware.spine.*;
+import com.esotericsoftware.spine.Animation.*;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes skeleton data in the Spine binary format read by {@link SkeletonBinary}.
+ *
+ * The Spine runtime can only read the binary format, and only the editor writes it, so
+ * this writes it back out of skeleton data that was read from a JSON export. It covers
+ * what our skeletons use: bones, slots, region attachments, events, and bone, slot, draw
+ * order and event timelines with linear or stepped curves. Anything else is refused
+ * rather than written wrong. Nonessential data (bone colors, the images path) is not kept.
+ *
+ * The skeleton data must have been read with a scale of 1.
+ */
+public class SkeletonBinaryWriter {
+	/** The output being written */
+	private DataOutput output;
+
+	/**
+	 * Writes the skeleton data to a file.
+	 *
+	 * @param data the skeleton data, read with a scale of 1
+	 * @param file the file to write
+	 *
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the skeleton uses something this cannot write
+	 */
+	public void write(SkeletonData data, FileHandle file) throws IOException {
+		output = new DataOutput(file.write(false));
+		try {
+			writeSkeleton(data);
+		} finally {
+			output.close();
+			output = null;
+		}
+	}
+
+	/**
+	 * Writes the whole skeleton, in the order {@link SkeletonBinary#readSkeletonData} reads it.
+	 */
+	private void writeSkeleton(SkeletonData data) throws IOException {
+		writeString(data.getHash() == null ? "" : data.getHash());
+		writeString(data.getVersion() == null ? "" : data.getVersion());
+		output.writeFloat(data.getWidth());
+		output.writeFloat(data.getHeight());
+		output.writeBoolean(false); // Nonessential
+
+		Array<BoneData> bones = data.getBones();
+		output.writeInt(bones.size, true);
+		for (int i = 0; i < bones.size; i++) {
+			BoneData bone = bones.get(i);
+			writeString(bone.getName());
+			if (i > 0) {
+				output.writeInt(bone.getParent().getIndex(), true);
+			}
+			output.writeFloat(bone.getRotation());
+			output.writeFloat(bone.getX());
+			output.writeFloat(bone.getY());
+			output.writeFloat(bone.getScaleX());
+			output.writeFloat(bone.getScaleY());
+			output.writeFloat(bone.getShearX());
+			output.writeFloat(bone.getShearY());
+			output.writeFloat(bone.getLength());
+			output.writeInt(bone.getTransformMode().ordinal(), true);
+		}
+
+		Array<SlotData> slots = data.getSlots();
+		output.writeInt(slots.size, true);
+		for (int i = 0; i < slots.size; i++) {
+			SlotData slot = slots.get(i);
+			writeString(slot.getName());
+			output.writeInt(slot.getBoneData().getIndex(), true);
+			output.writeInt(Color.rgba8888(slot.getColor()));
+			output.writeInt(slot.getDarkColor() == null ? -1 : Color.rgb888(slot.getDarkColor()));
+			writeString(slot.getAttachmentName());
+			output.writeInt(slot.getBlendMode().ordinal(), true);
+		}
+
+		if (data.getIkConstraints().size > 0 || data.getTransformConstraints().size > 0 || data.getPathConstraints().size > 0) {
+			throw new IllegalArgumentException(data.getName() + " has constraints, which cannot be written");
+		}
+		output.writeInt(0, true);
+		output.writeInt(0, true);
+		output.writeInt(0, true);
+
+		Skin defaultSkin = data.getDefaultSkin();
+		if (defaultSkin == null) {
+			output.writeInt(0, true);
+		} else {
+			writeSkin(defaultSkin, slots.size);
+		}
+		Array<Skin> skins = data.getSkins();
+		output.writeInt(defaultSkin == null ? skins.size : skins.size - 1, true);
+		for (int i = 0; i < skins.size; i++) {
+			if (skins.get(i) != defaultSkin) {
+				writeString(skins.get(i).getName());
+				writeSkin(skins.get(i), slots.size);
+			}
+		}
+
+		Array<EventData> events = data.getEvents();
+		output.writeInt(events.size, true);
+		for (int i = 0; i < events.size; i++) {
+			EventData event = events.get(i);
+			writeString(event.getName());
+			output.writeInt(event.getInt(), false);
+			output.writeFloat(event.getFloat());
+			writeString(event.getString());
+		}
+
+		Array<Animation> animations = data.getAnimations();
+		output.writeInt(animations.size, true);
+		for (int i = 0; i < animations.size; i++) {
+			writeString(animations.get(i).getName());
+			writeAnimation(data, animations.get(i));
+		}
+	}
+
+	/**
+	 * Writes the attachments of a skin, slot by slot and by name within each slot.
+	 */
+	private void writeSkin(Skin skin, int slotCount) throws IOException {
+		Array<String> names = new Array<>();
+		int used = 0;
+		for (int slot = 0; slot < slotCount; slot++) {
+			names.clear();
+			skin.findNamesForSlot(slot, names);
+			if (names.size > 0) {
+				used++;
+			}
+		}
+		output.writeInt(used, true);
+		for (int slot = 0; slot < slotCount; slot++) {
+			names.clear();
+			skin.findNamesForSlot(slot, names);
+			if (names.size == 0) {
+				continue;
+			}
+			names.sort();
+			output.writeInt(slot, true);
+			output.writeInt(names.size, true);
+			for (int i = 0; i < names.size; i++) {
+				writeString(names.get(i));
+				writeAttachment(skin.getAttachment(slot, names.get(i)), names.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Writes a region attachment.
+	 */
+	private void writeAttachment(Attachment attachment, String key) throws IOException {
+		if (!(attachment instanceof RegionAttachment)) {
+			throw new IllegalArgumentException(key + " is not a region attachment, which cannot be written");
+		}
+		RegionAttachment region = (RegionAttachment) attachment;
+		String name = region.getName();
+		writeString(name.equals(key) ? null : name);
+		output.writeByte(com.esotericsoftware.spine.attachments.AttachmentType.region.ordinal());
+		writeString(region.getPath() == null || region.getPath().equals(name) ? null : region.getPath());
+		output.writeFloat(region.getRotation());
+		output.writeFloat(region.getX());
+		output.writeFloat(region.getY());
+		output.writeFloat(region.getScaleX());
+		output.writeFloat(region.getScaleY());
+		output.writeFloat(region.getWidth());
+		output.writeFloat(region.getHeight());
+		output.writeInt(Color.rgba8888(region.getColor()));
+	}
+
+	/**
+	 * Writes the timelines of an animation, grouped the way {@link SkeletonBinary} reads them.
+	 */
+	private void writeAnimation(SkeletonData data, Animation animation) throws IOException {
+		Array<Timeline> timelines = animation.getTimelines();
+		DrawOrderTimeline drawOrder = null;
+		EventTimeline events = null;
+		for (int i = 0; i < timelines.size; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof DrawOrderTimeline) {
+				drawOrder = (DrawOrderTimeline) timeline;
+			} else if (timeline instanceof EventTimeline) {
+				events = (EventTimeline) timeline;
+			} else if (!(timeline instanceof AttachmentTimeline || timeline instanceof ColorTimeline
+					|| timeline instanceof TwoColorTimeline || timeline instanceof RotateTimeline
+					|| timeline instanceof TranslateTimeline)) {
+				throw new IllegalArgumentException(animation.getName() + " has a " + timeline.getClass().getSimpleName()
+						+ ", which cannot be written");
+			}
+		}
+
+		// Slot timelines
+		Array<Timeline> group = new Array<>();
+		int slotCount = data.getSlots().size;
+		output.writeInt(countGroups(timelines, slotCount, true), true);
+		for (int slot = 0; slot < slotCount; slot++) {
+			findGroup(timelines, slot, true, group);
+			if (group.size == 0) {
+				continue;
+			}
+			output.writeInt(slot, true);
+			output.writeInt(group.size, true);
+			for (int i = 0; i < group.size; i++) {
+				Timeline timeline = group.get(i);
+				if (timeline instanceof AttachmentTimeline) {
+					AttachmentTimeline attachment = (AttachmentTimeline) timeline;
+					output.writeByte(SkeletonBinary.SLOT_ATTACHMENT);
+					output.writeInt(attachment.getFrameCount(), true);
+					for (int frame = 0; frame < attachment.getFrameCount(); frame++) {
+						output.writeFloat(attachment.getFrames()[frame]);
+						writeString(attachment.getAttachmentNames()[frame]);
+					}
+				} else if (timeline instanceof TwoColorTimeline) {
+					TwoColorTimeline color = (TwoColorTimeline) timeline;
+					float[] frames = color.getFrames();
+					output.writeByte(SkeletonBinary.SLOT_TWO_COLOR);
+					output.writeInt(color.getFrameCount(), true);
+					for (int frame = 0; frame < color.getFrameCount(); frame++) {
+						int at = frame * TwoColorTimeline.ENTRIES;
+						output.writeFloat(frames[at]);
+						output.writeInt(Color.rgba8888(frames[at + 1], frames[at + 2], frames[at + 3], frames[at + 4]));
+						output.writeInt(Color.rgb888(frames[at + 5], frames[at + 6], frames[at + 7]));
+						writeCurve(color, frame);
+					}
+				} else {
+					ColorTimeline color = (ColorTimeline) timeline;
+					float[] frames = color.getFrames();
+					output.writeByte(SkeletonBinary.SLOT_COLOR);
+					output.writeInt(color.getFrameCount(), true);
+					for (int frame = 0; frame < color.getFrameCount(); frame++) {
+						int at = frame * ColorTimeline.ENTRIES;
+						output.writeFloat(frames[at]);
+						output.writeInt(Color.rgba8888(frames[at + 1], frames[at + 2], frames[at + 3], frames[at + 4]));
+						writeCurve(color, frame);
+					}
+				}
+			}
+		}
+
+		// Bone timelines
+		int boneCount = data.getBones().size;
+		output.writeInt(countGroups(timelines, boneCount, false), true);
+		for (int bone = 0; bone < boneCount; bone++) {
+			findGroup(timelines, bone, false, group);
+			if (group.size == 0) {
+				continue;
+			}
+			output.writeInt(bone, true);
+			output.writeInt(group.size, true);
+			for (int i = 0; i < group.size; i++) {
+				Timeline timeline = group.get(i);
+				if (timeline instanceof RotateTimeline) {
+					RotateTimeline rotate = (RotateTimeline) timeline;
+					float[] frames = rotate.getFrames();
+					output.writeByte(SkeletonBinary.BONE_ROTATE);
+					output.writeInt(rotate.getFrameCount(), true);
+					for (int frame = 0; frame < rotate.getFrameCount(); frame++) {
+						output.writeFloat(frames[frame * RotateTimeline.ENTRIES]);
+						output.writeFloat(frames[frame * RotateTimeline.ENTRIES + 1]);
+						writeCurve(rotate, frame);
+					}
+				} else {
+					TranslateTimeline translate = (TranslateTimeline) timeline;
+					float[] frames = translate.getFrames();
+					output.writeByte(translate instanceof ScaleTimeline ? SkeletonBinary.BONE_SCALE
+							: translate instanceof ShearTimeline ? SkeletonBinary.BONE_SHEAR : SkeletonBinary.BONE_TRANSLATE);
+					output.writeInt(translate.getFrameCount(), true);
+					for (int frame = 0; frame < translate.getFrameCount(); frame++) {
+						output.writeFloat(frames[frame * TranslateTimeline.ENTRIES]);
+						output.writeFloat(frames[frame * TranslateTimeline.ENTRIES + 1]);
+						output.writeFloat(frames[frame * TranslateTimeline.ENTRIES + 2]);
+						writeCurve(translate, frame);
+					}
+				}
+			}
+		}
+
+		// IK, transform, path and deform timelines were refused above
+		output.writeInt(0, true);
+		output.writeInt(0, true);
+		output.writeInt(0, true);
+		output.writeInt(0, true);
+
+		// Draw order timeline, as the slots that moved and how far
+		if (drawOrder == null) {
+			output.writeInt(0, true);
+		} else {
+			output.writeInt(drawOrder.getFrameCount(), true);
+			for (int frame = 0; frame < drawOrder.getFrameCount(); frame++) {
+				output.writeFloat(drawOrder.getFrames()[frame]);
+				int[] order = drawOrder.getDrawOrders()[frame];
+				int moved = 0;
+				for (int i = 0; order != null && i < order.length; i++) {
+					if (order[i] != i) {
+						moved++;
+					}
+				}
+				output.writeInt(moved, true);
+				// The reader wants the moved slots in slot order, with their offsets
+				for (int slot = 0; order != null && slot < order.length; slot++) {
+					for (int position = 0; position < order.length; position++) {
+						if (order[position] == slot && position != slot) {
+							output.writeInt(slot, true);
+							output.writeInt(position - slot, true);
+						}
+					}
+				}
+			}
+		}
+
+		// Event timeline
+		if (events == null) {
+			output.writeInt(0, true);
+		} else {
+			output.writeInt(events.getFrameCount(), true);
+			for (int frame = 0; frame < events.getFrameCount(); frame++) {
+				Event event = events.getEvents()[frame];
+				output.writeFloat(event.getTime());
+				output.writeInt(data.getEvents().indexOf(event.getData(), true), true);
+				output.writeInt(event.getInt(), false);
+				output.writeFloat(event.getFloat());
+				output.writeBoolean(event.getString() != null);
+				if (event.getString() != null) {
+					writeString(event.getString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns how many slots (or bones) have at least one timeline.
+	 */
+	private int countGroups(Array<Timeline> timelines, int count, boolean slots) {
+		Array<Timeline> group = new Array<>();
+		int groups = 0;
+		for (int i = 0; i < count; i++) {
+			findGroup(timelines, i, slots, group);
+			if (group.size > 0) {
+				groups++;
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Finds the timelines of one slot (or bone), in the order of the animation.
+	 */
+	private void findGroup(Array<Timeline> timelines, int index, boolean slots, Array<Timeline> group) {
+		group.clear();
+		for (int i = 0; i < timelines.size; i++) {
+			Timeline timeline = timelines.get(i);
+			int target = -1;
+			if (slots) {
+				if (timeline instanceof AttachmentTimeline) {
+					target = ((AttachmentTimeline) timeline).getSlotIndex();
+				} else if (timeline instanceof ColorTimeline) {
+					target = ((ColorTimeline) timeline).getSlotIndex();
+				} else if (timeline instanceof TwoColorTimeline) {
+					target = ((TwoColorTimeline) timeline).getSlotIndex();
+				}
+			} else if (timeline instanceof RotateTimeline) {
+				target = ((RotateTimeline) timeline).getBoneIndex();
+			} else if (timeline instanceof TranslateTimeline) {
+				target = ((TranslateTimeline) timeline).getBoneIndex();
+			}
+			if (target == index) {
+				group.add(timeline);
+			}
+		}
+	}
+
+	/**
+	 * Writes the curve between a frame and the next one, unless it is the last frame.
+	 */
+	private void writeCurve(CurveTimeline timeline, int frame) throws IOException {
+		if (frame == timeline.getFrameCount() - 1) {
+			return;
+		}
+		float type = timeline.getCurveType(frame);
+		if (type == CurveTimeline.STEPPED) {
+			output.writeByte(SkeletonBinary.CURVE_STEPPED);
+		} else if (type == CurveTimeline.LINEAR) {
+			output.writeByte(SkeletonBinary.CURVE_LINEAR);
+		} else {
+			// Only the sampled curve is kept after reading, not its control points
+			throw new IllegalArgumentException("Bezier curves cannot be written");
+		}
+	}
+
+	/**
+	 * Writes a string the way {@link SkeletonBinary} reads it: the UTF-8 byte count plus
+	 * one (zero for null), then the bytes.
+	 */
+	private void writeString(String value) throws IOException {
+		if (value == null) {
+			output.writeInt(0, true);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length + 1, true);
+		output.write(bytes);
+	}
+}
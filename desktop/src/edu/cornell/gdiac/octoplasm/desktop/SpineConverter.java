@@ -0,0 +1,133 @@
+package edu.cornell.gdiac.octoplasm.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.attachments.*;
+import edu.cornell.gdiac.assets.SkeletonDataLoader;
+
+import java.util.Arrays;
+
+/**
+ * Converts the Spine JSON exports into the binary format read by {@link SkeletonDataLoader}.
+ *
+ * With no arguments every skeleton under spines/ is converted. Each binary skeleton is read
+ * back and written again to check that nothing was lost, and the time to parse the JSON
+ * and the binary is printed next to the file sizes.
+ *
+ * With the arguments "cold json" or "cold binary", nothing is converted; instead the time
+ * for a fresh JVM to read every skeleton once in that format is printed, which is what the
+ * game pays at start up. Run it once for each format to compare them.
+ *
+ * Run with the assets folder as the working directory (see the convertSpines task).
+ */
+public class SpineConverter {
+	/** How many times to parse each skeleton when timing */
+	private static final int PARSE_ROUNDS = 200;
+
+	public static void main(String[] args) throws Exception {
+		HeadlessLevels.init();
+		Array<FileHandle> skeletons = new Array<>();
+		for (FileHandle folder : Gdx.files.local("spines").list()) {
+			FileHandle json = folder.child("skeleton.json");
+			if (json.exists()) {
+				skeletons.add(json);
+			}
+		}
+
+		if (args.length == 2 && args[0].equals("cold")) {
+			boolean binary = args[1].equals("binary");
+			long start = System.nanoTime();
+			for (FileHandle json : skeletons) {
+				read(json, binary);
+			}
+			System.out.printf("cold %s: %.1f ms for %d skeletons%n", args[1], (System.nanoTime() - start) / 1e6, skeletons.size);
+			return;
+		}
+
+		SkeletonBinaryWriter writer = new SkeletonBinaryWriter();
+		System.out.printf("%-12s %10s %10s %10s %10s%n", "skeleton", "json B", "binary B", "json us", "binary us");
+		for (FileHandle json : skeletons) {
+			FileHandle binary = json.sibling(json.nameWithoutExtension() + SkeletonDataLoader.BINARY_EXTENSION);
+			writer.write(read(json, false), binary);
+
+			// Writing what we read back must give the same bytes
+			FileHandle check = FileHandle.tempFile("skeleton");
+			writer.write(read(json, true), check);
+			boolean same = Arrays.equals(binary.readBytes(), check.readBytes());
+			check.delete();
+			if (!same) {
+				throw new IllegalStateException(json.path() + " did not survive the round trip");
+			}
+
+			long jsonTime = 0, binaryTime = 0;
+			for (int i = 0; i < PARSE_ROUNDS; i++) {
+				long start = System.nanoTime();
+				read(json, false);
+				jsonTime += System.nanoTime() - start;
+				start = System.nanoTime();
+				read(json, true);
+				binaryTime += System.nanoTime() - start;
+			}
+			System.out.printf("%-12s %10d %10d %10.1f %10.1f%n", json.parent().name(), json.length(), binary.length(),
+					jsonTime / 1000.0 / PARSE_ROUNDS, binaryTime / 1000.0 / PARSE_ROUNDS);
+		}
+	}
+
+	/**
+	 * Reads a skeleton without its atlas, which needs a GL context.
+	 *
+	 * @param json the JSON export of the skeleton
+	 * @param binary whether to read the binary export next to it instead
+	 *
+	 * @return the skeleton data
+	 */
+	private static SkeletonData read(FileHandle json, boolean binary) {
+		if (binary) {
+			return new SkeletonBinary(new RegionlessLoader())
+					.readSkeletonData(json.sibling(json.nameWithoutExtension() + SkeletonDataLoader.BINARY_EXTENSION));
+		}
+		return new SkeletonJson(new RegionlessLoader()).readSkeletonData(json);
+	}
+
+	/**
+	 * Creates attachments with an empty texture region, since only their data is needed.
+	 */
+	private static class RegionlessLoader implements AttachmentLoader {
+		/** The region given to every attachment */
+		private TextureRegion region = new TextureRegion();
+
+		public RegionAttachment newRegionAttachment(Skin skin, String name, String path) {
+			RegionAttachment attachment = new RegionAttachment(name);
+			attachment.setRegion(region);
+			return attachment;
+		}
+
+		public MeshAttachment newMeshAttachment(Skin skin, String name, String path) {
+			MeshAttachment attachment = new MeshAttachment(name);
+			attachment.setRegion(region);
+			return attachment;
+		}
+
+		public BoundingBoxAttachment newBoundingBoxAttachment(Skin skin, String name) {
+			return new BoundingBoxAttachment(name);
+		}
+
+		public ClippingAttachment newClippingAttachment(Skin skin, String name) {
+			return new ClippingAttachment(name);
+		}
+
+		public PathAttachment newPathAttachment(Skin skin, String name) {
+			return new PathAttachment(name);
+		}
+
+		public PointAttachment newPointAttachment(Skin skin, String name) {
+			return new PointAttachment(name);
+		}
+	}
+}